@@ -19,6 +19,7 @@
 package org.constellation;
 
 import java.util.List;
+import org.constellation.coverage.ws.rs.AsciiGridWriter;
 import org.constellation.coverage.ws.rs.GridCoverageNCWriter;
 import org.constellation.coverage.ws.rs.GridCoverageWriter;
 import org.constellation.coverage.ws.rs.WCSResponseWriter;
@@ -75,6 +76,7 @@ public class OGCWSControllerConfig extends WebMvcConfigurationSupport {
         converters.add(new WCSResponseWriter());
         converters.add(new GridCoverageNCWriter());
         converters.add(new GridCoverageWriter());
+        converters.add(new AsciiGridWriter());
         converters.add(new PortrayalMessageConverter());
         converters.add(new ProfileMessageConverter());
         converters.add(new RenderedImageWriter());
@@ -18,7 +18,9 @@
  */
 package org.constellation.database.impl.repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import static com.examind.database.api.jooq.Tables.INTERNAL_METADATA;
 import org.constellation.dto.metadata.InternalMetadata;
 import com.examind.database.api.jooq.tables.records.InternalMetadataRecord;
@@ -50,6 +52,20 @@ public class JooqInternalMetadataRepository extends AbstractJooqRespository<Inte
                                .fetchOneInto(com.examind.database.api.jooq.tables.pojos.InternalMetadata.class));
     }
 
+    @Override
+    public List<InternalMetadata> findByMetadataIds(List<String> metadataIds) {
+        if (metadataIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return dsl.select()
+                  .from(INTERNAL_METADATA)
+                  .where(INTERNAL_METADATA.METADATA_ID.in(metadataIds))
+                  .fetchInto(com.examind.database.api.jooq.tables.pojos.InternalMetadata.class)
+                  .stream()
+                  .map(this::convertToDto)
+                  .collect(Collectors.toList());
+    }
+
     @Override
     public boolean existsById(Integer id) {
         return dsl.selectCount().from(INTERNAL_METADATA)
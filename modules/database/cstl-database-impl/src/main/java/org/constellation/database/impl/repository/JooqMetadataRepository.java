@@ -355,6 +355,20 @@ public class JooqMetadataRepository extends AbstractJooqRespository<MetadataReco
         return dsl.fetchCount(query);
     }
 
+    @Override
+    public Long getLastModification(final Collection<Integer> providerIds, final String type) {
+        SelectConditionStep<Record1<Long>> query =
+               dsl.select(METADATA.DATE_CREATION.max()).from(METADATA)
+                  .where(DSL.trueCondition());
+        if (providerIds != null) {
+            query = query.and(METADATA.PROVIDER_ID.in(providerIds));
+        }
+        if (type != null) {
+            query = query.and(METADATA.TYPE.eq(type));
+        }
+        return query.fetchOneInto(Long.class);
+    }
+
     @Override
     public List<String> findMetadataID(final boolean includeService, final boolean onlyPublished, final Integer providerId, final String type,
             final Boolean hidden) {
@@ -485,6 +499,51 @@ public class JooqMetadataRepository extends AbstractJooqRespository<MetadataReco
         return query.fetchOne() != null;
     }
 
+    @Override
+    public Map<String, Integer> findProviderIds(final Collection<String> metadataIDs) {
+        final Map<String, Integer> results = new HashMap<>();
+        if (metadataIDs.isEmpty()) {
+            return results;
+        }
+        dsl.select(METADATA.METADATA_ID, METADATA.PROVIDER_ID).from(METADATA)
+           .where(METADATA.METADATA_ID.in(metadataIDs))
+           .fetch()
+           .forEach(r -> results.put(r.value1(), r.value2()));
+        return results;
+    }
+
+    @Override
+    public List<String> filterLinkedMetadataID(final Collection<String> metadataIDs, final Integer serviceID, final boolean includeService, final boolean onlyPublished) {
+        if (metadataIDs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SelectConditionStep<Record1<String>> query = dsl.select(METADATA.METADATA_ID).from(METADATA, METADATA_X_CSW)
+                  .where(METADATA_X_CSW.METADATA_ID.eq(METADATA.ID))
+                  .and(METADATA_X_CSW.CSW_ID.eq(serviceID))
+                  .and(METADATA.IS_HIDDEN.eq(false))
+                  .and(METADATA.METADATA_ID.in(metadataIDs));
+
+        if (!includeService) {
+            query = query.and(METADATA.SERVICE_ID.isNull());
+        }
+        if (onlyPublished) {
+            query = query.and(METADATA.IS_PUBLISHED.eq(Boolean.TRUE));
+        }
+        return query.fetchInto(String.class);
+    }
+
+    @Override
+    public List<String> filterLinkedMetadataID(final Collection<String> metadataIDs, final Integer serviceID) {
+        if (metadataIDs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return dsl.select(METADATA.METADATA_ID).from(METADATA, METADATA_X_CSW)
+                  .where(METADATA_X_CSW.METADATA_ID.eq(METADATA.ID))
+                  .and(METADATA_X_CSW.CSW_ID.eq(serviceID))
+                  .and(METADATA.METADATA_ID.in(metadataIDs))
+                  .fetchInto(String.class);
+    }
+
     /**
      * Returns a map that contains id of metadata as key and the title of metadata as value.
      * the filterMap passed in arguments is optional and can contains one or multiple filter on each field.
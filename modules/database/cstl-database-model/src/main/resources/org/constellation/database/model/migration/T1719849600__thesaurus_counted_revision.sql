@@ -0,0 +1,3 @@
+-- Revision of the linked CSW content at its last term count.
+-- Allows to skip the count of a catalogue not modified since, even after a restart.
+ALTER TABLE "th_base"."linked_service" ADD COLUMN "counted_revision" character varying(100);
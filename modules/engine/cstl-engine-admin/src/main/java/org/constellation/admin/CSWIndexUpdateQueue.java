@@ -0,0 +1,577 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.constellation.api.ServiceDef;
+import org.constellation.business.ClusterMessage;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+import org.constellation.configuration.ConfigDirectory;
+import org.constellation.exception.ConstellationException;
+import org.constellation.exception.NotRunningServiceException;
+import org.constellation.repository.ServiceRepository;
+import org.constellation.ws.ICSWConfigurer;
+import org.constellation.ws.IWSEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.constellation.business.ClusterMessageConstant.*;
+
+/**
+ * Write-behind queue of the CSW index updates.
+ *
+ * The updates are applied after the commit of the current transaction, by a single background thread.
+ * The successive updates of the same record are coalesced, and the pending updates are written
+ * with one removal and one addition call by CSW instance.
+ *
+ * When the update of a CSW index fails, its records are queued again and retried with an increasing delay,
+ * without delaying the updates of the other CSW. After {@link #MAX_ATTEMPTS} failures, the whole index of the CSW
+ * is rebuilt instead, and if the rebuild fails too, the updates are discarded.
+ * The updates of a CSW which no longer exists are discarded.
+ *
+ * The queued updates are recorded in a journal file of the configuration directory until they are written,
+ * so the updates not written before a shutdown or a crash are applied at the next start.
+ *
+ * If the property {@link AppProperty#EXA_CSW_INDEX_SYNCHRONOUS} is set, the caller waits for its records to be indexed,
+ * at most {@link AppProperty#EXA_CSW_INDEX_SYNCHRONOUS_TIMEOUT} milliseconds.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+@Component
+public class CSWIndexUpdateQueue {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.admin");
+
+    private static final int REMOVE = 1;
+    private static final int ADD    = 2;
+
+    /**
+     * Number of failed updates of a CSW index after which the index is fully rebuilt.
+     * If the rebuild fails too, the updates of the CSW are discarded.
+     */
+    private static final int MAX_ATTEMPTS = 5;
+
+    /**
+     * Delay in milliseconds before the first retry of a failed update, doubled at each new failure.
+     */
+    private static final long RETRY_DELAY = 1000;
+    private static final long MAX_RETRY_DELAY = 60000;
+
+    /**
+     * Delay before the first retry, reduced by the tests.
+     */
+    long retryDelay = RETRY_DELAY;
+
+    /**
+     * Delay in milliseconds before replaying the journal at startup, letting the CSW services start.
+     */
+    private static final long REPLAY_DELAY = 30000;
+
+    /**
+     * Number of journal lines written above the queue size before the journal is compacted.
+     */
+    private static final int JOURNAL_COMPACTION = 10000;
+
+    private static final String JOURNAL_FILE = "csw-index-queue.log";
+
+    @Autowired
+    private IWSEngine wsengine;
+
+    @Autowired
+    private IClusterBusiness clusterBusiness;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    /**
+     * A pending operation on a record, with the time it has been first queued.
+     */
+    private static final class Operation {
+        private int flags;
+        private final long since;
+
+        private Operation(int flags, long since) {
+            this.flags = flags;
+            this.since = since;
+        }
+    }
+
+    /**
+     * Pending operations by CSW identifier, then by metadata identifier.
+     */
+    private final Map<String, Map<String, Operation>> pending = new LinkedHashMap<>();
+
+    /**
+     * Operations removed from the pending map and being written.
+     */
+    private Map<String, Map<String, Operation>> inFlight = Collections.emptyMap();
+
+    /**
+     * Number of consecutive failed updates, and time of the next attempt, by CSW identifier.
+     */
+    private final Map<String, Integer> failures = new HashMap<>();
+    private final Map<String, Long> retryAt = new HashMap<>();
+
+    /**
+     * {@code true} if a flush is submitted to the executor or running.
+     */
+    private boolean running;
+
+    /**
+     * The next retry of the failed updates, if any, and the journal replay at startup.
+     */
+    private ScheduledFuture<?> retry;
+    private ScheduledFuture<?> replay;
+
+    private Path journal;
+    private int journalLines;
+
+    private final boolean synchronous = Application.getBooleanProperty(AppProperty.EXA_CSW_INDEX_SYNCHRONOUS, false);
+
+    private final long synchronousTimeout = Application.getLongProperty(AppProperty.EXA_CSW_INDEX_SYNCHRONOUS_TIMEOUT, 30000L);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "csw-index-update");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Schedule the replay of the journal, once the configuration directory is initialized and the CSW services are started.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        replay = executor.schedule(() -> {
+            synchronized (this) {
+                journal();
+            }
+        }, REPLAY_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Return the journal file. At the first call, queue again the updates recorded in the journal
+     * and not written before the last shutdown.
+     */
+    private Path journal() {
+        if (journal == null) {
+            journal = ConfigDirectory.getConfigDirectory().resolve(JOURNAL_FILE);
+            if (Files.isRegularFile(journal)) {
+                try {
+                    final long now = System.currentTimeMillis();
+                    for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                        final String[] parts = line.split("\t", 3);
+                        if (parts.length == 3) {
+                            merge(pending.computeIfAbsent(parts[1], k -> new LinkedHashMap<>()), parts[2], Integer.parseInt(parts[0]), now);
+                        }
+                    }
+                } catch (IOException | NumberFormatException ex) {
+                    LOGGER.log(Level.WARNING, "Unable to read the CSW index update journal.", ex);
+                }
+                writeJournal();
+                if (!pending.isEmpty()) {
+                    LOGGER.log(Level.INFO, "Replaying {0} CSW index updates not written before the last shutdown.", getSize());
+                    startFlush();
+                }
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Queue an index update of a CSW instance. If a transaction is active, the update is queued only after its commit.
+     *
+     * @param cswIdentifier CSW service identifier.
+     * @param identifierToRemove Identifiers of the metadata to remove from the index.
+     * @param identifierToUpdate Identifiers of the metadata to (re)index.
+     */
+    public void enqueue(final String cswIdentifier, final List<String> identifierToRemove, final List<String> identifierToUpdate) {
+        if (identifierToRemove.isEmpty() && identifierToUpdate.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(cswIdentifier, identifierToRemove, identifierToUpdate);
+                }
+            });
+        } else {
+            submit(cswIdentifier, identifierToRemove, identifierToUpdate);
+        }
+    }
+
+    private void submit(final String cswIdentifier, final List<String> identifierToRemove, final List<String> identifierToUpdate) {
+        final Map<String, Integer> newOperations = new LinkedHashMap<>();
+        for (String id : identifierToRemove) {
+            newOperations.merge(id, REMOVE, (a, b) -> a | b);
+        }
+        for (String id : identifierToUpdate) {
+            newOperations.merge(id, ADD, (a, b) -> a | b);
+        }
+        synchronized (this) {
+            // replay the journal first, its operations are older than this one
+            journal();
+            final long now = System.currentTimeMillis();
+            final Map<String, Operation> operations = pending.computeIfAbsent(cswIdentifier, k -> new LinkedHashMap<>());
+            for (Entry<String, Integer> op : newOperations.entrySet()) {
+                merge(operations, op.getKey(), op.getValue(), now);
+            }
+            appendJournal(cswIdentifier, newOperations);
+            // the updates of a CSW waiting for a retry are written with the retry
+            if (retryAt.getOrDefault(cswIdentifier, 0L) <= now) {
+                startFlush();
+            }
+        }
+        if (synchronous) {
+            try {
+                if (!awaitIndexation(cswIdentifier, newOperations.keySet(), synchronousTimeout)) {
+                    LOGGER.log(Level.WARNING, "The records are not indexed in the CSW {0} after {1} ms, they will be indexed later.",
+                            new Object[]{cswIdentifier, synchronousTimeout});
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Add an operation after the pending operation of the same record:
+     * a removal cancels the pending addition, an addition is applied after the pending removal.
+     */
+    private static void merge(final Map<String, Operation> operations, final String id, final int flags, final long since) {
+        final Operation previous = operations.get(id);
+        if (previous == null) {
+            operations.put(id, new Operation(flags, since));
+        } else {
+            previous.flags = (flags & ADD) != 0 ? previous.flags | flags : flags;
+        }
+    }
+
+    /**
+     * Submit a flush to the executor if none is already submitted. Must be called under the lock.
+     */
+    private void startFlush() {
+        if (!running) {
+            running = true;
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Schedule the flush of the failed updates. Must be called under the lock.
+     */
+    private void scheduleRetry(final long delay) {
+        if (retry != null) {
+            retry.cancel(false);
+        }
+        retry = executor.schedule(() -> {
+            synchronized (this) {
+                retry = null;
+                if (running) return;
+                running = true;
+            }
+            flush();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        while (true) {
+            final Map<String, Map<String, Operation>> batch = new LinkedHashMap<>();
+            final Set<String> rebuild = new HashSet<>();
+            synchronized (this) {
+                final long now = System.currentTimeMillis();
+                long nextAttempt = Long.MAX_VALUE;
+                final Iterator<Entry<String, Map<String, Operation>>> it = pending.entrySet().iterator();
+                while (it.hasNext()) {
+                    final Entry<String, Map<String, Operation>> entry = it.next();
+                    final long at = retryAt.getOrDefault(entry.getKey(), 0L);
+                    if (at <= now) {
+                        batch.put(entry.getKey(), entry.getValue());
+                        if (failures.getOrDefault(entry.getKey(), 0) >= MAX_ATTEMPTS) {
+                            rebuild.add(entry.getKey());
+                        }
+                        it.remove();
+                    } else {
+                        nextAttempt = Math.min(nextAttempt, at);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    running = false;
+                    if (pending.isEmpty()) {
+                        clearJournal();
+                    } else {
+                        // only failed updates remain, wait for the next retry
+                        scheduleRetry(nextAttempt - now);
+                    }
+                    notifyAll();
+                    return;
+                }
+                inFlight = batch;
+            }
+            final Set<String> failed = new HashSet<>();
+            final Set<String> discarded = new HashSet<>();
+            for (Entry<String, Map<String, Operation>> entry : batch.entrySet()) {
+                final List<String> identifierToRemove = new ArrayList<>();
+                final List<String> identifierToUpdate = new ArrayList<>();
+                for (Entry<String, Operation> op : entry.getValue().entrySet()) {
+                    if ((op.getValue().flags & REMOVE) != 0) identifierToRemove.add(op.getKey());
+                    if ((op.getValue().flags & ADD) != 0)    identifierToUpdate.add(op.getKey());
+                }
+                try {
+                    if (serviceRepository.findIdByIdentifierAndType(entry.getKey(), "csw") == null) {
+                        LOGGER.log(Level.INFO, "The CSW {0} no longer exists, its index updates are discarded.", entry.getKey());
+                        discarded.add(entry.getKey());
+                    } else {
+                        refreshCSWIndex(entry.getKey(), identifierToRemove, identifierToUpdate, rebuild.contains(entry.getKey()));
+                    }
+                } catch (Exception ex) {
+                    LOGGER.log(Level.WARNING, "Error while updating the index of the CSW: " + entry.getKey() + ", the update will be retried.", ex);
+                    failed.add(entry.getKey());
+                }
+            }
+            synchronized (this) {
+                for (Entry<String, Map<String, Operation>> entry : batch.entrySet()) {
+                    final String cswIdentifier = entry.getKey();
+                    final int attempts = failed.contains(cswIdentifier) ? failures.merge(cswIdentifier, 1, Integer::sum) : 0;
+                    if (attempts > MAX_ATTEMPTS) {
+                        LOGGER.log(Level.SEVERE, "The index of the CSW {0} could not be updated nor rebuilt, {1} updates are discarded.",
+                                new Object[]{cswIdentifier, entry.getValue().size()});
+                        discarded.add(cswIdentifier);
+                        failures.remove(cswIdentifier);
+                        retryAt.remove(cswIdentifier);
+                    } else if (attempts > 0) {
+                        final long delay = Math.min(retryDelay << Math.min(attempts - 1, 16), MAX_RETRY_DELAY);
+                        retryAt.put(cswIdentifier, System.currentTimeMillis() + delay);
+
+                        // the failed operations are applied before the ones queued meanwhile
+                        final Map<String, Operation> operations = entry.getValue();
+                        final Map<String, Operation> newer = pending.remove(cswIdentifier);
+                        if (newer != null) {
+                            for (Entry<String, Operation> op : newer.entrySet()) {
+                                merge(operations, op.getKey(), op.getValue().flags, op.getValue().since);
+                            }
+                        }
+                        pending.put(cswIdentifier, operations);
+                    } else {
+                        failures.remove(cswIdentifier);
+                        retryAt.remove(cswIdentifier);
+                    }
+                }
+                inFlight = Collections.emptyMap();
+                if (!discarded.isEmpty() || journalLines > getSize() + JOURNAL_COMPACTION) {
+                    writeJournal();
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void refreshCSWIndex(String cswIdentifier, List<String> identifierToRemove, List<String> identifierToUpdate, boolean rebuild) throws ConstellationException {
+        try {
+            ICSWConfigurer configurer = (ICSWConfigurer) wsengine.newInstance(ServiceDef.Specification.CSW);
+            if (rebuild) {
+                LOGGER.log(Level.WARNING, "The index of the CSW {0} failed to be updated {1} times, rebuilding it.", new Object[]{cswIdentifier, MAX_ATTEMPTS});
+                if (!configurer.refreshIndex(cswIdentifier, false, false)) {
+                    throw new ConstellationException("The index of the CSW " + cswIdentifier + " has not been rebuilt.");
+                }
+            } else {
+                configurer.removeFromIndex(cswIdentifier, identifierToRemove);
+                configurer.addToIndex(cswIdentifier, identifierToUpdate);
+            }
+
+            //send refresh message to services
+            final ClusterMessage message = clusterBusiness.createRequest(SRV_MESSAGE_TYPE_ID, false);
+            message.put(KEY_ACTION, SRV_VALUE_ACTION_REFRESH);
+            message.put(SRV_KEY_TYPE, "CSW");
+            message.put(KEY_IDENTIFIER, cswIdentifier);
+            clusterBusiness.publish(message);
+        } catch (NotRunningServiceException ex) {
+            LOGGER.warning("Unable to refresh CSW index.\n" + ex.getMessage());
+        }
+    }
+
+    /**
+     * Record queued operations at the end of the journal.
+     */
+    private void appendJournal(final String cswIdentifier, final Map<String, Integer> operations) {
+        try (BufferedWriter writer = Files.newBufferedWriter(journal(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Entry<String, Integer> op : operations.entrySet()) {
+                writer.write(op.getValue() + "\t" + cswIdentifier + "\t" + op.getKey());
+                writer.newLine();
+                journalLines++;
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to write the CSW index update journal.", ex);
+        }
+    }
+
+    /**
+     * Rewrite the journal with only the operations not written yet.
+     */
+    private void writeJournal() {
+        final List<String> lines = new ArrayList<>();
+        for (Map<String, Map<String, Operation>> operations : List.of(inFlight, pending)) {
+            for (Entry<String, Map<String, Operation>> entry : operations.entrySet()) {
+                for (Entry<String, Operation> op : entry.getValue().entrySet()) {
+                    lines.add(op.getValue().flags + "\t" + entry.getKey() + "\t" + op.getKey());
+                }
+            }
+        }
+        try {
+            if (lines.isEmpty()) {
+                Files.deleteIfExists(journal());
+            } else {
+                Files.write(journal(), lines, StandardCharsets.UTF_8);
+            }
+            journalLines = lines.size();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to write the CSW index update journal.", ex);
+        }
+    }
+
+    private void clearJournal() {
+        try {
+            Files.deleteIfExists(journal());
+            journalLines = 0;
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to clear the CSW index update journal.", ex);
+        }
+    }
+
+    /**
+     * Return the number of metadata waiting to be indexed (pending or being written).
+     */
+    public synchronized int getSize() {
+        int size = 0;
+        for (Map<String, Operation> operations : pending.values())  size += operations.size();
+        for (Map<String, Operation> operations : inFlight.values()) size += operations.size();
+        return size;
+    }
+
+    /**
+     * Return the age in milliseconds of the oldest update not yet written, or {@code 0} if the queue is empty.
+     */
+    public synchronized long getLag() {
+        long oldest = Long.MAX_VALUE;
+        for (Map<String, Map<String, Operation>> operations : List.of(inFlight, pending)) {
+            for (Map<String, Operation> ops : operations.values()) {
+                for (Operation op : ops.values()) {
+                    oldest = Math.min(oldest, op.since);
+                }
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    /**
+     * Wait for all the queued updates to be written in the indexes, or discarded.
+     * The updates recorded in the journal and not replayed yet are included.
+     *
+     * @param timeout Maximum waiting time in milliseconds.
+     * @return {@code true} if the queue is empty, {@code false} if the timeout elapsed before.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public synchronized boolean awaitIndexation(final long timeout) throws InterruptedException {
+        journal();
+        final long end = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+        while (running || !pending.isEmpty() || !inFlight.isEmpty()) {
+            final long remaining = end - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Wait for some records of a CSW to be written in its index, ignoring the other queued updates.
+     *
+     * @return {@code true} if the records are indexed, {@code false} if the timeout elapsed before.
+     */
+    private synchronized boolean awaitIndexation(final String cswIdentifier, final Collection<String> identifiers, final long timeout) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeout;
+        while (isQueued(pending.get(cswIdentifier), identifiers) || isQueued(inFlight.get(cswIdentifier), identifiers)) {
+            final long remaining = end - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    private static boolean isQueued(final Map<String, Operation> operations, final Collection<String> identifiers) {
+        if (operations != null) {
+            for (String id : identifiers) {
+                if (operations.containsKey(id)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop the background thread, letting the current write finish.
+     * The updates not written yet stay in the journal and are applied at the next start.
+     */
+    @PreDestroy
+    public void destroy() {
+        synchronized (this) {
+            // the delayed tasks would otherwise be run before the shutdown
+            if (replay != null) replay.cancel(false);
+            if (retry != null)  retry.cancel(false);
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import javax.sql.DataSource;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+
+/**
+ * Build the cluster business of the application, according to the {@link AppProperty#EXA_CLUSTER_JDBC} property.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class ClusterBusinessFactory {
+
+    private ClusterBusinessFactory() {}
+
+    /**
+     * @param dataSource The configuration database, used if the cluster is shared through the database.
+     * @return A {@link JdbcClusterBusiness} if enabled, a {@link LocalClusterBusiness} otherwise.
+     */
+    public static IClusterBusiness create(final DataSource dataSource) {
+        if (Application.getBooleanProperty(AppProperty.EXA_CLUSTER_JDBC, false)) {
+            return new JdbcClusterBusiness(dataSource);
+        }
+        return new LocalClusterBusiness();
+    }
+}
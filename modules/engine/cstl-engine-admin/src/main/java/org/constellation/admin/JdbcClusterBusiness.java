@@ -0,0 +1,743 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.collection.WeakValueHashMap;
+import org.constellation.business.ClusterMessage;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+import org.constellation.dto.cluster.Cluster;
+import org.constellation.dto.cluster.ClusterMember;
+import org.constellation.dto.service.ServiceComplete;
+import static org.constellation.business.ClusterMessageConstant.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Messaging business shared by several instances through the configuration database.
+ *
+ * The cluster state is stored in a dedicated "cluster" schema, created at startup if needed :
+ * <ul>
+ * <li>"member" : one row per running instance, its heartbeat is updated periodically.</li>
+ * <li>"lock" : one row per acquired lock, the lease is renewed by the heartbeat of its owner.</li>
+ * <li>"event" : the published messages, polled by the other members.</li>
+ * </ul>
+ * The tables are not managed by the database migration, because the migration itself
+ * runs under a cluster lock. The clocks of the members are expected to be synchronized.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class JdbcClusterBusiness extends LocalClusterBusiness {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.admin");
+
+    private static final String SCHEMA       = "cluster";
+    private static final String MEMBER_TABLE = "\"cluster\".\"member\"";
+    private static final String LOCK_TABLE   = "\"cluster\".\"lock\"";
+    private static final String EVENT_TABLE  = "\"cluster\".\"event\"";
+
+    /**
+     * Delay between two attempts to acquire a lock held by an other member.
+     */
+    private static final long LOCK_RETRY = 200;
+
+    /**
+     * Maximum number of missing event identifiers waited for in a single gap.
+     */
+    private static final int MAX_GAP = 1000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final DataSource dataSource;
+
+    private final String address;
+
+    private final long pollInterval;
+
+    private final long memberTimeout;
+
+    /**
+     * Message identifiers must not collide between members, as the responses are matched by identifier.
+     */
+    private final AtomicLong messageInc = new AtomicLong(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE / 2));
+
+    private final WeakValueHashMap<String,JdbcLock> locks = new WeakValueHashMap<>(String.class);
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Deliver the polled events to the local listeners, so a slow listener does not delay the polling.
+     * A single thread keeps the events in their publication order.
+     */
+    private ExecutorService dispatcher;
+
+    private volatile int memberSize = 1;
+
+    /**
+     * Identifier of the last read event, and the smaller identifiers not visible yet (with the time they have been noticed).
+     * Only accessed by the polling thread.
+     */
+    private long lastEventId;
+    private final TreeMap<Long,Long> missingEvents = new TreeMap<>();
+
+    public JdbcClusterBusiness(final DataSource dataSource) {
+        ArgumentChecks.ensureNonNull("dataSource", dataSource);
+        this.dataSource    = dataSource;
+        this.pollInterval  = Application.getLongProperty(AppProperty.EXA_CLUSTER_POLL_INTERVAL, 1000L);
+        this.memberTimeout = Application.getLongProperty(AppProperty.EXA_CLUSTER_MEMBER_TIMEOUT, 30000L);
+        this.address       = memberAddress();
+    }
+
+    private static String memberAddress() {
+        final String url = Application.getProperty(AppProperty.CSTL_URL);
+        if (url != null && !url.isEmpty()) {
+            return url;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return null;
+        }
+    }
+
+    @PostConstruct
+    public void start() throws SQLException {
+        final long now = System.currentTimeMillis();
+        try (Connection c = dataSource.getConnection()) {
+            createTables(c);
+            try (PreparedStatement stmt = c.prepareStatement("INSERT INTO " + MEMBER_TABLE + " (\"uid\", \"address\", \"start_time\", \"heartbeat\") VALUES (?, ?, ?, ?)")) {
+                stmt.setString(1, getMemberUID());
+                stmt.setString(2, address);
+                stmt.setLong(3, now);
+                stmt.setLong(4, now);
+                stmt.executeUpdate();
+            }
+            try (Statement stmt = c.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(\"id\") FROM " + EVENT_TABLE)) {
+                lastEventId = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        heartbeat();
+
+        dispatcher = Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(r, "cluster-dispatch-" + getMemberUID());
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler = Executors.newScheduledThreadPool(2, r -> {
+            final Thread t = new Thread(r, "cluster-" + getMemberUID());
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        final long heartbeatInterval = Math.max(memberTimeout / 3, 1);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+        LOGGER.log(Level.INFO, "Cluster member {0} started ({1} members)", new Object[]{getMemberUID(), memberSize});
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            dispatcher = null;
+        }
+        try (Connection c = dataSource.getConnection()) {
+            try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + LOCK_TABLE + " WHERE \"owner\" = ?")) {
+                stmt.setString(1, getMemberUID());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + MEMBER_TABLE + " WHERE \"uid\" = ?")) {
+                stmt.setString(1, getMemberUID());
+                stmt.executeUpdate();
+            }
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Error while leaving the cluster", ex);
+        }
+    }
+
+    private static void createTables(final Connection c) throws SQLException {
+        if (!schemaExists(c)) {
+            try (Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE SCHEMA \"" + SCHEMA + "\"");
+            } catch (SQLException ex) {
+                // an other member may have created it concurrently
+                if (!schemaExists(c)) throw ex;
+            }
+        }
+        createTable(c, "member", "CREATE TABLE " + MEMBER_TABLE + " ("
+                + "\"uid\" VARCHAR(64) NOT NULL PRIMARY KEY, "
+                + "\"address\" VARCHAR(1000), "
+                + "\"start_time\" BIGINT NOT NULL, "
+                + "\"heartbeat\" BIGINT NOT NULL)");
+        createTable(c, "lock", "CREATE TABLE " + LOCK_TABLE + " ("
+                + "\"name\" VARCHAR(1000) NOT NULL PRIMARY KEY, "
+                + "\"owner\" VARCHAR(64) NOT NULL, "
+                + "\"expiration\" BIGINT NOT NULL)");
+        createTable(c, "event", "CREATE TABLE " + EVENT_TABLE + " ("
+                + "\"id\" BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "\"publisher\" VARCHAR(64) NOT NULL, "
+                + "\"content\" VARCHAR(1048576) NOT NULL, "
+                + "\"creation\" BIGINT NOT NULL)");
+    }
+
+    private static boolean schemaExists(final Connection c) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getSchemas(null, SCHEMA)) {
+            return rs.next();
+        }
+    }
+
+    private static void createTable(final Connection c, final String table, final String ddl) throws SQLException {
+        if (!tableExists(c, table)) {
+            try (Statement stmt = c.createStatement()) {
+                stmt.execute(ddl);
+            } catch (SQLException ex) {
+                // an other member may have created it concurrently
+                if (!tableExists(c, table)) throw ex;
+            }
+        }
+    }
+
+    private static boolean tableExists(final Connection c, final String table) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getTables(null, SCHEMA, table, null)) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Update the heartbeat of this member and the lease of its locks, then remove the lost members,
+     * their locks and the old events.
+     */
+    private void heartbeat() {
+        final long now = System.currentTimeMillis();
+        try (Connection c = dataSource.getConnection()) {
+            final int updated;
+            try (PreparedStatement stmt = c.prepareStatement("UPDATE " + MEMBER_TABLE + " SET \"heartbeat\" = ? WHERE \"uid\" = ?")) {
+                stmt.setLong(1, now);
+                stmt.setString(2, getMemberUID());
+                updated = stmt.executeUpdate();
+            }
+            if (updated == 0) {
+                // this member has been considered as lost (long pause, database unreachable)
+                LOGGER.log(Level.WARNING, "Cluster member {0} registered again", getMemberUID());
+                try (PreparedStatement stmt = c.prepareStatement("INSERT INTO " + MEMBER_TABLE + " (\"uid\", \"address\", \"start_time\", \"heartbeat\") VALUES (?, ?, ?, ?)")) {
+                    stmt.setString(1, getMemberUID());
+                    stmt.setString(2, address);
+                    stmt.setLong(3, now);
+                    stmt.setLong(4, now);
+                    stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement stmt = c.prepareStatement("UPDATE " + LOCK_TABLE + " SET \"expiration\" = ? WHERE \"owner\" = ?")) {
+                stmt.setLong(1, now + memberTimeout);
+                stmt.setString(2, getMemberUID());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + MEMBER_TABLE + " WHERE \"heartbeat\" < ?")) {
+                stmt.setLong(1, now - memberTimeout);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + LOCK_TABLE + " WHERE \"expiration\" < ?")) {
+                stmt.setLong(1, now);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + EVENT_TABLE + " WHERE \"creation\" < ?")) {
+                stmt.setLong(1, now - 2 * memberTimeout);
+                stmt.executeUpdate();
+            }
+            try (Statement stmt = c.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + MEMBER_TABLE)) {
+                if (rs.next()) {
+                    memberSize = Math.max(rs.getInt(1), 1);
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Error while updating the cluster heartbeat", ex);
+        }
+    }
+
+    /**
+     * Dispatch the events published by the other members since the last poll.
+     *
+     * The identifiers are allocated before the commit of the events, an identifier skipped by the poll
+     * may become visible later. It is looked for during a few polls before being considered as rolled back.
+     */
+    private void poll() {
+        final long now = System.currentTimeMillis();
+        final long from = missingEvents.isEmpty() ? lastEventId : missingEvents.firstKey() - 1;
+        final List<String> contents = new ArrayList<>();
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement stmt = c.prepareStatement("SELECT \"id\", \"publisher\", \"content\" FROM " + EVENT_TABLE + " WHERE \"id\" > ? ORDER BY \"id\"")) {
+            stmt.setLong(1, from);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    final long id = rs.getLong(1);
+                    if (id <= lastEventId) {
+                        if (missingEvents.remove(id) == null) continue;
+                    } else {
+                        if (id - lastEventId <= MAX_GAP) {
+                            for (long i = lastEventId + 1; i < id; i++) {
+                                missingEvents.put(i, now);
+                            }
+                        }
+                        lastEventId = id;
+                    }
+                    if (!getMemberUID().equals(rs.getString(2))) {
+                        contents.add(rs.getString(3));
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Error while polling the cluster events", ex);
+            return;
+        }
+        missingEvents.values().removeIf(noticed -> noticed < now - 10 * pollInterval);
+
+        for (String content : contents) {
+            final ClusterMessage message;
+            try {
+                message = read(content);
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Unreadable cluster event", ex);
+                continue;
+            }
+            // dispatch to the local listeners only
+            dispatcher.execute(() -> dispatch(message));
+        }
+    }
+
+    private void dispatch(final ClusterMessage message) {
+        super.publish(message);
+    }
+
+    @Override
+    public Lock acquireLock(String lockName) {
+        synchronized (locks) {
+            JdbcLock lock = locks.get(lockName);
+            if (lock == null) {
+                lock = new JdbcLock(lockName);
+                locks.put(lockName, lock);
+            }
+            return lock;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the message contains a value which can not be sent to the other members.
+     */
+    @Override
+    public void publish(ClusterMessage message) {
+        final String content;
+        try {
+            content = write(message);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to encode the cluster message " + message.getTypeId(), ex);
+        }
+        super.publish(message);
+        // the other members are notified once the current transaction is committed, a request waiting for responses is sent immediately
+        if (!message.expectResponse() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    insertEvent(message, content);
+                }
+            });
+        } else {
+            insertEvent(message, content);
+        }
+    }
+
+    private void insertEvent(final ClusterMessage message, final String content) {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement stmt = c.prepareStatement("INSERT INTO " + EVENT_TABLE + " (\"publisher\", \"content\", \"creation\") VALUES (?, ?, ?)")) {
+            stmt.setString(1, getMemberUID());
+            stmt.setString(2, content);
+            stmt.setLong(3, System.currentTimeMillis());
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Unable to publish the cluster message " + message.getTypeId(), ex);
+        }
+    }
+
+    @Override
+    public Cluster clusterStatus() {
+        final Map<String,ClusterMember> members = new LinkedHashMap<>();
+        try (Connection c = dataSource.getConnection();
+             Statement stmt = c.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT \"uid\", \"address\" FROM " + MEMBER_TABLE + " ORDER BY \"start_time\"")) {
+            while (rs.next()) {
+                final ClusterMember member = new ClusterMember();
+                member.setSocketAddress(rs.getString(2) != null ? rs.getString(2) : rs.getString(1));
+                members.put(rs.getString(1), member);
+            }
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Unable to read the cluster members", ex);
+        }
+
+        final ClusterMessage request = createRequest(SRV_MESSAGE_TYPE_ID,true);
+        request.put(KEY_ACTION, SRV_VALUE_ACTION_STATUS);
+
+        publishAndWait(request, 10, TimeUnit.SECONDS, new Consumer<ClusterMessage>() {
+            @Override
+            public void accept(ClusterMessage message) {
+                final String who = message.getMemberUID();
+                final ClusterMember member;
+                synchronized (members) {
+                    member = members.computeIfAbsent(who, k -> {
+                        final ClusterMember m = new ClusterMember();
+                        m.setSocketAddress(who);
+                        return m;
+                    });
+                }
+                for (Map.Entry<String,Object> entry : message.entrySet()) {
+                    if (!(entry.getValue() instanceof Map)) continue;
+                    final String spec = entry.getKey();
+                    final Map<String,Boolean> instances = (Map<String,Boolean>) entry.getValue();
+                    for (Map.Entry<String,Boolean> states : instances.entrySet()) {
+                        final ServiceComplete s = new ServiceComplete();
+                        s.setType(spec);
+                        s.setTitle(states.getKey());
+                        s.setStatus(Boolean.TRUE.equals(states.getValue()) ? "STARTED":"STOPPED");
+                        synchronized (member) {
+                            member.getServices().add(s);
+                        }
+                    }
+                }
+            }
+        });
+
+        final Cluster cluster = new Cluster();
+        synchronized (members) {
+            cluster.getMembers().addAll(members.values());
+        }
+        return cluster;
+    }
+
+    @Override
+    public int getMemberSize() {
+        return memberSize;
+    }
+
+    @Override
+    public ClusterMessage createRequest(String typeId, boolean expectResponse) {
+        return new JdbcClusterMessage(getMemberUID(), typeId,
+                (expectResponse?ClusterMessage.Type.REQUEST_WITH_RESPONSE:ClusterMessage.Type.REQUEST_NO_RESPONSE),
+                messageInc.incrementAndGet());
+    }
+
+    /*
+     * Message encoding. The values are written with their type to be read back with the same java class.
+     * Only the null, boolean, number, string, message part, map and collection values are supported.
+     */
+
+    static String write(final ClusterMessage message) throws IOException {
+        final ObjectNode root = MAPPER.createObjectNode();
+        root.put("member", message.getMemberUID());
+        root.put("type", message.getTypeId());
+        root.put("kind", kind(message).name());
+        root.put("uid", message.getMessageUID());
+        root.set("values", writeMap(message));
+        return MAPPER.writeValueAsString(root);
+    }
+
+    private static ClusterMessage.Type kind(final ClusterMessage message) {
+        if (message.isRequest()) {
+            return message.expectResponse() ? ClusterMessage.Type.REQUEST_WITH_RESPONSE : ClusterMessage.Type.REQUEST_NO_RESPONSE;
+        }
+        return ClusterMessage.Type.RESPONSE;
+    }
+
+    private static ObjectNode writeMap(final Map<?,?> map) {
+        final ObjectNode node = MAPPER.createObjectNode();
+        for (Map.Entry<?,?> entry : map.entrySet()) {
+            node.set(String.valueOf(entry.getKey()), writeValue(entry.getValue()));
+        }
+        return node;
+    }
+
+    private static ObjectNode writeValue(final Object value) {
+        final ObjectNode node = MAPPER.createObjectNode();
+        if (value == null) {
+            node.put("t", "n");
+        } else if (value instanceof Boolean b) {
+            node.put("t", "b").put("v", b);
+        } else if (value instanceof Integer i) {
+            node.put("t", "i").put("v", i);
+        } else if (value instanceof Long l) {
+            node.put("t", "l").put("v", l);
+        } else if (value instanceof Float f) {
+            node.put("t", "f").put("v", f);
+        } else if (value instanceof Double d) {
+            node.put("t", "d").put("v", d);
+        } else if (value instanceof String str) {
+            node.put("t", "s").put("v", str);
+        } else if (value instanceof ClusterMessage part) {
+            node.put("t", "p").set("v", writeMap(part));
+        } else if (value instanceof Map<?,?> map) {
+            node.put("t", "m").set("v", writeMap(map));
+        } else if (value instanceof Collection<?> col) {
+            final ArrayNode array = MAPPER.createArrayNode();
+            for (Object o : col) {
+                array.add(writeValue(o));
+            }
+            node.put("t", "c").set("v", array);
+        } else {
+            throw new IllegalArgumentException("Unsupported cluster message value type: " + value.getClass().getName());
+        }
+        return node;
+    }
+
+    static ClusterMessage read(final String content) throws IOException {
+        final JsonNode root = MAPPER.readTree(content);
+        final ClusterMessage message = new JdbcClusterMessage(root.get("member").asText(), root.get("type").asText(),
+                ClusterMessage.Type.valueOf(root.get("kind").asText()), root.get("uid").asLong());
+        readMap(root.get("values"), message, message);
+        return message;
+    }
+
+    private static void readMap(final JsonNode node, final Map<String,Object> map, final ClusterMessage parent) {
+        final Iterator<Map.Entry<String,JsonNode>> it = node.fields();
+        while (it.hasNext()) {
+            final Map.Entry<String,JsonNode> entry = it.next();
+            map.put(entry.getKey(), readValue(entry.getValue(), parent));
+        }
+    }
+
+    private static Object readValue(final JsonNode node, final ClusterMessage parent) {
+        final JsonNode v = node.get("v");
+        switch (node.get("t").asText()) {
+            case "b": return v.asBoolean();
+            case "i": return v.asInt();
+            case "l": return v.asLong();
+            case "f": return (float) v.asDouble();
+            case "d": return v.asDouble();
+            case "s": return v.asText();
+            case "p": {
+                final ClusterMessage part = parent.createPart();
+                readMap(v, part, parent);
+                return part;
+            }
+            case "m": {
+                final Map<String,Object> map = new HashMap<>();
+                readMap(v, map, parent);
+                return map;
+            }
+            case "c": {
+                final List<Object> list = new ArrayList<>();
+                for (JsonNode n : v) {
+                    list.add(readValue(n, parent));
+                }
+                return list;
+            }
+            default: return null;
+        }
+    }
+
+    private static class JdbcClusterMessage extends ClusterMessage {
+        private JdbcClusterMessage(String memberUID, String typeId, Type messageType, long messageUID) {
+            super(memberUID, typeId, messageType);
+            this.messageUID = messageUID;
+        }
+    }
+
+    /**
+     * Lock held by a single thread of the cluster.
+     * The threads of this member are first serialized by a local lock, then the lock is acquired in the database.
+     */
+    private final class JdbcLock implements Lock {
+
+        private final String name;
+
+        private final ReentrantLock local = new ReentrantLock();
+
+        private JdbcLock(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void lock() {
+            local.lock();
+            if (local.getHoldCount() == 1) {
+                boolean interrupted = false;
+                while (!tryAcquire()) {
+                    try {
+                        Thread.sleep(LOCK_RETRY);
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            local.lockInterruptibly();
+            if (local.getHoldCount() == 1) {
+                try {
+                    while (!tryAcquire()) {
+                        Thread.sleep(LOCK_RETRY);
+                    }
+                } catch (InterruptedException ex) {
+                    local.unlock();
+                    throw ex;
+                }
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!local.tryLock()) {
+                return false;
+            }
+            if (local.getHoldCount() == 1 && !tryAcquire()) {
+                local.unlock();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!local.tryLock(time, unit)) {
+                return false;
+            }
+            if (local.getHoldCount() == 1) {
+                try {
+                    while (!tryAcquire()) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            local.unlock();
+                            return false;
+                        }
+                        Thread.sleep(Math.min(LOCK_RETRY, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+                    }
+                } catch (InterruptedException ex) {
+                    local.unlock();
+                    throw ex;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            if (!local.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException("Lock " + name + " is not held by the current thread.");
+            }
+            try {
+                if (local.getHoldCount() == 1) {
+                    release();
+                }
+            } finally {
+                local.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by cluster locks.");
+        }
+
+        /**
+         * Insert the lock row, after removing it if its lease has expired.
+         *
+         * @return {@code true} if the lock has been acquired.
+         */
+        private boolean tryAcquire() {
+            final long now = System.currentTimeMillis();
+            try (Connection c = dataSource.getConnection()) {
+                try (PreparedStatement stmt = c.prepareStatement("DELETE FROM " + LOCK_TABLE + " WHERE \"name\" = ? AND \"expiration\" < ?")) {
+                    stmt.setString(1, name);
+                    stmt.setLong(2, now);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = c.prepareStatement("INSERT INTO " + LOCK_TABLE + " (\"name\", \"owner\", \"expiration\") VALUES (?, ?, ?)")) {
+                    stmt.setString(1, name);
+                    stmt.setString(2, getMemberUID());
+                    stmt.setLong(3, now + memberTimeout);
+                    stmt.executeUpdate();
+                    return true;
+                }
+            } catch (SQLException ex) {
+                // integrity constraint violation : the lock is held by an other member
+                if (ex.getSQLState() == null || !ex.getSQLState().startsWith("23")) {
+                    LOGGER.log(Level.WARNING, "Error while acquiring the cluster lock " + name, ex);
+                }
+                return false;
+            }
+        }
+
+        private void release() {
+            try (Connection c = dataSource.getConnection();
+                 PreparedStatement stmt = c.prepareStatement("DELETE FROM " + LOCK_TABLE + " WHERE \"name\" = ? AND \"owner\" = ?")) {
+                stmt.setString(1, name);
+                stmt.setString(2, getMemberUID());
+                stmt.executeUpdate();
+            } catch (SQLException ex) {
+                // the lease will expire
+                LOGGER.log(Level.WARNING, "Error while releasing the cluster lock " + name, ex);
+            }
+        }
+    }
+}
@@ -336,6 +336,11 @@ public class LayerBusiness implements ILayerBusiness {
 
         final LayerSecurityFilter securityFilter = getSecurityFilter(serviceId);
         final List<Layer> layers   = layerRepository.findByServiceId(serviceId);
+        // fetch all the service data in one query
+        final Map<Integer, Data> datas = new HashMap<>();
+        for (Data d : dataRepository.findByServiceId(serviceId)) {
+            datas.put(d.getId(), d);
+        }
         for (Layer layer : layers) {
             final QName layerName = layer.getName();
             Date version = null;
@@ -343,7 +348,7 @@ public class LayerBusiness implements ILayerBusiness {
               if (layer.getVersion() != null) {
                 version = new Date(layer.getVersion());
             }*/
-            final Data db = dataRepository.findById(layer.getDataId());
+            final Data db = datas.get(layer.getDataId());
             if (db != null) {
                 final GenericName dataName = NamesExt.create(db.getNamespace(), db.getName());
                 if (securityFilter.allowed(login, layer.getId())) {
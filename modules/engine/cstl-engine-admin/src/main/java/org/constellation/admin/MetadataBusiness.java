@@ -24,7 +24,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -52,6 +54,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
@@ -82,7 +86,6 @@ import static org.apache.sis.xml.XML.SCHEMAS;
 import static org.constellation.api.CommonConstants.CSW_CONFIG_ONLY_PUBLISHED;
 import static org.constellation.api.CommonConstants.CSW_CONFIG_PARTIAL;
 import static org.constellation.api.ProviderConstants.INTERNAL_METADATA_PROVIDER;
-import org.constellation.api.ServiceDef;
 import org.constellation.dto.metadata.GroupStatBrief;
 import org.constellation.dto.metadata.OwnerStatBrief;
 import org.constellation.dto.metadata.User;
@@ -111,7 +114,6 @@ import org.constellation.provider.DataProviders;
 import org.constellation.provider.MetadataData;
 import org.constellation.provider.MetadataProvider;
 import org.constellation.util.NodeUtilities;
-import org.constellation.ws.ICSWConfigurer;
 import org.geotoolkit.ebrim.xml.EBRIMMarshallerPool;
 import org.geotoolkit.metadata.dimap.DimapAccessor;
 import org.geotoolkit.util.DomUtilities;
@@ -136,12 +138,10 @@ import org.xml.sax.SAXException;
 
 import static org.constellation.util.NodeUtilities.getMetadataFromNode;
 import static org.constellation.util.NodeUtilities.getNodeFromObject;
-import org.constellation.ws.IWSEngine;
 import org.geotoolkit.storage.DataStores;
 import org.opengis.parameter.ParameterValueGroup;
 import static org.constellation.business.ClusterMessageConstant.*;
 import org.constellation.dto.LinkedProvider;
-import org.constellation.exception.NotRunningServiceException;
 import org.constellation.exception.TargetNotFoundException;
 import org.constellation.util.Util;
 
@@ -205,7 +205,7 @@ public class MetadataBusiness implements IMetadataBusiness {
     protected IProviderBusiness providerBusiness;
 
     @Autowired
-    private IWSEngine wsengine;
+    private CSWIndexUpdateQueue cswIndexQueue;
 
     @Autowired
     private TemplateResolver templateResolver;
@@ -423,6 +423,7 @@ public class MetadataBusiness implements IMetadataBusiness {
         }
 
         updateCSWIndex(Arrays.asList(new MetadataWithState(metadata, previousPublishState, previousHiddenState)), true);
+        fireDataMetadataUpdated(metadata.getDataId());
         return convertToMetadataLightBrief(metadata);
     }
 
@@ -437,6 +438,7 @@ public class MetadataBusiness implements IMetadataBusiness {
                 boolean result = mdProvider.updateMetadata(metadataId, properties);
                 if (result) {
                     updateCSWIndex(Arrays.asList(new MetadataWithState(metadata, metadata.getIsPublished(), metadata.getIsHidden())), true);
+                    fireDataMetadataUpdated(metadata.getDataId());
                 }
                 return result;
             } catch (ConstellationStoreException ex) {
@@ -532,6 +534,30 @@ public class MetadataBusiness implements IMetadataBusiness {
         return count;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The revision combines the number of linked metadata with the last write time of the metadata of the linked providers.
+     * For a partial CSW, the write time of the provider metadata not linked to the CSW is also taken in account,
+     * which may only cause an unnecessary change of revision.
+     */
+    @Override
+    public String getLinkedMetadataRevision(final String cswIdentifier, final boolean partial, final boolean includeService, final boolean onlyPublished, final String type) {
+        final Integer service = serviceRepository.findIdByIdentifierAndType(cswIdentifier, "csw");
+        if (service == null) {
+            return null;
+        }
+        List<Integer> providerIds = null;
+        if (partial) {
+            providerIds = new ArrayList<>();
+            for (LinkedProvider provider : serviceRepository.getLinkedMetadataProvider(service)) {
+                providerIds.add(provider.getId());
+            }
+        }
+        final int count = getLinkedMetadataCount(cswIdentifier, partial, includeService, onlyPublished, type);
+        return count + "|" + metadataRepository.getLastModification(providerIds, type);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -573,6 +599,44 @@ public class MetadataBusiness implements IMetadataBusiness {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Integer> getLinkedMetadataProviders(final Collection<String> metadataIDs, final String cswID, final boolean partial, final boolean includeService, final boolean onlyPublished) {
+        final Map<String, Integer> results = new HashMap<>();
+        final Integer service = serviceRepository.findIdByIdentifierAndType(cswID, "csw");
+        if (service == null || metadataIDs.isEmpty()) {
+            return results;
+        }
+        final Map<String, Integer> providers = metadataRepository.findProviderIds(metadataIDs);
+        // for non-partial CSW, all metadata are linked
+        if (!partial) {
+            return providers;
+        }
+        final Set<Integer> allEntryProviders = new HashSet<>();
+        final Set<Integer> linkedProviders = new HashSet<>();
+        for (LinkedProvider lp : serviceRepository.getLinkedMetadataProvider(service)) {
+            if (lp.isAllEntry()) {
+                allEntryProviders.add(lp.getId());
+            } else {
+                linkedProviders.add(lp.getId());
+            }
+        }
+        final List<String> toCheck = new ArrayList<>();
+        for (Entry<String, Integer> entry : providers.entrySet()) {
+            if (allEntryProviders.contains(entry.getValue())) {
+                results.put(entry.getKey(), entry.getValue());
+            } else if (linkedProviders.contains(entry.getValue())) {
+                toCheck.add(entry.getKey());
+            }
+        }
+        for (String metadataID : metadataRepository.filterLinkedMetadataID(toCheck, service, includeService, onlyPublished)) {
+            results.put(metadataID, providers.get(metadataID));
+        }
+        return results;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -607,7 +671,7 @@ public class MetadataBusiness implements IMetadataBusiness {
                         throw new TargetNotFoundException("Unable to find a metadata:" + metadataId);
                     }
                 }
-                refreshCSWIndex(cswIdentifier, new ArrayList<>(), metadataIds);
+                cswIndexQueue.enqueue(cswIdentifier, new ArrayList<>(), metadataIds);
             }
         } else {
             throw new TargetNotFoundException("Unable to find a csw service:" + cswIdentifier);
@@ -663,7 +727,7 @@ public class MetadataBusiness implements IMetadataBusiness {
                         idToremove.add(metadataId);
                     }
                 }
-                refreshCSWIndex(cswIdentifier, idToremove, new ArrayList<>());
+                cswIndexQueue.enqueue(cswIdentifier, idToremove, new ArrayList<>());
             } else {
                 throw new ConfigurationException("A metadata can not be unlinked from a non-partial CSW.");
             }
@@ -1027,6 +1091,9 @@ public class MetadataBusiness implements IMetadataBusiness {
             attachmentRepository.deleteForMetadata(id);
             metadataRepository.delete(id);
         }
+        for (MetadataWithState metadata : toDelete) {
+            fireDataMetadataUpdated(metadata.getDataId());
+        }
     }
 
     @Override
@@ -1080,9 +1147,25 @@ public class MetadataBusiness implements IMetadataBusiness {
             final List<String> identifierToUpdate = new ArrayList<>();
             boolean needRefresh = false;
 
+            // the provider links are only used by partial CSW, and shared by all the metadata of a provider.
+            final Map<Integer, LinkedProvider> providerLinks = new HashMap<>();
+            final Set<String> linkedMetadata = new HashSet<>();
+            if (partial) {
+                final List<String> toCheck = new ArrayList<>();
+                for (MetadataWithState metadata : metadatas) {
+                    if (!providerLinks.containsKey(metadata.getProviderId())) {
+                        providerLinks.put(metadata.getProviderId(), serviceRepository.isLinkedMetadataProviderAndService(service.getId(), metadata.getProviderId()));
+                    }
+                    final LinkedProvider lp = providerLinks.get(metadata.getProviderId());
+                    if (lp != null && !lp.isAllEntry()) {
+                        toCheck.add(metadata.getMetadataId());
+                    }
+                }
+                linkedMetadata.addAll(metadataRepository.filterLinkedMetadataID(toCheck, service.getId()));
+            }
             for (MetadataWithState metadata : metadatas) {
 
-                LinkedProvider lp = serviceRepository.isLinkedMetadataProviderAndService(service.getId(), metadata.getProviderId());
+                final LinkedProvider lp = providerLinks.get(metadata.getProviderId());
                 
                 /* Matching case :
                  * - The CSW take all the system metadata
@@ -1090,7 +1173,7 @@ public class MetadataBusiness implements IMetadataBusiness {
                  *     -- all the provider's metadata are linked
                  *     -- the specified metadata is linked
                  */
-                if (!partial || (partial && lp != null && (lp.isAllEntry() || metadataRepository.isLinkedMetadata(metadata.getId(), service.getId())))) {
+                if (!partial || (partial && lp != null && (lp.isAllEntry() || linkedMetadata.contains(metadata.getMetadataId())))) {
 
                     if ((!onlyPublished && !metadata.isPreviousHiddenState()) || (onlyPublished && metadata.isPreviousPublishState())) {
                         identifierToRemove.add(metadata.getMetadataId());
@@ -1106,28 +1189,73 @@ public class MetadataBusiness implements IMetadataBusiness {
                 
             }
             if (needRefresh) {
-                refreshCSWIndex(service.getIdentifier(), identifierToRemove, identifierToUpdate);
+                cswIndexQueue.enqueue(service.getIdentifier(), identifierToRemove, identifierToUpdate);
             }
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getCSWIndexQueueState() {
+        final Map<String, Long> state = new HashMap<>();
+        state.put("size", (long) cswIndexQueue.getSize());
+        state.put("lag", cswIndexQueue.getLag());
+        return state;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean awaitCSWIndexation(final long timeout) throws InterruptedException {
+        return cswIndexQueue.awaitIndexation(timeout);
+    }
     
-    private void refreshCSWIndex(String cswIdentifier, List<String> identifierToRemove, List<String> identifierToUpdate) throws ConstellationException {
-        try {
-            ICSWConfigurer configurer = (ICSWConfigurer) wsengine.newInstance(ServiceDef.Specification.CSW);
-            configurer.removeFromIndex(cswIdentifier, identifierToRemove);
-            configurer.addToIndex(cswIdentifier, identifierToUpdate);
+    /**
+     * Notify all the nodes that the metadata of a data has been modified,
+     * in order to discard the metadata overrides they have cached for this data.
+     * The message is sent immediately and once again after the commit of the current transaction,
+     * so a metadata read by a concurrent request before the commit is not kept in cache.
+     *
+     * @param dataId Data identifier, can be {@code null} if the metadata is not linked to a data.
+     */
+    private void fireDataMetadataUpdated(final Integer dataId) {
+        if (dataId != null) {
+            publishDataMetadataUpdated(dataId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        publishDataMetadataUpdated(dataId);
+                    }
+                });
+            }
+        }
+    }
 
-            //send refresh message to services
-            final ClusterMessage message = clusterBusiness.createRequest(SRV_MESSAGE_TYPE_ID, false);
-            message.put(KEY_ACTION, SRV_VALUE_ACTION_REFRESH);
-            message.put(SRV_KEY_TYPE, "CSW");
-            message.put(KEY_IDENTIFIER, cswIdentifier);
-            clusterBusiness.publish(message);
-        } catch (NotRunningServiceException ex) {
-            LOGGER.warning("Unable to refresh CSW index.\n" + ex.getMessage());
+    /**
+     * Notify all the nodes that the metadata of a dataset has been modified,
+     * in order to discard the metadata overrides they have cached for all the data of this dataset.
+     *
+     * @param datasetId Dataset identifier.
+     */
+    private void fireDatasetMetadataUpdated(final int datasetId) {
+        for (boolean hidden : new boolean[] {false, true}) {
+            for (Integer dataId : dataRepository.findIdsByDatasetId(datasetId, true, hidden)) {
+                fireDataMetadataUpdated(dataId);
+            }
         }
     }
 
+    private void publishDataMetadataUpdated(final int dataId) {
+        final ClusterMessage message = clusterBusiness.createRequest(MTD_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, MTD_VALUE_ACTION_DATA_UPDATED);
+        message.put(KEY_IDENTIFIER, dataId);
+        clusterBusiness.publish(message);
+    }
+
     @Override
     public MetadataLists getMetadataCodeLists() {
         final MetadataLists mdList = new MetadataLists();
@@ -2051,6 +2179,7 @@ public class MetadataBusiness implements IMetadataBusiness {
     @Transactional
     public void linkMetadataData(int metadataID, int dataId) {
         metadataRepository.linkMetadataData(metadataID, dataId);
+        fireDataMetadataUpdated(dataId);
     }
 
     @Override
@@ -2058,12 +2187,14 @@ public class MetadataBusiness implements IMetadataBusiness {
     public void unlinkMetadataData(int metadataID, int dataId) {
         // does we need data ID ?
         metadataRepository.unlinkMetadataData(metadataID);
+        fireDataMetadataUpdated(dataId);
     }
 
     @Override
     @Transactional
     public void linkMetadataDataset(int metadataID, int datasetId) {
         metadataRepository.linkMetadataDataset(metadataID, datasetId);
+        fireDatasetMetadataUpdated(datasetId);
     }
 
     @Override
@@ -2071,6 +2202,7 @@ public class MetadataBusiness implements IMetadataBusiness {
     public void unlinkMetadataDataset(int metadataID, int datasetId) {
         // does we need dataset ID ?
         metadataRepository.unlinkMetadataDataset(metadataID);
+        fireDatasetMetadataUpdated(datasetId);
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import java.util.logging.Level;
@@ -33,6 +34,7 @@ import org.apache.sis.referencing.CRS;
 import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.WritableAggregate;
+import org.constellation.api.DataType;
 import org.constellation.api.TilingMode;
 import static org.constellation.api.TilingMode.*;
 import org.constellation.business.IConfigurationBusiness;
@@ -62,6 +64,7 @@ import org.geotoolkit.coverage.xmlstore.XMLCoverageResource;
 import org.geotoolkit.coverage.xmlstore.XMLCoverageStore;
 import org.geotoolkit.coverage.xmlstore.XMLCoverageStoreFactory;
 import org.geotoolkit.map.MapBuilder;
+import org.apache.sis.portrayal.MapItem;
 import org.apache.sis.portrayal.MapLayers;
 import org.constellation.api.ProviderType;
 import org.constellation.provider.CoverageData;
@@ -102,6 +105,8 @@ public class PyramidBusiness implements IPyramidBusiness {
 
     private static final String CONFORM_PREFIX = "conform_";
 
+    private static final String CHECKPOINT_FILE = "pyramid.checkpoint";
+
     @Autowired
     private IProcessBusiness processBusiness;
 
@@ -193,31 +198,11 @@ public class PyramidBusiness implements IPyramidBusiness {
                 continue;
             }
 
-            if (RENDERED.equals(tilingMode)) {
-                //if style is null, a default style will be used in maplayer.
-                Style style = null;
-                try {
-                    final StyleBrief styleB = db.getFirstStyle();
-                    if (styleB != null && styleB.getId() != null) {
-                        style = styleBusiness.getStyle(styleB.getId());
-                    }
-                } catch (Exception ex) {
-                    LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
-                }
-
-                try {
-                    context.getComponents().add(inData.getMapLayer(style));
-                } catch (ConstellationStoreException ex) {
-                    LOGGER.log(Level.WARNING, "Failed to create map layer for data " + ex.getMessage() +  "Moving to next data.", ex);
-                    continue;
-                }
-            } else {
-
-                if (!(inData instanceof CoverageData)) {
-                    throw new ConstellationException("Cannot create pyramid conform for no raster data, it is not supported yet!");
-                }
-                context.getComponents().add(((CoverageData)inData).getMapLayer(null, true));
+            final MapItem layer = createSourceLayer(db, inData, tilingMode);
+            if (layer == null) {
+                continue;
             }
+            context.getComponents().add(layer);
 
             if (globalEnv == null) {
                 globalEnv = new GeneralEnvelope(dataEnv);
@@ -293,6 +278,106 @@ public class PyramidBusiness implements IPyramidBusiness {
         return generatePyramidAndProcess(userId, context, pyramidDataName, tilingMode, crs, globalEnv, tileSize, scales, Arrays.asList(mcDataId));
     }
 
+    /**
+     * Build the layer used to tile a source data of a pyramid.
+     *
+     * @return The layer, or {@code null} if it can not be created for a rendered pyramid.
+     */
+    private MapItem createSourceLayer(DataBrief db, Data inData, TilingMode tilingMode) throws ConstellationException {
+        if (RENDERED.equals(tilingMode)) {
+            //if style is null, a default style will be used in maplayer.
+            Style style = null;
+            try {
+                final StyleBrief styleB = db.getFirstStyle();
+                if (styleB != null && styleB.getId() != null) {
+                    style = styleBusiness.getStyle(styleB.getId());
+                }
+            } catch (Exception ex) {
+                LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
+            }
+
+            try {
+                return inData.getMapLayer(style);
+            } catch (ConstellationStoreException ex) {
+                LOGGER.log(Level.WARNING, "Failed to create map layer for data " + ex.getMessage() +  "Moving to next data.", ex);
+                return null;
+            }
+        } else {
+
+            if (!(inData instanceof CoverageData)) {
+                throw new ConstellationException("Cannot create pyramid conform for no raster data, it is not supported yet!");
+            }
+            return ((CoverageData)inData).getMapLayer(null, true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TilingResult updatePyramid(Integer userId, int pyramidDataId, Envelope envelope, Date timeStart, Date timeEnd) throws ConstellationException {
+
+        // this method need to be executed in a transaction
+        TilingContext t = prepareUpdatePyramid(userId, pyramidDataId, envelope, timeStart, timeEnd);
+
+        //add task in scheduler (previous transaction must be commited)
+        processBusiness.runProcess("Update pyramid tiles.", t.p, t.taskId, userId);
+
+        return new TilingResult(t.taskId, t.pyDataId);
+    }
+
+    @Transactional
+    private TilingContext prepareUpdatePyramid(Integer userId, int pyramidDataId, Envelope envelope, Date timeStart, Date timeEnd) throws ConstellationException {
+        final DataBrief pyBrief = dataBusiness.getDataBrief(pyramidDataId, false, false);
+        final Data pyData = DataProviders.getProviderData(pyramidDataId);
+        if (!(pyData instanceof PyramidData)) {
+            throw new ConstellationException("The data " + pyramidDataId + " is not a pyramid.");
+        }
+        final TilingMode tilingMode = Boolean.TRUE.equals(pyBrief.getRendered()) ? RENDERED : CONFORM;
+
+        // rebuild the map context from the data linked to the pyramid when it was created
+        final List<Integer> sourceIds = dataRepository.getParents(pyramidDataId);
+        if (sourceIds.isEmpty()) {
+            throw new ConstellationException("No source data is linked to the pyramid " + pyramidDataId + ".");
+        }
+        final MapLayers context = MapBuilder.createContext();
+        for (final Integer sourceId : sourceIds) {
+            final Data inData = DataProviders.getProviderData(sourceId);
+            if (inData == null) {
+                LOGGER.log(Level.WARNING, "Data " + sourceId + " does not exist in provider. Moving to next data.");
+                continue;
+            }
+            final MapItem layer;
+            if (DataType.MAPCONTEXT.equals(inData.getDataType())) {
+                // pyramid of a map context, the map context layers are tiled as is, whatever the mode
+                layer = inData.getMapLayer(null);
+            } else {
+                layer = createSourceLayer(dataBusiness.getDataBrief(sourceId, false, true), inData, tilingMode);
+            }
+            if (layer != null) {
+                context.getComponents().add(layer);
+            }
+        }
+        if (context.getComponents().isEmpty()) {
+            throw new ConstellationException("None of the source data of the pyramid " + pyramidDataId + " is available.");
+        }
+
+        final String pyramidIdentifier = providerBusiness.getProvider(pyBrief.getProviderId()).getIdentifier();
+        context.setIdentifier("Update of pyramid " + pyramidIdentifier + ": " + pyBrief.getName());
+        return buildTilingProcess(userId, (PyramidData) pyData, context, tilingMode, pyramidDataId, checkpoint(pyramidIdentifier), envelope, timeStart, timeEnd);
+    }
+
+    /**
+     * Return the file recording the generated tiles in the pyramid directory, so an interrupted tiling can be resumed.
+     */
+    private Path checkpoint(String pyramidIdentifier) throws ConstellationException {
+        try {
+            return configBusiness.getDataIntegratedDirectory(pyramidIdentifier, false).resolve(CHECKPOINT_FILE);
+        } catch (IOException ex) {
+            throw new ConstellationException(ex);
+        }
+    }
+
     private TilingContext generatePyramidAndProcess(Integer userId, final MapLayers context, String pyramidDataName, TilingMode tilingMode, String crs, Envelope globalEnv, int tileSize, double[] scales, List<Integer> dataIds) throws ConstellationException {
         final String prefix      = tilingMode.equals(RENDERED) ? RENDERED_PREFIX : CONFORM_PREFIX;
         String pyramidIdentifier = prefix + UUID.randomUUID().toString();
@@ -331,7 +416,7 @@ public class PyramidBusiness implements IPyramidBusiness {
             throw new ConstellationException("No pyramid data has been created.");
         }
 
-        return buildTilingProcess(userId, (PyramidData) pyData, context, tilingMode, pyDataId);
+        return buildTilingProcess(userId, (PyramidData) pyData, context, tilingMode, pyDataId, checkpoint(pyramidIdentifier), null, null, null);
     }
 
     private static final class TilingContext {
@@ -345,13 +430,18 @@ public class PyramidBusiness implements IPyramidBusiness {
         }
     }
 
-    private TilingContext buildTilingProcess(Integer userId, PyramidData pyData, MapLayers context, TilingMode mode, Integer pyDataId) throws ConstellationException {
+    private TilingContext buildTilingProcess(Integer userId, PyramidData pyData, MapLayers context, TilingMode mode, Integer pyDataId, Path checkpoint,
+            Envelope envelope, Date timeStart, Date timeEnd) throws ConstellationException {
         try {
             final ProcessDescriptor desc = ProcessFinder.getProcessDescriptor("administration", "gen-pyramid");
             final ParameterValueGroup input = desc.getInputDescriptor().createValue();
             input.parameter("mapcontext").setValue(context);
             input.parameter("resource").setValue(pyData.getOrigin());
             input.parameter("mode").setValue(mode.name());
+            input.parameter("checkpoint").setValue(checkpoint);
+            input.parameter("envelope").setValue(envelope);
+            input.parameter("time_start").setValue(timeStart);
+            input.parameter("time_end").setValue(timeEnd);
             final org.geotoolkit.process.Process p = desc.createProcess(input);
 
             //add task in scheduler
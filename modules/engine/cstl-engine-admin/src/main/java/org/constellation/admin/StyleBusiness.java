@@ -43,6 +43,8 @@ import org.opengis.util.FactoryException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.xml.bind.JAXBException;
 import java.io.IOException;
@@ -103,6 +105,9 @@ public class StyleBusiness implements IStyleBusiness {
     @Autowired
     private org.constellation.security.SecurityManager securityManager;
 
+    @Autowired
+    private StyleCache styleCache;
+
     private final StyleXmlIO sldParser = new StyleXmlIO();
 
     private static final MutableStyleFactory SF = (MutableStyleFactory) DefaultFactories.forBuildin(StyleFactory.class);
@@ -207,7 +212,9 @@ public class StyleBusiness implements IStyleBusiness {
             newStyle.setDate(new Date());
             newStyle.setBody(xmlStyle);
             newStyle.setOwnerId(userId);
-            return styleRepository.create(newStyle);
+            final Integer id = styleRepository.create(newStyle);
+            fireStyleUpdated(id);
+            return id;
         } else {
             throw new ConfigurationException("Style is not an instanceof Mutable style");
         }
@@ -295,8 +302,16 @@ public class StyleBusiness implements IStyleBusiness {
      */
     @Override
     public org.opengis.style.Style getStyle(final String providerId, final String styleName) throws TargetNotFoundException {
+        final int provider = nameToId(providerId);
+        final org.opengis.style.Style cached = styleCache.get(provider, styleName);
+        if (cached != null) {
+            return cached;
+        }
+        final long version = styleCache.version();
         final Style style = ensureExistingStyle(providerId, styleName);
-        return parseStyle(style.getName(), style.getBody(), null);
+        final org.opengis.style.Style result = parseStyle(style.getName(), style.getBody(), null);
+        styleCache.put(version, style.getId(), provider, styleName, result);
+        return result;
     }
 
     /**
@@ -317,11 +332,18 @@ public class StyleBusiness implements IStyleBusiness {
      */
     @Override
     public org.opengis.style.Style getStyle(int styleId) throws TargetNotFoundException {
+        final org.opengis.style.Style cached = styleCache.get(styleId);
+        if (cached != null) {
+            return cached;
+        }
+        final long version = styleCache.version();
         Style style = styleRepository.findById(styleId);
         if (style == null) {
             throw new TargetNotFoundException("Style with id" + styleId + " not found.");
         }
-        return parseStyle(style.getName(), style.getBody(), null);
+        final org.opengis.style.Style result = parseStyle(style.getName(), style.getBody(), null);
+        styleCache.put(version, styleId, style.getProviderId(), style.getName(), result);
+        return result;
     }
 
     /**
@@ -363,6 +385,7 @@ public class StyleBusiness implements IStyleBusiness {
             s.setType(getTypeFromMutableStyle((MutableStyle) style));
             s.setName(styleName);
             styleRepository.update(s);
+            fireStyleUpdated(id);
 
             // Force statistics and state to null for each StyledLayer linked to this style.
             // The cron on @LayerStatisticsJob will recompute the statistics for each layer.
@@ -455,7 +478,9 @@ public class StyleBusiness implements IStyleBusiness {
     @Override
     @Transactional
     public int deleteStyle(final int id) throws ConfigurationException {
-        return styleRepository.delete(id);
+        final int result = styleRepository.delete(id);
+        fireStyleUpdated(id);
+        return result;
     }
 
     /**
@@ -464,7 +489,9 @@ public class StyleBusiness implements IStyleBusiness {
     @Override
     @Transactional
     public int deleteAll() throws ConfigurationException {
-        return styleRepository.deleteAll();
+        final int result = styleRepository.deleteAll();
+        fireStyleUpdated(null);
+        return result;
     }
 
     /**
@@ -526,6 +553,48 @@ public class StyleBusiness implements IStyleBusiness {
         request.put(SRV_KEY_TYPE, service.getType());
         request.put(KEY_IDENTIFIER, service.getIdentifier());
         clusterBusiness.publish(request);
+        fireStyleUpdated(null);
+    }
+
+    /**
+     * Discard a style from the parsed styles cached by all the nodes.
+     * The local cache is cleared immediately and once again after the commit of the current transaction,
+     * so a style read by a concurrent request before the commit is not kept.
+     *
+     * @param styleId Style identifier, or {@code null} to discard all the styles.
+     */
+    private void fireStyleUpdated(final Integer styleId) {
+        evictStyle(styleId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictStyle(styleId);
+                    publishStyleUpdated(styleId);
+                }
+            });
+        } else {
+            publishStyleUpdated(styleId);
+        }
+    }
+
+    private void evictStyle(final Integer styleId) {
+        if (styleId != null) {
+            styleCache.evict(styleId);
+        } else {
+            styleCache.clear();
+        }
+    }
+
+    private void publishStyleUpdated(final Integer styleId) {
+        final ClusterMessage message = clusterBusiness.createRequest(STL_MESSAGE_TYPE_ID, false);
+        if (styleId != null) {
+            message.put(KEY_ACTION, STL_VALUE_ACTION_UPDATED);
+            message.put(KEY_IDENTIFIER, styleId);
+        } else {
+            message.put(KEY_ACTION, STL_VALUE_ACTION_CLEAR_CACHE);
+        }
+        clusterBusiness.publish(message);
     }
 
     /**
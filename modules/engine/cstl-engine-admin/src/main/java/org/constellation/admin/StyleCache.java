@@ -0,0 +1,160 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.sis.internal.system.DefaultFactories;
+import org.geotoolkit.style.MutableFeatureTypeStyle;
+import org.geotoolkit.style.MutableRule;
+import org.geotoolkit.style.MutableStyle;
+import org.geotoolkit.style.MutableStyleFactory;
+import org.opengis.style.Style;
+import org.opengis.style.StyleFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed styles, by style identifier and by style name in a provider.
+ *
+ * The cached styles are never exposed: a copy is stored, and each caller get its own copy, which it can modify.
+ * Entries are discarded when the style is modified (see {@link #evict(int)}).
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+@Component
+public class StyleCache {
+
+    private static final MutableStyleFactory SF = (MutableStyleFactory) DefaultFactories.forBuildin(StyleFactory.class);
+
+    private final Map<Integer, Style> styles = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> identifiers = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each eviction, to avoid caching a style read before a concurrent update.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private static String key(final int provider, final String name) {
+        return provider + ":" + name;
+    }
+
+    /**
+     * @return The current version of the cache, to give to {@link #put(long, int, int, String, Style)}.
+     */
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * @param styleId Style identifier.
+     * @return A copy of the parsed style, or {@code null} if it is not in cache.
+     */
+    Style get(final int styleId) {
+        return copy(styles.get(styleId));
+    }
+
+    /**
+     * @param provider Style provider identifier.
+     * @param name Style name.
+     * @return A copy of the parsed style, or {@code null} if it is not in cache.
+     */
+    Style get(final int provider, final String name) {
+        final Integer styleId = identifiers.get(key(provider, name));
+        return styleId != null ? copy(styles.get(styleId)) : null;
+    }
+
+    /**
+     * Cache a copy of a parsed style, unless the cache has been modified since the specified version.
+     *
+     * @param readVersion Version of the cache before the style has been read.
+     * @param styleId Style identifier.
+     * @param provider Style provider identifier.
+     * @param name Style name.
+     * @param style Parsed style.
+     */
+    void put(final long readVersion, final int styleId, final int provider, final String name, final Style style) {
+        if (style == null) {
+            return;
+        }
+        final String key = key(provider, name);
+        final Style cached = copy(style);
+        styles.put(styleId, cached);
+        identifiers.put(key, styleId);
+        if (readVersion != version.get()) {
+            styles.remove(styleId, cached);
+            identifiers.remove(key, styleId);
+        }
+    }
+
+    /**
+     * Copy the mutable parts of a style (the style, its feature type styles and their rules).
+     * The symbolizers, filters and descriptions are immutable, they are shared by the copies.
+     */
+    private static Style copy(final Style style) {
+        if (!(style instanceof MutableStyle source)) {
+            return style;
+        }
+        final MutableStyle copy = SF.style();
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setDefault(source.isDefault());
+        copy.setDefaultSpecification(source.getDefaultSpecification());
+        for (MutableFeatureTypeStyle fts : source.featureTypeStyles()) {
+            final MutableFeatureTypeStyle ftsCopy = SF.featureTypeStyle();
+            ftsCopy.setName(fts.getName());
+            ftsCopy.setDescription(fts.getDescription());
+            ftsCopy.setFeatureInstanceIDs(fts.getFeatureInstanceIDs());
+            ftsCopy.setOnlineResource(fts.getOnlineResource());
+            ftsCopy.featureTypeNames().addAll(fts.featureTypeNames());
+            ftsCopy.semanticTypeIdentifiers().addAll(fts.semanticTypeIdentifiers());
+            for (MutableRule rule : fts.rules()) {
+                final MutableRule ruleCopy = SF.rule(rule.getName(), rule.getDescription(), rule.getLegend(),
+                        rule.getMinScaleDenominator(), rule.getMaxScaleDenominator(), new ArrayList<>(rule.symbolizers()), rule.getFilter());
+                ruleCopy.setElseFilter(rule.isElseFilter());
+                ruleCopy.setOnlineResource(rule.getOnlineResource());
+                ftsCopy.rules().add(ruleCopy);
+            }
+            copy.featureTypeStyles().add(ftsCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Discard the parsed style of the specified identifier.
+     *
+     * @param styleId Style identifier.
+     */
+    public void evict(final int styleId) {
+        version.incrementAndGet();
+        styles.remove(styleId);
+        identifiers.values().removeIf(id -> id == styleId);
+    }
+
+    /**
+     * Discard all the parsed styles.
+     */
+    public void clear() {
+        version.incrementAndGet();
+        styles.clear();
+        identifiers.clear();
+    }
+}
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.constellation.api.ServiceDef;
@@ -52,14 +53,17 @@ public class WSEngine implements IWSEngine {
     private ApplicationContext applicationContext;
 
     /**
-     * A map of service worker.
+     * A map of service worker, by specification.
+     *
+     * The worker maps are immutable snapshots, atomically replaced on each modification.
+     * This way, the worker lookups done for each request never wait for a service (re)start.
      */
-    private final Map<String, Map<String, Worker>> WORKERS_MAP = new HashMap<>();
+    private final ConcurrentMap<String, Map<String, Worker>> WORKERS_MAP = new ConcurrentHashMap<>();
 
     /**
      * A map of service worker state.
      */
-    private final Map<String, Map<String, WorkerState>> WORKERS_STATE_MAP = new HashMap<>();
+    private final ConcurrentMap<String, Map<String, WorkerState>> WORKERS_STATE_MAP = new ConcurrentHashMap<>();
 
     /**
      * A map of the registred OGC services and their endpoint protocols (REST).
@@ -71,73 +75,52 @@ public class WSEngine implements IWSEngine {
      * {@inheritDoc}
      */
     @Override
-    public synchronized Map<String, Worker> getWorkersMap(final String specification) {
-        final Map<String, Worker> result = WORKERS_MAP.get(specification.toLowerCase());
-        if (result == null) {
-            return new HashMap<>();
-        }
-        return new HashMap<>(result);
+    public Map<String, Worker> getWorkersMap(final String specification) {
+        return new HashMap<>(getWorkers(specification));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized int getInstanceSize(final String specification) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap != null) {
-            return workersMap.size();
-        }
-        return 0;
+    public int getInstanceSize(final String specification) {
+        return getWorkers(specification).size();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized boolean serviceInstanceExist(final String specification, final String serviceID) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap != null) {
-            return workersMap.containsKey(serviceID);
-        }
-        return false;
+    public boolean serviceInstanceExist(final String specification, final String serviceID) {
+        return getWorkers(specification).containsKey(serviceID);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Set<String> getInstanceNames(final String specification) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap != null) {
-            return workersMap.keySet();
-        }
-        return Collections.EMPTY_SET;
+    public Set<String> getInstanceNames(final String specification) {
+        return getWorkers(specification).keySet();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized Worker getInstance(final String specification, final String serviceID) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap != null) {
-            return workersMap.get(serviceID);
-        }
-        return null;
+    public Worker getInstance(final String specification, final String serviceID) {
+        return getWorkers(specification).get(serviceID);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void destroyInstances(final String specification) {
+    public void destroyInstances(final String specification) {
         final Map<String, Worker> workersMap = WORKERS_MAP.remove(specification.toLowerCase());
         if (workersMap != null) {
             for (final Worker worker : workersMap.values()) {
                 worker.destroy();
             }
-            workersMap.clear();
         }
     }
 
@@ -145,22 +128,16 @@ public class WSEngine implements IWSEngine {
      * {@inheritDoc}
      */
     @Override
-    public synchronized boolean isSetService(final String specification) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        return workersMap != null;
+    public boolean isSetService(final String specification) {
+        return WORKERS_MAP.containsKey(specification.toLowerCase());
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void addServiceInstance(final String specification, final String serviceID, final Worker instance) {
-        Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap == null) {
-            workersMap = new HashMap<>();
-            WORKERS_MAP.put(specification.toLowerCase(), workersMap);
-        }
-        final Worker oldWorker = workersMap.put(serviceID, instance);
+    public void addServiceInstance(final String specification, final String serviceID, final Worker instance) {
+        final Worker oldWorker = swapWorker(specification, serviceID, instance);
         if (oldWorker != null) {
             LOGGER.log(Level.INFO, "Destroying old worker: {0}({1})", new Object[]{specification.toLowerCase(), serviceID});
             oldWorker.destroy();
@@ -179,9 +156,10 @@ public class WSEngine implements IWSEngine {
      * {@inheritDoc}
      */
     @Override
-    public synchronized Map<String, WorkerState> getWorkerStatus(final String specification) {
-        if (WORKERS_STATE_MAP.containsKey(specification.toLowerCase())) {
-            return new HashMap<>(WORKERS_STATE_MAP.get(specification.toLowerCase()));
+    public Map<String, WorkerState> getWorkerStatus(final String specification) {
+        final Map<String, WorkerState> workersMap = WORKERS_STATE_MAP.get(specification.toLowerCase());
+        if (workersMap != null) {
+            return new HashMap<>(workersMap);
         }
         return new HashMap<>();
     }
@@ -193,8 +171,9 @@ public class WSEngine implements IWSEngine {
     public WorkerState getWorkerStatus(String specification, String serviceID) {
         final Map<String, WorkerState> workersMap = WORKERS_STATE_MAP.get(specification.toLowerCase());
         if (workersMap != null) {
-            if (workersMap.containsKey(serviceID)) {
-                return workersMap.get(serviceID);
+            final WorkerState state = workersMap.get(serviceID);
+            if (state != null) {
+                return state;
             }
         }
         return UNKNOWN;
@@ -202,21 +181,15 @@ public class WSEngine implements IWSEngine {
 
     @Override
     public void updateWorkerStatus(String specification, String serviceID, WorkerState workerState) {
-        final Map<String, WorkerState> workersMap;
-        if (WORKERS_STATE_MAP.containsKey(specification.toLowerCase())) {
-            workersMap = WORKERS_STATE_MAP.get(specification.toLowerCase());
-        } else {
-            workersMap = new HashMap<>();
-            WORKERS_STATE_MAP.put(specification.toLowerCase(), workersMap);
-        }
-        workersMap.put(serviceID, workerState);
+        WORKERS_STATE_MAP.computeIfAbsent(specification.toLowerCase(), k -> new ConcurrentHashMap<>())
+                         .put(serviceID, workerState);
     }
 
     @Override
     public void removeWorkerStatus(String specification, String serviceID) {
-        final Map<String, WorkerState> workersMap;
-        if (WORKERS_STATE_MAP.containsKey(specification.toLowerCase())) {
-            WORKERS_STATE_MAP.get(specification.toLowerCase()).remove(serviceID);
+        final Map<String, WorkerState> workersMap = WORKERS_STATE_MAP.get(specification.toLowerCase());
+        if (workersMap != null) {
+            workersMap.remove(serviceID);
         }
     }
 
@@ -224,13 +197,47 @@ public class WSEngine implements IWSEngine {
      * {@inheritDoc}
      */
     @Override
-    public synchronized void shutdownInstance(final String specification, final String serviceID) {
-        final Map<String, Worker> workersMap = WORKERS_MAP.get(specification.toLowerCase());
-        if (workersMap != null) {
-            final Worker worker = workersMap.get(serviceID);
-            if (worker != null) {
-                worker.destroy();
-                workersMap.remove(serviceID);
+    public void shutdownInstance(final String specification, final String serviceID) {
+        final Worker worker = swapWorker(specification, serviceID, null);
+        if (worker != null) {
+            worker.destroy();
+        }
+    }
+
+    /**
+     * Return the current snapshot of the workers for the specified specification.
+     *
+     * @param specification Service specification (case insensitive).
+     * @return An immutable map of worker by service identifier, never {@code null}.
+     */
+    private Map<String, Worker> getWorkers(final String specification) {
+        return WORKERS_MAP.getOrDefault(specification.toLowerCase(), Collections.emptyMap());
+    }
+
+    /**
+     * Atomically replace the worker map of the specified specification by a new snapshot,
+     * in which the specified worker has been added, replaced or removed.
+     * The previous worker is not destroyed by this method.
+     *
+     * @param specification Service specification (case insensitive).
+     * @param serviceID Service identifier.
+     * @param instance The new worker, or {@code null} to remove the current one.
+     * @return The previous worker, or {@code null}.
+     */
+    private Worker swapWorker(final String specification, final String serviceID, final Worker instance) {
+        final String key = specification.toLowerCase();
+        while (true) {
+            final Map<String, Worker> current = WORKERS_MAP.get(key);
+            if (instance == null && (current == null || !current.containsKey(serviceID))) {
+                return null;
+            }
+            final Map<String, Worker> next = (current == null) ? new HashMap<>() : new HashMap<>(current);
+            final Worker old = (instance == null) ? next.remove(serviceID) : next.put(serviceID, instance);
+            final Map<String, Worker> snapshot = Collections.unmodifiableMap(next);
+            final boolean swapped = (current == null) ? WORKERS_MAP.putIfAbsent(key, snapshot) == null
+                                                      : WORKERS_MAP.replace(key, current, snapshot);
+            if (swapped) {
+                return old;
             }
         }
     }
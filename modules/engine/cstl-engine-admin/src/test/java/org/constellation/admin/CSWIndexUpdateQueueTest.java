@@ -0,0 +1,269 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.configuration.ConfigDirectory;
+import org.constellation.exception.ConfigurationException;
+import org.constellation.repository.ServiceRepository;
+import org.constellation.ws.ICSWConfigurer;
+import org.constellation.ws.IWSEngine;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Test the CSW index update queue against a recording CSW configurer.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class CSWIndexUpdateQueueTest {
+
+    private static Path configDirectory;
+
+    private AnnotationConfigApplicationContext context;
+
+    private CSWIndexUpdateQueue queue;
+
+    /**
+     * Calls received by the configurer, as "method csw identifiers".
+     */
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of remaining failures by CSW, {@code -1} for a CSW which always fails.
+     */
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Latches blocking the indexation of a CSW until they are released.
+     */
+    private final Map<String, CountDownLatch> blockers = new ConcurrentHashMap<>();
+
+    /**
+     * Latches released when the indexation of a CSW starts, and when it succeeds.
+     */
+    private final Map<String, CountDownLatch> started = new ConcurrentHashMap<>();
+    private final Map<String, CountDownLatch> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * Existing CSW services.
+     */
+    private final Set<String> services = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public static void setUpClass() {
+        configDirectory = ConfigDirectory.setupTestEnvironement("CSWIndexUpdateQueueTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        ConfigDirectory.shutdownTestEnvironement();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Files.deleteIfExists(configDirectory.resolve("csw-index-queue.log"));
+        services.addAll(Arrays.asList("csw1", "csw2", "blocked"));
+    }
+
+    @After
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private void start(final long retryDelay) {
+        final ICSWConfigurer configurer = (ICSWConfigurer) Proxy.newProxyInstance(ICSWConfigurer.class.getClassLoader(), new Class<?>[]{ICSWConfigurer.class},
+                (proxy, method, args) -> {
+                    final String id = (String) args[0];
+                    started.getOrDefault(id, new CountDownLatch(1)).countDown();
+                    final CountDownLatch blocker = blockers.get(id);
+                    if (blocker != null) {
+                        blocker.await();
+                    }
+                    final AtomicInteger failure = failures.get(id);
+                    if (failure != null && failure.getAndUpdate(n -> n > 0 ? n - 1 : n) != 0) {
+                        calls.add("failure " + id);
+                        throw new ConfigurationException("index of " + id + " unavailable");
+                    }
+                    if (method.getName().equals("refreshIndex")) {
+                        calls.add("refreshIndex " + id);
+                    } else {
+                        final List<?> identifiers = (List<?>) args[1];
+                        if (!identifiers.isEmpty()) {
+                            calls.add(method.getName() + " " + id + " " + new TreeSet<>(identifiers));
+                        }
+                    }
+                    indexed.getOrDefault(id, new CountDownLatch(1)).countDown();
+                    return true;
+                });
+        final IWSEngine engine = (IWSEngine) Proxy.newProxyInstance(IWSEngine.class.getClassLoader(), new Class<?>[]{IWSEngine.class},
+                (proxy, method, args) -> method.getName().equals("newInstance") ? configurer : null);
+        final ServiceRepository repository = (ServiceRepository) Proxy.newProxyInstance(ServiceRepository.class.getClassLoader(), new Class<?>[]{ServiceRepository.class},
+                (proxy, method, args) -> method.getName().equals("findIdByIdentifierAndType") && services.contains((String) args[0]) ? 1 : null);
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(IWSEngine.class, () -> engine);
+        context.registerBean(ServiceRepository.class, () -> repository);
+        context.registerBean(IClusterBusiness.class, LocalClusterBusiness::new);
+        context.registerBean(CSWIndexUpdateQueue.class);
+        context.refresh();
+        queue = context.getBean(CSWIndexUpdateQueue.class);
+        queue.retryDelay = retryDelay;
+    }
+
+    /**
+     * The successive updates of a record queued while the queue is busy are written in one call.
+     */
+    @Test
+    public void coalescingTest() throws Exception {
+        start(1000);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        blockers.put("blocked", blocker);
+        started.put("blocked", new CountDownLatch(1));
+        queue.enqueue("blocked", List.of(), List.of("x"));
+        Assert.assertTrue(started.get("blocked").await(5, TimeUnit.SECONDS));
+
+        queue.enqueue("csw1", List.of("a"), List.of("a"));
+        queue.enqueue("csw1", List.of("b"), List.of());
+        queue.enqueue("csw1", List.of(), List.of("c"));
+        queue.enqueue("csw1", List.of("c"), List.of());
+        Assert.assertEquals(4, queue.getSize());
+        Assert.assertFalse(queue.awaitIndexation(100));
+
+        blocker.countDown();
+        Assert.assertTrue(queue.awaitIndexation(5000));
+        Assert.assertEquals(0, queue.getSize());
+        Assert.assertEquals(0, queue.getLag());
+        Assert.assertEquals(List.of("addToIndex blocked [x]",
+                                    "removeFromIndex csw1 [a, b, c]",
+                                    "addToIndex csw1 [a]"), calls);
+    }
+
+    /**
+     * A failed update is retried later, without delaying the updates of the other CSW.
+     */
+    @Test
+    public void backoffTest() throws Exception {
+        start(60000);
+        failures.put("csw1", new AtomicInteger(1));
+        started.put("csw1", new CountDownLatch(1));
+        indexed.put("csw2", new CountDownLatch(1));
+        queue.enqueue("csw1", List.of(), List.of("a"));
+        Assert.assertTrue(started.get("csw1").await(5, TimeUnit.SECONDS));
+        queue.enqueue("csw2", List.of(), List.of("b"));
+
+        Assert.assertTrue(indexed.get("csw2").await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(List.of("failure csw1", "addToIndex csw2 [b]"), calls);
+        Assert.assertFalse(queue.awaitIndexation(200));
+        Assert.assertEquals(1, queue.getSize());
+    }
+
+    /**
+     * A failed update is retried until it succeeds.
+     */
+    @Test
+    public void retryTest() throws Exception {
+        start(50);
+        failures.put("csw1", new AtomicInteger(2));
+        queue.enqueue("csw1", List.of(), List.of("a"));
+        queue.enqueue("csw1", List.of(), List.of("b"));
+
+        Assert.assertTrue(queue.awaitIndexation(10000));
+        Assert.assertEquals(List.of("failure csw1", "failure csw1", "addToIndex csw1 [a, b]"), calls);
+    }
+
+    /**
+     * After too many failures, the index is rebuilt, and if the rebuild fails too the updates are discarded.
+     */
+    @Test
+    public void maxAttemptsTest() throws Exception {
+        start(20);
+        failures.put("csw1", new AtomicInteger(-1));
+        queue.enqueue("csw1", List.of(), List.of("a"));
+
+        Assert.assertTrue(queue.awaitIndexation(20000));
+        Assert.assertEquals(0, queue.getSize());
+        // 5 updates then 1 rebuild
+        Assert.assertEquals(6, calls.size());
+        Assert.assertFalse(Files.exists(configDirectory.resolve("csw-index-queue.log")));
+
+        // the next updates of the CSW are written
+        failures.remove("csw1");
+        queue.enqueue("csw1", List.of(), List.of("b"));
+        Assert.assertTrue(queue.awaitIndexation(5000));
+        Assert.assertEquals("addToIndex csw1 [b]", calls.get(calls.size() - 1));
+    }
+
+    /**
+     * The updates of a deleted CSW are discarded.
+     */
+    @Test
+    public void deletedServiceTest() throws Exception {
+        start(1000);
+        queue.enqueue("deleted", List.of("a"), List.of("b"));
+        queue.enqueue("csw1", List.of(), List.of("c"));
+
+        Assert.assertTrue(queue.awaitIndexation(5000));
+        Assert.assertEquals(List.of("addToIndex csw1 [c]"), calls);
+    }
+
+    /**
+     * The updates not written before the last shutdown are replayed from the journal.
+     */
+    @Test
+    public void journalReplayTest() throws Exception {
+        final Path journal = configDirectory.resolve("csw-index-queue.log");
+        final List<String> lines = new ArrayList<>();
+        lines.add("2\tcsw1\ta");
+        lines.add("1\tcsw1\tb");
+        lines.add("3\tcsw2\tc");
+        lines.add("not a valid line");
+        Files.write(journal, lines, StandardCharsets.UTF_8);
+
+        start(1000);
+        Assert.assertTrue(queue.awaitIndexation(5000));
+
+        Assert.assertEquals(Set.of("addToIndex csw1 [a]", "removeFromIndex csw1 [b]", "removeFromIndex csw2 [c]", "addToIndex csw2 [c]"),
+                            new HashSet<>(calls));
+        Assert.assertFalse(Files.exists(journal));
+    }
+}
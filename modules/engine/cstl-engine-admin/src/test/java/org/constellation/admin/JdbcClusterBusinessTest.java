@@ -0,0 +1,276 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.constellation.business.ClusterMessage;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.business.MessageListener;
+import org.constellation.configuration.AppProperty;
+import org.constellation.util.SQLUtilities;
+import static org.constellation.business.ClusterMessageConstant.*;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.style.Style;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Two cluster members, each one in its own Spring context, sharing the same HSQL database.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class JdbcClusterBusinessTest {
+
+    private static final String DB_URL = "jdbc:hsqldb:mem:cluster-test";
+
+    private static AnnotationConfigApplicationContext context1;
+    private static AnnotationConfigApplicationContext context2;
+
+    private static IClusterBusiness member1;
+    private static IClusterBusiness member2;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        System.setProperty(AppProperty.EXA_CLUSTER_POLL_INTERVAL.getKey(), "100");
+        System.setProperty(AppProperty.EXA_CLUSTER_MEMBER_TIMEOUT.getKey(), "3000");
+        context1 = startMember(SQLUtilities.getDataSource(DB_URL));
+        context2 = startMember(SQLUtilities.getDataSource(DB_URL));
+        member1 = context1.getBean(IClusterBusiness.class);
+        member2 = context2.getBean(IClusterBusiness.class);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        if (context1 != null) context1.close();
+        if (context2 != null) context2.close();
+        System.clearProperty(AppProperty.EXA_CLUSTER_POLL_INTERVAL.getKey());
+        System.clearProperty(AppProperty.EXA_CLUSTER_MEMBER_TIMEOUT.getKey());
+    }
+
+    private static AnnotationConfigApplicationContext startMember(final DataSource dataSource) {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean("clusterBusiness", JdbcClusterBusiness.class, () -> new JdbcClusterBusiness(dataSource));
+        context.registerBean(StyleCache.class);
+        context.registerBean(StyleMessageConsumer.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    private static class TestListener extends MessageListener {
+
+        private final IClusterBusiness cluster;
+        private final List<ClusterMessage> received = new CopyOnWriteArrayList<>();
+
+        private TestListener(final IClusterBusiness cluster) {
+            this.cluster = cluster;
+        }
+
+        @Override
+        protected IClusterBusiness getClusterBusiness() {
+            return cluster;
+        }
+
+        @Override
+        protected boolean filter(ClusterMessage event) {
+            return event.isRequest() && "test".equals(event.getTypeId());
+        }
+
+        @Override
+        protected ClusterMessage process(ClusterMessage event) throws Exception {
+            received.add(event);
+            if (event.expectResponse()) {
+                final ClusterMessage response = event.createResponse(cluster);
+                response.put("member", cluster.getMemberUID());
+                return response;
+            }
+            return null;
+        }
+    }
+
+    @Test
+    public void membersTest() throws Exception {
+        Assert.assertNotEquals(member1.getMemberUID(), member2.getMemberUID());
+        waitFor(() -> member1.getMemberSize() == 2 && member2.getMemberSize() == 2);
+    }
+
+    @Test
+    public void publishTest() throws Exception {
+        final TestListener listener1 = new TestListener(member1);
+        final TestListener listener2 = new TestListener(member2);
+        final String id1 = member1.addMessageListener(listener1);
+        final String id2 = member2.addMessageListener(listener2);
+        try {
+            final ClusterMessage message = member1.createRequest("test", false);
+            message.put("identifier", 12);
+            message.put("size", 12L);
+            message.put("name", "style");
+            member1.publish(message);
+
+            // received immediately by the local listener, then by the other member
+            Assert.assertEquals(1, listener1.received.size());
+            waitFor(() -> listener2.received.size() == 1);
+
+            final ClusterMessage received = listener2.received.get(0);
+            Assert.assertEquals(member1.getMemberUID(), received.getMemberUID());
+            Assert.assertEquals(message.getMessageUID(), received.getMessageUID());
+            Assert.assertEquals(Integer.valueOf(12), received.getInteger("identifier", false));
+            Assert.assertEquals(Long.valueOf(12), received.getLong("size", false));
+            Assert.assertEquals("style", received.getString("name", false));
+
+            // no message is delivered twice
+            Thread.sleep(500);
+            Assert.assertEquals(1, listener1.received.size());
+            Assert.assertEquals(1, listener2.received.size());
+        } finally {
+            member1.removeMessageListener(id1);
+            member2.removeMessageListener(id2);
+        }
+    }
+
+    @Test
+    public void responseTest() throws Exception {
+        waitFor(() -> member1.getMemberSize() == 2);
+        final String id1 = member1.addMessageListener(new TestListener(member1));
+        final String id2 = member2.addMessageListener(new TestListener(member2));
+        try {
+            final ClusterMessage request = member1.createRequest("test", true);
+            final List<String> responders = new CopyOnWriteArrayList<>();
+            member1.publishAndWait(request, 10, TimeUnit.SECONDS, response -> responders.add((String) response.get("member")));
+
+            Assert.assertEquals(2, responders.size());
+            Assert.assertTrue(responders.contains(member1.getMemberUID()));
+            Assert.assertTrue(responders.contains(member2.getMemberUID()));
+        } finally {
+            member1.removeMessageListener(id1);
+            member2.removeMessageListener(id2);
+        }
+    }
+
+    /**
+     * A style modified on the first member must be discarded from the style cache of the second one.
+     */
+    @Test
+    public void styleEvictionTest() throws Exception {
+        final StyleCache cache1 = context1.getBean(StyleCache.class);
+        final StyleCache cache2 = context2.getBean(StyleCache.class);
+        final Style style = (Style) Proxy.newProxyInstance(Style.class.getClassLoader(), new Class<?>[]{Style.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals"   -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default         -> null;
+                });
+        cache1.put(cache1.version(), 7, 1, "style7", style);
+        cache2.put(cache2.version(), 7, 1, "style7", style);
+        cache2.put(cache2.version(), 8, 1, "style8", style);
+
+        final ClusterMessage message = member1.createRequest(STL_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, STL_VALUE_ACTION_UPDATED);
+        message.put(KEY_IDENTIFIER, 7);
+        member1.publish(message);
+
+        Assert.assertNull(cache1.get(7));
+        waitFor(() -> cache2.get(7) == null);
+        Assert.assertNull(cache2.get(1, "style7"));
+        Assert.assertSame(style, cache2.get(8));
+    }
+
+    @Test
+    public void lockTest() throws Exception {
+        final Lock lock1 = member1.acquireLock("test-lock");
+        final Lock lock2 = member2.acquireLock("test-lock");
+
+        lock1.lock();
+        try {
+            // reentrant for the owner thread
+            Assert.assertTrue(lock1.tryLock());
+            lock1.unlock();
+
+            Assert.assertFalse(lock2.tryLock());
+            Assert.assertFalse(lock2.tryLock(300, TimeUnit.MILLISECONDS));
+        } finally {
+            lock1.unlock();
+        }
+        Assert.assertTrue(lock2.tryLock());
+        try {
+            Assert.assertFalse(lock1.tryLock());
+        } finally {
+            lock2.unlock();
+        }
+    }
+
+    @Test
+    public void encodingTest() throws Exception {
+        final ClusterMessage message = member1.createRequest("test", true);
+        message.put("boolean", true);
+        message.put("double", 1.5);
+        message.put("float", 2.5f);
+        message.put("null", null);
+        message.put("list", Arrays.asList("a", 1));
+        final Map<String,Boolean> states = new HashMap<>();
+        states.put("default", true);
+        message.put("map", states);
+        final ClusterMessage part = message.createPart();
+        part.put("value", 3L);
+        message.put("part", part);
+
+        final ClusterMessage result = JdbcClusterBusiness.read(JdbcClusterBusiness.write(message));
+        Assert.assertEquals(message.getTypeId(), result.getTypeId());
+        Assert.assertEquals(message.getMessageUID(), result.getMessageUID());
+        Assert.assertTrue(result.expectResponse());
+        Assert.assertEquals(Boolean.TRUE, result.getBoolean("boolean", false));
+        Assert.assertEquals(Double.valueOf(1.5), result.getDouble("double", false));
+        Assert.assertEquals(Float.valueOf(2.5f), result.getFloat("float", false));
+        Assert.assertTrue(result.containsKey("null"));
+        Assert.assertEquals(new ArrayList<>(Arrays.asList("a", 1)), result.get("list"));
+        Assert.assertEquals(states, result.get("map"));
+        Assert.assertEquals(Long.valueOf(3), result.getMap("part", false).getLong("value", false));
+    }
+
+    @Test
+    public void unsupportedValueTest() throws Exception {
+        final ClusterMessage message = member1.createRequest("test", false);
+        message.put("value", new Object());
+        try {
+            member1.publish(message);
+            Assert.fail("A value which can not be sent to the other members must be rejected.");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
@@ -28,8 +28,15 @@ import javax.imageio.ImageIO;
 import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridRoundingMode;
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.tiling.TileMatrix;
 import org.apache.sis.storage.tiling.TileMatrixSet;
+import org.apache.sis.storage.tiling.TileStatus;
+import org.apache.sis.storage.tiling.WritableTileMatrix;
+import org.apache.sis.storage.tiling.WritableTileMatrixSet;
 import org.constellation.api.TaskState;
 import org.constellation.api.TilingMode;
 import org.constellation.dto.DataBrief;
@@ -40,7 +47,9 @@ import org.constellation.provider.DataProvider;
 import org.constellation.provider.DataProviders;
 import org.constellation.test.utils.Order;
 import org.constellation.test.utils.TestEnvironment;
+import org.geotoolkit.storage.multires.TileMatrices;
 import org.geotoolkit.storage.multires.TiledResource;
+import org.geotoolkit.storage.multires.WritableTiledResource;
 import org.geotoolkit.util.NamesExt;
 import org.junit.Assert;
 import org.junit.Test;
@@ -450,4 +459,104 @@ public class PyramidBusinessTest extends AbstractBusinessTest {
         Assert.assertFalse(db.getRendered());
         Assert.assertTrue(db.getHidden());
     }
+
+    /**
+     * Regenerate a dirty area of a conform pyramid, after removing all its tiles:
+     * only the tiles intersecting the dirty area must be written again.
+     */
+    @Test
+    @Order(order=4)
+    public void updatePyramidConformTest() throws Exception {
+        List<Integer> dataIds = new ArrayList<>();
+        dataIds.addAll(providerBusiness.getDataIdsFromProviderId(coverage2PID));
+
+        Assert.assertEquals(1, dataIds.size());
+
+        TilingResult result = pyramidBusiness.pyramidDatas(1, "my_updated_pyramid", dataIds, null, TilingMode.CONFORM, 4);
+        waitForTask(result.getTaskId());
+
+        org.constellation.dto.Data d = dataBusiness.getData(result.getPyramidDataId());
+        Data dd = DataProviders.getProvider(d.getProviderId()).get(d.getNamespace(), d.getName());
+        Assert.assertTrue(dd.getOrigin() instanceof WritableTiledResource);
+        WritableTiledResource mr = (WritableTiledResource) dd.getOrigin();
+
+        Assert.assertEquals(1, mr.getTileMatrixSets().size());
+        WritableTileMatrixSet tms = mr.getTileMatrixSets().iterator().next();
+
+        // remove every tile, and take the central tile of the most detailed level as dirty area.
+        TileMatrix finest = null;
+        for (WritableTileMatrix tm : tms.getTileMatrices().values()) {
+            tm.deleteTiles(null);
+            if (finest == null || TileMatrices.getScale(tm) < TileMatrices.getScale(finest)) {
+                finest = tm;
+            }
+        }
+        Assert.assertNotNull(finest);
+        final GridGeometry finestScheme = finest.getTilingScheme();
+        final GridExtent finestExtent = finestScheme.getExtent();
+        final long cx = (finestExtent.getLow(0) + finestExtent.getHigh(0)) / 2;
+        final long cy = (finestExtent.getLow(1) + finestExtent.getHigh(1)) / 2;
+        final GeneralEnvelope cell = new GeneralEnvelope(2);
+        cell.setRange(0, cx + 0.25, cx + 0.75);
+        cell.setRange(1, cy + 0.25, cy + 0.75);
+        final GeneralEnvelope dirty = Envelopes.transform(finestScheme.getGridToCRS(PixelInCell.CELL_CORNER), cell);
+        dirty.setCoordinateReferenceSystem(finestScheme.getCoordinateReferenceSystem());
+
+        result = pyramidBusiness.updatePyramid(1, result.getPyramidDataId(), dirty, null, null);
+        Assert.assertEquals(d.getId(), result.getPyramidDataId());
+        waitForTask(result.getTaskId());
+
+        for (TileMatrix tm : tms.getTileMatrices().values()) {
+            final GridGeometry scheme = tm.getTilingScheme();
+            final GridExtent expected = scheme.derive().rounding(GridRoundingMode.ENCLOSING).subgrid(dirty).build().getExtent();
+            final GridExtent extent = scheme.getExtent();
+            if (tm == finest) {
+                Assert.assertEquals(1, expected.getSize(0));
+                Assert.assertEquals(1, expected.getSize(1));
+            }
+            for (long x = extent.getLow(0); x <= extent.getHigh(0); x++) {
+                for (long y = extent.getLow(1); y <= extent.getHigh(1); y++) {
+                    final boolean isDirty = x >= expected.getLow(0) && x <= expected.getHigh(0)
+                                         && y >= expected.getLow(1) && y <= expected.getHigh(1);
+                    final TileStatus status = tm.getTileStatus(x, y);
+                    if (isDirty) {
+                        Assert.assertNotEquals("tile " + x + "," + y + " of " + tm.getIdentifier() + " must be generated", TileStatus.MISSING, status);
+                    } else {
+                        Assert.assertEquals("tile " + x + "," + y + " of " + tm.getIdentifier() + " must not be generated", TileStatus.MISSING, status);
+                    }
+                }
+            }
+        }
+    }
+
+    private void waitForTask(Integer taskId) throws Exception {
+        // wait for process to start
+        Thread.sleep(2000);
+
+        // maybe the process is already finished
+        List<Task> tasks = processBusiness.listTaskHistory(taskId, 0, 1);
+        if (tasks.isEmpty()) {
+            tasks = processBusiness.listRunningTasks(taskId, 0, 1);
+            Assert.assertEquals(1, tasks.size());
+
+            int cpt = 0;
+            Task tilingTask = tasks.get(0);
+            while (!tilingTask.getState().equals(TaskState.SUCCEED.name())) {
+                if (tilingTask.getState().equals(TaskState.CANCELLED.name()) ||
+                    tilingTask.getState().equals(TaskState.FAILED.name()) ||
+                    tilingTask.getState().equals(TaskState.PAUSED.name()) ||
+                    tilingTask.getState().equals(TaskState.WARNING.name())) {
+                    throw new Exception("Tiling task does not succeed, final state:" + tilingTask.getState());
+                }
+                if (cpt > 50) {
+                    throw new Exception("Tiling take too much time to finish");
+                }
+                tilingTask = processBusiness.getTask(tilingTask.getIdentifier());
+                Thread.sleep(1000);
+                cpt++;
+            }
+        } else {
+            Assert.assertEquals(TaskState.SUCCEED.name(), tasks.get(0).getState());
+        }
+    }
 }
@@ -18,7 +18,16 @@
  */
 package org.constellation.admin;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.constellation.exception.TargetNotFoundException;
 import org.geotoolkit.style.DefaultMutableStyle;
+import org.geotoolkit.style.MutableStyle;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -49,4 +58,67 @@ public class StyleBusinessTest extends AbstractBusinessTest {
         s = styleBusiness.getStyle("sld-temp", "hauteur du géoïde v2");
         Assert.assertNotNull(s);
     }
+
+    @Test
+    public void concurrentUpdateStyle() throws Exception {
+        DefaultMutableStyle style = new DefaultMutableStyle();
+        style.setName("concurrent-0");
+        final int id = styleBusiness.createStyle("sld-temp", style);
+
+        // the parsed style is cached, but each caller get its own copy
+        org.opengis.style.Style s = styleBusiness.getStyle(id);
+        Assert.assertNotSame(s, styleBusiness.getStyle(id));
+        ((MutableStyle) s).setName("modified");
+        ((MutableStyle) s).featureTypeStyles().clear();
+        Assert.assertEquals("concurrent-0", styleBusiness.getStyle(id).getName());
+        Assert.assertEquals("concurrent-0", styleBusiness.getStyle("sld-temp", "concurrent-0").getName());
+
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            // readers filling the cache while the style is modified
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(pool.submit(() -> {
+                    while (running.get()) {
+                        Assert.assertNotNull(styleBusiness.getStyle(id));
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 1; i <= 20; i++) {
+                final String name = "concurrent-" + i;
+                style = new DefaultMutableStyle();
+                style.setName(name);
+                styleBusiness.updateStyle(id, style);
+
+                // the modification is visible on the next request, whatever the thread
+                Assert.assertEquals(name, pool.submit(() -> styleBusiness.getStyle(id).getName()).get(10, TimeUnit.SECONDS));
+                Assert.assertEquals(name, styleBusiness.getStyle("sld-temp", name).getName());
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            pool.shutdownNow();
+        }
+
+        // the previous name does not resolve anymore
+        try {
+            styleBusiness.getStyle("sld-temp", "concurrent-0");
+            Assert.fail("the style should have been renamed");
+        } catch (TargetNotFoundException ex) {
+            // expected
+        }
+
+        styleBusiness.deleteStyle(id);
+        try {
+            styleBusiness.getStyle(id);
+            Assert.fail("the style should have been deleted");
+        } catch (TargetNotFoundException ex) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.process.admin.renderedpyramid;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.coverage.grid.DisjointExtentException;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridRoundingMode;
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.crs.DefaultTemporalCRS;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.SingleCRS;
+import org.opengis.referencing.crs.TemporalCRS;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Split the generation of a pyramid in blocks of tiles, restricted to the tiles intersecting
+ * a dirty area (an envelope and/or a time range).
+ *
+ * The completed blocks are recorded in a checkpoint file, so an interrupted generation
+ * restarts where it stopped. The checkpoint is only reused by a generation of the same dirty area,
+ * and it is removed when the generation is complete.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+final class IncrementalTileGeneration implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger("com.examind.process.admin.renderedpyramid");
+
+    /**
+     * Number of tiles along each of the two tiled dimensions of a block.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    /**
+     * Part of a tile removed on each side of a block envelope, so that the neighbour tiles
+     * touching the block border are not generated with it.
+     */
+    private static final double TILE_MARGIN = 0.25;
+
+    private static final String SIGNATURE_PREFIX = "# ";
+
+    /**
+     * A block of tiles of a tile matrix.
+     */
+    static final class Block {
+        /**
+         * Key identifying the block in the checkpoint.
+         */
+        final String key;
+
+        /**
+         * Tile indices covered by the block, in the tiling scheme of the tile matrix.
+         */
+        final GridExtent tiles;
+
+        /**
+         * Area to generate, slightly smaller than the tiles of the block.
+         */
+        final Envelope area;
+
+        private Block(String key, GridExtent tiles, Envelope area) {
+            this.key = key;
+            this.tiles = tiles;
+            this.area = area;
+        }
+    }
+
+    private final Envelope envelope;
+    private final Date start;
+    private final Date end;
+    private final Path checkpoint;
+
+    /**
+     * Keys of the blocks already generated.
+     */
+    private final Set<String> completed = new HashSet<>();
+
+    private BufferedWriter writer;
+
+    /**
+     * @param envelope The dirty area, or {@code null} for the whole pyramid.
+     * @param start Start of the dirty time range, or {@code null} if unbounded.
+     * @param end End of the dirty time range, or {@code null} if unbounded.
+     * @param checkpoint File where the completed blocks are recorded, or {@code null} to disable the checkpoint.
+     *
+     * @throws IOException If the checkpoint file can not be read.
+     */
+    IncrementalTileGeneration(final Envelope envelope, final Date start, final Date end, final Path checkpoint) throws IOException {
+        this.envelope   = envelope;
+        this.start      = start;
+        this.end        = end;
+        this.checkpoint = checkpoint;
+        if (checkpoint != null && Files.isRegularFile(checkpoint)) {
+            final List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(SIGNATURE_PREFIX + signature())) {
+                completed.addAll(lines.subList(1, lines.size()));
+                LOGGER.log(Level.INFO, "Resuming pyramid generation, {0} blocks already generated.", completed.size());
+            } else {
+                LOGGER.info("Ignoring a pyramid checkpoint recorded for another area.");
+                Files.delete(checkpoint);
+            }
+        }
+    }
+
+    /**
+     * Identify the dirty area of this generation in the checkpoint.
+     */
+    private String signature() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(envelope != null ? new GeneralEnvelope(envelope).toString() : "ALL");
+        sb.append(' ').append(start != null ? start.getTime() : "-");
+        sb.append(' ').append(end   != null ? end.getTime()   : "-");
+        return sb.toString();
+    }
+
+    /**
+     * Return the blocks of a tile matrix intersecting the dirty area and not generated yet.
+     *
+     * @param tileMatrixSetId Identifier of the tile matrix set.
+     * @param tileMatrixId Identifier of the tile matrix.
+     * @param tilingScheme Tiling scheme of the tile matrix, one cell by tile.
+     *
+     * @throws TransformException If the dirty area can not be expressed in the tiling scheme CRS.
+     */
+    List<Block> plan(final String tileMatrixSetId, final String tileMatrixId, final GridGeometry tilingScheme) throws TransformException {
+        final List<Block> blocks = new ArrayList<>();
+        final GridExtent extent = tilingScheme.getExtent();
+        final GridExtent dirty;
+        if (envelope == null && start == null && end == null) {
+            dirty = extent;
+        } else {
+            final GeneralEnvelope area = dirtyArea(tilingScheme.getCoordinateReferenceSystem());
+            area.intersect(tilingScheme.getEnvelope());
+            if (area.isEmpty()) {
+                return blocks;
+            }
+            try {
+                dirty = tilingScheme.derive()
+                        .rounding(GridRoundingMode.ENCLOSING)
+                        .subgrid(area)
+                        .build().getExtent();
+            } catch (DisjointExtentException ex) {
+                return blocks;
+            }
+        }
+
+        final int dim = extent.getDimension();
+        final long[] origin = extent.getLow().getCoordinateValues();
+        final long[] dirtyLow  = dirty.getLow().getCoordinateValues();
+        final long[] dirtyHigh = dirty.getHigh().getCoordinateValues();
+        // blocks are aligned on the tiling scheme, so their keys does not depend on the dirty area
+        for (long bx = Math.floorDiv(dirtyLow[0] - origin[0], BLOCK_SIZE); bx <= Math.floorDiv(dirtyHigh[0] - origin[0], BLOCK_SIZE); bx++) {
+            for (long by = Math.floorDiv(dirtyLow[1] - origin[1], BLOCK_SIZE); by <= Math.floorDiv(dirtyHigh[1] - origin[1], BLOCK_SIZE); by++) {
+                final String key = tileMatrixSetId + ' ' + tileMatrixId + ' ' + bx + ',' + by;
+                if (completed.contains(key)) {
+                    continue;
+                }
+                final long[] low  = dirtyLow.clone();
+                final long[] high = dirtyHigh.clone();
+                low[0]  = Math.max(dirtyLow[0],  origin[0] + bx * BLOCK_SIZE);
+                high[0] = Math.min(dirtyHigh[0], origin[0] + (bx + 1) * BLOCK_SIZE - 1);
+                low[1]  = Math.max(dirtyLow[1],  origin[1] + by * BLOCK_SIZE);
+                high[1] = Math.min(dirtyHigh[1], origin[1] + (by + 1) * BLOCK_SIZE - 1);
+
+                final GeneralEnvelope cells = new GeneralEnvelope(dim);
+                for (int i = 0; i < dim; i++) {
+                    cells.setRange(i, low[i] + TILE_MARGIN, high[i] + 1 - TILE_MARGIN);
+                }
+                final GeneralEnvelope area = Envelopes.transform(tilingScheme.getGridToCRS(PixelInCell.CELL_CORNER), cells);
+                area.setCoordinateReferenceSystem(tilingScheme.getCoordinateReferenceSystem());
+                blocks.add(new Block(key, new GridExtent(null, low, high, true), area));
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Express the dirty envelope and time range in the specified CRS.
+     * The dimensions not covered by the dirty area are left infinite.
+     */
+    private GeneralEnvelope dirtyArea(final CoordinateReferenceSystem crs) throws TransformException {
+        final GeneralEnvelope area = new GeneralEnvelope(crs);
+        area.setToInfinite();
+        final CoordinateSystem cs = crs.getCoordinateSystem();
+        if (envelope != null) {
+            if (envelope.getDimension() == cs.getDimension()) {
+                area.setEnvelope(Envelopes.transform(envelope, crs));
+            } else {
+                final SingleCRS horizontal = CRS.getHorizontalComponent(crs);
+                if (horizontal == null) {
+                    throw new TransformException("The pyramid CRS has no horizontal component.");
+                }
+                final Envelope env = Envelopes.transform(envelope, horizontal);
+                final int offset = indexOf(cs, horizontal.getCoordinateSystem());
+                for (int i = 0; i < env.getDimension(); i++) {
+                    area.setRange(offset + i, env.getMinimum(i), env.getMaximum(i));
+                }
+            }
+        }
+        if (start != null || end != null) {
+            final TemporalCRS temporal = CRS.getTemporalComponent(crs);
+            if (temporal != null) {
+                final DefaultTemporalCRS tcrs = DefaultTemporalCRS.castOrCopy(temporal);
+                final int index = indexOf(cs, temporal.getCoordinateSystem());
+                area.setRange(index, start != null ? tcrs.toValue(start) : Double.NEGATIVE_INFINITY,
+                                     end   != null ? tcrs.toValue(end)   : Double.POSITIVE_INFINITY);
+            } else {
+                LOGGER.log(Level.FINE, "Ignoring the time range for the pyramid without temporal dimension.");
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Return the index of the first axis of a component in the full coordinate system.
+     */
+    private static int indexOf(final CoordinateSystem cs, final CoordinateSystem component) throws TransformException {
+        for (int i = 0; i < cs.getDimension(); i++) {
+            if (cs.getAxis(i).equals(component.getAxis(0))) {
+                return i;
+            }
+        }
+        throw new TransformException("Unable to locate the component axes in the pyramid CRS.");
+    }
+
+    /**
+     * Record a generated block in the checkpoint.
+     */
+    void complete(final Block block) throws IOException {
+        completed.add(block.key);
+        if (checkpoint == null) {
+            return;
+        }
+        if (writer == null) {
+            final boolean created = !Files.exists(checkpoint);
+            writer = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (created) {
+                writer.write(SIGNATURE_PREFIX + signature());
+                writer.newLine();
+            }
+        }
+        writer.write(block.key);
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Remove the checkpoint once the whole generation succeed.
+     */
+    void finish() throws IOException {
+        close();
+        if (checkpoint != null) {
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -20,8 +20,12 @@ package com.examind.process.admin.renderedpyramid;
 
 import com.examind.process.admin.AdminProcessDescriptor;
 import com.examind.process.admin.AdminProcessRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import org.apache.sis.measure.NumberRange;
 import org.apache.sis.parameter.ParameterBuilder;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.GridCoverageResource;
@@ -34,6 +38,7 @@ import org.geotoolkit.factory.Hints;
 import org.geotoolkit.image.interpolation.InterpolationCase;
 import org.apache.sis.portrayal.MapLayers;
 import org.apache.sis.portrayal.MapLayer;
+import org.apache.sis.storage.tiling.TileMatrix;
 import org.apache.sis.storage.tiling.WritableTileMatrixSet;
 import org.geotoolkit.process.ProcessException;
 import org.geotoolkit.processing.AbstractProcess;
@@ -41,7 +46,9 @@ import org.geotoolkit.processing.AbstractProcessDescriptor;
 import org.geotoolkit.processing.ForwardProcessListener;
 import org.geotoolkit.storage.coverage.CoverageTileGenerator;
 import org.geotoolkit.storage.coverage.mosaic.AggregatedCoverageResource;
+import org.geotoolkit.storage.multires.TileMatrices;
 import org.geotoolkit.storage.multires.WritableTiledResource;
+import org.opengis.geometry.Envelope;
 import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.parameter.ParameterDescriptorGroup;
 import org.opengis.parameter.ParameterValueGroup;
@@ -61,6 +68,10 @@ public class PyramidProcess extends AbstractProcessDescriptor implements AdminPr
     protected static final ParameterDescriptor<WritableTiledResource> RESOURCE;
     protected static final ParameterDescriptor<InterpolationCase> INTERPOLATION;
     protected static final ParameterDescriptor<String> MODE;
+    protected static final ParameterDescriptor<Envelope> ENVELOPE;
+    protected static final ParameterDescriptor<Date> TIME_START;
+    protected static final ParameterDescriptor<Date> TIME_END;
+    protected static final ParameterDescriptor<Path> CHECKPOINT;
 
 
     private static final ParameterDescriptorGroup INPUT;
@@ -87,8 +98,25 @@ public class PyramidProcess extends AbstractProcessDescriptor implements AdminPr
                 .setRequired(true)
                 .createEnumerated(String.class, new String[]{"CONFORM","RENDERED"},"CONFORM");
 
+        // dirty area, only the tiles intersecting it are generated. if not set, the whole pyramid is generated.
+        ENVELOPE = builder.addName("envelope")
+                .setRequired(false)
+                .create(Envelope.class, null);
 
-        INPUT = builder.addName("input").createGroup(MAPCONTEXT, RESOURCE, INTERPOLATION, MODE);
+        TIME_START = builder.addName("time_start")
+                .setRequired(false)
+                .create(Date.class, null);
+
+        TIME_END = builder.addName("time_end")
+                .setRequired(false)
+                .create(Date.class, null);
+
+        // file recording the generated tiles, allowing to resume an interrupted generation.
+        CHECKPOINT = builder.addName("checkpoint")
+                .setRequired(false)
+                .create(Path.class, null);
+
+        INPUT = builder.addName("input").createGroup(MAPCONTEXT, RESOURCE, INTERPOLATION, MODE, ENVELOPE, TIME_START, TIME_END, CHECKPOINT);
         OUTPUT = builder.addName("output").createGroup();
     }
 
@@ -116,6 +144,10 @@ public class PyramidProcess extends AbstractProcessDescriptor implements AdminPr
             final WritableTiledResource resource = inputParameters.getMandatoryValue(RESOURCE);
             final InterpolationCase interpolation = inputParameters.getMandatoryValue(INTERPOLATION);
             final String mode = inputParameters.getMandatoryValue(MODE);
+            final Envelope envelope = inputParameters.getValue(ENVELOPE);
+            final Date timeStart = inputParameters.getValue(TIME_START);
+            final Date timeEnd = inputParameters.getValue(TIME_END);
+            final Path checkpoint = inputParameters.getValue(CHECKPOINT);
 
             final TileGenerator generator;
             switch (mode) {
@@ -159,12 +191,29 @@ public class PyramidProcess extends AbstractProcessDescriptor implements AdminPr
                 default : throw new ProcessException("Unexpected pyramid mode "+mode, this);
             }
 
-            try {
+            record Job(WritableTileMatrixSet pyramid, double scale, IncrementalTileGeneration.Block block) {}
+
+            try (IncrementalTileGeneration generation = new IncrementalTileGeneration(envelope, timeStart, timeEnd, checkpoint)) {
+                final List<Job> jobs = new ArrayList<>();
                 for (WritableTileMatrixSet pyramid : resource.getTileMatrixSets()) {
-                    final ForwardProcessListener fp = new ForwardProcessListener(this, 1, 99);
-                    generator.generate(pyramid, null, null, fp);
+                    for (TileMatrix matrix : pyramid.getTileMatrices().values()) {
+                        final double scale = TileMatrices.getScale(matrix);
+                        for (IncrementalTileGeneration.Block block : generation.plan(pyramid.getIdentifier().toString(), matrix.getIdentifier().toString(), matrix.getTilingScheme())) {
+                            jobs.add(new Job(pyramid, scale, block));
+                        }
+                    }
+                }
+
+                // generate block by block, one level at a time, recording each generated block in the checkpoint
+                final int nbJobs = jobs.size();
+                for (int i = 0; i < nbJobs; i++) {
+                    final Job job = jobs.get(i);
+                    final ForwardProcessListener fp = new ForwardProcessListener(this, 1 + 98 * i / nbJobs, Math.max(1, 98 / nbJobs));
+                    generator.generate(job.pyramid(), job.block().area, NumberRange.create(job.scale(), true, job.scale(), true), fp);
+                    generation.complete(job.block());
                 }
-            } catch (DataStoreException | InterruptedException ex) {
+                generation.finish();
+            } catch (DataStoreException | InterruptedException | TransformException | IOException ex) {
                 throw new ProcessException(ex.getMessage(), this, ex);
             }
 
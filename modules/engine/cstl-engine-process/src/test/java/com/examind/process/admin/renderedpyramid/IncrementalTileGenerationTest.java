@@ -0,0 +1,159 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.process.admin.renderedpyramid;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridOrientation;
+import org.apache.sis.coverage.grid.GridRoundingMode;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class IncrementalTileGenerationTest {
+
+    /**
+     * Tiling scheme of a small coverage of 40x40 tiles of one degree.
+     */
+    private static GridGeometry tilingScheme() {
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, 0, 40);
+        env.setRange(1, 0, 40);
+        return new GridGeometry(new GridExtent(40, 40), env, GridOrientation.REFLECTION_Y);
+    }
+
+    private static GeneralEnvelope area(double minX, double maxX, double minY, double maxY) {
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.normalizedGeographic());
+        env.setRange(0, minX, maxX);
+        env.setRange(1, minY, maxY);
+        return env;
+    }
+
+    private static long count(List<IncrementalTileGeneration.Block> blocks) {
+        long nb = 0;
+        for (IncrementalTileGeneration.Block block : blocks) {
+            long size = 1;
+            for (int i = 0; i < block.tiles.getDimension(); i++) {
+                size *= block.tiles.getSize(i);
+            }
+            nb += size;
+        }
+        return nb;
+    }
+
+    private static void assertTiles(long[] low, long[] high, IncrementalTileGeneration.Block block) {
+        Assert.assertArrayEquals(low,  block.tiles.getLow().getCoordinateValues());
+        Assert.assertArrayEquals(high, block.tiles.getHigh().getCoordinateValues());
+
+        // the generated area must not reach the neighbour tiles
+        final GridExtent generated = tilingScheme().derive()
+                .rounding(GridRoundingMode.ENCLOSING)
+                .subgrid(block.area)
+                .build().getExtent();
+        Assert.assertArrayEquals(low,  generated.getLow().getCoordinateValues());
+        Assert.assertArrayEquals(high, generated.getHigh().getCoordinateValues());
+    }
+
+    @Test
+    public void fullGenerationTest() throws Exception {
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(null, null, null, null)) {
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(9, blocks.size());
+            Assert.assertEquals(1600, count(blocks));
+            assertTiles(new long[]{0, 0}, new long[]{15, 15}, blocks.get(0));
+            assertTiles(new long[]{32, 32}, new long[]{39, 39}, blocks.get(8));
+        }
+    }
+
+    @Test
+    public void dirtyAreaTest() throws Exception {
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(area(1.5, 3.5, 30.5, 32.5), null, null, null)) {
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(1, blocks.size());
+            assertTiles(new long[]{1, 7}, new long[]{3, 9}, blocks.get(0));
+        }
+
+        // an area overlapping two blocks
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(area(14.5, 17.5, 30.5, 32.5), null, null, null)) {
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(2, blocks.size());
+            Assert.assertEquals(12, count(blocks));
+            assertTiles(new long[]{14, 7}, new long[]{15, 9}, blocks.get(0));
+            assertTiles(new long[]{16, 7}, new long[]{17, 9}, blocks.get(1));
+        }
+
+        // an area outside of the pyramid
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(area(50, 60, 50, 60), null, null, null)) {
+            Assert.assertTrue(generation.plan("tms", "0", tilingScheme()).isEmpty());
+        }
+
+        // the time range is ignored on a pyramid without temporal dimension
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(null, new Date(0), new Date(1000), null)) {
+            Assert.assertEquals(1600, count(generation.plan("tms", "0", tilingScheme())));
+        }
+    }
+
+    @Test
+    public void checkpointTest() throws Exception {
+        final Path checkpoint = Files.createTempDirectory("pyramid").resolve("pyramid.checkpoint");
+
+        // an interrupted generation
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(null, null, null, checkpoint)) {
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(9, blocks.size());
+            for (int i = 0; i < 4; i++) {
+                generation.complete(blocks.get(i));
+            }
+        }
+        Assert.assertTrue(Files.isRegularFile(checkpoint));
+
+        // resumed generation
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(null, null, null, checkpoint)) {
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(5, blocks.size());
+            assertTiles(new long[]{16, 16}, new long[]{31, 31}, blocks.get(0));
+
+            // another tile matrix is not affected
+            Assert.assertEquals(9, generation.plan("tms", "1", tilingScheme()).size());
+
+            generation.complete(blocks.get(0));
+        }
+
+        // a generation of another area does not reuse the checkpoint
+        try (IncrementalTileGeneration generation = new IncrementalTileGeneration(area(1.5, 3.5, 30.5, 32.5), null, null, checkpoint)) {
+            Assert.assertFalse(Files.exists(checkpoint));
+            final List<IncrementalTileGeneration.Block> blocks = generation.plan("tms", "0", tilingScheme());
+            Assert.assertEquals(1, blocks.size());
+            generation.complete(blocks.get(0));
+            Assert.assertTrue(generation.plan("tms", "0", tilingScheme()).isEmpty());
+
+            generation.finish();
+        }
+        Assert.assertFalse(Files.exists(checkpoint));
+    }
+}
@@ -21,6 +21,7 @@ package com.examind.provider.computed;
 import com.examind.image.heatmap.FeatureSetAsPointsCloud;
 import com.examind.image.heatmap.HeatMapImage;
 import com.examind.image.heatmap.HeatMapResource;
+import com.examind.image.heatmap.IndexedPointCloud;
 import com.examind.image.heatmap.PointCloudResource;
 import org.apache.sis.parameter.Parameters;
 import org.apache.sis.storage.DataStoreException;
@@ -96,7 +97,8 @@ public class HeatMapCoverageProvider extends ComputedResourceProvider {
                     .orElseThrow(() -> new ConstellationException("No spring context available"));
             final Data<?> data = getData(repo, dataIds[0]);
             if (data instanceof FeatureData featureData) {
-                return new FeatureSetAsPointsCloud(featureData.getOrigin());
+                // points are loaded once and indexed in memory, instead of querying the feature set for each tile.
+                return new IndexedPointCloud(new FeatureSetAsPointsCloud(featureData.getOrigin()));
             } else {
                 throw new ConfigurationException("A FeatureSet data was expected for HeatMap computation.");
             }
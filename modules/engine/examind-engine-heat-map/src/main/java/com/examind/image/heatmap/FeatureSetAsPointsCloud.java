@@ -153,19 +153,16 @@ public class FeatureSetAsPointsCloud implements PointCloudResource {
 
     /**
      * {@inheritDoc}
-     * WARNING, currently only support sequential execution.
+     * The features are read sequentially, but in parallel mode, each batch can be processed by a different thread.
      */
     @Override
     public Stream<double[]> batch(final Envelope envelope, boolean parallel, int batchSize) throws DataStoreException {
-        if (parallel) throw new UnsupportedOperationException("Current implementation ex");
-
         final var sourceStream = this.subSet(envelope, false);
         final Iterator<? extends Point> iterator = sourceStream.iterator();
         final Spliterator<double[]> chunkIterator = new Spliterator<>() {
 
-            @Override
-            public boolean tryAdvance(Consumer<? super double[]> sink) {
-                if (!iterator.hasNext()) return false;
+            private double[] nextChunk() {
+                if (!iterator.hasNext()) return null;
 
                 double[] chunk = new double[batchSize * 2];
                 for (int i = 0, j = 0; i < batchSize; i++) {
@@ -178,13 +175,25 @@ public class FeatureSetAsPointsCloud implements PointCloudResource {
                     chunk[j++] = c1;
                     chunk[j++] = c2;
                 }
+                return chunk;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super double[]> sink) {
+                final double[] chunk = nextChunk();
+                if (chunk == null) return false;
                 sink.accept(chunk);
                 return true;
             }
 
+            /**
+             * Read the next batch, and hand it over to another thread.
+             */
             @Override
             public Spliterator<double[]> trySplit() {
-                return null;
+                final double[] chunk = nextChunk();
+                if (chunk == null) return null;
+                return Stream.of(chunk).spliterator();
             }
 
             @Override
@@ -199,7 +208,7 @@ public class FeatureSetAsPointsCloud implements PointCloudResource {
 
         };
 
-        return  StreamSupport.stream(chunkIterator, false)
+        return  StreamSupport.stream(chunkIterator, parallel)
                 .onClose(sourceStream::close);
     }
 
@@ -210,10 +219,14 @@ public class FeatureSetAsPointsCloud implements PointCloudResource {
     public Metadata getMetadata() throws DataStoreException { return source.getMetadata(); }
 
     @Override
-    public <T extends StoreEvent> void addListener(Class<T> eventType, StoreListener<? super T> listener) {}
+    public <T extends StoreEvent> void addListener(Class<T> eventType, StoreListener<? super T> listener) {
+        source.addListener(eventType, listener);
+    }
 
     @Override
-    public <T extends StoreEvent> void removeListener(Class<T> eventType, StoreListener<? super T> listener) {}
+    public <T extends StoreEvent> void removeListener(Class<T> eventType, StoreListener<? super T> listener) {
+        source.removeListener(eventType, listener);
+    }
 
     @Override
     public Optional<Envelope> getEnvelope() {
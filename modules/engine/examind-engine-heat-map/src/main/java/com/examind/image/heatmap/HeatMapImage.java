@@ -28,6 +28,8 @@ import org.opengis.referencing.operation.TransformException;
 
 import java.awt.*;
 import java.awt.image.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -125,29 +127,53 @@ public final class HeatMapImage extends ComputedImage {
         }
 
 
-        try (final Stream<double[]> points = this.dataSource.batch(roi, false, BATCH_SIZE)) {
-            var data = new double[getTileWidth() * getTileHeight()];
+        final int tileLength = getTileWidth() * getTileHeight();
+        /*
+         * Each batch is accumulated in a tile array borrowed from a pool, and given back once written.
+         * No more arrays than concurrent threads are created, they are summed at the end.
+         */
+        final Queue<double[]> buffers = new ConcurrentLinkedQueue<>();
+        try (final Stream<double[]> points = this.dataSource.batch(roi, true, BATCH_SIZE)) {
             points.forEach(geoPts -> {
-                final int nbValues = geoPts.length; //it is not necessary equals to BATCH_SIZE/2 for the last chunk
-                if (nbValues < 2) return;
-
-                var packedPts = new double[nbValues];
+                double[] tileData = buffers.poll();
+                if (tileData == null) tileData = new double[tileLength];
                 try {
-                    dataCRSToGridCenter.transform(geoPts, 0, packedPts, 0, nbValues / 2);
-                } catch (TransformException e) {
-                    throw new BackingStoreException("Cannot project data points in image space", e);
-                }
-
-                for (int i = 0; i < packedPts.length; i += 2) {
-                    writeGridPoint(packedPts[i], packedPts[i + 1], data, startXPixel, startYPixel);
+                    writeBatch(geoPts, tileData, startXPixel, startYPixel);
+                } finally {
+                    buffers.offer(tileData);
                 }
             });
+        }
+        double[] data = buffers.poll();
+        if (data == null) data = new double[tileLength];
+        for (double[] other; (other = buffers.poll()) != null;) {
+            sum(data, other);
+        }
+        final DataBufferDouble db = new DataBufferDouble(data, data.length);
+        return WritableRaster.createWritableRaster(getSampleModel(), db, new Point(startXPixel, startYPixel));
+    }
+
+    private void writeBatch(final double[] geoPts, final double[] tileData, final int tileMinX, final int tileMinY) {
+        final int nbValues = geoPts.length; //it is not necessary equals to BATCH_SIZE/2 for the last chunk
+        if (nbValues < 2) return;
+
+        var packedPts = new double[nbValues];
+        try {
+            dataCRSToGridCenter.transform(geoPts, 0, packedPts, 0, nbValues / 2);
+        } catch (TransformException e) {
+            throw new BackingStoreException("Cannot project data points in image space", e);
+        }
 
-            final DataBufferDouble db = new DataBufferDouble(data, data.length);
-            return WritableRaster.createWritableRaster(getSampleModel(), db, new Point(startXPixel, startYPixel));
+        for (int i = 0; i < packedPts.length; i += 2) {
+            writeGridPoint(packedPts[i], packedPts[i + 1], tileData, tileMinX, tileMinY);
         }
     }
 
+    private static void sum(final double[] target, final double[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += other[i];
+        }
+    }
 
     private void writeGridPoint(double x, double y, double[] tileData, final int tileMinX, final int tileMinY) {
 
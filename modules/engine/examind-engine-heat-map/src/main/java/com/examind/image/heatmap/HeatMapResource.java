@@ -47,7 +47,7 @@ import java.awt.*;
 import java.util.List;
 import java.util.Optional;
 
-public class HeatMapResource implements GridCoverageResource {
+public class HeatMapResource implements GridCoverageResource, AutoCloseable {
 
     final PointCloudResource pointCloudSource;
     private final float distanceX;
@@ -225,6 +225,16 @@ public class HeatMapResource implements GridCoverageResource {
 
     }
 
+    /**
+     * Release the point cloud source, if it holds resources.
+     */
+    @Override
+    public void close() throws Exception {
+        if (pointCloudSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
     private record ComputationParameters(MathTransform coverageToPoints, DistancesForExtent distancesForExtent){}
 
     private record DistancesForExtent(double distX, double distY, double spanX, double spanY, double gridSpanX, double gridSpanY, double ratioX, double ratioY){}
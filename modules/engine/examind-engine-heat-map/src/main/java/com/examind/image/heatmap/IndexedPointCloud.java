@@ -0,0 +1,368 @@
+/*
+ *    Examind community - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.image.heatmap;
+
+import org.apache.sis.geometry.DirectPosition2D;
+import org.apache.sis.geometry.Envelopes;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.event.StoreEvent;
+import org.apache.sis.storage.event.StoreListener;
+import org.apache.sis.util.Utilities;
+import org.opengis.geometry.Envelope;
+import org.opengis.metadata.Metadata;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.GenericName;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link PointCloudResource} caching the points of another point cloud.
+ *
+ * On first access, all the points of the source are loaded once in a packed {@code double} array
+ * (interleaved coordinates in the source CRS), sorted along a regular grid index. Each request then
+ * only scans the grid rows intersecting the requested envelope, instead of querying the source again.
+ *
+ * The cache is discarded when the source emits a {@link StoreEvent}, or when {@link #invalidate()} is called.
+ * Parallel streams are supported, the point slices being processed independently.
+ *
+ * If the source contains more than the maximal number of points, nothing is cached and the requests
+ * are forwarded to the source. The instance must be {@linkplain #close() closed} to stop listening the source.
+ */
+public class IndexedPointCloud implements PointCloudResource, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("com.examind.image.heatmap");
+
+    /**
+     * Default maximal number of points kept in memory (about 40 bytes per point are needed while loading).
+     */
+    public static final int DEFAULT_MAX_POINTS = 10_000_000;
+
+    /**
+     * Number of points read from the source at each iteration while loading the cache.
+     */
+    private static final int LOAD_BATCH_SIZE = 100_000;
+
+    /**
+     * Expected average number of points in a grid cell.
+     */
+    private static final int POINTS_PER_CELL = 64;
+
+    /**
+     * Maximal number of cells on each axis of the grid.
+     */
+    private static final int MAX_CELLS_PER_AXIS = 4096;
+
+    private final PointCloudResource source;
+
+    private final int maxPoints;
+
+    private final StoreListener<StoreEvent> invalidationListener = event -> invalidate();
+
+    private volatile GridIndex index;
+
+    /**
+     * {@code true} if the source contains too many points to be cached.
+     */
+    private volatile boolean tooLarge;
+
+    /**
+     * Incremented on each invalidation, to avoid publishing an index loaded before a data change.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public IndexedPointCloud(final PointCloudResource source) {
+        this(source, DEFAULT_MAX_POINTS);
+    }
+
+    /**
+     * @param source The point cloud to cache.
+     * @param maxPoints Maximal number of points kept in memory.
+     */
+    public IndexedPointCloud(final PointCloudResource source, final int maxPoints) {
+        if (maxPoints < 1 || maxPoints > Integer.MAX_VALUE / 2) throw new IllegalArgumentException("Invalid maximal number of points: " + maxPoints);
+        this.source = Objects.requireNonNull(source, "Source point cloud");
+        this.maxPoints = maxPoints;
+        source.addListener(StoreEvent.class, invalidationListener);
+    }
+
+    /**
+     * Discard the cached points. They will be loaded again from the source on next access.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        index = null;
+        tooLarge = false;
+    }
+
+    /**
+     * Stop listening the source and discard the cached points.
+     */
+    @Override
+    public void close() {
+        source.removeListener(StoreEvent.class, invalidationListener);
+        invalidate();
+    }
+
+    /**
+     * Return the cached points, loading them if needed, or {@code null} if the source is too large to be cached.
+     */
+    private GridIndex getIndex() throws DataStoreException {
+        GridIndex idx = index;
+        if (idx == null && !tooLarge) {
+            synchronized (this) {
+                idx = index;
+                if (idx == null && !tooLarge) {
+                    final long gen = generation.get();
+                    idx = GridIndex.load(source, maxPoints);
+                    if (idx == null) {
+                        LOGGER.log(Level.INFO, "Point cloud exceeds {0} points, the points will not be cached.", maxPoints);
+                        tooLarge = true;
+                    } else {
+                        index = idx;
+                    }
+                    // an invalidation happened during the load, do not keep stale points.
+                    if (gen != generation.get()) {
+                        index = null;
+                        tooLarge = false;
+                    }
+                }
+            }
+        }
+        return idx;
+    }
+
+    @Override
+    public Stream<? extends Point2D> points(final Envelope envelope, final boolean parallel) throws DataStoreException {
+        return batch(envelope, parallel, LOAD_BATCH_SIZE)
+                .flatMap(chunk -> IntStream.range(0, chunk.length / 2)
+                        .mapToObj(i -> new DirectPosition2D(chunk[2 * i], chunk[2 * i + 1])));
+    }
+
+    @Override
+    public CoordinateReferenceSystem getCoordinateReferenceSystem() {
+        return source.getCoordinateReferenceSystem();
+    }
+
+    @Override
+    public Stream<double[]> batch(Envelope envelope, final boolean parallel, final int batchSize) throws DataStoreException {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be strictly positive");
+        final GridIndex idx = getIndex();
+        if (idx == null) {
+            return source.batch(envelope, parallel, batchSize);
+        }
+        if (envelope != null) {
+            final CoordinateReferenceSystem envCRS = envelope.getCoordinateReferenceSystem();
+            final CoordinateReferenceSystem dataCRS = getCoordinateReferenceSystem();
+            if (envCRS != null && dataCRS != null && !Utilities.equalsIgnoreMetadata(envCRS, dataCRS)) {
+                try {
+                    envelope = Envelopes.transform(envelope, dataCRS);
+                } catch (TransformException ex) {
+                    throw new DataStoreException("Cannot project requested envelope in point cloud CRS", ex);
+                }
+            }
+        }
+        final List<Slice> slices = idx.slices(envelope, batchSize);
+        final Stream<Slice> stream = parallel ? slices.parallelStream() : slices.stream();
+        if (envelope == null) {
+            return stream.map(s -> Arrays.copyOfRange(idx.coords, s.start * 2, s.end * 2));
+        }
+        final double minX = envelope.getMinimum(0), maxX = envelope.getMaximum(0);
+        final double minY = envelope.getMinimum(1), maxY = envelope.getMaximum(1);
+        return stream.map(s -> idx.filter(s, minX, minY, maxX, maxY))
+                     .filter(chunk -> chunk.length > 0);
+    }
+
+    @Override
+    public Optional<GenericName> getIdentifier() throws DataStoreException {
+        return source.getIdentifier();
+    }
+
+    @Override
+    public Metadata getMetadata() throws DataStoreException {
+        return source.getMetadata();
+    }
+
+    @Override
+    public Optional<Envelope> getEnvelope() throws DataStoreException {
+        return source.getEnvelope();
+    }
+
+    @Override
+    public <T extends StoreEvent> void addListener(Class<T> eventType, StoreListener<? super T> listener) {
+        source.addListener(eventType, listener);
+    }
+
+    @Override
+    public <T extends StoreEvent> void removeListener(Class<T> eventType, StoreListener<? super T> listener) {
+        source.removeListener(eventType, listener);
+    }
+
+    /**
+     * A range of point indices in the packed coordinates array.
+     */
+    private record Slice(int start, int end) {}
+
+    /**
+     * Packed points sorted by cell, the cells being ordered row by row.
+     * The points of the cells {@code [c0, c1]} of a same row are then contiguous in {@link #coords}.
+     */
+    private static final class GridIndex {
+
+        /**
+         * Interleaved coordinates ([x1, y1, x2, y2, ...xn, yn]), sorted by cell.
+         */
+        private final double[] coords;
+
+        /**
+         * Index of the first point of each cell. The last element is the number of points.
+         */
+        private final int[] cellStart;
+
+        private final int nx, ny;
+        private final double minX, minY, cellWidth, cellHeight;
+
+        private GridIndex(final double[] points, final int nbPoints) {
+            double xmin = Double.POSITIVE_INFINITY, ymin = Double.POSITIVE_INFINITY;
+            double xmax = Double.NEGATIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < nbPoints * 2; i += 2) {
+                xmin = Math.min(xmin, points[i]);
+                xmax = Math.max(xmax, points[i]);
+                ymin = Math.min(ymin, points[i + 1]);
+                ymax = Math.max(ymax, points[i + 1]);
+            }
+            final int side = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(Math.sqrt((double) nbPoints / POINTS_PER_CELL))));
+            this.nx = side;
+            this.ny = side;
+            this.minX = nbPoints > 0 ? xmin : 0;
+            this.minY = nbPoints > 0 ? ymin : 0;
+            final double w = (xmax - xmin) / side, h = (ymax - ymin) / side;
+            this.cellWidth  = w > 0 ? w : 1;
+            this.cellHeight = h > 0 ? h : 1;
+
+            // counting sort of the points by cell.
+            this.cellStart = new int[nx * ny + 1];
+            final int[] cells = new int[nbPoints];
+            for (int i = 0; i < nbPoints; i++) {
+                final int cell = cellY(points[2 * i + 1]) * nx + cellX(points[2 * i]);
+                cells[i] = cell;
+                cellStart[cell + 1]++;
+            }
+            for (int c = 0; c < nx * ny; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            final int[] cursor = Arrays.copyOf(cellStart, nx * ny);
+            this.coords = new double[nbPoints * 2];
+            for (int i = 0; i < nbPoints; i++) {
+                final int target = cursor[cells[i]]++ * 2;
+                coords[target]     = points[2 * i];
+                coords[target + 1] = points[2 * i + 1];
+            }
+        }
+
+        /**
+         * Load the points of the source, or return {@code null} if there is more than {@code maxPoints} points.
+         */
+        private static GridIndex load(final PointCloudResource source, final int maxPoints) throws DataStoreException {
+            double[] points = new double[Math.min(LOAD_BATCH_SIZE, maxPoints) * 2];
+            int nbPoints = 0;
+            try (Stream<double[]> batches = source.batch(null, false, LOAD_BATCH_SIZE)) {
+                final var it = batches.iterator();
+                while (it.hasNext()) {
+                    final double[] chunk = it.next();
+                    for (int i = 0; i + 1 < chunk.length; i += 2) {
+                        final double x = chunk[i], y = chunk[i + 1];
+                        if (Double.isFinite(x) && Double.isFinite(y)) {
+                            if (nbPoints == maxPoints) {
+                                return null;
+                            }
+                            if (points.length == nbPoints * 2) {
+                                points = Arrays.copyOf(points, (int) Math.min((long) points.length * 2, (long) maxPoints * 2));
+                            }
+                            points[nbPoints * 2]     = x;
+                            points[nbPoints * 2 + 1] = y;
+                            nbPoints++;
+                        }
+                    }
+                }
+            }
+            return new GridIndex(points, nbPoints);
+        }
+
+        private int cellX(final double x) {
+            return Math.max(0, Math.min(nx - 1, (int) ((x - minX) / cellWidth)));
+        }
+
+        private int cellY(final double y) {
+            return Math.max(0, Math.min(ny - 1, (int) ((y - minY) / cellHeight)));
+        }
+
+        /**
+         * Split the points of the cells intersecting the specified envelope in slices of at most {@code batchSize} points.
+         */
+        private List<Slice> slices(final Envelope envelope, final int batchSize) {
+            final List<Slice> slices = new ArrayList<>();
+            final int nbPoints = cellStart[nx * ny];
+            if (nbPoints == 0) return slices;
+            final int cx0, cx1, cy0, cy1;
+            if (envelope == null) {
+                cx0 = 0; cx1 = nx - 1; cy0 = 0; cy1 = ny - 1;
+            } else {
+                final double eMinX = envelope.getMinimum(0), eMaxX = envelope.getMaximum(0);
+                final double eMinY = envelope.getMinimum(1), eMaxY = envelope.getMaximum(1);
+                // NaN or disjoint envelope
+                if (!(eMaxX >= minX && eMinX <= minX + cellWidth * nx && eMaxY >= minY && eMinY <= minY + cellHeight * ny)) {
+                    return slices;
+                }
+                cx0 = cellX(eMinX); cx1 = cellX(eMaxX);
+                cy0 = cellY(eMinY); cy1 = cellY(eMaxY);
+            }
+            for (int cy = cy0; cy <= cy1; cy++) {
+                final int end = cellStart[cy * nx + cx1 + 1];
+                for (int start = cellStart[cy * nx + cx0]; start < end; start += batchSize) {
+                    slices.add(new Slice(start, Math.min(end, start + batchSize)));
+                }
+            }
+            return slices;
+        }
+
+        private double[] filter(final Slice slice, final double minX, final double minY, final double maxX, final double maxY) {
+            final double[] result = new double[(slice.end - slice.start) * 2];
+            int j = 0;
+            for (int i = slice.start * 2; i < slice.end * 2; i += 2) {
+                final double x = coords[i], y = coords[i + 1];
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    result[j++] = x;
+                    result[j++] = y;
+                }
+            }
+            return j == result.length ? result : Arrays.copyOf(result, j);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *    Examind community - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.image.heatmap;
+
+import org.apache.sis.geometry.DirectPosition2D;
+import org.apache.sis.geometry.Envelope2D;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class IndexedPointCloudTest {
+
+    @Test
+    public void sameResultAsSourceTest() throws DataStoreException {
+        final FeatureSetAsPointsCloud source = new FeatureSetAsPointsCloud(FeatureSetAsPointsCloudTest.createTestFeatureSet());
+        final IndexedPointCloud indexed = new IndexedPointCloud(source);
+
+        Assert.assertEquals(30, indexed.batch(null, false, 7).mapToInt(chunk -> chunk.length / 2).sum());
+
+        final Envelope2D env = new Envelope2D(new DirectPosition2D(3.8, 43.6), new DirectPosition2D(4.4, 43.9));
+        env.setCoordinateReferenceSystem(CommonCRS.defaultGeographic());
+
+        final long expected = source.points(env, false).count();
+        Assert.assertTrue(expected > 0);
+        Assert.assertEquals(expected, indexed.points(env, false).count());
+        Assert.assertEquals(expected, indexed.points(env, true).count());
+        Assert.assertEquals(expected, indexed.batch(env, true, 3).mapToInt(chunk -> chunk.length / 2).sum());
+        Assert.assertTrue(indexed.points(env, false).allMatch(p -> env.contains(p.getX(), p.getY())));
+
+        final Envelope2D outside = new Envelope2D(new DirectPosition2D(10, 10), new DirectPosition2D(11, 11));
+        Assert.assertEquals(0, indexed.points(outside, false).count());
+    }
+
+    @Test
+    public void tooLargeTest() throws DataStoreException {
+        final FeatureSetAsPointsCloud source = new FeatureSetAsPointsCloud(FeatureSetAsPointsCloudTest.createTestFeatureSet());
+        try (IndexedPointCloud indexed = new IndexedPointCloud(source, 10)) {
+            // the 30 points are not cached, the requests are forwarded to the source.
+            Assert.assertEquals(30, indexed.batch(null, false, 7).mapToInt(chunk -> chunk.length / 2).sum());
+
+            final Envelope2D env = new Envelope2D(new DirectPosition2D(3.8, 43.6), new DirectPosition2D(4.4, 43.9));
+            env.setCoordinateReferenceSystem(CommonCRS.defaultGeographic());
+            Assert.assertEquals(source.points(env, false).count(), indexed.points(env, true).count());
+
+            indexed.invalidate();
+            Assert.assertEquals(30, indexed.batch(null, true, 7).mapToInt(chunk -> chunk.length / 2).sum());
+        }
+    }
+
+    @Test
+    public void parallelBatchTest() throws DataStoreException {
+        final FeatureSetAsPointsCloud source = new FeatureSetAsPointsCloud(FeatureSetAsPointsCloudTest.createTestFeatureSet());
+        Assert.assertEquals(30, source.batch(null, true, 4).mapToInt(chunk -> chunk.length / 2).sum());
+    }
+}
@@ -34,4 +34,46 @@ public class ClusterMessageConstant {
      */
     public static final String PRV_VALUE_ACTION_UPDATED = "updated";
 
+    public static final String MTD_MESSAGE_TYPE_ID = "metadata";
+
+    /**
+     * Send by MetadataBusiness when the metadata of a data is created, modified or deleted.
+     * The identifier is the one of the data.
+     */
+    public static final String MTD_VALUE_ACTION_DATA_UPDATED = "dataUpdated";
+
+    public static final String STL_MESSAGE_TYPE_ID = "style";
+
+    /**
+     * Send by StyleBusiness when a style is created, modified or deleted.
+     * The identifier is the one of the style.
+     */
+    public static final String STL_VALUE_ACTION_UPDATED = "updated";
+    public static final String STL_VALUE_ACTION_CLEAR_CACHE = "clearCache";
+
+    public static final String OM2_MESSAGE_TYPE_ID = "om2Schema";
+
+    /**
+     * Send by the OM2 observation writer when the structure of a procedure is created, modified or removed.
+     * The identifier is the one of the procedure.
+     */
+    public static final String OM2_VALUE_ACTION_PROCEDURE_UPDATED = "procedureUpdated";
+    /**
+     * Send by the OM2 observation writer when some phenomenons are created, modified or removed.
+     */
+    public static final String OM2_VALUE_ACTION_PHENOMENONS_UPDATED = "phenomenonsUpdated";
+    /**
+     * Identify the OM2 database (connection URL and schema prefix) concerned by a message.
+     */
+    public static final String OM2_KEY_DATABASE = "database";
+
+    public static final String THW_MESSAGE_TYPE_ID = "thesaurus";
+
+    /**
+     * Send by the thesaurus writers when the labels of a thesaurus are created, modified or removed,
+     * or when the thesaurus is created or deleted.
+     * The identifier is the database schema of the thesaurus.
+     */
+    public static final String THW_VALUE_ACTION_UPDATED = "updated";
+
 }
@@ -19,6 +19,7 @@
 package org.constellation.business;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -28,6 +29,14 @@ public interface IInternalMetadataBusiness {
 
     String getMetadata(String metadataID);
 
+    /**
+     * Return the XML of multiple metadata in a single query.
+     *
+     * @param metadataIDs Metadata identifiers.
+     * @return A map of metadata XML by identifier. Identifiers not found are absent from the map.
+     */
+    Map<String, String> getMetadatas(List<String> metadataIDs);
+
     void storeMetadata(String metadataID, String metadataXMl);
 
     void updateMetadata(String metadataID, String newMetadataID, String metadataXMl);
@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.constellation.dto.metadata.GroupStatBrief;
@@ -169,6 +170,20 @@ public interface IMetadataBusiness {
      */
     int getLinkedMetadataCount(final String cswIdentifier, final boolean partial, final boolean includeService, final boolean onlyPublished, final String type);
 
+    /**
+     * Return a revision of the metadata linked to this CSW, changing when a linked metadata is added, modified, removed or (un)published.
+     * The revision is computed from the database, so it is kept across restarts.
+     *
+     * @param cswIdentifier identifer of the CSW instance.
+     * @param partial if {@code true} consider only the metadata linked to the service, else all the metadata provider linked ones.
+     * @param includeService given flag to include service's metadata
+     * @param onlyPublished flag that indicates if the unpublished metadata are considered.
+     * @param type The type of the document (DOC, MODEL, CONTACT).
+     *
+     * @return The revision of the CSW content, or {@code null} if the CSW does not exist.
+     */
+    String getLinkedMetadataRevision(final String cswIdentifier, final boolean partial, final boolean includeService, final boolean onlyPublished, final String type);
+
     /**
      * Build a link beetween a CSW service and a metadata.
      *
@@ -215,6 +230,20 @@ public interface IMetadataBusiness {
      */
     boolean isLinkedMetadataToCSW(final String metadataID, final String cswID, final boolean partial, final boolean includeService, final boolean onlyPublished);
 
+    /**
+     * Return the provider of each of the specified metadata linked to the specified CSW service.
+     * This is the batch version of {@link #isLinkedMetadataToCSW(String, String, boolean, boolean, boolean)}.
+     *
+     * @param metadataIDs Identifiers of the metadata pojo.
+     * @param cswID identifer of the CSW instance.
+     * @param partial CSW integrate partially the metadata of the provider (each metadata has to be linked explicitly to the CSW).
+     * @param includeService given flag to include service's metadata
+     * @param onlyPublished flag that indicates if it will return the unpublished metadata.
+     *
+     * @return A map of linked metadata identifier to provider identifier. The metadata not linked are omitted.
+     */
+    Map<String, Integer> getLinkedMetadataProviders(final Collection<String> metadataIDs, final String cswID, final boolean partial, final boolean includeService, final boolean onlyPublished);
+
     /**
      * Return {@code true} if the specified metadata is linked to the specified CSW service.
      * @param metadataID Identifier of the geotk metadata object.
@@ -475,6 +504,23 @@ public interface IMetadataBusiness {
      */
     void updateCSWIndex(final List<MetadataWithState> metadatas, final boolean update) throws ConstellationException;
 
+    /**
+     * Return the state of the CSW index update queue:
+     * "size" the number of metadata waiting to be indexed, and "lag" the age in milliseconds of the oldest waiting update.
+     *
+     * @return A map of state property / value.
+     */
+    Map<String, Long> getCSWIndexQueueState();
+
+    /**
+     * Wait for the queued CSW index updates to be written.
+     *
+     * @param timeout Maximum waiting time in milliseconds.
+     * @return {@code true} if all the updates have been written, {@code false} if the timeout elapsed before.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    boolean awaitCSWIndexation(final long timeout) throws InterruptedException;
+
     /**
      * Duplicate a metadata pojo. Update the fileIdentifier and title of the geotk metadata.
      * if (the specified newTitle is null, the new title of the metadata will be "old title" + "(1)".
@@ -19,10 +19,12 @@
 package org.constellation.business;
 
 import java.nio.file.Path;
+import java.util.Date;
 import java.util.List;
 import org.constellation.api.TilingMode;
 import org.constellation.dto.TilingResult;
 import org.constellation.exception.ConstellationException;
+import org.opengis.geometry.Envelope;
 
 /**
  *
@@ -62,6 +64,21 @@ public interface IPyramidBusiness {
      */
     TilingResult pyramidDatas(Integer userId, String pyramidDataName, List<Integer> dataIds, final String crs, final TilingMode mode, final int nbLevel) throws ConstellationException;
 
+    /**
+     * Regenerates the tiles of an existing pyramid intersecting a dirty area, from the data the pyramid was built on.
+     * The pyramid keeps its tiling mode. An interrupted update of the same area is resumed where it stopped.
+     *
+     * @param userId The task owner.
+     * @param pyramidDataId The pyramid data identifier.
+     * @param envelope The dirty area, or {@code null} to regenerate the whole extent.
+     * @param timeStart Start of the dirty time range, or {@code null} if unbounded. Used only if the pyramid has a temporal dimension.
+     * @param timeEnd End of the dirty time range, or {@code null} if unbounded. Used only if the pyramid has a temporal dimension.
+     *
+     * @return {@link TilingResult}
+     * @throws ConstellationException If the data is not a pyramid or if its source data are not available.
+     */
+    TilingResult updatePyramid(Integer userId, int pyramidDataId, Envelope envelope, Date timeStart, Date timeEnd) throws ConstellationException;
+
     /**
      * Generates a pyramid conform for each data of the provider.
      * N.B : Generated pyramid contains coverage real values, it's not styled for rendering.
@@ -18,6 +18,7 @@
  */
 package org.constellation.business;
 
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Date;
@@ -92,6 +93,11 @@ public interface ISensorServiceBusiness {
 
     Object getResultsCsv(final Integer id, final String sensorID, final List<String> observedProperties, final List<String> foi, final Date start, final Date end, final Integer width, final String resultFormat, final boolean timeforProfile, final boolean includeIdInDatablock) throws ConfigurationException;
 
+    /**
+     * Write the csv results of a sensor to the specified output, while they are read from the provider.
+     */
+    void writeResultsCsv(final Integer id, final String sensorID, final List<String> observedProperties, final List<String> foi, final Date start, final Date end, final Integer width, final boolean timeforProfile, final boolean includeIdInDatablock, final Writer output) throws ConfigurationException;
+
     /**
      * Return the sensor metadata of the specified sensor (in the specified service).
      * This method exist because some sensor services are in "DirectProvider" mode,
@@ -72,7 +72,7 @@ public interface IStyleBusiness {
      * @param providerID The style provider identifier (sld or sld_temp).
      * @param styleName The style name.
      *
-     * @return the {@link org.opengis.style.Style} instance
+     * @return the {@link org.opengis.style.Style} instance, shared by all callers: it must not be modified.
      * @throws TargetNotFoundException If the style with the specified identifier can't be found.
      */
     org.opengis.style.Style getStyle(String providerID, String styleName) throws TargetNotFoundException;
@@ -92,7 +92,7 @@ public interface IStyleBusiness {
      * Gets and returns the {@link org.opengis.style.Style} that matches with the specified id.
      *
      * @param styleId style entity id.
-     * @return the {@link org.opengis.style.Style} instance
+     * @return the {@link org.opengis.style.Style} instance, shared by all callers: it must not be modified.
      * @throws TargetNotFoundException
      *             if the style with the specified identifier can't be found
      */
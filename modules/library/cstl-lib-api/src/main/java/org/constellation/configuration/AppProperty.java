@@ -244,6 +244,32 @@ public enum AppProperty {
 
     EXA_WPS_AUTHENTICATED_URLS("exa.wps.authenticated.urls", true, List.class),
 
+    /**
+     * Maximum number of WPS jobs executed concurrently. (default to the number of processors)
+     */
+    EXA_WPS_MAX_RUNNING_JOBS("examind.wps.max.running.jobs", false, Integer.class),
+
+    /**
+     * Maximum number of WPS jobs waiting for execution. Further executions are rejected.
+     * 10% of the queue is reserved to the synchronous executions. A value lower than 1 means no limit. (default to 100)
+     */
+    EXA_WPS_MAX_QUEUED_JOBS("examind.wps.max.queued.jobs", false, Integer.class),
+
+    /**
+     * Maximum number of running WPS jobs for a same process. (default to 0, no limit)
+     */
+    EXA_WPS_MAX_RUNNING_JOBS_PER_PROCESS("examind.wps.max.running.jobs.per.process", false, Integer.class),
+
+    /**
+     * Maximum number of running WPS jobs for a same user. (default to 0, no limit)
+     */
+    EXA_WPS_MAX_RUNNING_JOBS_PER_USER("examind.wps.max.running.jobs.per.user", false, Integer.class),
+
+    /**
+     * Number of threads used to read concurrently the records of a CSW result page. (default to the number of processors)
+     */
+    EXA_CSW_FETCH_THREADS("examind.csw.fetch.threads", false, Integer.class),
+
     EXA_ALLOWED_FS_PATH("exa.allowed.fs.path", false, List.class),
 
     EXA_ENABLE_BASIC_AUTH("examind.enable.basic.auth", false, Boolean.class),
@@ -258,6 +284,11 @@ public enum AppProperty {
      */
     EXA_ADD_DATA_BBOX_ANALISIS("examind.add.data.bbox.analisis", false, Boolean.class),
 
+    /**
+     * Maximum number of encoded GetCapabilities documents kept in memory, for all the services. (default to 200)
+     */
+    EXA_CAPABILITIES_CACHE_SIZE("examind.capabilities.cache.size", false, Integer.class),
+
     /**
      * If set to true, WMS capabilities will not display millisecond (for external tools compatibility)
      */
@@ -268,9 +299,121 @@ public enum AppProperty {
     EXA_ENABLE_INTERNAL_SIS_STORE("examind.enable.internal.sis.store", false, Boolean.class),
 
     EXA_DISABLE_WMS_130_ROTATION("examind.disable.wms.130.rotation", false, Boolean.class),
+
+    /**
+     * Maximum size in megabytes of the encoded tiles kept in memory by each WMTS service. 0 disable the cache. (default to 64)
+     */
+    EXA_WMTS_TILE_CACHE_SIZE("examind.wmts.tile.cache.size", false, Integer.class),
+
+    /**
+     * Maximum size in megabytes of the encoded tiles moved to disk by each WMTS service when evicted from memory.
+     * The files are written in a temporary directory. 0 disable the disk tier. (default to 0)
+     */
+    EXA_WMTS_TILE_CACHE_DISK_SIZE("examind.wmts.tile.cache.disk.size", false, Integer.class),
+
+    /**
+     * If true, the WMTS services publish their non-tiled layers in a pseudo-mercator tile matrix set,
+     * and render their tiles on demand. (default to true)
+     */
+    EXA_WMTS_RENDER_UNTILED("examind.wmts.render.untiled", false, Boolean.class),
     
     EXA_OM2_DEFAULT_DECIMATION_ALGORITHM("examind.om2.default.decimation.algorithm", false, String.class),
+
+    /**
+     * Number of rows fetched at once by the JDBC driver when reading observation results.
+     * Avoid the driver to load the whole result set, the built result is still held in memory. (default to 1000)
+     */
+    EXA_OM2_RESULT_FETCH_SIZE("examind.om2.result.fetch.size", false, Integer.class),
+
+    /**
+     * Number of measure lines sent to the database in a single batch on insertion. (default to 1000)
+     */
+    EXA_OM2_INSERT_BATCH_SIZE("examind.om2.insert.batch.size", false, Integer.class),
+
+    /**
+     * Maximum number of procedures (and phenomenons) kept in the schema cache of an OM2 store. 0 disable the cache. (default to 1000)
+     */
+    EXA_OM2_SCHEMA_CACHE_SIZE("examind.om2.schema.cache.size", false, Integer.class),
+
+    /**
+     * Enable the pre-aggregated rollup tables (min/max/sum/count by time bucket) used to serve the decimated results
+     * of the OM2 timeseries. (default to false)
+     */
+    EXA_OM2_ROLLUPS("examind.om2.rollups", false, Boolean.class),
     
+    /**
+     * Number of threads used to execute concurrently the result queries of several procedures,
+     * bounding the number of database connections used by a single request. (default to 4)
+     */
+    EXA_OM_RESULT_THREADS("examind.om.result.threads", false, Integer.class),
+
+    /**
+     * Number of concurrent GetRecords requests sent to a remote CSW while counting the thesaurus concepts occurrences. (default to 4)
+     */
+    EXA_THESAURUS_CSW_COUNT_THREADS("examind.thesaurus.csw.count.threads", false, Integer.class),
+
+    /**
+     * If set to {@code true}, the metadata modifications wait for the CSW indexes to be updated,
+     * instead of returning as soon as the update is queued. (default to false)
+     */
+    EXA_CSW_INDEX_SYNCHRONOUS("examind.csw.index.synchronous", false, Boolean.class),
+
+    /**
+     * Maximum time in milliseconds a synchronous metadata modification waits for its records to be indexed. (default to 30000)
+     */
+    EXA_CSW_INDEX_SYNCHRONOUS_TIMEOUT("examind.csw.index.synchronous.timeout", false, Long.class),
+
+    /**
+     * Number of threads reading and building the documents when a CSW lucene index is fully (re)created.
+     * A value lower than 2 disable the parallel indexation. (default to the number of available processors)
+     */
+    EXA_CSW_INDEX_THREADS("examind.csw.index.threads", false, Integer.class),
+
+    /**
+     * RAM buffer size, in megabytes, of the lucene writer used to add documents to an existing CSW index.
+     * Only used by the incremental updates, not by the full index creation. (default to 64)
+     */
+    EXA_CSW_INDEX_RAM_BUFFER("examind.csw.index.ram.buffer", false, Integer.class),
+
+    /**
+     * Number of documents added to an existing CSW index between two commits of the lucene writer.
+     * A value lower than 1 commit only at the end.
+     * Only used by the incremental updates, not by the full index creation. (default to 0)
+     */
+    EXA_CSW_INDEX_COMMIT_INTERVAL("examind.csw.index.commit.interval", false, Integer.class),
+
+    /**
+     * Maximum number of cells a WCS GetCoverage request can read from a coverage.
+     * Larger requests are rejected before any read. A value lower than 1 means no limit. (default to 100000000)
+     */
+    EXA_WCS_MAX_PIXELS("examind.wcs.max.pixels", false, Long.class),
+
+    /**
+     * Share the cluster membership, locks and events through the configuration database,
+     * allowing several instances to run on the same database. (default to false)
+     */
+    EXA_CLUSTER_JDBC("examind.cluster.jdbc", false, Boolean.class),
+
+    /**
+     * Interval, in milliseconds, between two polls of the cluster events table. (default to 1000)
+     */
+    EXA_CLUSTER_POLL_INTERVAL("examind.cluster.poll.interval", false, Long.class),
+
+    /**
+     * Delay, in milliseconds, without heartbeat after which a cluster member and its locks are considered lost. (default to 30000)
+     */
+    EXA_CLUSTER_MEMBER_TIMEOUT("examind.cluster.member.timeout", false, Long.class),
+
+    /**
+     * Number of threads shared by all the coverage statistics computations. (default to half the available processors)
+     */
+    EXA_STATISTICS_PARALLELISM("examind.statistics.parallelism", false, Integer.class),
+
+    /**
+     * Memory, in bytes, the coverage statistics computations can use for the pixels being read. (default to 268435456)
+     */
+    EXA_STATISTICS_MAX_MEMORY("examind.statistics.max.memory", false, Long.class),
+
     EXA_OM2_DUCKDB_EXTENSION_DIRECTORY("examind.om2.duckdb.extension.directory", false, String.class);
 
     private final String key;
@@ -29,6 +29,8 @@ public interface InternalMetadataRepository extends AbstractRepository {
 
     InternalMetadata findByMetadataId(String metadataId);
 
+    List<InternalMetadata> findByMetadataIds(List<String> metadataIds);
+
     InternalMetadata update(InternalMetadata metadata);
 
     int create(InternalMetadata metadata);
@@ -18,6 +18,7 @@
  */
 package org.constellation.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -75,6 +76,16 @@ public interface MetadataRepository extends AbstractRepository {
 
     int countMetadataByProviderId(final Integer id, final boolean includeService, final boolean onlyPublished, final String type, final Boolean hidden);
 
+    /**
+     * Return the time of the last write of a metadata, as recorded in its creation date which is reset at each update.
+     *
+     * @param providerIds Restrict the search to the metadata of these providers, or {@code null} for all the metadata.
+     * @param type The type of the document (DOC, MODEL, CONTACT), or {@code null} for all types.
+     *
+     * @return The last write time, or {@code null} if no metadata matches.
+     */
+    Long getLastModification(final Collection<Integer> providerIds, final String type);
+
     List<String> findMetadataID(final boolean includeService, final boolean onlyPublished, final Integer providerId, final String type, final Boolean hidden);
 
     int countMetadata(final boolean includeService, final boolean onlyPublished, final Integer providerID, final String type);
@@ -87,6 +98,36 @@ public interface MetadataRepository extends AbstractRepository {
 
     boolean isLinkedMetadata(String metadataID, int providerID, final boolean includeService, final boolean onlyPublished);
 
+    /**
+     * Return the provider of each of the specified metadata.
+     *
+     * @param metadataIDs Metadata identifiers.
+     * @return A map of metadata identifier to provider identifier. The unknown metadata are omitted.
+     */
+    Map<String, Integer> findProviderIds(final Collection<String> metadataIDs);
+
+    /**
+     * Return the specified metadata explicitly linked to a CSW service.
+     *
+     * @param metadataIDs Metadata identifiers.
+     * @param serviceID CSW service identifier.
+     * @param includeService flag to include the service's metadata.
+     * @param onlyPublished flag to exclude the unpublished metadata.
+     *
+     * @return The linked metadata identifiers.
+     */
+    List<String> filterLinkedMetadataID(final Collection<String> metadataIDs, final Integer serviceID, final boolean includeService, final boolean onlyPublished);
+
+    /**
+     * Return the specified metadata explicitly linked to a CSW service, whatever their hidden or published state.
+     *
+     * @param metadataIDs Metadata identifiers.
+     * @param serviceID CSW service identifier.
+     *
+     * @return The linked metadata identifiers.
+     */
+    List<String> filterLinkedMetadataID(final Collection<String> metadataIDs, final Integer serviceID);
+
     List<Metadata> findAll();
 
     Map.Entry<Integer, List<Metadata>> filterAndGet(final Map<String,Object> filterMap, final Map.Entry<String,String> sortEntry,final int pageNumber,final int rowsPerPage);
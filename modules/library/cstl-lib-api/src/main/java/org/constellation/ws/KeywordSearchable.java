@@ -0,0 +1,64 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.ws;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A catalogue {@link Worker} able to search keywords directly in its index,
+ * allowing a local component to count the records matching a term without going through the HTTP interface.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public interface KeywordSearchable {
+
+    /**
+     * Return the CQL filter of the records containing a term in their title, abstract or subject.
+     * This is the filter evaluated by {@link #getIdentifiersForTerms(Collection)},
+     * and sent to the remote catalogues not searchable directly.
+     *
+     * @param term The searched term.
+     * @return A CQL filter.
+     */
+    static String termFilter(final String term) {
+        final String cleanTerm = term.replace("'", "''");
+        return "( dc:title LIKE '\"" + cleanTerm + "\"' OR dct:abstract LIKE '\"" + cleanTerm + "\"' OR dc:subject LIKE '\"" + cleanTerm + "\"' )";
+    }
+
+    /**
+     * Return, for each term, the identifiers of the records containing it in their title, abstract or subject.
+     * All the terms are evaluated in one call, the terms without matching record are absent from the map.
+     *
+     * @param terms The searched terms.
+     *
+     * @return A map of term / matching record identifiers.
+     * @throws CstlServiceException If the index search fails.
+     */
+    Map<String, List<String>> getIdentifiersForTerms(final Collection<String> terms) throws CstlServiceException;
+
+    /**
+     * Return a revision of the catalogue content, changing each time records are added, updated or removed.
+     * The revision is persisted, so it can be compared with a revision obtained before a restart.
+     *
+     * @return The current revision of the catalogue content, or {@code null} if the catalogue can not provide one.
+     */
+    String getRevision();
+}
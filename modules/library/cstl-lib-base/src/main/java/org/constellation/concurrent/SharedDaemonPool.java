@@ -0,0 +1,86 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+
+/**
+ * A fixed size pool of daemon threads, shared by all the instances of a component and created on first use.
+ * The threads being daemons, the pool does not need to be shut down and never blocks the JVM exit.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class SharedDaemonPool {
+
+    private final String threadPrefix;
+
+    private final AppProperty sizeProperty;
+
+    private final int defaultSize;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile ExecutorService executor;
+
+    /**
+     * @param threadPrefix Prefix of the thread names, followed by a thread number.
+     * @param sizeProperty Application property holding the number of threads, read when the pool is created.
+     * @param defaultSize Number of threads if the property is not set.
+     */
+    public SharedDaemonPool(final String threadPrefix, final AppProperty sizeProperty, final int defaultSize) {
+        this.threadPrefix = threadPrefix;
+        this.sizeProperty = sizeProperty;
+        this.defaultSize  = defaultSize;
+    }
+
+    /**
+     * Submit a task to the pool, creating the pool if needed.
+     *
+     * @param task The task to execute.
+     * @return A future of the task result.
+     */
+    public <T> Future<T> submit(final Callable<T> task) {
+        return getExecutor().submit(task);
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService exec = executor;
+        if (exec == null) {
+            synchronized (this) {
+                exec = executor;
+                if (exec == null) {
+                    final int size = Math.max(1, Application.getIntegerProperty(sizeProperty, defaultSize));
+                    exec = Executors.newFixedThreadPool(size, r -> {
+                        final Thread t = new Thread(r, threadPrefix + '-' + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    executor = exec;
+                }
+            }
+        }
+        return exec;
+    }
+}
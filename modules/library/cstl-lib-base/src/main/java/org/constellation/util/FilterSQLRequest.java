@@ -76,6 +76,14 @@ public interface FilterSQLRequest {
 
     SQLResult execute(Connection c) throws SQLException;
 
+    /**
+     * Execute the request, giving the JDBC driver a hint on the number of rows to fetch at once.
+     *
+     * @param c A SQL connection.
+     * @param fetchSize number of rows to fetch at once, or zero to let the driver choose.
+     */
+    SQLResult execute(Connection c, int fetchSize) throws SQLException;
+
     boolean isEmpty();
 
     public static class TableJoin {
@@ -188,9 +188,14 @@ public class MultiFilterSQLRequest implements FilterSQLRequest {
 
     @Override
     public SQLResult execute(Connection c) throws SQLException {
+        return execute(c, 0);
+    }
+
+    @Override
+    public SQLResult execute(Connection c, int fetchSize) throws SQLException {
         List<SQLResult> sqlr = new ArrayList<>();
         for (FilterSQLRequest request : requests) {
-            sqlr.add(request.execute(c));
+            sqlr.add(request.execute(c, fetchSize));
         }
         return new SQLResult(sqlr);
     }
@@ -338,10 +338,18 @@ public class SingleFilterSQLRequest implements FilterSQLRequest {
 
     @Override
     public SQLResult execute(Connection c) throws SQLException {
+        return execute(c, 0);
+    }
+
+    @Override
+    public SQLResult execute(Connection c, int fetchSize) throws SQLException {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         try {
             stmt = c.prepareStatement(getRequest());
+            if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
             fillParams(stmt);
             rs = stmt.executeQuery();
             return new SQLResult(stmt, rs);
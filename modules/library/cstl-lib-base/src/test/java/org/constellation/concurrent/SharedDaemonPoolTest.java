@@ -0,0 +1,47 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.constellation.configuration.AppProperty;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class SharedDaemonPoolTest {
+
+    @Test
+    public void submitTest() throws Exception {
+        final SharedDaemonPool pool = new SharedDaemonPool("test-pool", AppProperty.EXA_OM_RESULT_THREADS, 2);
+        final List<Future<Thread>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(pool.submit(Thread::currentThread));
+        }
+        for (Future<Thread> future : futures) {
+            final Thread t = future.get();
+            Assert.assertTrue(t.isDaemon());
+            Assert.assertTrue(t.getName(), t.getName().equals("test-pool-1") || t.getName().equals("test-pool-2"));
+        }
+    }
+}
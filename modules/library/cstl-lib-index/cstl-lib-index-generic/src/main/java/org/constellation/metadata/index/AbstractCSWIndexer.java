@@ -57,6 +57,8 @@ import org.apache.lucene.util.NumericUtils;
 import static org.constellation.metadata.CSWQueryable.DUBLIN_CORE_QUERYABLE;
 import static org.constellation.api.CommonConstants.NULL_VALUE;
 import org.constellation.api.PathType;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
 import org.geotoolkit.index.tree.StoreIndexException;
 import org.geotoolkit.index.tree.manager.SQLRtreeManager;
 import org.geotoolkit.lucene.LuceneUtils;
@@ -142,6 +144,116 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
         }
     }
 
+    /**
+     * Read a single entry of the store.
+     *
+     * @param <A> the type of indexed Object.
+     */
+    @FunctionalInterface
+    protected interface EntryReader<A> {
+        A read(final String identifier) throws IndexingException;
+    }
+
+    /**
+     * A document built without its index specific parts (document identifier and spatial part).
+     */
+    record PreparedDocument(Document doc, SpatialPart spatial) {}
+
+    record SpatialPart(List<Double> minxs, List<Double> maxxs, List<Double> minys, List<Double> maxys, CoordinateReferenceSystem crs) {}
+
+    /**
+     * Pipeline reading and building the documents in parallel, only set during a full index creation.
+     */
+    private BulkIndexPipeline<A, PreparedDocument> pipeline;
+
+    /**
+     * {@inheritDoc}
+     *
+     * The entries are read and their documents built by a pool of threads, sized by the property
+     * {@link AppProperty#EXA_CSW_INDEX_THREADS}, while the lucene writer consumes them in the store order.
+     * The lucene writer is configured by the parent indexer, the properties {@link AppProperty#EXA_CSW_INDEX_RAM_BUFFER}
+     * and {@link AppProperty#EXA_CSW_INDEX_COMMIT_INTERVAL} only apply to {@link #indexDocuments(List)}.
+     */
+    @Override
+    public void createIndex() throws IndexingException {
+        final int threads = Application.getIntegerProperty(AppProperty.EXA_CSW_INDEX_THREADS, Runtime.getRuntime().availableProcessors());
+        if (threads < 2) {
+            super.createIndex();
+            return;
+        }
+        pipeline = new BulkIndexPipeline<>(threads, this::prepareDocument, logLevel);
+        try {
+            super.createIndex();
+        } finally {
+            pipeline.close();
+            pipeline = null;
+        }
+    }
+
+    /**
+     * Return {@code true} if the documents are currently built in parallel by a full index creation.
+     * In this mode the implementation should not parallelize the building of a single document.
+     */
+    protected boolean isBulkIndexing() {
+        return pipeline != null;
+    }
+
+    /**
+     * Read the entries of the specified identifiers in advance, if a full index creation is running.
+     *
+     * @param identifiers Identifiers iterator of the store.
+     * @param reader Reader of a single entry, the same used by {@link #getEntry(String, EntryReader)}.
+     * @return An iterator over the same identifiers.
+     */
+    protected Iterator<String> getIdentifierIterator(final Iterator<String> identifiers, final EntryReader<A> reader) {
+        if (pipeline != null) {
+            return pipeline.readIdentifiers(identifiers, reader);
+        }
+        return identifiers;
+    }
+
+    /**
+     * Read the entries of the specified identifiers in advance, if a full index creation is running.
+     *
+     * @param identifiers All the identifiers of the store.
+     * @param reader Reader of a single entry, the same used by {@link #getEntry(String, EntryReader)}.
+     * @return The same identifiers.
+     */
+    protected List<String> getAllIdentifiers(final List<String> identifiers, final EntryReader<A> reader) {
+        if (pipeline != null) {
+            pipeline.readIdentifiers(identifiers, reader);
+        }
+        return identifiers;
+    }
+
+    /**
+     * Build the documents of the specified entries in advance, if a full index creation is running.
+     *
+     * @param entries Entries iterator of the store.
+     * @return An iterator over the same entries.
+     */
+    protected Iterator<A> getEntryIterator(final Iterator<A> entries) {
+        if (pipeline != null) {
+            return pipeline.readEntries(entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Return the entry read in advance for the specified identifier, or read it.
+     *
+     * @param identifier Identifier of the entry.
+     * @param reader Reader of a single entry.
+     * @return The entry, or {@code null} if it does not exist.
+     * @throws IndexingException If the entry can not be read.
+     */
+    protected A getEntry(final String identifier, final EntryReader<A> reader) throws IndexingException {
+        if (pipeline != null) {
+            return pipeline.entry(identifier, reader);
+        }
+        return reader.read(identifier);
+    }
+
     /**
     * Makes a document for a A Metadata Object.
     *
@@ -151,22 +263,50 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
     */
     @Override
     protected Document createDocument(final A metadata, final int docId) throws IndexingException {
+        PreparedDocument prepared = null;
+        if (pipeline != null) {
+            prepared = pipeline.take(metadata);
+        }
+        if (prepared == null) {
+            prepared = prepareDocument(metadata);
+        }
+        final Document doc = prepared.doc();
+        doc.add(new Field("docid", docId + "", ID_TYPE));
+
+        // the spatial part is added with the document identifier
+        if (prepared.spatial() != null) {
+            final SpatialPart sp = prepared.spatial();
+            try {
+                addBoundingBox(doc, sp.minxs(), sp.maxxs(), sp.minys(), sp.maxys(), sp.crs());
+            } catch (NullArgumentException ex) {
+                throw new IndexingException("error while spatially indexing:" + doc.get("id"), ex);
+            }
+        }
+        return doc;
+    }
+
+    /**
+     * Build the document of a metadata object, except its identifier and its spatial part.
+     * This method can be called concurrently by the bulk indexation.
+     *
+     * @param metadata The metadata to index.
+     */
+    private PreparedDocument prepareDocument(final A metadata) throws IndexingException {
         // make a new, empty document
         final Document doc = new Document();
-        doc.add(new Field("docid", docId + "", ID_TYPE));
 
         indexSpecialField(metadata, doc);
 
-        final StringBuilder anyText     = new StringBuilder();
-        boolean alreadySpatiallyIndexed = false;
+        final StringBuilder anyText = new StringBuilder();
+        SpatialPart spatial = null;
 
         SpecificQueryablePart spe = getSpecificQueryableByType(metadata);
         if (spe.queryable != null) {
             final Map<String, PathType> speQueryable = removeOverridenField(spe.queryable);
             indexQueryableSet(doc, metadata, speQueryable, anyText);
             if (spe.spatial) {
-                //we add the geometry parts
-                alreadySpatiallyIndexed = indexSpatialPart(doc, metadata, speQueryable, CommonCRS.WGS84.normalizedGeographic());
+                //we extract the geometry parts
+                spatial = extractSpatialPart(metadata, speQueryable, CommonCRS.WGS84.normalizedGeographic());
             }
         }
         doc.add(new Field("objectType", spe.type, SEARCH_TYPE));
@@ -175,11 +315,11 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
         final Map<String, PathType> dcQueryable = removeOverridenField(DUBLIN_CORE_QUERYABLE);
         indexQueryableSet(doc, metadata, dcQueryable, anyText);
 
-        //we add the geometry parts if its nor already indexed
-        if (!alreadySpatiallyIndexed) {
+        //we extract the geometry parts if its nor already found
+        if (spatial == null) {
             try {
                 CoordinateReferenceSystem crs = CRS.forCode("EPSG:4326");
-                indexSpatialPart(doc, metadata, dcQueryable, crs);
+                spatial = extractSpatialPart(metadata, dcQueryable, crs);
             } catch (FactoryException e) {
                 throw new IndexingException("Unable to decode EPSG:4326 CRS", e);
             }
@@ -194,19 +334,28 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
         //we add the anyText values
         doc.add(new Field("AnyText", anyText.toString(),   SEARCH_TYPE));
 
-        return doc;
+        return new PreparedDocument(doc, spatial);
     }
 
    /*
     * TODO move to super class
+    *
+    * Incremental update of an existing index, the lucene writer is configured by the properties
+    * EXA_CSW_INDEX_RAM_BUFFER and EXA_CSW_INDEX_COMMIT_INTERVAL.
     */
     @Override
     public void indexDocuments(List<A> documents) {
         final IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setRAMBufferSizeMB(Application.getIntegerProperty(AppProperty.EXA_CSW_INDEX_RAM_BUFFER, 64));
+        final int commitInterval = Application.getIntegerProperty(AppProperty.EXA_CSW_INDEX_COMMIT_INTERVAL, 0);
         try (final IndexWriter writer = new IndexWriter(LuceneUtils.getAppropriateDirectory(getFileDirectory()), config)) {
 
+            int nbDoc = 0;
             for (A doc : documents) {
                 indexDocument(writer, doc);
+                if (commitInterval > 0 && ++nbDoc % commitInterval == 0) {
+                    writer.commit();
+                }
             }
             if (rTree != null) {
                 rTree.getTreeElementMapper().flush();
@@ -340,8 +489,11 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
             }
             fieldType = 'u';
         }
-        addNumericField(fieldName, fieldType);
-        addNumericField(fieldName + "_sort", fieldType);
+        // the documents may be built concurrently during a bulk indexation
+        synchronized (this) {
+            addNumericField(fieldName, fieldType);
+            addNumericField(fieldName + "_sort", fieldType);
+        }
         doc.add(numField);
         doc.add(numSortField);
     }
@@ -375,33 +527,27 @@ public abstract class AbstractCSWIndexer<A> extends AbstractIndexer<A> implement
     protected abstract void indexQueryableSet(final Document doc, final A metadata, Map<String, PathType> queryableSet, final StringBuilder anyText) throws IndexingException;
 
     /**
-     * Spatially index the form extracting the BBOX values with the specified queryable set.
+     * Extract the BBOX values of the form with the specified queryable set.
      *
-     * @param doc The current Lucene document.
      * @param form The metadata records to spatially index.
      * @param queryableSet A set of queryable Term.
      * @param crs the coordinate reference system
      *
-     * @return true if the indexation succeed
+     * @return The spatial part to index, or {@code null} if the coordinates are incomplete.
      * @throws IndexingException
      */
-    private boolean indexSpatialPart(Document doc, A form, Map<String, PathType> queryableSet, CoordinateReferenceSystem crs) throws IndexingException {
+    private SpatialPart extractSpatialPart(A form, Map<String, PathType> queryableSet, CoordinateReferenceSystem crs) throws IndexingException {
 
         final List<Double> minxs = extractPositions(form, queryableSet.get("WestBoundLongitude"));
         final List<Double> maxxs = extractPositions(form, queryableSet.get("EastBoundLongitude"));
         final List<Double> maxys = extractPositions(form, queryableSet.get("NorthBoundLatitude"));
         final List<Double> minys = extractPositions(form, queryableSet.get("SouthBoundLatitude"));
-        try {
-            if (minxs.size() == minys.size() && minys.size() == maxxs.size() && maxxs.size() == maxys.size()) {
-                addBoundingBox(doc, minxs, maxxs, minys, maxys, crs);
-                return true;
-            } else {
-                LOGGER.log(Level.WARNING,NOT_SPATIALLY_INDEXABLE + "{0}\n cause: missing coordinates.", getIdentifier(form));
-            }
-        } catch (NullArgumentException ex) {
-            throw new IndexingException("error while spatially indexing:" + doc.get("id"), ex);
+        if (minxs.size() == minys.size() && minys.size() == maxxs.size() && maxxs.size() == maxys.size()) {
+            return new SpatialPart(minxs, maxxs, minys, maxys, crs);
+        } else {
+            LOGGER.log(Level.WARNING,NOT_SPATIALLY_INDEXABLE + "{0}\n cause: missing coordinates.", getIdentifier(form));
         }
-        return false;
+        return null;
     }
 
      /**
@@ -0,0 +1,415 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.metadata.index;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.constellation.metadata.index.AbstractCSWIndexer.EntryReader;
+import org.geotoolkit.index.IndexingException;
+
+/**
+ * Pipeline used during a full index creation.
+ *
+ * A reader thread pulls the identifiers (or the entries) from the store, a pool of threads reads the entries
+ * and builds their documents, and the indexing thread consumes them in the store order.
+ * The number of entries read ahead of the indexing thread is bounded.
+ *
+ * @author Guilhem Legal (Geomatys)
+ *
+ * @param <A> the type of indexed Object.
+ * @param <D> the type of the prepared document.
+ */
+final class BulkIndexPipeline<A, D> implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.metadata.index");
+
+    /**
+     * Number of indexed documents between two progress messages.
+     */
+    private static final int PROGRESS_STEP = 10000;
+
+    /**
+     * Build the document of an entry, called concurrently by the pool threads.
+     */
+    @FunctionalInterface
+    interface DocumentBuilder<A, D> {
+        D build(A entry) throws IndexingException;
+    }
+
+    private record Item<A>(String identifier, A entry, Future<A> read) {}
+
+    private final Item<A> end = new Item<>(null, null, null);
+
+    private final ExecutorService pool;
+
+    /**
+     * Permits of entries read ahead, released when their document is consumed.
+     */
+    private final Semaphore window;
+
+    private final DocumentBuilder<A, D> builder;
+
+    /**
+     * Documents being built, by entry (identity). Guarded by itself.
+     */
+    private final Map<A, Future<D>> prepared = new IdentityHashMap<>();
+
+    /**
+     * Read items, in the store order, consumed by the indexing thread.
+     */
+    private final BlockingDeque<Item<A>> items = new LinkedBlockingDeque<>();
+
+    /**
+     * Copy of the read items, consumed by the identifier iterator given to the indexer.
+     */
+    private final BlockingQueue<Item<A>> identifiers = new LinkedBlockingQueue<>();
+
+    private final Level logLevel;
+
+    private Thread reader;
+
+    private volatile boolean closed;
+
+    private volatile RuntimeException readError;
+
+    /**
+     * Last entry returned to the indexing thread, its document is discarded if the indexer skip it.
+     */
+    private A last;
+
+    private int indexed;
+
+    private final long start = System.currentTimeMillis();
+
+    /**
+     * @param threads Number of threads reading the entries and building the documents.
+     * @param builder Document builder.
+     * @param logLevel Level of the progress messages.
+     */
+    BulkIndexPipeline(final int threads, final DocumentBuilder<A, D> builder, final Level logLevel) {
+        final AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            final Thread t = new Thread(r, "csw-index-builder-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.window   = new Semaphore(threads * 4);
+        this.builder  = builder;
+        this.logLevel = logLevel != null ? logLevel : Level.INFO;
+    }
+
+    /**
+     * Start reading the entries of the specified identifiers.
+     *
+     * @param source Identifiers of the entries to index.
+     * @param entryReader Reader of a single entry.
+     * @return An iterator over the same identifiers, to give to the indexer.
+     */
+    Iterator<String> readIdentifiers(final Iterator<String> source, final EntryReader<A> entryReader) {
+        if (reader != null) {
+            return source;
+        }
+        startIdentifierReader(source, entryReader, true);
+        return new QueueIterator<>(identifiers, item -> {
+            dropSkipped(item);
+            return item.identifier();
+        });
+    }
+
+    /**
+     * Start reading the entries of the specified identifiers, which will be requested in the same order.
+     *
+     * @param source Identifiers of the entries to index.
+     * @param entryReader Reader of a single entry.
+     */
+    void readIdentifiers(final List<String> source, final EntryReader<A> entryReader) {
+        if (reader == null) {
+            startIdentifierReader(source.iterator(), entryReader, false);
+        }
+    }
+
+    private void startIdentifierReader(final Iterator<String> source, final EntryReader<A> entryReader, final boolean publish) {
+        startReader(() -> {
+            while (!closed && source.hasNext()) {
+                final String identifier = source.next();
+                window.acquire();
+                final Item<A> item = new Item<>(identifier, null, pool.submit(() -> read(identifier, entryReader)));
+                items.put(item);
+                if (publish) {
+                    identifiers.put(item);
+                }
+            }
+        }, publish);
+    }
+
+    /**
+     * Start building the documents of the specified entries.
+     *
+     * @param source Entries to index.
+     * @return An iterator over the same entries, to give to the indexer.
+     */
+    Iterator<A> readEntries(final Iterator<A> source) {
+        if (reader != null) {
+            return source;
+        }
+        startReader(() -> {
+            while (!closed && source.hasNext()) {
+                final A entry = source.next();
+                window.acquire();
+                if (entry != null) {
+                    register(entry, pool.submit(() -> builder.build(entry)));
+                } else {
+                    window.release();
+                }
+                items.put(new Item<>(null, entry, null));
+            }
+        }, false);
+        return new QueueIterator<>(items, item -> {
+            discardLast();
+            last = item.entry();
+            return item.entry();
+        });
+    }
+
+    /**
+     * Return the entry read in advance for the specified identifier, or read it directly
+     * if the identifier is not the next one in the store order.
+     */
+    A entry(final String identifier, final EntryReader<A> entryReader) throws IndexingException {
+        discardLast();
+        final Item<A> item;
+        try {
+            item = items.takeFirst();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IndexingException("Interrupted while reading entry for:" + identifier, ex);
+        }
+        if (item == end || item.read() == null || !identifier.equals(item.identifier())) {
+            items.addFirst(item);
+            return entryReader.read(identifier);
+        }
+        last = get(item.read());
+        return last;
+    }
+
+    /**
+     * Return the document built for the specified entry, or {@code null} if it has not been built by this pipeline.
+     */
+    D take(final A entry) throws IndexingException {
+        final Future<D> document;
+        synchronized (prepared) {
+            document = prepared.remove(entry);
+        }
+        if (document == null) {
+            return null;
+        }
+        window.release();
+        if (entry == last) {
+            last = null;
+        }
+        if (++indexed % PROGRESS_STEP == 0) {
+            final long time = System.currentTimeMillis() - start;
+            LOGGER.log(logLevel, "{0} documents indexed ({1} documents/s)", new Object[]{indexed, time > 0 ? indexed * 1000L / time : indexed});
+        }
+        return get(document);
+    }
+
+    private A read(final String identifier, final EntryReader<A> entryReader) throws IndexingException {
+        final A entry;
+        try {
+            entry = entryReader.read(identifier);
+        } catch (IndexingException | RuntimeException ex) {
+            window.release();
+            throw ex;
+        }
+        if (entry == null) {
+            window.release();
+        } else {
+            // the document is built by the thread which read the entry
+            final FutureTask<D> document = new FutureTask<>(() -> builder.build(entry));
+            document.run();
+            register(entry, document);
+        }
+        return entry;
+    }
+
+    /**
+     * Release the items preceding the current identifier, which entries have not been requested by the indexer.
+     */
+    private void dropSkipped(final Item<A> current) {
+        Item<A> head;
+        while ((head = items.peekFirst()) != null && head != current && head != end) {
+            items.pollFirst();
+            if (head.read() != null) {
+                try {
+                    discard(head.read().get());
+                } catch (ExecutionException ex) {
+                    // the permit has been released by the reading task
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void register(final A entry, final Future<D> document) {
+        final Future<D> previous;
+        synchronized (prepared) {
+            previous = prepared.put(entry, document);
+        }
+        if (previous != null) {
+            window.release();
+        }
+    }
+
+    /**
+     * Release the document of the last returned entry if the indexer did not use it.
+     */
+    private void discardLast() {
+        if (last != null) {
+            discard(last);
+            last = null;
+        }
+    }
+
+    private void discard(final A entry) {
+        if (entry != null) {
+            final Future<D> document;
+            synchronized (prepared) {
+                document = prepared.remove(entry);
+            }
+            if (document != null) {
+                window.release();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Producer {
+        void produce() throws InterruptedException;
+    }
+
+    private void startReader(final Producer producer, final boolean publishIdentifiers) {
+        reader = new Thread(() -> {
+            try {
+                producer.produce();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                readError = ex;
+            } finally {
+                items.add(end);
+                if (publishIdentifiers) {
+                    identifiers.add(end);
+                }
+            }
+        }, "csw-index-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static <T> T get(final Future<T> future) throws IndexingException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IndexingException("Interrupted while building document", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IndexingException ie) {
+                throw ie;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IndexingException("Error while building document", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (reader != null) {
+            reader.interrupt();
+        }
+        pool.shutdownNow();
+        LOGGER.log(logLevel, "{0} documents indexed in {1} ms", new Object[]{indexed, System.currentTimeMillis() - start});
+    }
+
+    /**
+     * Iterator over a queue filled by the reader thread.
+     */
+    private final class QueueIterator<T> implements Iterator<T> {
+
+        private final BlockingQueue<Item<A>> queue;
+        private final Function<Item<A>, T> value;
+        private Item<A> next;
+
+        private QueueIterator(final BlockingQueue<Item<A>> queue, final Function<Item<A>, T> value) {
+            this.queue = queue;
+            this.value = value;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    next = end;
+                }
+            }
+            if (next == end) {
+                if (readError != null) {
+                    throw readError;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Item<A> item = next;
+            next = null;
+            return value.apply(item);
+        }
+    }
+}
@@ -139,7 +139,7 @@ public class GenericIndexer extends AbstractCSWIndexer<Object> {
     @Override
     protected List<String> getAllIdentifiers() throws IndexingException {
         try {
-            return store.getAllIdentifiers();
+            return getAllIdentifiers(store.getAllIdentifiers(), this::readEntry);
         } catch (MetadataIoException ex) {
             throw new IndexingException("Metadata_IOException while reading all identifiers", ex);
         }
@@ -151,7 +151,7 @@ public class GenericIndexer extends AbstractCSWIndexer<Object> {
     @Override
     protected Iterator<String> getIdentifierIterator() throws IndexingException {
         try {
-            return store.getIdentifierIterator();
+            return getIdentifierIterator(store.getIdentifierIterator(), this::readEntry);
         } catch (MetadataIoException ex) {
             throw new IndexingException("Metadata_IOException while reading identifier iterator", ex);
         }
@@ -162,6 +162,10 @@ public class GenericIndexer extends AbstractCSWIndexer<Object> {
      */
     @Override
     protected Object getEntry(final String identifier) throws IndexingException {
+        return getEntry(identifier, this::readEntry);
+    }
+
+    private Object readEntry(final String identifier) throws IndexingException {
         try {
             RecordInfo record = store.getMetadata(identifier, MetadataType.ISO_19115);
             if (record != null) {
@@ -221,6 +225,15 @@ public class GenericIndexer extends AbstractCSWIndexer<Object> {
      */
     @Override
     protected void indexQueryableSet(final Document doc, final Object metadata,final  Map<String, PathType> queryableSet, final StringBuilder anyText) throws IndexingException {
+        if (isBulkIndexing()) {
+            // the documents are already built in parallel
+            for (final String term : queryableSet.keySet()) {
+                final List<String> paths = XpathUtils.xpathToMDPath(queryableSet.get(term).paths);
+                final TermValue values = formatStringValue(new TermValue(term, Utils.extractValues(metadata, paths)));
+                indexFields(values.value, values.term, anyText, doc);
+            }
+            return;
+        }
         final CompletionService<TermValue> cs = new BoundedCompletionService<>(this.pool, 5);
         for (final String term :queryableSet.keySet()) {
             cs.submit(new Callable<TermValue>() {
@@ -128,7 +128,7 @@ public class NodeIndexer extends AbstractCSWIndexer<Node> {
     @Override
     protected List<String> getAllIdentifiers() throws IndexingException {
         try {
-            return store.getAllIdentifiers();
+            return getAllIdentifiers(store.getAllIdentifiers(), this::readEntry);
         } catch (MetadataIoException ex) {
             throw new IndexingException("Metadata_IOException while reading all identifiers", ex);
         }
@@ -140,7 +140,7 @@ public class NodeIndexer extends AbstractCSWIndexer<Node> {
     @Override
     protected Iterator<String> getIdentifierIterator() throws IndexingException {
         try {
-            return store.getIdentifierIterator();
+            return getIdentifierIterator(store.getIdentifierIterator(), this::readEntry);
         } catch (MetadataIoException ex) {
             throw new IndexingException("Metadata_IOException while reading identifier iterator", ex);
         }
@@ -151,6 +151,10 @@ public class NodeIndexer extends AbstractCSWIndexer<Node> {
      */
     @Override
     protected Node getEntry(final String identifier) throws IndexingException {
+        return getEntry(identifier, this::readEntry);
+    }
+
+    private Node readEntry(final String identifier) throws IndexingException {
         try {
             RecordInfo record = store.getMetadata(identifier, MetadataType.NATIVE);
             if (record != null) {
@@ -280,7 +284,7 @@ public class NodeIndexer extends AbstractCSWIndexer<Node> {
     protected Iterator<Node> getEntryIterator() throws IndexingException {
         try {
             final Iterator<RecordInfo> it = store.getEntryIterator();
-            return new Iterator<Node>() {
+            return getEntryIterator(new Iterator<Node>() {
                 @Override
                 public boolean hasNext() {
                     return it.hasNext();
@@ -294,7 +298,7 @@ public class NodeIndexer extends AbstractCSWIndexer<Node> {
                     }
                     return null;
                 }
-            };
+            });
         } catch (MetadataIoException ex) {
             throw new IndexingException("Error while getting entry iterator", ex);
         }
@@ -0,0 +1,153 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.metadata.index;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import org.geotoolkit.index.IndexingException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class BulkIndexPipelineTest {
+
+    private static final int NB_ENTRIES = 1000;
+
+    private static List<String> identifiers() {
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < NB_ENTRIES; i++) {
+            ids.add("id-" + i);
+        }
+        return ids;
+    }
+
+    private static String read(String identifier) {
+        // every tenth entry is missing from the store
+        if (identifier.endsWith("0")) {
+            return null;
+        }
+        return new String("entry-" + identifier);
+    }
+
+    @Test(timeout = 30000)
+    public void identifierIteratorTest() throws Exception {
+        final AbstractCSWIndexer.EntryReader<String> fallback = id -> {
+            throw new IndexingException("entry should have been read in advance:" + id);
+        };
+        try (BulkIndexPipeline<String, String> pipeline = new BulkIndexPipeline<>(2, e -> e.toUpperCase(), Level.FINER)) {
+            final Iterator<String> it = pipeline.readIdentifiers(identifiers().iterator(), BulkIndexPipelineTest::read);
+            int i = 0;
+            int nbDoc = 0;
+            while (it.hasNext()) {
+                final String id = it.next();
+                Assert.assertEquals("id-" + i, id);
+                // some identifiers are skipped, some entries are not indexed, they must not block the pipeline
+                if (i % 7 != 0) {
+                    final String entry = pipeline.entry(id, fallback);
+                    if (id.endsWith("0")) {
+                        Assert.assertNull(entry);
+                    } else {
+                        Assert.assertEquals("entry-" + id, entry);
+                        if (i % 11 != 0) {
+                            Assert.assertEquals("ENTRY-" + id.toUpperCase(), pipeline.take(entry));
+                            nbDoc++;
+                        }
+                    }
+                }
+                i++;
+            }
+            Assert.assertEquals(NB_ENTRIES, i);
+            Assert.assertTrue(nbDoc > 0);
+
+            // an entry not read by the pipeline is built by the caller
+            Assert.assertNull(pipeline.take("other"));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void identifierListTest() throws Exception {
+        final List<String> ids = identifiers();
+        try (BulkIndexPipeline<String, String> pipeline = new BulkIndexPipeline<>(4, e -> e.toUpperCase(), Level.FINER)) {
+            pipeline.readIdentifiers(ids, BulkIndexPipelineTest::read);
+            for (String id : ids) {
+                final String entry = pipeline.entry(id, BulkIndexPipelineTest::read);
+                if (entry != null) {
+                    Assert.assertEquals("ENTRY-" + id.toUpperCase(), pipeline.take(entry));
+                }
+            }
+            // an identifier out of the list is read directly
+            Assert.assertEquals("entry-id-x", pipeline.entry("id-x", BulkIndexPipelineTest::read));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void entryIteratorTest() throws Exception {
+        final List<String> entries = new ArrayList<>();
+        for (String id : identifiers()) {
+            entries.add(read(id));
+        }
+        try (BulkIndexPipeline<String, String> pipeline = new BulkIndexPipeline<>(3, e -> e.toUpperCase(), Level.FINER)) {
+            final Iterator<String> it = pipeline.readEntries(entries.iterator());
+            int i = 0;
+            while (it.hasNext()) {
+                final String entry = it.next();
+                Assert.assertSame(entries.get(i), entry);
+                if (entry != null && i % 5 != 0) {
+                    Assert.assertEquals(entry.toUpperCase(), pipeline.take(entry));
+                }
+                i++;
+            }
+            Assert.assertEquals(NB_ENTRIES, i);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void buildErrorTest() throws Exception {
+        final BulkIndexPipeline.DocumentBuilder<String, String> builder = e -> {
+            if (e.endsWith("-5")) {
+                throw new IndexingException("unable to build:" + e);
+            }
+            return e.toUpperCase();
+        };
+        try (BulkIndexPipeline<String, String> pipeline = new BulkIndexPipeline<>(2, builder, Level.FINER)) {
+            final Iterator<String> it = pipeline.readIdentifiers(identifiers().iterator(), BulkIndexPipelineTest::read);
+            while (it.hasNext()) {
+                final String id = it.next();
+                final String entry = pipeline.entry(id, BulkIndexPipelineTest::read);
+                if (entry != null) {
+                    if (id.equals("id-5")) {
+                        try {
+                            pipeline.take(entry);
+                            Assert.fail("the building error should be reported");
+                        } catch (IndexingException ex) {
+                            Assert.assertEquals("unable to build:entry-id-5", ex.getMessage());
+                        }
+                    } else {
+                        Assert.assertEquals("ENTRY-" + id.toUpperCase(), pipeline.take(entry));
+                    }
+                }
+            }
+        }
+    }
+}
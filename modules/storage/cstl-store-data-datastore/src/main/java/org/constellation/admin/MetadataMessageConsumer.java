@@ -0,0 +1,79 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.admin;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.constellation.business.ClusterMessage;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.business.MessageException;
+import org.constellation.business.MessageListener;
+import org.constellation.provider.datastore.MetadataOverrideCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import static org.constellation.business.ClusterMessageConstant.*;
+
+/**
+ * Listen to constellation messages related to metadata modifications,
+ * to discard the metadata overrides cached for the provider data.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+@Component
+public class MetadataMessageConsumer extends MessageListener {
+
+    private String uid;
+
+    @Autowired
+    private IClusterBusiness clusterBusiness;
+
+    @PostConstruct
+    public void init(){
+        //attach listener to event topic
+        uid = clusterBusiness.addMessageListener(this);
+    }
+
+    @PreDestroy
+    public void destroy(){
+        clusterBusiness.removeMessageListener(uid);
+    }
+
+    @Override
+    protected IClusterBusiness getClusterBusiness() {
+        return clusterBusiness;
+    }
+
+    @Override
+    protected boolean filter(ClusterMessage message) {
+        return MTD_MESSAGE_TYPE_ID.equals(message.getTypeId())
+               && message.isRequest();
+    }
+
+    @Override
+    public ClusterMessage process(ClusterMessage message) throws MessageException {
+        final String action = message.getString(KEY_ACTION,false);
+
+        switch(action){
+            case MTD_VALUE_ACTION_DATA_UPDATED : MetadataOverrideCache.evict(message.getInteger(KEY_IDENTIFIER,false)); break;
+            default: throw new MessageException("Unknown request action : "+action);
+        }
+
+        return null;
+    }
+}
@@ -44,7 +44,6 @@ import org.apache.sis.internal.storage.StoreResource;
 import org.apache.sis.internal.storage.image.WorldFileStore;
 import org.apache.sis.internal.util.UnmodifiableArrayList;
 import org.apache.sis.measure.NumberRange;
-import org.apache.sis.parameter.Parameters;
 import org.apache.sis.portrayal.MapItem;
 import org.apache.sis.portrayal.MapLayer;
 import org.apache.sis.referencing.CRS;
@@ -61,14 +60,13 @@ import org.constellation.dto.CoverageDataDescription;
 import org.constellation.dto.StatInfo;
 import org.constellation.exception.ConstellationException;
 import org.constellation.exception.ConstellationStoreException;
+import org.constellation.provider.util.CoverageStatistics;
 import org.constellation.provider.util.DataStatisticsListener;
 import org.constellation.repository.DataRepository;
 import org.geotoolkit.coverage.grid.GridGeometryIterator;
 import org.geotoolkit.coverage.grid.GridIterator;
 import org.geotoolkit.image.io.metadata.SpatialMetadata;
 import org.geotoolkit.map.MapBuilder;
-import org.geotoolkit.processing.coverage.statistics.Statistics;
-import org.geotoolkit.processing.coverage.statistics.StatisticsDescriptor;
 import org.geotoolkit.referencing.ReferencingUtilities;
 import org.geotoolkit.storage.coverage.ImageStatistics;
 import org.geotoolkit.style.DefaultStyleFactory;
@@ -572,20 +570,10 @@ public class DefaultCoverageData extends DefaultGeoData<GridCoverageResource> im
 
     @Override
     public ImageStatistics computeStatistic(int dataId, DataRepository dataRepository) throws ConstellationStoreException {
-        // Hack compute statistic from 5% of the first slice
+        // exact statistics, on every pixel of every slice
         try {
             GridGeometry gg = getGeometry();
-            if (gg.isDefined(GridGeometry.EXTENT)) {
-                GridExtent extent = gg.getExtent();
-                int[] subSample = new int[extent.getDimension()];
-                subSample[0] = Math.round(extent.getSize(0) * 0.05f);
-                subSample[1] = Math.round(extent.getSize(1) * 0.05f);
-                for (int i = 2; i < extent.getDimension(); i++) {
-                    subSample[i] = Math.toIntExact(extent.getSize(i));
-                }
-                gg = gg.derive().subgrid(null, subSample).build();
-
-            } else if (gg.isDefined(GridGeometry.ENVELOPE)) {
+            if (!gg.isDefined(GridGeometry.EXTENT) && gg.isDefined(GridGeometry.ENVELOPE)) {
                 final Envelope env = gg.getEnvelope();
 
                 // find horizontal crs and it's index.
@@ -614,13 +602,11 @@ public class DefaultCoverageData extends DefaultGeoData<GridCoverageResource> im
                 gg = new GridGeometry(new GridExtent(null, low, high, true), env, GridOrientation.HOMOTHETY);
             }
 
-            final GridCoverage cov = origin.read(gg);
-            final org.geotoolkit.process.Process process = new Statistics(cov, false);
+            final ImageStatistics stats = new CoverageStatistics(origin, gg).compute();
             if (dataRepository != null) {
-                process.addListener(new DataStatisticsListener(dataId, dataRepository));
+                new DataStatisticsListener(dataId, dataRepository).completed(stats);
             }
-            final Parameters out = Parameters.castOrWrap(process.call());
-            return out.getMandatoryValue(StatisticsDescriptor.OUTCOVERAGE);
+            return stats;
         } catch(Exception ex) {
             throw new ConstellationStoreException("Statistics computing failed", ex);
         }
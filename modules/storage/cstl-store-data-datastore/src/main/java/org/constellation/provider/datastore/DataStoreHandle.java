@@ -6,6 +6,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashSet;
@@ -18,22 +19,36 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
 import org.opengis.geometry.Envelope;
 import org.opengis.metadata.Metadata;
 import org.opengis.util.GenericName;
 
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridGeometry;
 import org.apache.sis.storage.DataSet;
 import org.apache.sis.storage.DataStore;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.FeatureNaming;
+import org.apache.sis.storage.FeatureSet;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.Query;
+import org.apache.sis.storage.RasterLoadingStrategy;
 import org.apache.sis.storage.Resource;
 import org.apache.sis.storage.WritableAggregate;
+import org.apache.sis.storage.event.StoreEvent;
+import org.apache.sis.storage.event.StoreListener;
+import org.apache.sis.storage.tiling.TileMatrixSet;
 import org.apache.sis.util.Classes;
 import org.apache.sis.util.collection.BackingStoreException;
 import org.apache.sis.util.iso.Names;
 
 import org.geotoolkit.storage.DataStores;
 import org.geotoolkit.storage.feature.FeatureStore;
+import org.geotoolkit.storage.multires.TileFormat;
+import org.geotoolkit.storage.multires.TiledResource;
 
 import org.constellation.admin.SpringHelper;
 import org.constellation.business.IMetadataBusiness;
@@ -146,25 +161,38 @@ final class DataStoreHandle implements AutoCloseable {
     }
 
     /**
-     * Create a Java dynamic proxy, to create a wrapper around a resource. Such a wrapper is needed to provide custom
-     * metadata for the resource.
+     * Create a wrapper around a resource. Such a wrapper is needed to provide custom metadata for the resource.
+     *
+     * For the most common resource types ({@link FeatureSet}, {@link GridCoverageResource} and tiled coverages),
+     * a plain decorator class is used to avoid reflective calls. Otherwise, a Java dynamic proxy is created to
+     * expose all the interfaces of the resource.
      *
      * @param dataId An operator providing identifier of the associated resource in Examind system. It should be a fixed
      *               value. However, it can happen that Examind has not any entry in its administration database at the
      *               time of this call. So, we defer the id computing for the last moment, when metadata is queried.
      * @param target The resource we want to override metadata for.
      * @param mdBiz The service able to provide metadata override for given target resource.
-     * @return A proxy instance of the resource provided as input.
+     * @return A decorated instance of the resource provided as input.
      */
     static Resource createProxy(IntSupplier dataId, final Resource target, final IMetadataBusiness mdBiz) {
-        final Stream<Class<?>> targetInterfaces = Arrays.stream(Classes.getLeafInterfaces(target.getClass(), null))
-                .filter(token -> !Cloneable.class.equals(token));
+        final Set<Class<?>> targetInterfaces = Arrays.stream(Classes.getLeafInterfaces(target.getClass(), null))
+                .filter(token -> !Cloneable.class.equals(token))
+                .collect(Collectors.toSet());
+
+        final MetadataDecoration<?> decoration = new MetadataDecoration<>(dataId, target, mdBiz);
+        if (targetInterfaces.equals(Set.of(FeatureSet.class))) {
+            return new FeatureSetDecoration(decoration, (FeatureSet) target);
+        } else if (targetInterfaces.equals(Set.of(GridCoverageResource.class))) {
+            return new CoverageDecoration(decoration, (GridCoverageResource) target);
+        } else if (targetInterfaces.equals(Set.of(GridCoverageResource.class, TiledResource.class))) {
+            return new TiledCoverageDecoration(decoration, (GridCoverageResource) target);
+        }
 
         return (Resource) Proxy.newProxyInstance(
                 DataStoreHandle.class.getClassLoader(),
-                Stream.concat(Stream.of(ResourceProxy.class), targetInterfaces)
+                Stream.concat(Stream.of(ResourceProxy.class), targetInterfaces.stream())
                         .toArray(size -> new Class[size]),
-                new MetadataDecoration<>(dataId, target, mdBiz)
+                decoration
         );
     }
 
@@ -287,6 +315,10 @@ final class DataStoreHandle implements AutoCloseable {
          * for details about why it's not a fixed value).
          */
         final IntSupplier dataId;
+        /**
+         * Data identifier, once successfully resolved by {@link #dataId}.
+         */
+        private volatile Integer resolvedDataId;
         /**
          * Decorated resource. Any call will be directly delegated to it, except for:
          * <ul>
@@ -340,13 +372,15 @@ final class DataStoreHandle implements AutoCloseable {
             }
         }
 
-        private Metadata getMetadata() throws DataStoreException {
+        Metadata getMetadata() throws DataStoreException {
             try {
-                final int dataId = this.dataId.getAsInt();
-                final Optional<Object> examindMetadata = metadataSource.getIsoMetadatasForData(dataId).stream()
-                        .filter(Metadata.class::isInstance)
-                        .findAny();
-                if (examindMetadata.isPresent()) return (Metadata) examindMetadata.get();
+                Integer dataId = resolvedDataId;
+                if (dataId == null) {
+                    dataId = this.dataId.getAsInt();
+                    resolvedDataId = dataId;
+                }
+                final Metadata examindMetadata = MetadataOverrideCache.get(dataId, metadataSource);
+                if (examindMetadata != null) return examindMetadata;
             } catch (Exception e) {
                 DataProviders.LOGGER.log(Level.WARNING, "Metadata override cannot be fetched. Return original one instead.", e);
             }
@@ -378,4 +412,155 @@ final class DataStoreHandle implements AutoCloseable {
             return origin;
         }
     }
+
+    /**
+     * Base class for the decorators of the common resource types. As opposed to a dynamic proxy, they directly
+     * delegate calls to the decorated resource, except for metadata retrieval.
+     *
+     * @param <T> Resource type wrapped by this decorator.
+     */
+    private static abstract class ResourceDecoration<T extends Resource> implements Resource, ResourceProxy {
+
+        final MetadataDecoration<?> decoration;
+
+        final T origin;
+
+        ResourceDecoration(MetadataDecoration<?> decoration, T origin) {
+            this.decoration = decoration;
+            this.origin = origin;
+        }
+
+        @Override
+        public Optional<GenericName> getIdentifier() throws DataStoreException {
+            return origin.getIdentifier();
+        }
+
+        @Override
+        public Metadata getMetadata() throws DataStoreException {
+            return decoration.getMetadata();
+        }
+
+        @Override
+        public <E extends StoreEvent> void addListener(Class<E> eventType, StoreListener<? super E> listener) {
+            origin.addListener(eventType, listener);
+        }
+
+        @Override
+        public <E extends StoreEvent> void removeListener(Class<E> eventType, StoreListener<? super E> listener) {
+            origin.removeListener(eventType, listener);
+        }
+
+        @Override
+        public Resource getOrigin() {
+            return origin;
+        }
+
+        @Override
+        public String toString() {
+            return decoration.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return decoration.equals(((ResourceDecoration<?>) o).decoration);
+        }
+
+        @Override
+        public int hashCode() {
+            return decoration.hashCode();
+        }
+    }
+
+    private static final class FeatureSetDecoration extends ResourceDecoration<FeatureSet> implements FeatureSet {
+
+        FeatureSetDecoration(MetadataDecoration<?> decoration, FeatureSet origin) {
+            super(decoration, origin);
+        }
+
+        @Override
+        public Optional<Envelope> getEnvelope() throws DataStoreException {
+            return origin.getEnvelope();
+        }
+
+        @Override
+        public FeatureType getType() throws DataStoreException {
+            return origin.getType();
+        }
+
+        @Override
+        public FeatureSet subset(Query query) throws DataStoreException {
+            return origin.subset(query);
+        }
+
+        @Override
+        public Stream<Feature> features(boolean parallel) throws DataStoreException {
+            return origin.features(parallel);
+        }
+    }
+
+    private static class CoverageDecoration extends ResourceDecoration<GridCoverageResource> implements GridCoverageResource {
+
+        CoverageDecoration(MetadataDecoration<?> decoration, GridCoverageResource origin) {
+            super(decoration, origin);
+        }
+
+        @Override
+        public Optional<Envelope> getEnvelope() throws DataStoreException {
+            return origin.getEnvelope();
+        }
+
+        @Override
+        public GridGeometry getGridGeometry() throws DataStoreException {
+            return origin.getGridGeometry();
+        }
+
+        @Override
+        public List<SampleDimension> getSampleDimensions() throws DataStoreException {
+            return origin.getSampleDimensions();
+        }
+
+        @Override
+        public List<double[]> getResolutions() throws DataStoreException {
+            return origin.getResolutions();
+        }
+
+        @Override
+        public GridCoverageResource subset(Query query) throws DataStoreException {
+            return origin.subset(query);
+        }
+
+        @Override
+        public GridCoverage read(GridGeometry domain, int... ranges) throws DataStoreException {
+            return origin.read(domain, ranges);
+        }
+
+        @Override
+        public RasterLoadingStrategy getLoadingStrategy() throws DataStoreException {
+            return origin.getLoadingStrategy();
+        }
+
+        @Override
+        public boolean setLoadingStrategy(RasterLoadingStrategy strategy) throws DataStoreException {
+            return origin.setLoadingStrategy(strategy);
+        }
+    }
+
+    private static final class TiledCoverageDecoration extends CoverageDecoration implements TiledResource {
+
+        TiledCoverageDecoration(MetadataDecoration<?> decoration, GridCoverageResource origin) {
+            super(decoration, origin);
+        }
+
+        @Override
+        public Collection<? extends TileMatrixSet> getTileMatrixSets() throws DataStoreException {
+            return ((TiledResource) origin).getTileMatrixSets();
+        }
+
+        @Override
+        public TileFormat getTileFormat() {
+            return ((TiledResource) origin).getTileFormat();
+        }
+    }
 }
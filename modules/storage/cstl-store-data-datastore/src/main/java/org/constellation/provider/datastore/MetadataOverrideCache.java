@@ -0,0 +1,94 @@
+package org.constellation.provider.datastore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opengis.metadata.Metadata;
+
+import org.apache.sis.metadata.MetadataCopier;
+import org.apache.sis.metadata.MetadataStandard;
+import org.apache.sis.metadata.ModifiableMetadata;
+import org.apache.sis.util.Static;
+
+import org.constellation.business.IMetadataBusiness;
+import org.constellation.exception.ConstellationException;
+
+/**
+ * Cache of the metadata registered in Examind for provider data, by data identifier.
+ *
+ * Resolving a metadata override implies a database query and the unmarshalling of an ISO XML document. As resource
+ * metadata are requested many times by capabilities generation and portrayal, the result is kept here until the
+ * metadata of the data is modified (see {@link #evict(int)}). The cached metadata are unmodifiable copies.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class MetadataOverrideCache extends Static {
+
+    /**
+     * A resolved override. A {@code null} metadata means that no override is registered for the data.
+     * The source service is kept to avoid sharing entries between different metadata services.
+     */
+    private record Entry(IMetadataBusiness source, Metadata metadata) {}
+
+    private static final Map<Integer, Entry> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each eviction, to avoid caching a metadata read before a concurrent update.
+     */
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private MetadataOverrideCache() {}
+
+    /**
+     * Return the ISO metadata registered in Examind for the specified data.
+     *
+     * @param dataId Examind data identifier.
+     * @param mdBiz Service to query if the metadata is not in cache.
+     * @return The metadata override, or {@code null} if there is none.
+     * @throws ConstellationException If the metadata can not be retrieved.
+     */
+    static Metadata get(final int dataId, final IMetadataBusiness mdBiz) throws ConstellationException {
+        final Entry cached = CACHE.get(dataId);
+        if (cached != null && cached.source == mdBiz) {
+            return cached.metadata;
+        }
+        final long version = VERSION.get();
+        final Metadata md = mdBiz.getIsoMetadatasForData(dataId).stream()
+                .filter(Metadata.class::isInstance)
+                .map(Metadata.class::cast)
+                .findAny()
+                .map(MetadataOverrideCache::unmodifiable)
+                .orElse(null);
+        final Entry entry = new Entry(mdBiz, md);
+        CACHE.put(dataId, entry);
+        if (version != VERSION.get()) {
+            CACHE.remove(dataId, entry);
+        }
+        return md;
+    }
+
+    /**
+     * Return an unmodifiable copy of the specified metadata, as the cached instance is shared by all the callers.
+     */
+    private static Metadata unmodifiable(final Metadata md) {
+        if (md instanceof ModifiableMetadata mm && mm.state() == ModifiableMetadata.State.FINAL) {
+            return md;
+        }
+        final Metadata copy = new MetadataCopier(MetadataStandard.ISO_19115).copy(Metadata.class, md);
+        if (copy instanceof ModifiableMetadata mm) {
+            mm.transitionTo(ModifiableMetadata.State.FINAL);
+        }
+        return copy;
+    }
+
+    /**
+     * Discard the cached metadata of the specified data.
+     *
+     * @param dataId Examind data identifier.
+     */
+    public static void evict(final int dataId) {
+        VERSION.incrementAndGet();
+        CACHE.remove(dataId);
+    }
+}
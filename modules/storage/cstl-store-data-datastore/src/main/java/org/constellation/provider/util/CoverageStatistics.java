@@ -0,0 +1,519 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.provider.util;
+
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.DisjointExtentException;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.tiling.TileMatrix;
+import org.apache.sis.storage.tiling.TileMatrixSet;
+import org.apache.sis.util.collection.BackingStoreException;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+import org.geotoolkit.storage.coverage.ImageStatistics;
+import org.geotoolkit.storage.multires.TileMatrices;
+import org.geotoolkit.storage.multires.TiledResource;
+
+/**
+ * Compute the exact statistics of a coverage, on every pixel of every slice.
+ *
+ * The coverage is read by chunks aligned on its tiles, one slice at a time, and each chunk produces
+ * per-band accumulators which are merged together. Each chunk is read once: its image is scanned a first
+ * time for the minimum, maximum, mean and standard deviation, then a second time in memory to fill a fine
+ * histogram between the chunk minimum and maximum. The fine histograms are merged without reading the chunks
+ * again, then regrouped in the final bins between the coverage minimum and maximum. The result is exact as long
+ * as the values of a fine bin do not fall in two final bins, otherwise the count of this bin is shared between them.
+ * The NaN values, which are the no-data values once the samples are converted, are excluded.
+ *
+ * The chunks are processed in a fork/join pool shared by all the computations, and their size is chosen
+ * so that the pixels requested by all the threads stay under a memory ceiling. This ceiling only bounds the
+ * requests: a resource returning more than the requested area (for example a non tiled file read at once)
+ * may use more memory. Only the requested part of the returned coverage is scanned, so such a resource
+ * does not bias the statistics.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class CoverageStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.provider");
+
+    /**
+     * Number of bins of the computed histograms.
+     */
+    static final int HISTOGRAM_SIZE = 1000;
+
+    /**
+     * Chunk size used when the resource does not expose its tiling.
+     */
+    private static final int DEFAULT_TILE_SIZE = 512;
+
+    /**
+     * Maximal size of a chunk along each dimension.
+     */
+    private static final int MAX_CHUNK_SIZE = 8192;
+
+    private static final long DEFAULT_MAX_MEMORY = 256L * 1024 * 1024;
+
+    private static ForkJoinPool pool;
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            final int parallelism = Application.getIntegerProperty(AppProperty.EXA_STATISTICS_PARALLELISM, Runtime.getRuntime().availableProcessors() / 2);
+            pool = new ForkJoinPool(Math.max(1, parallelism));
+        }
+        return pool;
+    }
+
+    private final GridCoverageResource resource;
+
+    private final GridGeometry domain;
+
+    private final List<SampleDimension> sampleDimensions;
+
+    /**
+     * Size of the chunks along the two first grid dimensions.
+     */
+    private final int[] chunkSize;
+
+    /**
+     * @param resource The coverage to analyze.
+     * @param domain The grid to read, usually the grid geometry of the resource. Its extent must be defined.
+     *
+     * @throws DataStoreException If the resource sample dimensions or tiling can not be read.
+     */
+    public CoverageStatistics(final GridCoverageResource resource, final GridGeometry domain) throws DataStoreException {
+        this.resource = resource;
+        this.domain = domain;
+        this.sampleDimensions = resource.getSampleDimensions();
+        final long maxMemory = Application.getLongProperty(AppProperty.EXA_STATISTICS_MAX_MEMORY, DEFAULT_MAX_MEMORY);
+        final long maxPixels = maxMemory / ((long) getPool().getParallelism() * Math.max(1, sampleDimensions.size()) * Double.BYTES);
+        this.chunkSize = chunkSize(tileSize(resource), maxPixels);
+    }
+
+    /**
+     * Constructor with an explicit chunk size.
+     */
+    CoverageStatistics(final GridCoverageResource resource, final GridGeometry domain, final int[] chunkSize) throws DataStoreException {
+        this.resource = resource;
+        this.domain = domain;
+        this.sampleDimensions = resource.getSampleDimensions();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Return the size of the tiles of the finest level of a tiled resource, or a default size.
+     */
+    private static int[] tileSize(final GridCoverageResource resource) throws DataStoreException {
+        if (resource instanceof TiledResource tiled) {
+            for (TileMatrixSet tms : tiled.getTileMatrixSets()) {
+                TileMatrix finest = null;
+                for (TileMatrix tm : tms.getTileMatrices().values()) {
+                    finest = tm;
+                }
+                if (finest != null) {
+                    return TileMatrices.getTileSize(finest);
+                }
+            }
+        }
+        return new int[] {DEFAULT_TILE_SIZE, DEFAULT_TILE_SIZE};
+    }
+
+    /**
+     * Grow a tile size by a factor of two while the chunk stays under the given number of pixels.
+     * A chunk is never smaller than a tile.
+     */
+    static int[] chunkSize(final int[] tileSize, final long maxPixels) {
+        final int[] size = {tileSize[0], tileSize[1]};
+        while ((long) size[0] * size[1] * 4 <= maxPixels && size[0] < MAX_CHUNK_SIZE && size[1] < MAX_CHUNK_SIZE) {
+            size[0] *= 2;
+            size[1] *= 2;
+        }
+        return size;
+    }
+
+    /**
+     * Split the domain extent in chunks, with one slice by chunk on the dimensions after the two first.
+     * The chunks start at multiples of the chunk size in grid coordinates, so they stay aligned on the
+     * tiles of the resource even when the domain does not start on a tile.
+     */
+    List<GridExtent> chunks() {
+        final GridExtent extent = domain.getExtent();
+        final int dim = extent.getDimension();
+        final long[] low  = extent.getLow().getCoordinateValues();
+        final long[] high = extent.getHigh().getCoordinateValues();
+        final long[] step = new long[dim];
+        Arrays.fill(step, 1);
+        step[0] = chunkSize[0];
+        step[1] = chunkSize[1];
+        final long[] start = low.clone();
+        start[0] = Math.floorDiv(low[0], step[0]) * step[0];
+        start[1] = Math.floorDiv(low[1], step[1]) * step[1];
+
+        final List<GridExtent> chunks = new ArrayList<>();
+        final long[] position = start.clone();
+        int i;
+        do {
+            final long[] chunkLow  = new long[dim];
+            final long[] chunkHigh = new long[dim];
+            for (int j = 0; j < dim; j++) {
+                chunkLow[j]  = Math.max(low[j], position[j]);
+                chunkHigh[j] = Math.min(high[j], position[j] + step[j] - 1);
+            }
+            chunks.add(new GridExtent(null, chunkLow, chunkHigh, true));
+
+            for (i = 0; i < dim; i++) {
+                position[i] += step[i];
+                if (position[i] <= high[i]) {
+                    break;
+                }
+                position[i] = start[i];
+            }
+        } while (i < dim);
+        return chunks;
+    }
+
+    /**
+     * Compute the statistics of the coverage.
+     *
+     * @throws DataStoreException If the coverage can not be read.
+     */
+    public ImageStatistics compute() throws DataStoreException {
+        final List<GridExtent> chunks = chunks();
+        final int nbBands = sampleDimensions.size();
+
+        final ChunkStatistics merged = run(chunks, chunk -> {
+            final RenderedImage image = read(chunk);
+            final Accumulator[] stats = new Accumulator[nbBands];
+            for (int b = 0; b < nbBands; b++) {
+                stats[b] = new Accumulator();
+            }
+            scan(image, stats);
+            // the histogram range is known once the whole chunk has been scanned
+            final Histogram[] histograms = new Histogram[nbBands];
+            for (int b = 0; b < nbBands; b++) {
+                histograms[b] = new Histogram(stats[b].min, stats[b].max);
+            }
+            scan(image, histograms);
+            return new ChunkStatistics(stats, histograms);
+        }, ChunkStatistics::merge);
+        final Accumulator[] stats = merged.stats();
+
+        final ImageStatistics result = new ImageStatistics(nbBands);
+        for (int b = 0; b < nbBands; b++) {
+            final ImageStatistics.Band band = result.getBand(b);
+            final SampleDimension sd = sampleDimensions.get(b);
+            final Accumulator acc = stats[b];
+            band.setName(sd.getName().toString());
+            band.setNoData(sd.getNoDataValues().stream().mapToDouble(Number::doubleValue).toArray());
+            if (acc.count > 0) {
+                band.setMin(acc.min);
+                band.setMax(acc.max);
+                band.setMean(acc.mean);
+                band.setStd(Math.sqrt(acc.m2 / acc.count));
+            } else {
+                band.setMin(Double.NaN);
+                band.setMax(Double.NaN);
+                band.setMean(Double.NaN);
+                band.setStd(Double.NaN);
+            }
+            band.setHistogram(merged.histograms()[b].toCounts(HISTOGRAM_SIZE));
+        }
+        return result;
+    }
+
+    /**
+     * Read the converted values of a chunk.
+     *
+     * @return The chunk image, or {@code null} if the resource returned no data for this chunk.
+     */
+    private RenderedImage read(final GridExtent chunk) throws DataStoreException {
+        final GridCoverage coverage = resource.read(domain.derive().subgrid(chunk).build()).forConvertedValues(true);
+        // the resource may return a larger or a smaller area than requested, only the requested part is scanned.
+        final GridExtent available = coverage.getGridGeometry().getExtent();
+        final GridExtent area;
+        try {
+            area = available.intersect(chunk);
+        } catch (DisjointExtentException ex) {
+            LOGGER.log(Level.FINE, "No data returned for the chunk: {0}", chunk);
+            return null;
+        }
+        if (!area.equals(chunk)) {
+            LOGGER.log(Level.FINE, "The resource returned the area {0} for the chunk {1}", new Object[]{available, chunk});
+        }
+        return coverage.render(area);
+    }
+
+    /**
+     * Send every sample of an image to the consumer of its band.
+     */
+    private static void scan(final RenderedImage image, final DoubleConsumer[] bands) {
+        if (image == null) {
+            return;
+        }
+        final Rectangle bounds = new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+        final int nbBands = Math.min(bands.length, image.getSampleModel().getNumBands());
+        for (int ty = image.getMinTileY(); ty < image.getMinTileY() + image.getNumYTiles(); ty++) {
+            for (int tx = image.getMinTileX(); tx < image.getMinTileX() + image.getNumXTiles(); tx++) {
+                final Raster tile = image.getTile(tx, ty);
+                final Rectangle area = tile.getBounds().intersection(bounds);
+                if (area.isEmpty()) {
+                    continue;
+                }
+                double[] row = new double[area.width];
+                for (int b = 0; b < nbBands; b++) {
+                    final DoubleConsumer consumer = bands[b];
+                    for (int y = area.y; y < area.y + area.height; y++) {
+                        row = tile.getSamples(area.x, y, area.width, 1, b, row);
+                        for (double value : row) {
+                            consumer.accept(value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T apply(GridExtent chunk) throws DataStoreException;
+    }
+
+    /**
+     * Apply a task on every chunk in the shared pool, and merge the results.
+     */
+    private static <T> T run(final List<GridExtent> chunks, final ChunkTask<T> task, final BinaryOperator<T> merge) throws DataStoreException {
+        try {
+            return getPool().submit(() -> chunks.parallelStream()
+                    .map(chunk -> {
+                        try {
+                            return task.apply(chunk);
+                        } catch (DataStoreException ex) {
+                            throw new BackingStoreException(ex);
+                        }
+                    })
+                    .reduce(merge)
+                    .orElseThrow()).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Statistics computing has been interrupted.", ex);
+        } catch (ExecutionException ex) {
+            for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof DataStoreException dse) {
+                    throw dse;
+                }
+            }
+            throw new DataStoreException(ex.getCause());
+        }
+    }
+
+    /**
+     * Per-band accumulators and fine histograms of one or several chunks.
+     */
+    private record ChunkStatistics(Accumulator[] stats, Histogram[] histograms) {
+
+        ChunkStatistics merge(final ChunkStatistics other) {
+            final Accumulator[] mergedStats = new Accumulator[stats.length];
+            final Histogram[] mergedHistograms = new Histogram[histograms.length];
+            for (int i = 0; i < stats.length; i++) {
+                mergedStats[i] = stats[i].merge(other.stats[i]);
+                mergedHistograms[i] = histograms[i].merge(other.histograms[i]);
+            }
+            return new ChunkStatistics(mergedStats, mergedHistograms);
+        }
+    }
+
+    /**
+     * Count, extremums, mean and sum of squared differences from the mean of the values of a band.
+     */
+    static final class Accumulator implements DoubleConsumer {
+        long count;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double mean;
+        double m2;
+
+        @Override
+        public void accept(final double value) {
+            if (!Double.isFinite(value)) {
+                return;
+            }
+            count++;
+            if (value < min) min = value;
+            if (value > max) max = value;
+            final double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        Accumulator merge(final Accumulator other) {
+            final Accumulator result = new Accumulator();
+            result.count = count + other.count;
+            result.min   = Math.min(min, other.min);
+            result.max   = Math.max(max, other.max);
+            if (result.count > 0) {
+                final double delta = other.mean - mean;
+                result.mean = mean + delta * other.count / result.count;
+                result.m2   = m2 + other.m2 + delta * delta * ((double) count * other.count / result.count);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Distribution of the values of a band between its minimum and maximum.
+     *
+     * The bins have a power of two width and start at a multiple of this width, so a bin of a merged histogram
+     * always falls in a single bin of the result. Each bin keeps the extremums of its values, used to place it
+     * in the bins of the final histogram.
+     */
+    static final class Histogram implements DoubleConsumer {
+        /**
+         * Maximal number of bins of the histograms computed on the chunks.
+         */
+        static final int FINE_SIZE = HISTOGRAM_SIZE * 16;
+
+        final long[] counts = new long[FINE_SIZE];
+        private final double[] lows  = new double[FINE_SIZE];
+        private final double[] highs = new double[FINE_SIZE];
+        private final double min;
+        private final double max;
+        private final double width;
+
+        /**
+         * Index of the first bin, in multiples of the width.
+         */
+        private final double base;
+
+        Histogram(final double min, final double max) {
+            this(min, max, Integer.MIN_VALUE);
+        }
+
+        private Histogram(final double min, final double max, final int minExponent) {
+            this.min = min;
+            this.max = max;
+            Arrays.fill(lows, Double.POSITIVE_INFINITY);
+            Arrays.fill(highs, Double.NEGATIVE_INFINITY);
+            if (isEmpty()) {
+                width = 1;
+                base  = 0;
+                return;
+            }
+            // a width finer than the precision of the values would not separate them, and could overflow the bin indexes
+            final int precision = Math.getExponent(Math.ulp(Math.max(Math.abs(min), Math.abs(max))));
+            int exponent = Math.max(Math.max(minExponent, precision), Math.getExponent(Math.max(Double.MIN_NORMAL, (max - min) / FINE_SIZE)));
+            exponent = Math.min(exponent, Double.MAX_EXPONENT);
+            while (exponent < Double.MAX_EXPONENT && Math.floor(max / Math.scalb(1.0, exponent)) - Math.floor(min / Math.scalb(1.0, exponent)) >= FINE_SIZE) {
+                exponent++;
+            }
+            width = Math.scalb(1.0, exponent);
+            base  = Math.floor(min / width);
+        }
+
+        private boolean isEmpty() {
+            return !(max >= min);
+        }
+
+        private int bin(final double value) {
+            return (int) Math.max(0, Math.min(FINE_SIZE - 1, Math.floor(value / width) - base));
+        }
+
+        @Override
+        public void accept(final double value) {
+            if (!Double.isFinite(value)) {
+                return;
+            }
+            put(bin(value), 1, value, value);
+        }
+
+        private void put(final int bin, final long count, final double low, final double high) {
+            counts[bin] += count;
+            if (low  < lows[bin])  lows[bin]  = low;
+            if (high > highs[bin]) highs[bin] = high;
+        }
+
+        /**
+         * Merge this histogram with another one in a new histogram covering both ranges.
+         */
+        Histogram merge(final Histogram other) {
+            if (other.isEmpty()) return this;
+            if (isEmpty()) return other;
+            final Histogram result = new Histogram(Math.min(min, other.min), Math.max(max, other.max),
+                                                   Math.getExponent(Math.max(width, other.width)));
+            for (Histogram h : List.of(this, other)) {
+                for (int i = 0; i < FINE_SIZE; i++) {
+                    if (h.counts[i] > 0) {
+                        // the result bins are wider and aligned, the whole bin goes in the same result bin
+                        result.put(result.bin(h.lows[i]), h.counts[i], h.lows[i], h.highs[i]);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Return the counts of this histogram in the given number of bins between its minimum and maximum.
+         * When the values of a bin fall in several result bins, its count is shared between them
+         * in proportion of the range covered by each one.
+         */
+        long[] toCounts(final int size) {
+            final long[] result = new long[size];
+            if (isEmpty()) {
+                return result;
+            }
+            final double scale = max > min ? size / (max - min) : 0;
+            for (int i = 0; i < FINE_SIZE; i++) {
+                final long count = counts[i];
+                if (count == 0) {
+                    continue;
+                }
+                final double low  = lows[i];
+                final double high = highs[i];
+                final int first = Math.max(0, Math.min(size - 1, (int) ((low  - min) * scale)));
+                final int last  = Math.max(0, Math.min(size - 1, (int) ((high - min) * scale)));
+                double from = low;
+                long remaining = count;
+                for (int k = first; k < last; k++) {
+                    final double to = min + (k + 1) / scale;
+                    final long part = Math.max(0, Math.min(remaining, Math.round(count * (to - from) / (high - low))));
+                    result[k] += part;
+                    remaining -= part;
+                    from = to;
+                }
+                result[last] += remaining;
+            }
+            return result;
+        }
+    }
+}
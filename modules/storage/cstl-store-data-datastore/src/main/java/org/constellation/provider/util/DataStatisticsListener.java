@@ -73,11 +73,21 @@ public class DataStatisticsListener extends ProcessListenerAdapter {
 
     @Override
     public void completed(ProcessEvent event) {
+        final ParameterValueGroup out = event.getOutput();
+        completed(out != null ? Parameters.castOrWrap(out).getMandatoryValue(OUTCOVERAGE) : null);
+    }
+
+    /**
+     * Store the final statistics in the data record.
+     *
+     * @param statistics The computed statistics.
+     */
+    public void completed(ImageStatistics statistics) {
         final Data data = getData();
         if (data != null) {
             try {
                 data.setStatsState(STATE_COMPLETED);
-                data.setStatsResult(statisticsAsString(event));
+                data.setStatsResult(statisticsAsString(statistics));
                 updateData(data);
                 LOGGER.log(Level.INFO, "Data " + dataId + " " + data.getName() + " coverage statistics completed.");
             } catch (JsonProcessingException e) {
@@ -133,8 +143,13 @@ public class DataStatisticsListener extends ProcessListenerAdapter {
     private String statisticsAsString(ProcessEvent event) throws JsonProcessingException {
         final ParameterValueGroup out = event.getOutput();
         if (out != null) {
-            final ImageStatistics statistics = Parameters.castOrWrap(out).getMandatoryValue(OUTCOVERAGE);
+            return statisticsAsString(Parameters.castOrWrap(out).getMandatoryValue(OUTCOVERAGE));
+        }
+        return null;
+    }
 
+    private String statisticsAsString(ImageStatistics statistics) throws JsonProcessingException {
+        if (statistics != null) {
             final ObjectMapper mapper = new ObjectMapper();
             final SimpleModule module = new SimpleModule();
             module.addSerializer(ImageStatistics.class, new ImageStatisticSerializer()); //custom serializer
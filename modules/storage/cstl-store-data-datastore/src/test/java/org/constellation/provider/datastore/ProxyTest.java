@@ -6,6 +6,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,7 @@ import org.opengis.metadata.Metadata;
 import org.opengis.util.GenericName;
 
 import org.apache.sis.internal.storage.MetadataBuilder;
+import org.apache.sis.metadata.ModifiableMetadata;
 import org.apache.sis.metadata.iso.DefaultMetadata;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.Resource;
@@ -104,6 +106,39 @@ public class ProxyTest {
         assertTrue("Returned metadata does not come from metadata business", md == newMetadata);
     }
 
+    @Test
+    public void metadata_override_should_be_cached_until_evicted() throws DataStoreException {
+        final IntSupplier dataId = () -> 1;
+        final MetadataBuilder builder = new MetadataBuilder();
+        builder.addAuthor("First");
+        final DefaultMetadata first = builder.buildAndFreeze();
+        final MockMetadataBusiness mdBiz = new MockMetadataBusiness();
+        mdBiz.toReturn = first;
+        final Resource proxy = createProxy(dataId, new MockResource(), mdBiz);
+        assertTrue(proxy.getMetadata() == first);
+
+        final MetadataBuilder builder2 = new MetadataBuilder();
+        builder2.addAuthor("Second");
+        final DefaultMetadata second = builder2.buildAndFreeze();
+        mdBiz.toReturn = second;
+        assertTrue("Metadata override should have been cached", proxy.getMetadata() == first);
+
+        MetadataOverrideCache.evict(1);
+        assertTrue("Metadata override should have been reloaded after eviction", proxy.getMetadata() == second);
+    }
+
+    @Test
+    public void cached_metadata_override_should_be_unmodifiable() throws DataStoreException {
+        final DefaultMetadata modifiable = new DefaultMetadata();
+        final MockMetadataBusiness mdBiz = new MockMetadataBusiness();
+        mdBiz.toReturn = modifiable;
+        final Resource proxy = createProxy(() -> 2, new MockResource(), mdBiz);
+        final Metadata md = proxy.getMetadata();
+        assertTrue("A modifiable metadata should have been copied", md != modifiable);
+        assertTrue("Cached metadata should be unmodifiable", ((DefaultMetadata) md).state() == ModifiableMetadata.State.FINAL);
+        MetadataOverrideCache.evict(2);
+    }
+
     @Test
     public void errors_from_proxified_resource_should_not_be_wrapped() {
         final Resource proxy = createProxy(FIX_ID, new MockResource(), new MockMetadataBusiness());
@@ -250,6 +285,16 @@ public class ProxyTest {
             throw new UnsupportedOperationException("Not supported yet"); // "Alexis Manin (Geomatys)" on 23/03/2020
         }
 
+        @Override
+        public String getLinkedMetadataRevision(String cswIdentifier, boolean partial, boolean includeService, boolean onlyPublished, String type) {
+            throw new UnsupportedOperationException("Not supported yet");
+        }
+
+        @Override
+        public Map<String, Integer> getLinkedMetadataProviders(Collection<String> metadataIDs, String cswID, boolean partial, boolean includeService, boolean onlyPublished) {
+            throw new UnsupportedOperationException("Not supported yet");
+        }
+
         @Override
         public void linkMetadataIDToCSW(String metadataId, String cswIdentifier) throws ConfigurationException {
             throw new UnsupportedOperationException("Not supported yet"); // "Alexis Manin (Geomatys)" on 23/03/2020
@@ -416,6 +461,16 @@ public class ProxyTest {
             throw new UnsupportedOperationException("Not supported yet"); // "Alexis Manin (Geomatys)" on 23/03/2020
         }
 
+        @Override
+        public Map<String, Long> getCSWIndexQueueState() {
+            throw new UnsupportedOperationException("Not supported yet");
+        }
+
+        @Override
+        public boolean awaitCSWIndexation(long timeout) {
+            throw new UnsupportedOperationException("Not supported yet");
+        }
+
         @Override
         public MetadataLightBrief duplicateMetadata(int id, String newTitle, String newType) throws ConfigurationException {
             throw new UnsupportedOperationException("Not supported yet"); // "Alexis Manin (Geomatys)" on 23/03/2020
@@ -0,0 +1,222 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.provider.util;
+
+import java.awt.Dimension;
+import java.awt.image.DataBufferFloat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.util.iso.Names;
+import org.geotoolkit.storage.coverage.ImageStatistics;
+import org.geotoolkit.storage.memory.InMemoryGridCoverageResource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class CoverageStatisticsTest {
+
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 30;
+
+    private static float[] values() {
+        final float[] values = new float[WIDTH * HEIGHT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 7 == 0) ? Float.NaN : (i % 101) - 20.5f;
+        }
+        return values;
+    }
+
+    private static GridCoverageResource resource(final float[] values) {
+        return new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "stats"), coverage(values));
+    }
+
+    private static GridCoverage coverage(final float[] values) {
+        final GridCoverageBuilder builder = new GridCoverageBuilder();
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, 0, WIDTH);
+        env.setRange(1, 0, HEIGHT);
+        builder.setDomain(env);
+        builder.setValues(new DataBufferFloat(values, values.length), new Dimension(WIDTH, HEIGHT));
+        builder.flipGridAxis(1);
+        return builder.build();
+    }
+
+    /**
+     * A resource ignoring the requested domain, and always returning the whole coverage.
+     */
+    private static GridCoverageResource wholeReadResource(final float[] values) {
+        return new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "whole"), coverage(values)) {
+            @Override
+            public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
+                return super.read(null, range);
+            }
+        };
+    }
+
+    @Test
+    public void chunkSizeTest() {
+        Assert.assertArrayEquals(new int[]{2048, 2048}, CoverageStatistics.chunkSize(new int[]{512, 512}, 8 * 1024 * 1024));
+        // never smaller than a tile
+        Assert.assertArrayEquals(new int[]{256, 128}, CoverageStatistics.chunkSize(new int[]{256, 128}, 1));
+    }
+
+    @Test
+    public void chunksTest() throws Exception {
+        final GridCoverageResource resource = resource(values());
+        final CoverageStatistics statistics = new CoverageStatistics(resource, resource.getGridGeometry(), new int[]{16, 16});
+        final List<GridExtent> chunks = statistics.chunks();
+        Assert.assertEquals(6, chunks.size());
+        long nbCells = 0;
+        for (GridExtent chunk : chunks) {
+            nbCells += chunk.getSize(0) * chunk.getSize(1);
+        }
+        Assert.assertEquals(WIDTH * HEIGHT, nbCells);
+
+        // a domain not starting on a tile, the chunks stay aligned on the tile grid
+        final GridExtent area = new GridExtent(null, new long[]{5, 3}, new long[]{WIDTH - 1, HEIGHT - 1}, true);
+        final GridGeometry domain = resource.getGridGeometry().derive().subgrid(area).build();
+        final List<GridExtent> subChunks = new CoverageStatistics(resource, domain, new int[]{16, 16}).chunks();
+        Assert.assertEquals(6, subChunks.size());
+        nbCells = 0;
+        for (GridExtent chunk : subChunks) {
+            nbCells += chunk.getSize(0) * chunk.getSize(1);
+            Assert.assertTrue(chunk.getLow(0) == 5 || chunk.getLow(0) % 16 == 0);
+            Assert.assertTrue(chunk.getLow(1) == 3 || chunk.getLow(1) % 16 == 0);
+        }
+        Assert.assertEquals(new GridExtent(null, new long[]{5, 3}, new long[]{15, 15}, true), subChunks.get(0));
+        Assert.assertEquals(area.getSize(0) * area.getSize(1), nbCells);
+    }
+
+    @Test
+    public void histogramMergeTest() {
+        final CoverageStatistics.Histogram h1 = new CoverageStatistics.Histogram(0, 10);
+        final CoverageStatistics.Histogram h2 = new CoverageStatistics.Histogram(5, 20);
+        for (int i = 0; i <= 10; i++) {
+            h1.accept(i);
+        }
+        for (int i = 5; i <= 20; i++) {
+            h2.accept(i);
+        }
+        h1.accept(Double.NaN);
+
+        // each value is counted in the bin it would have been without the merge
+        final long[] counts = h1.merge(h2).toCounts(20);
+        final long[] expected = new long[20];
+        for (int i = 0; i <= 10; i++) {
+            expected[Math.min(19, i)]++;
+        }
+        for (int i = 5; i <= 20; i++) {
+            expected[Math.min(19, i)]++;
+        }
+        Assert.assertArrayEquals(expected, counts);
+
+        // an empty chunk does not change the range
+        final CoverageStatistics.Histogram empty = new CoverageStatistics.Histogram(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        Assert.assertArrayEquals(h1.toCounts(10), h1.merge(empty).toCounts(10));
+        Assert.assertArrayEquals(new long[10], empty.toCounts(10));
+    }
+
+    @Test
+    public void exactStatisticsTest() throws Exception {
+        final float[] values = values();
+        long count = 0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+        for (float v : values) {
+            if (!Float.isNaN(v)) {
+                count++;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                sum += v;
+            }
+        }
+        final double mean = sum / count;
+        double sq = 0;
+        for (float v : values) {
+            if (!Float.isNaN(v)) {
+                sq += (v - mean) * (v - mean);
+            }
+        }
+        final double std = Math.sqrt(sq / count);
+
+        final GridCoverageResource resource = resource(values);
+        // chunks smaller than the coverage, to merge several accumulators
+        final ImageStatistics stats = new CoverageStatistics(resource, resource.getGridGeometry(), new int[]{16, 16}).compute();
+        Assert.assertEquals(1, stats.getBands().length);
+        final ImageStatistics.Band band = stats.getBand(0);
+        Assert.assertEquals(min,  band.getMin(), 0);
+        Assert.assertEquals(max,  band.getMax(), 0);
+        Assert.assertEquals(mean, band.getMean(), 1e-9);
+        Assert.assertEquals(std,  band.getStd(), 1e-9);
+
+        final long[] histogram = band.getHistogram();
+        Assert.assertEquals(CoverageStatistics.HISTOGRAM_SIZE, histogram.length);
+        long total = 0;
+        for (long c : histogram) {
+            total += c;
+        }
+        Assert.assertEquals(count, total);
+        Assert.assertTrue(histogram[0] > 0);
+        Assert.assertTrue(histogram[histogram.length - 1] > 0);
+
+        // same result with a single chunk
+        final ImageStatistics single = new CoverageStatistics(resource, resource.getGridGeometry(), new int[]{WIDTH, HEIGHT}).compute();
+        Assert.assertEquals(band.getMean(), single.getBand(0).getMean(), 1e-9);
+        Assert.assertArrayEquals(histogram, single.getBand(0).getHistogram());
+    }
+
+    @Test
+    public void singleReadTest() throws Exception {
+        final AtomicInteger reads = new AtomicInteger();
+        final GridCoverageResource resource = new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "count"), coverage(values())) {
+            @Override
+            public GridCoverage read(GridGeometry domain, int... range) throws DataStoreException {
+                reads.incrementAndGet();
+                return super.read(domain, range);
+            }
+        };
+        final CoverageStatistics statistics = new CoverageStatistics(resource, resource.getGridGeometry(), new int[]{16, 16});
+        statistics.compute();
+        Assert.assertEquals(statistics.chunks().size(), reads.get());
+    }
+
+    @Test
+    public void largerReadTest() throws Exception {
+        final float[] values = values();
+        final GridCoverageResource resource = resource(values);
+        final ImageStatistics expected = new CoverageStatistics(resource, resource.getGridGeometry(), new int[]{16, 16}).compute();
+
+        // each chunk read return the whole coverage, the pixels must still be counted once.
+        final GridCoverageResource whole = wholeReadResource(values);
+        final ImageStatistics stats = new CoverageStatistics(whole, whole.getGridGeometry(), new int[]{16, 16}).compute();
+        Assert.assertEquals(expected.getBand(0).getMean(), stats.getBand(0).getMean(), 1e-9);
+        Assert.assertEquals(expected.getBand(0).getStd(),  stats.getBand(0).getStd(), 1e-9);
+        Assert.assertArrayEquals(expected.getBand(0).getHistogram(), stats.getBand(0).getHistogram());
+    }
+}
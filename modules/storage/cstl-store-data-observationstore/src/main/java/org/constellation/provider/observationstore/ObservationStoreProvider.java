@@ -18,6 +18,8 @@
  */
 package org.constellation.provider.observationstore;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -25,6 +27,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.apache.sis.internal.feature.jts.JTS;
 import org.apache.sis.referencing.CRS;
@@ -36,6 +40,8 @@ import org.apache.sis.storage.Query;
 import org.apache.sis.storage.Resource;
 import org.apache.sis.util.Utilities;
 import static org.constellation.api.CommonConstants.OBSERVATION_QNAME;
+import org.constellation.concurrent.SharedDaemonPool;
+import org.constellation.configuration.AppProperty;
 import org.constellation.dto.service.config.sos.Offering;
 import org.constellation.dto.service.config.sos.ProcedureDataset;
 import org.constellation.dto.service.config.sos.SOSProviderCapabilities;
@@ -73,6 +79,8 @@ import org.geotoolkit.observation.query.ObservedPropertyQuery;
 import org.geotoolkit.observation.query.OfferingQuery;
 import org.geotoolkit.observation.query.ProcedureQuery;
 import org.geotoolkit.observation.query.ResultQuery;
+import org.constellation.store.observation.db.ResultStream;
+import org.geotoolkit.observation.model.ComplexResult;
 import org.geotoolkit.observation.query.SamplingFeatureQuery;
 import org.locationtech.jts.geom.Geometry;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -86,6 +94,11 @@ import org.opengis.util.FactoryException;
  */
 public class ObservationStoreProvider extends IndexedNameDataProvider<DataStore> implements ObservationProvider {
 
+    /**
+     * Shared pool executing the result queries of several procedures, lazily created.
+     */
+    private static final SharedDaemonPool RESULT_POOL = new SharedDaemonPool("observation-results", AppProperty.EXA_OM_RESULT_THREADS, 4);
+
     private SOSProviderCapabilities capabilities = null;
 
     public ObservationStoreProvider(String providerId, DataProviderFactory service, ParameterValueGroup param) throws DataStoreException{
@@ -516,6 +529,78 @@ public class ObservationStoreProvider extends IndexedNameDataProvider<DataStore>
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeResults(Query q, Writer output) throws ConstellationStoreException {
+        final Object result;
+        final boolean streamed;
+        try (ResultStream stream = ResultStream.open(output)) {
+            result   = getResults(q);
+            streamed = stream.isUsed();
+        }
+        if (streamed) {
+            return;
+        }
+        // the store has not written the result to the output
+        final Object values;
+        if (result instanceof ComplexResult cr) {
+            if (cr.getDataArray() != null) {
+                throw new ConstellationStoreException("The query does not produce a text result");
+            }
+            values = cr.getValues();
+        } else {
+            values = result;
+        }
+        try {
+            if (values != null) {
+                output.write(values.toString());
+            }
+            output.flush();
+        } catch (IOException ex) {
+            throw new ConstellationStoreException("Error while writing the results", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Object> getResults(List<? extends Query> queries) throws ConstellationStoreException {
+        final List<Object> results = new ArrayList<>(queries.size());
+        if (queries.size() <= 1) {
+            for (Query q : queries) {
+                results.add(getResults(q));
+            }
+            return results;
+        }
+        final List<Future<Object>> futures = new ArrayList<>(queries.size());
+        try {
+            for (Query q : queries) {
+                futures.add(RESULT_POOL.submit(() -> getResults(q)));
+            }
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConstellationStoreException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ConstellationStoreException cex) {
+                throw cex;
+            } else if (ex.getCause() instanceof Exception cause) {
+                throw new ConstellationStoreException(cause.getMessage(), cause);
+            }
+            throw new ConstellationStoreException(ex);
+        } finally {
+            for (Future<Object> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
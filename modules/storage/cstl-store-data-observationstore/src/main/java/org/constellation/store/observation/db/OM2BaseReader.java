@@ -48,6 +48,9 @@ import javax.xml.namespace.QName;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.util.Version;
 import static org.constellation.api.CommonConstants.MEASUREMENT_QNAME;
+import static org.constellation.store.observation.db.SOSDatabaseObservationStore.RESULT_FETCH_SIZE;
+import static org.constellation.store.observation.db.SOSDatabaseObservationStore.ROLLUPS;
+import static org.constellation.store.observation.db.SOSDatabaseObservationStore.SCHEMA_CACHE;
 import static org.constellation.store.observation.db.SOSDatabaseObservationStore.SQL_DIALECT;
 import static org.constellation.store.observation.db.SOSDatabaseObservationStore.TIMESCALEDB_VERSION;
 import static org.constellation.store.observation.db.SOSDatabaseObservationStoreFactory.*;
@@ -94,6 +97,16 @@ public class OM2BaseReader {
     protected final Version timescaleDBVersion;
     
     protected final String decimationAlgorithm;
+
+    /**
+     * Number of rows fetched at once when reading large measure results.
+     */
+    protected final int resultFetchSize;
+
+    /**
+     * If set, the timeseries measures are pre-aggregated in rollup tables, used for decimation.
+     */
+    protected final boolean rollups;
     
     /**
      * The base for observation id.
@@ -114,6 +127,11 @@ public class OM2BaseReader {
      */
     protected boolean cacheEnabled;
 
+    /**
+     * Procedure structures and phenomenons cache, shared by all the readers of the store.
+     */
+    protected final OM2SchemaCache schemaCache;
+
     /**
      * A map of already read sampling feature.
      *
@@ -136,11 +154,15 @@ public class OM2BaseReader {
         this.timescaleDBVersion        = (Version) properties.getOrDefault(TIMESCALEDB_VERSION, null);
         this.timescaleDB               = timescaleDBVersion != null;
         this.decimationAlgorithm       = (String) properties.getOrDefault(DECIMATION_ALGORITHM_NAME, "");
+        this.resultFetchSize           = (Integer) properties.getOrDefault(RESULT_FETCH_SIZE, 0);
+        this.rollups                   = (Boolean) properties.getOrDefault(ROLLUPS, false);
         this.phenomenonIdBase          = (String) properties.getOrDefault(PHENOMENON_ID_BASE_NAME, "");
         this.sensorIdBase              = (String) properties.getOrDefault(SENSOR_ID_BASE_NAME, "");
         this.observationTemplateIdBase = (String) properties.getOrDefault(OBSERVATION_TEMPLATE_ID_BASE_NAME, "urn:observation:template:");
         this.observationIdBase         = (String) properties.getOrDefault(OBSERVATION_ID_BASE_NAME, "");
         this.schemaPrefix              = (String)  properties.getOrDefault(SCHEMA_PREFIX_NAME, "");
+        final OM2SchemaCache sc        = (OM2SchemaCache) properties.get(SCHEMA_CACHE);
+        this.schemaCache               = sc != null ? sc : new OM2SchemaCache(0);
         this.cacheEnabled = cacheEnabled;
     }
 
@@ -152,9 +174,12 @@ public class OM2BaseReader {
         this.observationIdBase         = that.observationIdBase;
         this.schemaPrefix              = that.schemaPrefix;
         this.cacheEnabled              = that.cacheEnabled;
+        this.schemaCache               = that.schemaCache;
         this.timescaleDB               = that.timescaleDB;
         this.timescaleDBVersion        = that.timescaleDBVersion;
         this.decimationAlgorithm       = that.decimationAlgorithm;
+        this.resultFetchSize           = that.resultFetchSize;
+        this.rollups                   = that.rollups;
     }
 
     /**
@@ -378,6 +403,14 @@ public class OM2BaseReader {
         if (cacheEnabled && cachedPhenomenon.containsKey(id)) {
             return cachedPhenomenon.get(id);
         }
+        final Phenomenon shared = schemaCache.getPhenomenon(id);
+        if (shared != null) {
+            if (cacheEnabled) {
+                cachedPhenomenon.put(id, shared);
+            }
+            return shared;
+        }
+        final long cacheVersion = schemaCache.version();
         try {
             // look for composite phenomenon
             try (final PreparedStatement stmt = c.prepareStatement("SELECT \"component\" FROM \"" + schemaPrefix + "om\".\"components\" WHERE \"phenomenon\"=? ORDER BY \"order\" ASC")) {//NOSONAR
@@ -399,6 +432,7 @@ public class OM2BaseReader {
                         if (cacheEnabled) {
                             cachedPhenomenon.put(id, result);
                         }
+                        schemaCache.putPhenomenon(id, result, cacheVersion);
                     }
                     return result;
                 }
@@ -635,48 +669,58 @@ public class OM2BaseReader {
     }
     
     protected List<Field> readFields(final String procedureID, final boolean removeMainTimeField, final Connection c, List<Integer> fieldIndexFilters, List<String> fieldIdFilters) {
-        final List<Field> results = new ArrayList<>();
-        StringBuilder query = new StringBuilder("SELECT * FROM \"" + schemaPrefix + "om\".\"procedure_descriptions\" WHERE \"procedure\"=? AND \"parent\" IS NULL");
-        if (removeMainTimeField) {
-            query.append(" AND NOT(\"order\"= 1 AND \"field_type\"= 'Time')");
+        final List<Field> fields;
+        try {
+            fields = getProcedureFields(procedureID, c);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
-        if (fieldIndexFilters != null && !fieldIndexFilters.isEmpty()) {
-            query.append(" AND (");
-            for (Integer fieldFilter : fieldIndexFilters) {
-                query.append("\"order\"= ").append(fieldFilter).append(" OR ");
-            }
-            if (!removeMainTimeField) {
-                query.append("\"order\"= 1)");
-            } else {
-                query.delete(query.length() - 4, query.length());
-                query.append(")");
+        final boolean keepMain = !removeMainTimeField;
+        final List<Field> results = new ArrayList<>();
+        for (Field field : fields) {
+            final boolean isMain = field.index != null && field.index == 1;
+            if (removeMainTimeField && isMain && FieldType.TIME.equals(field.type)) {
+                continue;
             }
-        }
-        if (fieldIdFilters != null && !fieldIdFilters.isEmpty()) {
-            query.append(" AND (");
-            for (String fieldFilter : fieldIdFilters) {
-                query.append("\"field_name\"= '").append(fieldFilter).append("' OR ");
+            if (fieldIndexFilters != null && !fieldIndexFilters.isEmpty() && !(fieldIndexFilters.contains(field.index) || (keepMain && isMain))) {
+                continue;
             }
             // main field name may vary
-            if (!removeMainTimeField) {
-                query.append("\"order\"= 1)");
-            } else {
-                query.delete(query.length() - 4, query.length());
-                query.append(")");
+            if (fieldIdFilters != null && !fieldIdFilters.isEmpty() && !(fieldIdFilters.contains(field.name) || (keepMain && isMain))) {
+                continue;
             }
+            results.add(field);
         }
-        query.append(" ORDER BY \"order\"");
-        try(final PreparedStatement stmt = c.prepareStatement(query.toString())) {//NOSONAR
+        return results;
+    }
+
+    /**
+     * Return all the root fields of a procedure (with their quality fields) ordered by index.
+     * The fields are read from the shared schema cache when possible.
+     *
+     * @param procedureID Procedure identifier.
+     * @param c A SQL connection.
+     *
+     * @return The procedure fields. The returned list and fields can be modified by the caller.
+     * @throws SQLException If the query fails.
+     */
+    private List<Field> getProcedureFields(final String procedureID, final Connection c) throws SQLException {
+        final List<Field> cached = schemaCache.getFields(procedureID);
+        if (cached != null) {
+            return cached;
+        }
+        final long cacheVersion = schemaCache.version();
+        final List<Field> results = new ArrayList<>();
+        try(final PreparedStatement stmt = c.prepareStatement("SELECT * FROM \"" + schemaPrefix + "om\".\"procedure_descriptions\" WHERE \"procedure\"=? AND \"parent\" IS NULL ORDER BY \"order\"")) {//NOSONAR
             stmt.setString(1, procedureID);
             try(final ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     results.add(getFieldFromDb(rs, procedureID, c, true));
                 }
-                return results;
             }
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
         }
+        schemaCache.putFields(procedureID, results, cacheVersion);
+        return results;
     }
 
     protected List<InsertDbField> completeDbField(final String procedureID, final List<Field> inputFields, final Connection c) throws SQLException {
@@ -714,7 +758,13 @@ public class OM2BaseReader {
      * @throws SQLException
      */
     protected Field getMainField(final String procedureID, final Connection c) throws SQLException {
-        return getFieldByIndex(procedureID, 1, false, c);
+        for (Field field : getProcedureFields(procedureID, c)) {
+            if (field.index != null && field.index == 1) {
+                // main field is returned without its quality fields
+                return new DbField(field.index, field.type, field.name, field.label, field.description, field.uom, ((DbField) field).tableNumber);
+            }
+        }
+        return null;
     }
 
     protected DbField getFieldByIndex(final String procedureID, final int index, final boolean fetchQualityFields, final Connection c) throws SQLException {
@@ -847,12 +897,19 @@ public class OM2BaseReader {
      * @return Information about the procedureId such as PID and number of measure table.
      */
     protected Optional<ProcedureInfo> getPIDFromProcedure(final String procedureId, final Connection c) throws SQLException {
+        final ProcedureInfo cached = schemaCache.getProcedure(procedureId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final long cacheVersion = schemaCache.version();
         try(final PreparedStatement stmt = c.prepareStatement("SELECT \"pid\", \"nb_table\", \"om_type\" FROM \"" + schemaPrefix + "om\".\"procedures\" WHERE \"id\"=?")) {//NOSONAR
             stmt.setString(1, procedureId);
             try(final ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     final Field mainField = getMainField(procedureId, c);
-                    return Optional.of(new ProcedureInfo(rs.getInt(1), rs.getInt(2), procedureId, rs.getString(3), mainField));
+                    final ProcedureInfo pi = new ProcedureInfo(rs.getInt(1), rs.getInt(2), procedureId, rs.getString(3), mainField);
+                    schemaCache.putProcedure(procedureId, pi, cacheVersion);
+                    return Optional.of(pi);
                 }
                 return Optional.empty();
             }
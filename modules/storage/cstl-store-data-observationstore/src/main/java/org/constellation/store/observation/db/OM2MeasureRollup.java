@@ -0,0 +1,521 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.InsertDbField;
+import org.constellation.store.observation.db.model.OMSQLDialect;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.geotoolkit.observation.model.Field;
+import org.geotoolkit.observation.model.FieldType;
+
+/**
+ * Maintain the rollup table of a timeseries procedure: the minimum, maximum, sum and count of each quantity field,
+ * pre-aggregated by fixed time buckets at several {@linkplain #RESOLUTIONS resolutions}.
+ *
+ * The rollup table is a derived structure. It is built from the measure tables when missing, updated incrementally
+ * on insertion, recomputed on the days covering updated measures, and dropped when some measures are removed
+ * (to be rebuilt on the next insertion).
+ * The aggregation is computed in java and written with plain SQL, to stay portable between the supported databases.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2MeasureRollup extends OM2MeasureHandler {
+
+    /**
+     * Bucket sizes in milliseconds, from the finest to the coarsest: one minute, one hour, one day.
+     */
+    public static final long[] RESOLUTIONS = {60_000L, 3_600_000L, 86_400_000L};
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The quantity fields of the procedure, the only ones to be aggregated.
+     */
+    private final List<DbField> fields;
+
+    private final String tableName;
+
+    /**
+     * Build a rollup handler.
+     *
+     * @param pi Informations about the procedure.
+     * @param schemaPrefix Prefix of the OM2 schemas.
+     * @param dialect SQL dialect.
+     * @param procedureFields The root fields of the procedure (as returned by {@link OM2BaseReader#readFields(String, Connection)}).
+     */
+    public OM2MeasureRollup(final ProcedureInfo pi, final String schemaPrefix, final OMSQLDialect dialect, final List<Field> procedureFields) {
+        super(pi, schemaPrefix, dialect);
+        this.tableName = getTableName(pi, schemaPrefix);
+        this.fields = new ArrayList<>();
+        for (Field field : procedureFields) {
+            if (field instanceof DbField dbField && FieldType.QUANTITY.equals(field.type) && !field.name.equals(pi.mainField.name)) {
+                fields.add(dbField);
+            }
+        }
+    }
+
+    /**
+     * Return {@code true} if the measures of the procedure can be aggregated in a rollup table,
+     * meaning a timeseries indexed by time.
+     */
+    public static boolean isApplicable(final ProcedureInfo pi) {
+        return ("timeseries".equals(pi.type) || "timeserie".equals(pi.type))
+               && pi.mainField != null && FieldType.TIME.equals(pi.mainField.type);
+    }
+
+    /**
+     * Return the coarsest rollup resolution smaller or equal to the specified step, or {@code -1} if the step is
+     * smaller than the finest resolution.
+     */
+    public static long chooseResolution(final long step) {
+        for (int i = RESOLUTIONS.length - 1; i >= 0; i--) {
+            if (RESOLUTIONS[i] <= step) {
+                return RESOLUTIONS[i];
+            }
+        }
+        return -1;
+    }
+
+    public static String getTableName(final ProcedureInfo pi, final String schemaPrefix) {
+        return "\"" + schemaPrefix + "mesures\".\"rollup" + pi.pid + "\"";
+    }
+
+    public static boolean exist(final ProcedureInfo pi, final String schemaPrefix, final Connection c) throws SQLException {
+        try (final ResultSet rs = c.getMetaData().getTables(null, schemaPrefix + "mesures", "rollup" + pi.pid, null)) {
+            return rs.next();
+        }
+    }
+
+    public static void drop(final ProcedureInfo pi, final String schemaPrefix, final Connection c) throws SQLException {
+        if (exist(pi, schemaPrefix, c)) {
+            try (final Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("DROP TABLE " + getTableName(pi, schemaPrefix));//NOSONAR
+            }
+        }
+    }
+
+    public boolean exist(final Connection c) throws SQLException {
+        return exist(pi, schemaPrefix, c);
+    }
+
+    /**
+     * Remove all the rollup tables of the OM2 schema.
+     * Used when the rollups are disabled, as the tables would no longer be maintained by the insertions.
+     *
+     * @param schemaPrefix Prefix of the OM2 schemas.
+     * @param c SQL connection.
+     * @throws SQLException
+     */
+    public static void dropAll(final String schemaPrefix, final Connection c) throws SQLException {
+        final List<String> tables = new ArrayList<>();
+        try (final ResultSet rs = c.getMetaData().getTables(null, schemaPrefix + "mesures", "rollup%", null)) {
+            while (rs.next()) {
+                tables.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        try (final Statement stmt = c.createStatement()) {
+            for (String table : tables) {
+                stmt.executeUpdate("DROP TABLE \"" + schemaPrefix + "mesures\".\"" + table + "\"");//NOSONAR
+            }
+        }
+    }
+
+    /**
+     * Rebuild entirely the rollup table from the measure tables.
+     *
+     * @param c SQL connection.
+     * @throws SQLException
+     */
+    public void rebuild(final Connection c) throws SQLException {
+        drop(pi, schemaPrefix, c);
+        try (final Statement stmt = c.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE " + tableName + " ("//NOSONAR
+                             + "\"resolution\" BIGINT NOT NULL, "
+                             + "\"field\"      character varying(63) NOT NULL, "
+                             + "\"bucket\"     BIGINT NOT NULL, "
+                             + "\"vmin\"       DOUBLE PRECISION NOT NULL, "
+                             + "\"vmax\"       DOUBLE PRECISION NOT NULL, "
+                             + "\"vsum\"       DOUBLE PRECISION NOT NULL, "
+                             + "\"vcount\"     BIGINT NOT NULL, "
+                             + "PRIMARY KEY (\"resolution\", \"field\", \"bucket\"))");
+        }
+        if (fields.isEmpty()) return;
+
+        // postgres driver only use a cursor (and respect the fetch size) outside of auto-commit mode.
+        final boolean autoCommit = c.getAutoCommit();
+        final boolean streaming  = dialect.equals(OMSQLDialect.POSTGRES) && autoCommit;
+        if (streaming) {
+            c.setAutoCommit(false);
+        }
+        try (final PreparedStatement insert = c.prepareStatement(insertRequest())) {//NOSONAR
+            aggregate(c, insert, false, null, null);
+            if (streaming) {
+                c.commit();
+            }
+        } catch (SQLException ex) {
+            if (streaming) {
+                c.rollback();
+            }
+            throw ex;
+        } finally {
+            if (streaming) {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Recompute from the measure tables the buckets covering the specified times, after an update of their measures.
+     * The days (the coarsest resolution) containing the times are recomputed at every resolution,
+     * so the cost only depends on the number of measures in those days.
+     *
+     * @param c SQL connection.
+     * @param times Main values (in milliseconds since epoch) of the updated measures.
+     *
+     * @return The start of the recomputed days.
+     * @throws SQLException
+     */
+    public Set<Long> refresh(final Connection c, final Collection<Long> times) throws SQLException {
+        final long day = RESOLUTIONS[RESOLUTIONS.length - 1];
+        final TreeSet<Long> days = new TreeSet<>();
+        for (Long time : times) {
+            days.add(bucket(time, day));
+        }
+        if (days.isEmpty()) return days;
+
+        // the consecutive days are recomputed together
+        final List<long[]> ranges = new ArrayList<>();
+        long[] current = null;
+        for (Long d : days) {
+            if (current != null && current[1] == d) {
+                current[1] = d + day;
+            } else {
+                current = new long[] {d, d + day};
+                ranges.add(current);
+            }
+        }
+        refresh(c, ranges);
+        return days;
+    }
+
+    /**
+     * Recompute from the measure tables the buckets of the days covering a time range, after a removal of measures.
+     * Only the days between the first and the last removed measures are recomputed, instead of the whole table.
+     *
+     * @param c SQL connection.
+     * @param start Main value (in milliseconds since epoch) of the first removed measure.
+     * @param end Main value (in milliseconds since epoch) of the last removed measure.
+     *
+     * @throws SQLException
+     */
+    public void refresh(final Connection c, final long start, final long end) throws SQLException {
+        final long day = RESOLUTIONS[RESOLUTIONS.length - 1];
+        final List<long[]> ranges = new ArrayList<>();
+        ranges.add(new long[] {bucket(start, day), bucket(end, day) + day});
+        refresh(c, ranges);
+    }
+
+    /**
+     * Delete then recompute the buckets of the specified time ranges.
+     *
+     * @param ranges Start (inclusive) and end (exclusive) of the ranges, aligned on days.
+     */
+    private void refresh(final Connection c, final List<long[]> ranges) throws SQLException {
+        try (final PreparedStatement delete = c.prepareStatement("DELETE FROM " + tableName + " WHERE \"bucket\" >= ? AND \"bucket\" < ?");//NOSONAR
+             final PreparedStatement upsert = c.prepareStatement(upsertRequest())) {//NOSONAR
+            for (long[] range : ranges) {
+                delete.setLong(1, range[0]);
+                delete.setLong(2, range[1]);
+                delete.executeUpdate();
+                if (!fields.isEmpty()) {
+                    aggregate(c, upsert, true, range[0], range[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Aggregate the measures of the procedure, optionally restricted to a time range, and write the buckets.
+     *
+     * @param c SQL connection.
+     * @param stmt Insertion or upsert statement.
+     * @param upsert {@code true} if the statement is an {@linkplain #upsertRequest() upsert}.
+     * @param start Start of the time range (inclusive), or {@code null}.
+     * @param end End of the time range (exclusive), or {@code null}.
+     */
+    private void aggregate(final Connection c, final PreparedStatement stmt, final boolean upsert, final Long start, final Long end) throws SQLException {
+        // the buckets are filled in time order, so they can be written as soon as the next one begins.
+        final StringBuilder select = new StringBuilder("SELECT m.\"").append(pi.mainField.name).append('"');
+        final StringBuilder fromClause  = new StringBuilder(" FROM \"").append(schemaPrefix).append("mesures\".\"").append(baseTableName).append("\" m");
+        final Set<Integer> joined  = new HashSet<>();
+        for (DbField field : fields) {
+            final String alias = field.tableNumber > 1 ? "m" + field.tableNumber : "m";
+            select.append(", ").append(alias).append(".\"").append(field.name).append('"');
+            if (field.tableNumber > 1 && joined.add(field.tableNumber)) {
+                fromClause.append(" LEFT JOIN \"").append(schemaPrefix).append("mesures\".\"").append(baseTableName).append('_').append(field.tableNumber).append("\" ").append(alias)
+                     .append(" ON (").append(alias).append(".\"id\" = m.\"id\" AND ").append(alias).append(".\"id_observation\" = m.\"id_observation\")");
+            }
+        }
+        select.append(fromClause);
+        if (start != null) {
+            select.append(" WHERE m.\"").append(pi.mainField.name).append("\" >= ? AND m.\"").append(pi.mainField.name).append("\" < ?");
+        }
+        final String sql = select.append(" ORDER BY m.\"").append(pi.mainField.name).append('"').toString();
+
+        final long[] currentBuckets = new long[RESOLUTIONS.length];
+        final List<Map<String, Aggregate>> current = new ArrayList<>();
+        for (int r = 0; r < RESOLUTIONS.length; r++) {
+            currentBuckets[r] = Long.MIN_VALUE;
+            current.add(new LinkedHashMap<>());
+        }
+        try (final PreparedStatement query = c.prepareStatement(sql)) {//NOSONAR
+            query.setFetchSize(BATCH_SIZE);
+            if (start != null) {
+                query.setTimestamp(1, new Timestamp(start));
+                query.setTimestamp(2, new Timestamp(end));
+            }
+            int batchCpt = 0;
+            try (final ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    final Timestamp ts = rs.getTimestamp(1);
+                    if (ts == null) continue;
+                    final long t = ts.getTime();
+                    for (int r = 0; r < RESOLUTIONS.length; r++) {
+                        final long bucket = bucket(t, RESOLUTIONS[r]);
+                        if (bucket != currentBuckets[r]) {
+                            batchCpt += addRows(stmt, upsert, RESOLUTIONS[r], currentBuckets[r], current.get(r));
+                            current.get(r).clear();
+                            currentBuckets[r] = bucket;
+                        }
+                    }
+                    for (int i = 0; i < fields.size(); i++) {
+                        final double value = rs.getDouble(i + 2);
+                        if (rs.wasNull()) continue;
+                        for (int r = 0; r < RESOLUTIONS.length; r++) {
+                            current.get(r).computeIfAbsent(fields.get(i).name, f -> new Aggregate()).add(value);
+                        }
+                    }
+                    if (batchCpt >= BATCH_SIZE) {
+                        executeBatch(stmt);
+                        batchCpt = 0;
+                    }
+                }
+            }
+            for (int r = 0; r < RESOLUTIONS.length; r++) {
+                addRows(stmt, upsert, RESOLUTIONS[r], currentBuckets[r], current.get(r));
+            }
+            executeBatch(stmt);
+        }
+    }
+
+    /**
+     * Add the inserted measures to the rollup table.
+     *
+     * @param c SQL connection.
+     * @param lines The inserted lines, starting with the main field value.
+     *
+     * @throws SQLException
+     */
+    public void addMeasures(final Connection c, final List<List<Entry<InsertDbField, Object>>> lines) throws SQLException {
+        addMeasures(c, lines, Set.of());
+    }
+
+    /**
+     * Add the inserted measures to the rollup table.
+     * The rows are written with an upsert, so concurrent insertions in the same bucket are summed by the database.
+     *
+     * @param c SQL connection.
+     * @param lines The inserted lines, starting with the main field value.
+     * @param refreshedDays Start of the days already {@linkplain #refresh(Connection, Collection) recomputed}
+     *                      from the measure tables, whose measures must not be added twice.
+     *
+     * @throws SQLException
+     */
+    public void addMeasures(final Connection c, final List<List<Entry<InsertDbField, Object>>> lines, final Set<Long> refreshedDays) throws SQLException {
+        final long day = RESOLUTIONS[RESOLUTIONS.length - 1];
+        final Set<String> fieldNames = new HashSet<>();
+        for (DbField field : fields) {
+            fieldNames.add(field.name);
+        }
+        final Map<Key, Aggregate> aggregates = new TreeMap<>();
+        for (List<Entry<InsertDbField, Object>> line : lines) {
+            if (!(line.get(0).getValue() instanceof Date d)) continue;
+            final long t = d.getTime();
+            if (refreshedDays.contains(bucket(t, day))) continue;
+            for (int i = 1; i < line.size(); i++) {
+                final Entry<InsertDbField, Object> fieldValue = line.get(i);
+                if (fieldValue.getValue() instanceof Number n && fieldNames.contains(fieldValue.getKey().name)) {
+                    for (long resolution : RESOLUTIONS) {
+                        aggregates.computeIfAbsent(new Key(resolution, fieldValue.getKey().name, bucket(t, resolution)), k -> new Aggregate()).add(n.doubleValue());
+                    }
+                }
+            }
+        }
+        if (aggregates.isEmpty()) return;
+
+        try (final PreparedStatement upsert = c.prepareStatement(upsertRequest())) {//NOSONAR
+            int batchCpt = 0;
+            for (Entry<Key, Aggregate> entry : aggregates.entrySet()) {
+                final Key key = entry.getKey();
+                addUpsert(upsert, key.resolution(), key.field(), key.bucket(), entry.getValue());
+                batchCpt++;
+                if (batchCpt >= BATCH_SIZE) {
+                    executeBatch(upsert);
+                    batchCpt = 0;
+                }
+            }
+            executeBatch(upsert);
+        }
+    }
+
+    /**
+     * Build a request inserting a rollup line, or merging it in the existing one, in a single atomic statement.
+     * Derby does not support {@code ON CONFLICT}, so a {@code MERGE} is used instead.
+     */
+    private String upsertRequest() {
+        if (dialect.equals(OMSQLDialect.DERBY)) {
+            return "MERGE INTO " + tableName + " r USING SYSIBM.SYSDUMMY1 "
+                 + "ON r.\"resolution\" = CAST(? AS BIGINT) AND r.\"field\" = CAST(? AS VARCHAR(63)) AND r.\"bucket\" = CAST(? AS BIGINT) "
+                 + "WHEN MATCHED THEN UPDATE SET "
+                 + "\"vmin\" = CASE WHEN r.\"vmin\" <= CAST(? AS DOUBLE) THEN r.\"vmin\" ELSE CAST(? AS DOUBLE) END, "
+                 + "\"vmax\" = CASE WHEN r.\"vmax\" >= CAST(? AS DOUBLE) THEN r.\"vmax\" ELSE CAST(? AS DOUBLE) END, "
+                 + "\"vsum\" = r.\"vsum\" + CAST(? AS DOUBLE), \"vcount\" = r.\"vcount\" + CAST(? AS BIGINT) "
+                 + "WHEN NOT MATCHED THEN INSERT (\"resolution\", \"field\", \"bucket\", \"vmin\", \"vmax\", \"vsum\", \"vcount\") "
+                 + "VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(63)), CAST(? AS BIGINT), CAST(? AS DOUBLE), CAST(? AS DOUBLE), CAST(? AS DOUBLE), CAST(? AS BIGINT))";
+        }
+        return insertRequest() + " ON CONFLICT (\"resolution\", \"field\", \"bucket\") DO UPDATE SET "
+             + "\"vmin\" = LEAST(" + tableName + ".\"vmin\", EXCLUDED.\"vmin\"), "
+             + "\"vmax\" = GREATEST(" + tableName + ".\"vmax\", EXCLUDED.\"vmax\"), "
+             + "\"vsum\" = " + tableName + ".\"vsum\" + EXCLUDED.\"vsum\", "
+             + "\"vcount\" = " + tableName + ".\"vcount\" + EXCLUDED.\"vcount\"";
+    }
+
+    private void addUpsert(final PreparedStatement upsert, final long resolution, final String field, final long bucket, final Aggregate agg) throws SQLException {
+        if (!dialect.equals(OMSQLDialect.DERBY)) {
+            addInsert(upsert, resolution, field, bucket, agg);
+            return;
+        }
+        upsert.setLong(1, resolution);
+        upsert.setString(2, field);
+        upsert.setLong(3, bucket);
+        upsert.setDouble(4, agg.min);
+        upsert.setDouble(5, agg.min);
+        upsert.setDouble(6, agg.max);
+        upsert.setDouble(7, agg.max);
+        upsert.setDouble(8, agg.sum);
+        upsert.setLong(9, agg.count);
+        upsert.setLong(10, resolution);
+        upsert.setString(11, field);
+        upsert.setLong(12, bucket);
+        upsert.setDouble(13, agg.min);
+        upsert.setDouble(14, agg.max);
+        upsert.setDouble(15, agg.sum);
+        upsert.setLong(16, agg.count);
+        addBatch(upsert);
+    }
+
+    private String insertRequest() {
+        return "INSERT INTO " + tableName + " (\"resolution\", \"field\", \"bucket\", \"vmin\", \"vmax\", \"vsum\", \"vcount\") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    private int addRows(final PreparedStatement stmt, final boolean upsert, final long resolution, final long bucket, final Map<String, Aggregate> aggregates) throws SQLException {
+        for (Entry<String, Aggregate> entry : aggregates.entrySet()) {
+            if (upsert) {
+                addUpsert(stmt, resolution, entry.getKey(), bucket, entry.getValue());
+            } else {
+                addInsert(stmt, resolution, entry.getKey(), bucket, entry.getValue());
+            }
+        }
+        return aggregates.size();
+    }
+
+    private void addInsert(final PreparedStatement insert, final long resolution, final String field, final long bucket, final Aggregate agg) throws SQLException {
+        insert.setLong(1, resolution);
+        insert.setString(2, field);
+        insert.setLong(3, bucket);
+        insert.setDouble(4, agg.min);
+        insert.setDouble(5, agg.max);
+        insert.setDouble(6, agg.sum);
+        insert.setLong(7, agg.count);
+        addBatch(insert);
+    }
+
+    private void addBatch(final PreparedStatement stmt) throws SQLException {
+        if (dialect.supportBatch) {
+            stmt.addBatch();
+        } else {
+            stmt.executeUpdate();
+        }
+    }
+
+    private void executeBatch(final PreparedStatement stmt) throws SQLException {
+        if (dialect.supportBatch) {
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Return the start of the bucket containing the specified time (in milliseconds since epoch).
+     */
+    public static long bucket(final long time, final long resolution) {
+        return Math.floorDiv(time, resolution) * resolution;
+    }
+
+    private record Key(long resolution, String field, long bucket) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            int cmp = Long.compare(resolution, o.resolution);
+            if (cmp == 0) cmp = field.compareTo(o.field);
+            if (cmp == 0) cmp = Long.compare(bucket, o.bucket);
+            return cmp;
+        }
+    }
+
+    private static final class Aggregate {
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private double sum;
+        private long count;
+
+        private void add(final double value) {
+            if (value < min) min = value;
+            if (value > max) max = value;
+            sum += value;
+            count++;
+        }
+    }
+}
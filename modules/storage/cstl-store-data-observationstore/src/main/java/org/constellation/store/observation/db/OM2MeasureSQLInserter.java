@@ -18,99 +18,158 @@
  */
 package org.constellation.store.observation.db;
 
-import org.constellation.store.observation.db.model.DbField;
 import org.constellation.store.observation.db.model.OMSQLDialect;
 import org.constellation.store.observation.db.model.InsertDbField;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
 import org.apache.sis.storage.DataStoreException;
 import static org.constellation.store.observation.db.OM2Utils.flatFields;
 import static org.constellation.store.observation.db.model.OMSQLDialect.*;
-import org.constellation.util.SQLBatch;
 import org.constellation.store.observation.db.ResultValuesIterator.DataLine;
 import org.constellation.store.observation.db.model.ProcedureInfo;
 import org.constellation.util.Util;
 import org.geotoolkit.observation.model.ComplexResult;
+import org.geotoolkit.observation.model.FieldType;
 
 /**
+ * Insert the measures of a complex result in the measure tables of a procedure.
+ *
+ * The values are bound to parameterized statements, sent to the database by batch of {@link #batchSize} lines.
  *
  * @author Guilhem Legal (Geomatys)
  */
 public class OM2MeasureSQLInserter extends OM2MeasureHandler {
 
+    /**
+     * Default number of measure lines sent to the database in a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private final List<InsertDbField> fields;
 
+    private final int batchSize;
+
     // calculated
+    /**
+     * Index of the fields (in {@link #fields}) by measure table number.
+     */
+    private final Map<Integer, List<Integer>> tableFields;
     private final Map<Integer, String> insertRequests;
+    private final Map<Integer, String> updateRequests;
+
+    /**
+     * Rollup table of the procedure to maintain, can be {@code null}.
+     */
+    private OM2MeasureRollup rollup;
 
     public OM2MeasureSQLInserter(final ProcedureInfo pi, final String schemaPrefix, final OMSQLDialect dialect, final List<InsertDbField> fields) throws DataStoreException {
+        this(pi, schemaPrefix, dialect, fields, DEFAULT_BATCH_SIZE);
+    }
+
+    public OM2MeasureSQLInserter(final ProcedureInfo pi, final String schemaPrefix, final OMSQLDialect dialect, final List<InsertDbField> fields, final int batchSize) throws DataStoreException {
         super(pi, schemaPrefix, dialect);
         this.fields = flatFields(fields);
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.tableFields = buildTableFields();
         this.insertRequests = buildInsertRequests();
+        this.updateRequests = buildUpdateRequests();
+    }
+
+    /**
+     * Set the rollup table to update after each insertion.
+     *
+     * @param rollup Rollup handler of the procedure, or {@code null} to disable the rollup maintenance.
+     */
+    public void setRollup(final OM2MeasureRollup rollup) {
+        this.rollup = rollup;
     }
 
     /**
-     * Build the measure insertion requests.
+     * Dispatch the fields in their measure tables.
+     * Every table of the procedure is present in the result, even if no field is involved in it.
      *
-     * @return A SQL request.
      * @throws DataStoreException If a field contains forbidden characters.
      */
-    private Map<Integer, String> buildInsertRequests() throws DataStoreException {
-        Set<Integer> tableIndexes = new HashSet<>();
+    private Map<Integer, List<Integer>> buildTableFields() throws DataStoreException {
+        final Map<Integer, List<Integer>> results = new TreeMap<>();
         for (int i = 1; i <= pi.nbTable; i++) {
-            tableIndexes.add(i);
+            results.put(i, new ArrayList<>());
         }
-        Map<Integer, StringBuilder> builders = new HashMap<>();
-        for (DbField field : fields) {
+        for (int i = 0; i < fields.size(); i++) {
+            final InsertDbField field = fields.get(i);
             if (Util.containsForbiddenCharacter(field.name)) {
                 throw new DataStoreException("Invalid field name");
             }
-            StringBuilder sql = builders.computeIfAbsent(field.tableNumber, tn ->
-            {
-                tableIndexes.remove(tn);
-                String suffix = "";
-                if (tn > 1) {
-                    suffix = "_" + tn;
-                }
-                return new StringBuilder("INSERT INTO \"" + schemaPrefix + "mesures\".\"" + baseTableName + suffix + "\" (\"id_observation\", \"id\", ");
-            });
-            sql.append('"').append(field.name).append("\",");
+            results.computeIfAbsent(field.tableNumber, tn -> new ArrayList<>()).add(i);
         }
+        return results;
+    }
 
-        // add statement for un involved tables
-        // main table should never be in that list
-        for (Integer tn : tableIndexes) {
-            String suffix = "";
-            if (tn > 1) {
-                suffix = "_" + tn;
-            }
-            builders.put(tn, new StringBuilder("INSERT INTO \"" + schemaPrefix + "mesures\".\"" + baseTableName + suffix + "\" (\"id_observation\", \"id\" "));
+    private String getTableName(int tableNumber) {
+        String suffix = "";
+        if (tableNumber > 1) {
+            suffix = "_" + tableNumber;
         }
+        return "\"" + schemaPrefix + "mesures\".\"" + baseTableName + suffix + "\"";
+    }
 
-        Map<Integer, String> results = new HashMap<>();
-        for (Entry<Integer, StringBuilder> builder : builders.entrySet()) {
-            StringBuilder sql = builder.getValue();
-            sql.setCharAt(sql.length() - 1, ' ');
-            sql.append(") VALUES ");
-            results.put(builder.getKey(), sql.toString());
+    /**
+     * Build the parameterized measure insertion requests, one for each measure table.
+     *
+     * @return A map of SQL request by table number.
+     */
+    private Map<Integer, String> buildInsertRequests() {
+        final Map<Integer, String> results = new HashMap<>();
+        for (Entry<Integer, List<Integer>> entry : tableFields.entrySet()) {
+            final StringBuilder sql    = new StringBuilder("INSERT INTO ").append(getTableName(entry.getKey())).append(" (\"id_observation\", \"id\"");
+            final StringBuilder values = new StringBuilder(" VALUES (?, ?");
+            for (Integer i : entry.getValue()) {
+                sql.append(", \"").append(fields.get(i).name).append('"');
+                values.append(", ?");
+            }
+            sql.append(')').append(values).append(')');
+            results.put(entry.getKey(), sql.toString());
         }
         return results;
     }
 
-    private Map<Integer, StringBuilder> newInsertBatch() {
-        Map<Integer, StringBuilder>  results = new HashMap<>();
-        for (Entry<Integer, String> ir : insertRequests.entrySet()) {
-            results.put(ir.getKey(), new StringBuilder(ir.getValue()));
+    /**
+     * Build the parameterized measure update requests, for each measure table involving at least one field
+     * (the main field excepted, as it is used to identify the measure).
+     *
+     * @return A map of SQL request by table number.
+     */
+    private Map<Integer, String> buildUpdateRequests() {
+        final Map<Integer, String> results = new HashMap<>();
+        for (Entry<Integer, List<Integer>> entry : tableFields.entrySet()) {
+            final StringBuilder sql = new StringBuilder("UPDATE ").append(getTableName(entry.getKey())).append(" SET ");
+            boolean empty = true;
+            for (Integer i : entry.getValue()) {
+                if (i == 0) continue;
+                if (!empty) {
+                    sql.append(", ");
+                }
+                sql.append('"').append(fields.get(i).name).append("\" = ?");
+                empty = false;
+            }
+            if (!empty) {
+                sql.append(" WHERE \"id\" = ? AND \"id_observation\" = ?");
+                results.put(entry.getKey(), sql.toString());
+            }
         }
         return results;
     }
@@ -127,171 +186,242 @@ public class OM2MeasureSQLInserter extends OM2MeasureHandler {
      * @throws DataStoreException
      */
     public void fillMesureTable(final Connection c, final int oid, final ComplexResult cr, boolean update) throws SQLException, DataStoreException {
-         ResultValuesIterator vi = new ResultValuesIterator(cr, dialect);
+        final ResultValuesIterator vi = new ResultValuesIterator(cr, dialect);
 
         if (update) LOGGER.info("Inserting measure in update mode");
 
         final List<DataLine> blocks = vi.getDataLines();
+        final List<List<Entry<InsertDbField, Object>>> lines = new ArrayList<>(blocks.size());
+        for (DataLine block : blocks) {
+            lines.add(block.extractValues(fields));
+        }
+
+        // look for the existing lines to update, in a single query
+        final Map<Object, Integer> existingIds = update ? getExistingMeasureIds(c, oid, lines) : Map.of();
         int mid =  update ? getLastMeasureId(c, oid) : 1;
-        int sqlCpt = 0;
-        try (final Statement stmtSQL = c.createStatement()) {
-            SQLBatch sqlBatch = new SQLBatch(stmtSQL, dialect.supportBatch);
-            Map<Integer, StringBuilder> builders = newInsertBatch();
-            for (DataLine block : blocks) {
-
-                List<Entry<InsertDbField, String>> fieldValues = block.extractValues(fields);
-
-                // look for an existing line to update
-                if (update) {
-                    final Entry<InsertDbField, String> main = fieldValues.get(0);
-                    try (final PreparedStatement measExist = c.prepareStatement("SELECT \"id\" FROM \"" + schemaPrefix + "mesures\".\"" + baseTableName + "\" " +
-                                                                        "WHERE \"id_observation\" = ? AND \"" + main.getKey().name + "\" = " + main.getValue())) {
-                        measExist.setInt(1, oid);
-                        try (final ResultSet rs = measExist.executeQuery()) {
-                            // there is an existing line
-                            if (rs.next()) {
-                                List<String> upSqls = buildUpdateLines(rs.getInt(1), oid, fieldValues);
-                                for (String upSql : upSqls) {
-                                    sqlBatch.addBatch(upSql);
-                                }
-                                continue;
-                            } else {
-                                buildInsertLine(mid, oid, fieldValues, builders);
-                            }
-                        }
+
+        final Map<Integer, PreparedStatement> inserts = new HashMap<>();
+        final Map<Integer, PreparedStatement> updates = new HashMap<>();
+        try {
+            for (Entry<Integer, String> request : insertRequests.entrySet()) {
+                inserts.put(request.getKey(), c.prepareStatement(request.getValue()));//NOSONAR
+            }
+            if (update) {
+                for (Entry<Integer, String> request : updateRequests.entrySet()) {
+                    updates.put(request.getKey(), c.prepareStatement(request.getValue()));//NOSONAR
+                }
+            }
+            int batchCpt = 0;
+            final List<Long> updatedTimes = new ArrayList<>();
+            final List<List<Entry<InsertDbField, Object>>> insertedLines = update ? new ArrayList<>() : lines;
+            for (List<Entry<InsertDbField, Object>> fieldValues : lines) {
+                final Object mainValue = fieldValues.get(0).getValue();
+                final Integer existingId = update ? existingIds.get(mainKey(mainValue)) : null;
+                if (existingId != null) {
+                    addUpdateLine(existingId, oid, fieldValues, updates);
+                    if (mainValue instanceof Date d) {
+                        updatedTimes.add(d.getTime());
                     }
                 } else {
-                    buildInsertLine(mid, oid, fieldValues, builders);
-                }
-                mid++;
-                sqlCpt++;
-                if (sqlCpt > 99) {
-                    endBatch(builders);
-                    for (StringBuilder builder : builders.values()) {
-                        sqlBatch.addBatch(builder.toString());
+                    addInsertLine(mid, oid, fieldValues, inserts);
+                    if (update) {
+                        insertedLines.add(fieldValues);
                     }
-                    sqlCpt = 0;
-                    builders = newInsertBatch();
+                    mid++;
                 }
+                batchCpt++;
+                if (batchCpt >= batchSize) {
+                    executeBatches(inserts.values());
+                    executeBatches(updates.values());
+                    batchCpt = 0;
+                }
+            }
+            if (batchCpt > 0) {
+                executeBatches(inserts.values());
+                executeBatches(updates.values());
             }
-            if (sqlCpt > 0) {
-                endBatch(builders);
-                for (StringBuilder builder : builders.values()) {
-                    sqlBatch.addBatch(builder.toString());
+
+            // the aggregates of updated measures can not be corrected incrementally, so their buckets are recomputed.
+            if (rollup != null) {
+                if (!rollup.exist(c)) {
+                    rollup.rebuild(c);
+                } else {
+                    final Set<Long> refreshedDays = rollup.refresh(c, updatedTimes);
+                    rollup.addMeasures(c, insertedLines, refreshedDays);
                 }
             }
-            sqlBatch.executeBatch();
+        } finally {
+            closeAll(inserts.values());
+            closeAll(updates.values());
         }
     }
 
     /**
-     * Build an SQL insertion line.
+     * Bind a measure line to the insertion statements.
      *
      * @param mid measure identifier.
      * @param oid observation identifier.
-     * @param fieldValues Map of Field/value
+     * @param fieldValues List of Field/value
+     * @param inserts insertion statements by table number.
+     */
+    private void addInsertLine(int mid, int oid, List<Entry<InsertDbField, Object>> fieldValues, Map<Integer, PreparedStatement> inserts) throws SQLException {
+        for (Entry<Integer, PreparedStatement> entry : inserts.entrySet()) {
+            final PreparedStatement stmt = entry.getValue();
+            stmt.setInt(1, oid);
+            stmt.setInt(2, mid);
+            int param = 3;
+            for (Integer i : tableFields.get(entry.getKey())) {
+                final Entry<InsertDbField, Object> fieldValue = fieldValues.get(i);
+                setValue(stmt, param++, fieldValue.getKey(), fieldValue.getValue());
+            }
+            addBatch(stmt);
+        }
+    }
+
+    /**
+     * Bind a measure line to the update statements.
      *
-     * @return A SQL insert part, to add in a SQL Batch.
+     * @param mid measure identifier.
+     * @param oid observation identifier.
+     * @param fieldValues List of Field/value
+     * @param updates update statements by table number.
      */
-    private void buildInsertLine(int mid, int oid, List<Entry<InsertDbField, String>> fieldValues, Map<Integer, StringBuilder> builders) {
+    private void addUpdateLine(int mid, int oid, List<Entry<InsertDbField, Object>> fieldValues, Map<Integer, PreparedStatement> updates) throws SQLException {
+        for (Entry<Integer, PreparedStatement> entry : updates.entrySet()) {
+            final PreparedStatement stmt = entry.getValue();
+            int param = 1;
+            for (Integer i : tableFields.get(entry.getKey())) {
+                if (i == 0) continue;
+                final Entry<InsertDbField, Object> fieldValue = fieldValues.get(i);
+                setValue(stmt, param++, fieldValue.getKey(), fieldValue.getValue());
+            }
+            stmt.setInt(param++, mid);
+            stmt.setInt(param, oid);
+            addBatch(stmt);
+        }
+    }
 
-        for (StringBuilder builder : builders.values()) {
-            builder.append('(').append(oid).append(',').append(mid).append(',');
+    private void setValue(PreparedStatement stmt, int index, InsertDbField field, Object value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, getSQLType(field.type));
+            return;
         }
-        for (Entry<InsertDbField, String> entry : fieldValues) {
-            StringBuilder builder = builders.get(entry.getKey().tableNumber);
-            String value = entry.getValue();
-            if (value != null && !value.isEmpty()) {
-                builder.append(value).append(",");
-            } else {
-                builder.append("NULL,");
+        switch (field.type) {
+            case TIME     -> stmt.setTimestamp(index, (Timestamp) value);
+            case QUANTITY -> stmt.setDouble(index, (Double) value);
+            case BOOLEAN  -> stmt.setBoolean(index, (Boolean) value);
+            default       -> stmt.setString(index, value.toString());
+        }
+    }
+
+    private int getSQLType(FieldType type) {
+        return switch (type) {
+            case TIME     -> Types.TIMESTAMP;
+            case QUANTITY -> Types.DOUBLE;
+            case BOOLEAN  -> dialect.equals(DERBY) ? Types.INTEGER : Types.BOOLEAN;
+            default       -> Types.VARCHAR;
+        };
+    }
+
+    private void addBatch(PreparedStatement stmt) throws SQLException {
+        if (dialect.supportBatch) {
+            stmt.addBatch();
+        } else {
+            stmt.executeUpdate();
+        }
+    }
+
+    private void executeBatches(Collection<PreparedStatement> stmts) throws SQLException {
+        if (dialect.supportBatch) {
+            for (PreparedStatement stmt : stmts) {
+                stmt.executeBatch();
             }
         }
-        for (StringBuilder builder : builders.values()) {
-            builder.setCharAt(builder.length() - 1, ' ');
-            builder.append("),\n");
+    }
+
+    private static void closeAll(Collection<PreparedStatement> stmts) {
+        for (PreparedStatement stmt : stmts) {
+            try {
+                stmt.close();
+            } catch (SQLException ex) {
+                LOGGER.log(Level.FINER, "Error while closing statement", ex);
+            }
         }
     }
 
     /**
-     * return the next available measure id, for the specified observation.
-     *
-     * @param c SQL connection.
-     * @param oid observation identifier.
-     *
-     * @return An available measure identifier.
-     * @throws SQLException
+     * Return a comparable key for a main field value, independent of the JDBC type returned by the driver.
      */
-    private int getLastMeasureId(Connection c, int oid) throws SQLException {
-        try (final PreparedStatement maxId = c.prepareStatement("SELECT max(\"id\") FROM \"" + schemaPrefix + "mesures\".\"" + baseTableName + "\" WHERE \"id_observation\" = ? ")) {
-            maxId.setInt(1, oid);
-            try (final ResultSet rs = maxId.executeQuery()) {
-                // there is an existing line
-                if (rs.next()) {
-                    return rs.getInt(1) + 1;
-                }
-            }
+    private static Object mainKey(Object value) {
+        if (value instanceof Date d) {
+            return d.getTime();
+        } else if (value instanceof Number n) {
+            return n.doubleValue();
         }
-        throw new SQLException("This error should never be thrown!");
+        return value;
     }
 
     /**
-     * Build an SQL update line.
+     * Look for the measures of the observation already present in the database, within the main field range
+     * of the inserted lines.
      *
-     * @param mid measure identifier.
+     * @param c SQL connection.
      * @param oid observation identifier.
-     * @param fieldValues Map of Field/value
+     * @param lines The lines to insert.
      *
-     * @return A SQL update query, to add in a SQL Batch.
+     * @return A map of measure identifier by main field value key (see {@link #mainKey(Object)}).
+     * @throws SQLException
      */
-    private List<String> buildUpdateLines(int mid, int oid, List<Entry<InsertDbField, String>> fieldValues) {
-        Map<Integer, StringBuilder> builders = new HashMap<>();
-        
-        for (int i = 1; i < fieldValues.size(); i++) {
-            Entry<InsertDbField, String> entry = fieldValues.get(i);
-
-            StringBuilder sql = builders.computeIfAbsent(entry.getKey().tableNumber, tn ->
-            {
-                String suffix = "";
-                if (tn > 1) {
-                    suffix = "_" + tn;
-                }
-                return new StringBuilder("UPDATE \"" + schemaPrefix + "mesures\".\"" + baseTableName + suffix + "\" SET ");
-            });
-            sql.append('"').append(entry.getKey().name).append("\" = ");
-            String value = entry.getValue();
-            if (value != null && !value.isEmpty()) {
-                sql.append(value).append(",");
-            } else {
-                sql.append("NULL,");
+    private Map<Object, Integer> getExistingMeasureIds(Connection c, int oid, List<List<Entry<InsertDbField, Object>>> lines) throws SQLException {
+        final Map<Object, Integer> results = new HashMap<>();
+        if (lines.isEmpty()) return results;
+
+        final InsertDbField main = lines.get(0).get(0).getKey();
+        Comparable min = null;
+        Comparable max = null;
+        for (List<Entry<InsertDbField, Object>> line : lines) {
+            final Object value = line.get(0).getValue();
+            if (value instanceof Comparable cv) {
+                if (min == null || min.compareTo(cv) > 0) min = cv;
+                if (max == null || max.compareTo(cv) < 0) max = cv;
             }
         }
-        List<String> results = new ArrayList<>();
-        for (Entry<Integer, StringBuilder> builder : builders.entrySet()) {
-            StringBuilder sql = builder.getValue();
-            sql.setCharAt(sql.length() - 1, ' ');
-            sql.append(" WHERE \"id\" = ").append(mid).append(" AND \"id_observation\" = ").append(oid);
-            if (dialect.equals(POSTGRES)) {
-                sql.append(';');
+        if (min == null) return results;
+
+        try (final PreparedStatement stmt = c.prepareStatement("SELECT \"id\", \"" + main.name + "\" FROM " + getTableName(1) + " " +//NOSONAR
+                                                               "WHERE \"id_observation\" = ? AND \"" + main.name + "\" >= ? AND \"" + main.name + "\" <= ?")) {
+            stmt.setInt(1, oid);
+            setValue(stmt, 2, main, min);
+            setValue(stmt, 3, main, max);
+            try (final ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    final Object value = main.type == FieldType.TIME ? rs.getTimestamp(2) : rs.getObject(2);
+                    results.putIfAbsent(mainKey(value), rs.getInt(1));
+                }
             }
-            results.add(sql.toString());
         }
         return results;
     }
 
     /**
-     * close a batch.
+     * return the next available measure id, for the specified observation.
+     *
+     * @param c SQL connection.
+     * @param oid observation identifier.
      *
-     * @param sql A builder containing a SQL batch.
+     * @return An available measure identifier.
+     * @throws SQLException
      */
-    private void endBatch(Map<Integer, StringBuilder> builders) {
-        for (StringBuilder builder : builders.values()) {
-            builder.setCharAt(builder.length() - 2, ' ');
-            if (dialect.equals(POSTGRES)) {
-                builder.setCharAt(builder.length() - 1, ';');
-            } else {
-                builder.setCharAt(builder.length() - 1, ' ');
+    private int getLastMeasureId(Connection c, int oid) throws SQLException {
+        try (final PreparedStatement maxId = c.prepareStatement("SELECT max(\"id\") FROM \"" + schemaPrefix + "mesures\".\"" + baseTableName + "\" WHERE \"id_observation\" = ? ")) {
+            maxId.setInt(1, oid);
+            try (final ResultSet rs = maxId.executeQuery()) {
+                // there is an existing line
+                if (rs.next()) {
+                    return rs.getInt(1) + 1;
+                }
             }
         }
+        throw new SQLException("This error should never be thrown!");
     }
 }
@@ -25,6 +25,7 @@ import org.constellation.store.observation.db.decimation.SensorLocationDecimator
 import org.constellation.store.observation.db.decimation.DefaultResultDecimator;
 import org.constellation.store.observation.db.decimation.BucketTimeScaleResultDecimator;
 import org.constellation.store.observation.db.decimation.ASMTimeScaleResultDecimator;
+import org.constellation.store.observation.db.decimation.RollupResultDecimator;
 import org.constellation.util.FilterSQLRequest;
 import org.locationtech.jts.io.ParseException;
 import java.sql.Connection;
@@ -48,6 +49,7 @@ import org.apache.sis.util.Version;
 import static org.constellation.api.CommonConstants.MEASUREMENT_QNAME;
 import static org.constellation.api.CommonConstants.RESPONSE_MODE;
 import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.constellation.store.observation.db.model.OMSQLDialect;
 import org.geotoolkit.observation.model.Field;
 import org.geotoolkit.observation.result.ResultBuilder;
 import org.constellation.util.FilterSQLRequest.TableJoin;
@@ -723,8 +725,34 @@ public class OM2ObservationFilterReader extends OM2ObservationFilter {
              * 3) Extract results.
              */
             ResultBuilder values = processor.initResultBuilder(responseFormat, countRequest);
-            try (final SQLResult rs = measureRequest.execute(c)) {
+
+            /*
+             * if a result stream is opened by the caller, the non-decimated text results are written to it
+             * while the rows are read, so neither the driver nor the result builder hold the whole result.
+             */
+            final ResultStream stream = ResultStream.current();
+            final boolean streamed = stream != null && !decimate && values.getMode() == ResultMode.CSV;
+            if (streamed) {
+                processor.setOutput(stream.output());
+            }
+
+            /*
+             * postgres driver only use a cursor (and respect the fetch size) outside of auto-commit mode.
+             */
+            final boolean autoCommit = c.getAutoCommit();
+            final boolean useCursor  = resultFetchSize > 0 && dialect.equals(OMSQLDialect.POSTGRES) && autoCommit;
+            if (useCursor) {
+                c.setAutoCommit(false);
+            }
+            try (final SQLResult rs = measureRequest.execute(c, resultFetchSize)) {
                 processor.processResults(rs);
+            } finally {
+                if (useCursor) {
+                    c.setAutoCommit(true);
+                }
+            }
+            if (streamed) {
+                return new ComplexResult(fields, values.getEncoding(), null, null);
             }
             switch (values.getMode()) {
                 case DATA_ARRAY:  return new ComplexResult(fields, values.getDataArray(), null);
@@ -741,7 +769,13 @@ public class OM2ObservationFilterReader extends OM2ObservationFilter {
     protected ResultProcessor chooseResultProcessor(boolean decimate, final List<Field> fields, int fieldOffset, String idSuffix) {
         ResultProcessor processor;
         if (decimate) {
-            if (timescaleDB) {
+            if (useRollups(fields, fieldOffset)) {
+                /**
+                 * pre-aggregated rollup table, falling back on the default decimation
+                 * if the table does not exist or if the requested range is too small.
+                 */
+                processor = new RollupResultDecimator(fields, includeIDInDataBlock, decimationSize, fieldIndexFilters, includeTimeForProfile, currentProcedure, schemaPrefix);
+            } else if (timescaleDB) {
                 boolean singleField = (fields.size() - fieldOffset) == 1;
                 boolean smoothAvailable = timescaleDBVersion.compareTo(MIN_TIMESCALE_VERSION_SMOOTH) >= 0;
                 
@@ -772,6 +806,23 @@ public class OM2ObservationFilterReader extends OM2ObservationFilter {
         return processor;
     }
 
+    /**
+     * Return {@code true} if the decimated results can be computed from the rollup table of the current procedure.
+     * The rollups aggregate all the measures of a timeseries, so only a filter on time is allowed.
+     */
+    private boolean useRollups(final List<Field> fields, int fieldOffset) {
+        if (!rollups || hasMeasureFilter || !measureIdFilters.isEmpty() || !sqlRequest.isEmpty()
+                || !OM2MeasureRollup.isApplicable(currentProcedure)) {
+            return false;
+        }
+        for (int i = fieldOffset; i < fields.size(); i++) {
+            if (!FieldType.QUANTITY.equals(fields.get(i).type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public List<org.opengis.observation.sampling.SamplingFeature> getFeatureOfInterests() throws DataStoreException {
         List<FilterSQLRequest.TableJoin> joins = new ArrayList<>();
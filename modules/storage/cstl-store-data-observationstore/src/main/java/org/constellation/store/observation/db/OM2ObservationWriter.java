@@ -96,6 +96,18 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
 
     private final int maxFieldByTable;
 
+    /**
+     * Number of measure lines sent to the database in a single batch.
+     */
+    private final int insertBatchSize;
+
+    /**
+     * Procedures and phenomenons modified by the current operation, to be invalidated once again
+     * in the schema cache when the operation is terminated.
+     */
+    private final Set<String> modifiedProcedures = new HashSet<>();
+    private boolean modifiedPhenomenons;
+
     /**
      * Build a new Observation writer for the given data source.
      *
@@ -112,6 +124,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
         }
         this.source = source;
         this.maxFieldByTable = maxFieldByTable;
+        this.insertBatchSize = (Integer) properties.getOrDefault(SOSDatabaseObservationStore.INSERT_BATCH_SIZE, OM2MeasureSQLInserter.DEFAULT_BATCH_SIZE);
     }
 
     /**
@@ -125,6 +138,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             return oid;
         } catch (SQLException ex) {
             throw new DataStoreException("Error while inserting observation.", ex);
+        } finally {
+            commitInvalidations();
         }
     }
 
@@ -143,6 +158,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             }
         } catch (SQLException ex) {
             throw new DataStoreException("Error while inserting observations.", ex);
+        } finally {
+            commitInvalidations();
         }
         return results;
     }
@@ -505,6 +522,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             }
         } catch (SQLException ex) {
             throw new DataStoreException("Error while inserting phenomenons.", ex);
+        } finally {
+            commitInvalidations();
         }
     }
 
@@ -592,14 +611,39 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                 writeProperties("observed_properties_properties", phenomenonId, phenomenon.getProperties(), c);
             }
         }
+        invalidatePhenomenons();
     }
 
     @Override
-    public void writeProcedure(final ProcedureDataset procedure) throws DataStoreException {
+    public synchronized void writeProcedure(final ProcedureDataset procedure) throws DataStoreException {
         try(final Connection c = source.getConnection()) {
             writeProcedure(procedure, null, c);
         } catch (SQLException | FactoryException ex) {
             throw new DataStoreException("Error while inserting procedure.", ex);
+        } finally {
+            commitInvalidations();
+        }
+    }
+
+    private void invalidateProcedure(final String procedureId) {
+        schemaCache.invalidateProcedure(procedureId);
+        modifiedProcedures.add(procedureId);
+    }
+
+    private void invalidatePhenomenons() {
+        schemaCache.invalidatePhenomenons();
+        modifiedPhenomenons = true;
+    }
+
+    /**
+     * Invalidate once again the cache entries modified by the terminated operation.
+     * The connections are in auto-commit mode, so all its statements are committed at this point.
+     */
+    private void commitInvalidations() {
+        if (!modifiedProcedures.isEmpty() || modifiedPhenomenons) {
+            schemaCache.invalidateCommitted(new ArrayList<>(modifiedProcedures), modifiedPhenomenons);
+            modifiedProcedures.clear();
+            modifiedPhenomenons = false;
         }
     }
 
@@ -685,6 +729,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                         stmtInsert.setInt(10, nbTable);
                         stmtInsert.executeUpdate();
                     }
+                    invalidateProcedure(procedureID);
 
                     // write properties
                     writeProperties("procedures_properties", procedureID, procedure.getProperties(), c);
@@ -823,7 +868,15 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
 
             if (cr.getNbValues() != null && cr.getNbValues() > 0) {
                 final List<InsertDbField> dbFields = completeDbField(pi.procedureId, fields, c);
-                OM2MeasureSQLInserter msi    = new OM2MeasureSQLInserter(pi, schemaPrefix, dialect, dbFields);
+                OM2MeasureSQLInserter msi    = new OM2MeasureSQLInserter(pi, schemaPrefix, dialect, dbFields, insertBatchSize);
+                // the rollup tables left by a previous configuration are removed when the store is opened with the rollups disabled.
+                if (rollups) {
+                    // the main field of a newly written procedure is not known by the procedure informations
+                    final ProcedureInfo rpi = pi.mainField != null ? pi : getPIDFromProcedure(pi.procedureId, c).orElse(pi);
+                    if (OM2MeasureRollup.isApplicable(rpi)) {
+                        msi.setRollup(new OM2MeasureRollup(rpi, schemaPrefix, dialect, readFields(pi.procedureId, c)));
+                    }
+                }
                 msi.fillMesureTable(c, oid, cr, update);
             }
         } else if (result != null) {
@@ -1161,6 +1214,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             removeObservationForProcedure(procedureID, c);
         } catch (SQLException ex) {
             throw new DataStoreException("Error while removing observation for procedure.", ex);
+        } finally {
+            commitInvalidations();
         }
     }
 
@@ -1197,6 +1252,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                 stmtObs.setString(1, procedureID);
                 stmtObs.executeUpdate();
             }
+            OM2MeasureRollup.drop(pi, schemaPrefix, c);
         }
     }
 
@@ -1242,7 +1298,9 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                             final List<Field> fields                 = getMeasureFields(obs);
                             final List<InsertDbField> fieldsToRemove = completeDbField(cdt.pi.procedureId, fields, c);
                             OM2MeasureFieldRemover remover            = new OM2MeasureFieldRemover(cdt, schemaPrefix, dialect, fieldsToRemove);
+                            final long[] rollupRange = getRollupRange(cdt.pi, cdt.id, c);
                             remover.removeMeasures(c);
+                            refreshRollup(cdt.pi, rollupRange, c);
                             
                             int nbRemoved = removeEmptyMeasures(cdt, c);
                             if (nbRemoved > 0) {
@@ -1260,7 +1318,9 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                         // so we remove all the measure line that match the main field
                         if (OM2Utils.isEqualsOrSubset(cdt.phenomenon, obs.getObservedProperty())) {
                             OM2MeasureRemover remover = new OM2MeasureRemover(cdt, schemaPrefix, dialect);
+                            final long[] rollupRange = getRollupRange(cdt.pi, cdt.id, c);
                             remover.removeMeasures(c, obs);
+                            refreshRollup(cdt.pi, rollupRange, c);
                             boolean rmo = removeObservationIfEmpty(cdt, c);
                             if (!rmo) {
                                 updateObservationTemporalBounds(cdt, c);
@@ -1278,7 +1338,9 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                             final List<Field> fields                 = getMeasureFields(obs);
                             final List<InsertDbField> fieldsToRemove = completeDbField(cdt.pi.procedureId, fields, c);
                             OM2MeasureFieldFilteredRemover remover    = new OM2MeasureFieldFilteredRemover(cdt, schemaPrefix, dialect, fieldsToRemove);
+                            final long[] rollupRange = getRollupRange(cdt.pi, cdt.id, c);
                             remover.removeMeasures(c, obs);
+                            refreshRollup(cdt.pi, rollupRange, c);
 
                             removeEmptyMeasures(cdt, c);
                             updateObservationTemporalBounds(cdt, c);
@@ -1300,6 +1362,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             
         } catch (SQLException ex) {
             throw new DataStoreException("Error while removing observation Dataset.", ex);
+        } finally {
+            commitInvalidations();
         }
         return sensorRemoved;
     }
@@ -1399,6 +1463,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             removeProcedure(pi, c);
         } catch (SQLException ex) {
             throw new DataStoreException("Error while removing procedure.", ex);
+        } finally {
+            commitInvalidations();
         }
     }
 
@@ -1449,6 +1515,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             stmtObs.setString(1, pi.procedureId);
             stmtObs.executeUpdate();
         }
+        invalidateProcedure(pi.procedureId);
 
         final String cleanOPQUery = " SELECT \"id\" FROM \"" + schemaPrefix + "om\".\"observed_properties\""
                                   + " WHERE  \"id\" NOT IN (SELECT DISTINCT \"observed_property\" FROM \"" + schemaPrefix + "om\".\"observations\") "
@@ -1491,6 +1558,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
                 }
             }
         }
+        invalidatePhenomenons();
     }
 
     /**
@@ -1507,6 +1575,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             removeProcedureIfEmpty(pi, c);
         } catch (SQLException ex) {
             throw new DataStoreException("Error while inserting observation.", ex);
+        } finally {
+            commitInvalidations();
         }
     }
 
@@ -1518,7 +1588,8 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
      * @param c A SQL connection.
      */
     private synchronized void removeObservation(final String observationID, final ProcedureInfo pi, Connection c) throws SQLException, DataStoreException {
-        
+        final long[] rollupRange = getRollupRange(pi, "IN (SELECT \"id\" FROM \"" + schemaPrefix + "om\".\"observations\" WHERE \"identifier\"=?)", observationID, c);
+
         // remove from measure tables
         for (int i = 0; i < pi.nbTable; i++) {
             String suffix = pi.pid + "";
@@ -1536,6 +1607,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             stmtObs.setString(1, observationID);
             stmtObs.executeUpdate();
         }
+        refreshRollup(pi, rollupRange, c);
     }
 
     /**
@@ -1546,6 +1618,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
      * @param c A SQL connection.
      */
     private synchronized void removeObservation(final int oid, final ProcedureInfo pi, Connection c) throws SQLException, DataStoreException {
+        final long[] rollupRange = getRollupRange(pi, oid, c);
 
         // remove from measure tables
         for (int i = 0; i < pi.nbTable; i++) {
@@ -1564,6 +1637,55 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
             stmtObs.setInt(1, oid);
             stmtObs.executeUpdate();
         }
+        refreshRollup(pi, rollupRange, c);
+    }
+
+    private long[] getRollupRange(final ProcedureInfo pi, final int oid, final Connection c) throws SQLException {
+        return getRollupRange(pi, "= ?", oid, c);
+    }
+
+    /**
+     * Return the time range of the measures of an observation, read before their removal to refresh the rollup table afterward.
+     *
+     * @param pi Informations about the procedure.
+     * @param obsCondition Condition on the observation id of the measures, with a single parameter.
+     * @param obsParam Value of the condition parameter.
+     * @param c A SQL connection.
+     *
+     * @return The first and last main field values (in milliseconds), or {@code null} if the procedure has no rollup table
+     *         or the observation no measure.
+     */
+    private long[] getRollupRange(final ProcedureInfo pi, final String obsCondition, final Object obsParam, final Connection c) throws SQLException {
+        if (!OM2MeasureRollup.isApplicable(pi) || !OM2MeasureRollup.exist(pi, schemaPrefix, c)) {
+            return null;
+        }
+        final String mainField = pi.mainField.name;
+        try (final PreparedStatement stmt = c.prepareStatement("SELECT MIN(\"" + mainField + "\"), MAX(\"" + mainField + "\") FROM \"" + schemaPrefix + "mesures\".\"mesure" + pi.pid + "\" WHERE \"id_observation\" " + obsCondition)) {//NOSONAR
+            stmt.setObject(1, obsParam);
+            try (final ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    final Timestamp min = rs.getTimestamp(1);
+                    final Timestamp max = rs.getTimestamp(2);
+                    if (min != null && max != null) {
+                        return new long[] {min.getTime(), max.getTime()};
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recompute the rollup buckets of the days covered by the specified range, after a removal of measures.
+     *
+     * @param pi Informations about the procedure.
+     * @param range Time range of the removed measures, as returned by {@link #getRollupRange(ProcedureInfo, String, Object, Connection)}.
+     * @param c A SQL connection.
+     */
+    private void refreshRollup(final ProcedureInfo pi, final long[] range, final Connection c) throws SQLException {
+        if (range != null) {
+            new OM2MeasureRollup(pi, schemaPrefix, dialect, readFields(pi.procedureId, c)).refresh(c, range[0], range[1]);
+        }
     }
 
     /**
@@ -1999,6 +2121,7 @@ public class OM2ObservationWriter extends OM2BaseReader implements ObservationWr
          * fill procedure_descriptions table
          */
         insertFields(pi.procedureId, newFields, fieldOffset, c);
+        invalidateProcedure(pi.procedureId);
     }
 
     private void insertFields(String procedureID, List<DbField> fields, int offset, final Connection c) throws SQLException {
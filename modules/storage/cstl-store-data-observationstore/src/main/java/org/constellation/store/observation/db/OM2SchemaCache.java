@@ -0,0 +1,266 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.geotoolkit.observation.model.Field;
+import org.geotoolkit.observation.model.Phenomenon;
+
+/**
+ * Cache of the procedure structures (procedure informations, fields) and phenomenons of an OM2 database,
+ * shared by all the readers and the writer of a {@link SOSDatabaseObservationStore}.
+ *
+ * Each part of the cache is bounded and evicts its least recently used entries. The writer invalidates
+ * the entries when procedures, fields or phenomenons are written or removed, and once again when the
+ * modifications are committed. The committed invalidations are forwarded by the {@linkplain #setSynchronizer
+ * synchronizer}, if any, to the caches of the other stores opened on the same database.
+ *
+ * The values are loaded by the readers: a value must be put with the {@linkplain #version() version}
+ * read before loading it, so that a value loaded during a concurrent modification is not cached.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2SchemaCache {
+
+    private final boolean enabled;
+
+    private final Region<ProcedureInfo> procedures;
+
+    private final Region<List<Field>> fields;
+
+    private final Region<Phenomenon> phenomenons;
+
+    /**
+     * Incremented on each invalidation.
+     */
+    private long version;
+
+    private volatile OM2SchemaCacheSynchronizer synchronizer;
+
+    /**
+     * Build a new cache.
+     *
+     * @param maxSize Maximum number of entries for each part of the cache. {@code 0} disable the cache.
+     */
+    public OM2SchemaCache(final int maxSize) {
+        this.enabled     = maxSize > 0;
+        this.procedures  = new Region<>(maxSize);
+        this.fields      = new Region<>(maxSize);
+        this.phenomenons = new Region<>(maxSize);
+    }
+
+    /**
+     * Return the current version of the cache, to be read before loading a value from the database.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Return a copy of the cached procedure informations, or {@code null} if not in cache.
+     */
+    public synchronized ProcedureInfo getProcedure(final String procedureId) {
+        final ProcedureInfo pi = procedures.get(procedureId);
+        if (pi != null) {
+            return new ProcedureInfo(pi.pid, pi.nbTable, pi.procedureId, pi.type, copy(pi.mainField));
+        }
+        return null;
+    }
+
+    public synchronized void putProcedure(final String procedureId, final ProcedureInfo pi, final long loadVersion) {
+        if (enabled && loadVersion == version) {
+            procedures.put(procedureId, new ProcedureInfo(pi.pid, pi.nbTable, pi.procedureId, pi.type, copy(pi.mainField)));
+        }
+    }
+
+    /**
+     * Return a copy of the cached root fields of a procedure (ordered), or {@code null} if not in cache.
+     */
+    public synchronized List<Field> getFields(final String procedureId) {
+        final List<Field> cached = fields.get(procedureId);
+        if (cached != null) {
+            final List<Field> results = new ArrayList<>(cached.size());
+            for (Field field : cached) {
+                results.add(copy(field));
+            }
+            return results;
+        }
+        return null;
+    }
+
+    public synchronized void putFields(final String procedureId, final List<Field> procedureFields, final long loadVersion) {
+        if (enabled && loadVersion == version) {
+            final List<Field> copies = new ArrayList<>(procedureFields.size());
+            for (Field field : procedureFields) {
+                copies.add(copy(field));
+            }
+            fields.put(procedureId, copies);
+        }
+    }
+
+    /**
+     * Return the cached phenomenon, or {@code null} if not in cache.
+     * The phenomenons are shared and must not be modified.
+     */
+    public synchronized Phenomenon getPhenomenon(final String phenomenonId) {
+        return phenomenons.get(phenomenonId);
+    }
+
+    public synchronized void putPhenomenon(final String phenomenonId, final Phenomenon phenomenon, final long loadVersion) {
+        if (enabled && loadVersion == version) {
+            phenomenons.put(phenomenonId, phenomenon);
+        }
+    }
+
+    /**
+     * Remove the informations and fields of a procedure.
+     */
+    public synchronized void invalidateProcedure(final String procedureId) {
+        version++;
+        procedures.remove(procedureId);
+        fields.remove(procedureId);
+    }
+
+    /**
+     * Remove all the cached phenomenons, as a composite phenomenon may include the modified one.
+     */
+    public synchronized void invalidatePhenomenons() {
+        version++;
+        phenomenons.clear();
+    }
+
+    /**
+     * Invalidate the entries modified by a terminated writing operation, once its modifications are committed.
+     * A value loaded by a concurrent reader before the commit is then discarded.
+     *
+     * @param procedureIds Identifiers of the modified procedures.
+     * @param phenomenons {@code true} if some phenomenons have been modified.
+     */
+    public void invalidateCommitted(final Collection<String> procedureIds, final boolean phenomenons) {
+        final OM2SchemaCacheSynchronizer sync = synchronizer;
+        for (String procedureId : procedureIds) {
+            invalidateProcedure(procedureId);
+            if (sync != null) {
+                sync.publishProcedureUpdated(procedureId);
+            }
+        }
+        if (phenomenons) {
+            invalidatePhenomenons();
+            if (sync != null) {
+                sync.publishPhenomenonsUpdated();
+            }
+        }
+    }
+
+    /**
+     * Set the component forwarding the committed invalidations to the other caches of the same database.
+     *
+     * @param synchronizer The synchronizer, or {@code null} to keep the invalidations local.
+     */
+    public void setSynchronizer(final OM2SchemaCacheSynchronizer synchronizer) {
+        this.synchronizer = synchronizer;
+    }
+
+    public synchronized void clear() {
+        version++;
+        procedures.clear();
+        fields.clear();
+        phenomenons.clear();
+    }
+
+    /**
+     * Return the hits, misses and hit ratio of each part of the cache.
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        final Map<String, Object> results = new LinkedHashMap<>();
+        procedures.fillStatistics("procedure", results);
+        fields.fillStatistics("field", results);
+        phenomenons.fillStatistics("phenomenon", results);
+        return results;
+    }
+
+    private static Field copy(final Field field) {
+        if (field instanceof DbField dbField) {
+            return new DbField(dbField, dbField.tableNumber);
+        }
+        return field;
+    }
+
+    /**
+     * A bounded LRU map with hit counters. Not thread safe, the accesses are synchronized by the cache.
+     */
+    private static final class Region<V> {
+
+        private final int maxSize;
+
+        private final LinkedHashMap<String, V> entries;
+
+        private long hits;
+
+        private long misses;
+
+        private Region(final int maxSize) {
+            this.maxSize = maxSize;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                    return size() > Region.this.maxSize;
+                }
+            };
+        }
+
+        private V get(final String key) {
+            final V value = entries.get(key);
+            if (value != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return value;
+        }
+
+        private void put(final String key, final V value) {
+            if (value != null) {
+                entries.put(key, value);
+            }
+        }
+
+        private void remove(final String key) {
+            entries.remove(key);
+        }
+
+        private void clear() {
+            entries.clear();
+        }
+
+        private void fillStatistics(final String prefix, final Map<String, Object> results) {
+            final long total = hits + misses;
+            results.put(prefix + "Entries", entries.size());
+            results.put(prefix + "Hits", hits);
+            results.put(prefix + "Misses", misses);
+            results.put(prefix + "HitRatio", total == 0 ? 0.0 : (double) hits / total);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import org.constellation.business.ClusterMessage;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.business.MessageException;
+import org.constellation.business.MessageListener;
+import static org.constellation.business.ClusterMessageConstant.*;
+
+/**
+ * Forward the invalidations of an {@link OM2SchemaCache} to the caches of all the store instances
+ * opened on the same OM2 database, on this node and on the other members of the cluster.
+ *
+ * The messages are also received by the sending cache, which is invalidated once again.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2SchemaCacheSynchronizer extends MessageListener {
+
+    private final IClusterBusiness clusterBusiness;
+
+    private final OM2SchemaCache cache;
+
+    /**
+     * Identifier of the OM2 database (connection URL and schema prefix).
+     */
+    private final String database;
+
+    private String uid;
+
+    public OM2SchemaCacheSynchronizer(final IClusterBusiness clusterBusiness, final OM2SchemaCache cache, final String database) {
+        this.clusterBusiness = clusterBusiness;
+        this.cache = cache;
+        this.database = database;
+    }
+
+    public void register() {
+        uid = clusterBusiness.addMessageListener(this);
+    }
+
+    public void unregister() {
+        if (uid != null) {
+            clusterBusiness.removeMessageListener(uid);
+            uid = null;
+        }
+    }
+
+    public void publishProcedureUpdated(final String procedureId) {
+        final ClusterMessage message = clusterBusiness.createRequest(OM2_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, OM2_VALUE_ACTION_PROCEDURE_UPDATED);
+        message.put(OM2_KEY_DATABASE, database);
+        message.put(KEY_IDENTIFIER, procedureId);
+        clusterBusiness.publish(message);
+    }
+
+    public void publishPhenomenonsUpdated() {
+        final ClusterMessage message = clusterBusiness.createRequest(OM2_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, OM2_VALUE_ACTION_PHENOMENONS_UPDATED);
+        message.put(OM2_KEY_DATABASE, database);
+        clusterBusiness.publish(message);
+    }
+
+    @Override
+    protected IClusterBusiness getClusterBusiness() {
+        return clusterBusiness;
+    }
+
+    @Override
+    protected boolean filter(ClusterMessage message) {
+        return OM2_MESSAGE_TYPE_ID.equals(message.getTypeId())
+               && message.isRequest()
+               && database.equals(message.get(OM2_KEY_DATABASE));
+    }
+
+    @Override
+    protected ClusterMessage process(ClusterMessage message) throws MessageException {
+        final String action = message.getString(KEY_ACTION, false);
+
+        switch (action) {
+            case OM2_VALUE_ACTION_PROCEDURE_UPDATED   -> cache.invalidateProcedure(message.getString(KEY_IDENTIFIER, false));
+            case OM2_VALUE_ACTION_PHENOMENONS_UPDATED -> cache.invalidatePhenomenons();
+            default -> throw new MessageException("Unknown request action : " + action);
+        }
+        return null;
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.constellation.store.observation.db;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Connection;
 import org.constellation.util.SQLResult;
 import java.sql.SQLException;
@@ -50,6 +52,16 @@ public class ResultProcessor {
     protected final int mainFieldIndex;
     protected final String idSuffix;
 
+    /**
+     * Number of lines buffered in the result builder before being written to the output.
+     */
+    private static final int FLUSH_LINES = 1000;
+
+    /**
+     * If set, the text results are written to this output while being read, instead of being kept in the result builder.
+     */
+    protected Writer output;
+
     public ResultProcessor(List<Field> fields, boolean includeId, boolean includeQuality, boolean includeTimeInProfile, ProcedureInfo procedure, String idSuffix) {
         this.fields = fields;
         this.profile = "profile".equals(procedure.type);
@@ -76,6 +88,10 @@ public class ResultProcessor {
         return values;
     }
 
+    public void setOutput(Writer output) {
+        this.output = output;
+    }
+
     public void computeRequest(FilterSQLRequest sqlRequest, int offset, boolean firstFilter, Connection c) throws SQLException {
         StringBuilder select  = new StringBuilder("m.*");
         StringBuilder orderBy = new StringBuilder(" ORDER BY ");
@@ -105,12 +121,35 @@ public class ResultProcessor {
             throw new DataStoreException("initResultBuilder(...) must be called before processing the results");
         }
         FieldParser parser = new FieldParser(fields, values, false, includeId, includeQuality, null);
+        int nbLine = 0;
         while (rs.nextOnField(procedure.mainField.name)) {
             if (includeId) {
                 String name = rs.getString("identifier", 0);
                 parser.setName(name + idSuffix);
             }
             parser.parseLine(rs, 0);
+            if (output != null && ++nbLine % FLUSH_LINES == 0) {
+                flushOutput();
+            }
+        }
+        if (output != null) {
+            flushOutput();
+        }
+    }
+
+    /**
+     * Write the text results accumulated in the result builder to the output, then empty the builder.
+     */
+    protected void flushOutput() throws DataStoreException {
+        final String lines = values.getStringValues();
+        try {
+            if (lines != null && !lines.isEmpty()) {
+                output.write(lines);
+            }
+            output.flush();
+        } catch (IOException ex) {
+            throw new DataStoreException("Error while writing the results to the output", ex);
         }
+        values.clear();
     }
 }
@@ -0,0 +1,86 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com
+ *
+ * Copyright 2022 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.io.Writer;
+
+/**
+ * Output receiving the text results read on the current thread.
+ *
+ * The {@code ObservationStore} API returns the results as a whole. While a stream is open on a thread,
+ * {@link OM2ObservationFilterReader} writes the non-decimated text results to its output as the rows
+ * are read from the database, instead of building them in memory.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class ResultStream implements AutoCloseable {
+
+    private static final ThreadLocal<ResultStream> CURRENT = new ThreadLocal<>();
+
+    private final Writer output;
+
+    private final ResultStream previous;
+
+    private boolean used;
+
+    private ResultStream(final Writer output, final ResultStream previous) {
+        this.output   = output;
+        this.previous = previous;
+    }
+
+    /**
+     * Open a stream on the current thread, to be closed once the results have been read.
+     *
+     * @param output The output receiving the text results.
+     */
+    public static ResultStream open(final Writer output) {
+        final ResultStream stream = new ResultStream(output, CURRENT.get());
+        CURRENT.set(stream);
+        return stream;
+    }
+
+    /**
+     * Return the stream opened on the current thread, or {@code null} if none.
+     */
+    static ResultStream current() {
+        return CURRENT.get();
+    }
+
+    Writer output() {
+        used = true;
+        return output;
+    }
+
+    /**
+     * Return {@code true} if the results have been written to the output.
+     * Otherwise, the results have been returned as usual by the store.
+     */
+    public boolean isUsed() {
+        return used;
+    }
+
+    @Override
+    public void close() {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -30,8 +30,6 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.sis.storage.DataStoreException;
-import static org.constellation.store.observation.db.model.OMSQLDialect.DERBY;
-import org.constellation.util.Util;
 import org.geotoolkit.observation.model.ComplexResult;
 import static org.geotoolkit.observation.model.FieldType.BOOLEAN;
 import static org.geotoolkit.observation.model.FieldType.QUANTITY;
@@ -90,7 +88,12 @@ public class ResultValuesIterator {
     
     sealed interface DataLine {
         @Nullable Date getMainValue();
-        List<Map.Entry<InsertDbField, String>> extractValues(List<InsertDbField> fields) throws DataStoreException;
+        /**
+         * Extract the typed values of the line, ready to be bound to a SQL statement.
+         * Time values are returned as {@link Timestamp}, quantity as {@link Double}, boolean as {@link Boolean}
+         * and text as {@link String}. Missing values are returned as {@code null}.
+         */
+        List<Map.Entry<InsertDbField, Object>> extractValues(List<InsertDbField> fields) throws DataStoreException;
     }
 
 
@@ -103,12 +106,12 @@ public class ResultValuesIterator {
         }
 
         @Override
-        public List<Map.Entry<InsertDbField, String>> extractValues(List<InsertDbField> fields) throws DataStoreException {
-            List<Map.Entry<InsertDbField, String>> results = new ArrayList<>();
+        public List<Map.Entry<InsertDbField, Object>> extractValues(List<InsertDbField> fields) throws DataStoreException {
+            List<Map.Entry<InsertDbField, Object>> results = new ArrayList<>();
             for (int i = 0; i < fields.size(); i++) {
                 final InsertDbField field = fields.get(i);
                 final Object measure = measures.get(i);
-                final String value = extractNextValue(measure, field);
+                final Object value = extractNextValue(measure, field);
                 results.add(new AbstractMap.SimpleEntry<>(field, value));
             }
             return results;
@@ -129,17 +132,16 @@ public class ResultValuesIterator {
             return null;
         }
 
-        private String extractNextValue(Object measure, InsertDbField field) throws DataStoreException {
-            String value = null;
+        private Object extractNextValue(Object measure, InsertDbField field) throws DataStoreException {
+            Object value = null;
             switch (field.type) {
                 case TIME -> {
                     //format time
                     if (measure != null) {
                         if (measure instanceof Date d) {
-                            final long millis = d.getTime();
-                            value = "'" + new Timestamp(millis).toString() + "'";
+                            value = new Timestamp(d.getTime());
                         } else if (measure instanceof Long millis) {
-                            value = "'" + new Timestamp(millis).toString() + "'";
+                            value = new Timestamp(millis);
                         } else {
                             throw new DataStoreException("expecting timestamp for field " + field.name+ " value : " +measure);
                         }
@@ -148,10 +150,8 @@ public class ResultValuesIterator {
                 case TEXT -> {
                     if (measure != null) {
                         if (measure instanceof String s) {
-                            if (Util.containsForbiddenCharacter(s)) {
-                                throw new DataStoreException("Invalid value inserted");
-                            }
-                            value = "'" + s + "'";
+                            // the values are bound to the statements, no character has to be rejected.
+                            value = s;
                         } else {
                             throw new DataStoreException("expecting timestamp for field " + field.name + " value : " +measure);
                         }
@@ -160,11 +160,7 @@ public class ResultValuesIterator {
                 case BOOLEAN -> {
                    if (measure != null) {
                         if (measure instanceof Boolean b) {
-                            if (dialect.equals(DERBY)) {
-                                value = b ? "1" : "0";
-                            } else {
-                                value = Boolean.toString(b);
-                            }
+                            value = b;
                         } else {
                             throw new DataStoreException("expecting boolean for field " + field.name + " value : " + measure);
                         }
@@ -173,8 +169,7 @@ public class ResultValuesIterator {
                 case QUANTITY -> {
                     if (measure != null) {
                         if (measure instanceof Double d) {
-                            d = (Double) field.convertValue(d);
-                            value = Double.toString(d);
+                            value = (Double) field.convertValue(d);
                         } else {
                             throw new DataStoreException("expecting boolean for field " + field.name + " value : " + measure);
                         }
@@ -194,17 +189,27 @@ public class ResultValuesIterator {
         }
 
         @Override
-        public List<Map.Entry<InsertDbField, String>> extractValues(List<InsertDbField> fields) throws DataStoreException {
-            List<Map.Entry<InsertDbField, String>> results = new ArrayList<>();
+        public List<Map.Entry<InsertDbField, Object>> extractValues(List<InsertDbField> fields) throws DataStoreException {
+            List<Map.Entry<InsertDbField, Object>> results = new ArrayList<>();
             if (valueEncoding != null) {
+                String remaining = block;
                 for (int i = 0; i < fields.size(); i++) {
                     final InsertDbField field = fields.get(i);
                     final boolean lastTokenInBlock = (i == fields.size() - 1);
-                    final String[] nextToken = extractNextValue(block, field, lastTokenInBlock, valueEncoding);
-                    final String value = nextToken[0];
-                    block = nextToken[1];
+                    final String value;
+                    if (lastTokenInBlock) {
+                        value = remaining;
+                    } else {
+                        int separator = remaining.indexOf(valueEncoding.getTokenSeparator());
+                        if (separator != -1) {
+                            value = remaining.substring(0, separator);
+                            remaining = remaining.substring(separator + 1);
+                        } else {
+                            throw new DataStoreException("Bad encoding for datablock, unable to find the token separator:" + valueEncoding.getTokenSeparator() + "in the block.");
+                        }
+                    }
 
-                    results.add(new AbstractMap.SimpleEntry<>(field, value));
+                    results.add(new AbstractMap.SimpleEntry<>(field, parseValue(value, field)));
                 }
             }
             return results;
@@ -235,69 +240,41 @@ public class ResultValuesIterator {
         }
 
         /**
-         * Extract the next value for a field in a String block.
+         * Parse a value of the String block.
          *
-         * @param block A line correspounding to a single mesure.
+         * @param value the value extracted from the block.
          * @param field the current field to extract.
-         * @param lastTokenInBlock if set t true, it means that the block
-         * contain the entire last value.
-         * @param encoding text encoding infos.
          *
-         * @return A string array of a fixed value of 2. The first String is the
-         * value (quoted or not depeding on field type). The second String id
-         * the remaining block to parse.
-         * @throws DataStoreException Ifthe block is malformed, if a timestamp
-         * has a bad format, or if the text value contains forbidden character.
+         * @return The typed value, or {@code null} if empty.
+         * @throws DataStoreException If a timestamp has a bad format, or if the text value contains forbidden character.
          */
-        private String[] extractNextValue(String block, InsertDbField field, boolean lastTokenInBlock, final TextEncoderProperties encoding) throws DataStoreException {
-            String value;
-            if (lastTokenInBlock) {
-                value = block;
-            } else {
-                int separator = block.indexOf(encoding.getTokenSeparator());
-                if (separator != -1) {
-                    value = block.substring(0, separator);
-                    block = block.substring(separator + 1);
-                } else {
-                    throw new DataStoreException("Bad encoding for datablock, unable to find the token separator:" + encoding.getTokenSeparator() + "in the block.");
-                }
-            }
-
+        private Object parseValue(String value, InsertDbField field) throws DataStoreException {
             switch (field.type) {
                 case TIME -> {
                     //format time
                     if (value != null && !(value = value.trim()).isEmpty()) {
                         try {
-                            final long millis = dateParser.parseToMillis(value);
-                            value = "'" + new Timestamp(millis).toString() + "'";
+                            return new Timestamp(dateParser.parseToMillis(value));
                         } catch (IllegalArgumentException ex) {
                             throw new DataStoreException("Bad format of timestamp for:" + value);
                         }
                     }
+                    return null;
                 }
                 case TEXT -> {
-                    if (Util.containsForbiddenCharacter(value)) {
-                        throw new DataStoreException("Invalid value inserted");
-                    }
-                    value = "'" + value + "'";
+                    return value;
                 }
                 case BOOLEAN -> {
-                    boolean parsed = Boolean.parseBoolean(value);
-                    if (dialect.equals(DERBY)) {
-                        value = parsed ? "1" : "0";
-                    } else {
-                        value = Boolean.toString(parsed);
-                    }
+                    return Boolean.parseBoolean(value);
                 }
                 case QUANTITY -> {
                     if (value != null && !(value = value.trim()).isEmpty()) {
-                        Double d = Double.valueOf(value);
-                        d = (Double) field.convertValue(d);
-                        value = Double.toString(d);
+                        return (Double) field.convertValue(Double.valueOf(value));
                     }
+                    return null;
                 }
             }
-            return new String[]{value, block};
+            return value;
         }
     }
 }
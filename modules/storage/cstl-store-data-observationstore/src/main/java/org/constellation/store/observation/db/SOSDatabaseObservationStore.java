@@ -44,6 +44,7 @@ import org.constellation.admin.SpringHelper;
 
 import static org.constellation.api.CommonConstants.RESPONSE_FORMAT_V100_XML;
 import static org.constellation.api.CommonConstants.RESPONSE_FORMAT_V200_XML;
+import org.constellation.business.IClusterBusiness;
 import org.constellation.business.IDatasourceBusiness;
 import org.constellation.configuration.AppProperty;
 import org.constellation.configuration.Application;
@@ -83,6 +84,10 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
 
     public static final String SQL_DIALECT = "sql_dialect";
     public static final String TIMESCALEDB_VERSION = "timescaledb_version";
+    public static final String RESULT_FETCH_SIZE = "result_fetch_size";
+    public static final String INSERT_BATCH_SIZE = "insert_batch_size";
+    public static final String SCHEMA_CACHE = "schema_cache";
+    public static final String ROLLUPS = "rollups";
     
     static final Map<String, List<String>> RESPONSE_FORMAT = new HashMap<>();
     static {
@@ -98,6 +103,15 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
     protected final Version timescaleDBVersion;
     protected final String decimationAlgorithm;
     protected final int maxFieldByTable;
+    protected final int resultFetchSize;
+    protected final int insertBatchSize;
+    protected final OM2SchemaCache schemaCache;
+
+    /**
+     * Forward the schema cache invalidations to the other stores opened on the same database, can be {@code null}.
+     */
+    private OM2SchemaCacheSynchronizer cacheSynchronizer;
+    protected final boolean rollups;
 
     protected final OMSQLDialect dialect;
 
@@ -129,6 +143,10 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
             } else {
                 this.decimationAlgorithm = decAlgo;
             }
+            this.resultFetchSize = Application.getIntegerProperty(AppProperty.EXA_OM2_RESULT_FETCH_SIZE, 1000);
+            this.insertBatchSize = Application.getIntegerProperty(AppProperty.EXA_OM2_INSERT_BATCH_SIZE, OM2MeasureSQLInserter.DEFAULT_BATCH_SIZE);
+            this.schemaCache     = new OM2SchemaCache(Application.getIntegerProperty(AppProperty.EXA_OM2_SCHEMA_CACHE_SIZE, 1000));
+            this.rollups         = Application.getBooleanProperty(AppProperty.EXA_OM2_ROLLUPS, false);
             
             // build database structure if needed
             buildDatasource();
@@ -160,6 +178,16 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
                 } else {
                     timescaleDBVersion = null;
                 }
+                // the rollup tables are no longer maintained by the insertions, they would become out of date.
+                if (!rollups) {
+                    OM2MeasureRollup.dropAll(schemaPrefix, c);
+                }
+                final IClusterBusiness clusterBusiness = SpringHelper.getBean(IClusterBusiness.class).orElse(null);
+                if (clusterBusiness != null) {
+                    cacheSynchronizer = new OM2SchemaCacheSynchronizer(clusterBusiness, schemaCache, c.getMetaData().getURL() + '|' + schemaPrefix);
+                    cacheSynchronizer.register();
+                    schemaCache.setSynchronizer(cacheSynchronizer);
+                }
             } catch (SQLException ex) {
                 throw new DataStoreException(ex);
             }
@@ -175,6 +203,10 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
         properties.put(SCHEMA_PREFIX_NAME, schemaPrefix);
         properties.put(TIMESCALEDB_VERSION, timescaleDBVersion);
         properties.put(DECIMATION_ALGORITHM_NAME, decimationAlgorithm);
+        properties.put(RESULT_FETCH_SIZE, resultFetchSize);
+        properties.put(INSERT_BATCH_SIZE, insertBatchSize);
+        properties.put(SCHEMA_CACHE, schemaCache);
+        properties.put(ROLLUPS, rollups);
         return properties;
     }
     
@@ -207,11 +239,23 @@ public class SOSDatabaseObservationStore extends AbstractFilteredObservationStor
         return featureSets;
     }
 
+    /**
+     * Return the hits, misses and hit ratio of the procedure structures cache shared by the readers of this store.
+     */
+    public Map<String, Object> getSchemaCacheStatistics() {
+        return schemaCache.getStatistics();
+    }
+
     /**
      * {@inheritDoc }
      */
     @Override
     public void close() throws DataStoreException {
+        if (cacheSynchronizer != null) {
+            schemaCache.setSynchronizer(null);
+            cacheSynchronizer.unregister();
+        }
+        schemaCache.clear();
         if (reader != null) reader.destroy();
         if (writer != null) writer.destroy();
         if (filter != null) filter.destroy();
@@ -0,0 +1,292 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db.decimation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.sis.storage.DataStoreException;
+import org.constellation.store.observation.db.OM2MeasureRollup;
+import org.constellation.store.observation.db.OM2Utils;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.constellation.util.FilterSQLRequest;
+import org.constellation.util.MultiFilterSQLRequest;
+import org.constellation.util.SQLResult;
+import org.geotoolkit.observation.model.Field;
+import org.geotoolkit.observation.model.FieldType;
+import org.geotoolkit.observation.model.OMEntity;
+
+/**
+ * Decimate a timeseries using the pre-aggregated {@linkplain OM2MeasureRollup rollup table} of the procedure.
+ *
+ * The buckets of the coarsest rollup resolution fitting in a decimation step are read from the rollup table.
+ * The measures at the bounds of the requested range, not covered by a complete bucket, are read from the measure tables.
+ * Like the {@link DefaultResultDecimator}, the minimum and maximum of each step are written.
+ *
+ * If the rollup table does not exist, or if the requested range is too small for the finest resolution,
+ * the decimation falls back on the {@link DefaultResultDecimator} algorithm.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class RollupResultDecimator extends DefaultResultDecimator {
+
+    private final String schemaPrefix;
+
+    /**
+     * The selected rollup resolution, or {@code -1} if the rollup table is not used.
+     */
+    private long resolution = -1;
+
+    private long start;
+    private long step;
+
+    private final Map<Long, Step> steps = new TreeMap<>();
+
+    public RollupResultDecimator(List<Field> fields, boolean includeId, int width, List<Integer> fieldFilters, boolean includeTimeInProfile, ProcedureInfo procedure, String schemaPrefix) {
+        super(fields, includeId, width, fieldFilters, includeTimeInProfile, procedure);
+        this.schemaPrefix = schemaPrefix;
+    }
+
+    @Override
+    public void computeRequest(FilterSQLRequest sqlRequest, int offset, boolean firstFilter, Connection c) throws SQLException {
+        long firstBucket = 0;
+        long lastBucketEnd = 0;
+        if (width > 0 && OM2MeasureRollup.exist(procedure, schemaPrefix, c)) {
+            // with a width of 1, the step is the full extent of the requested range
+            final long[] bounds = OM2Utils.getMainFieldStep(sqlRequest.clone(), c, 1, OMEntity.RESULT, procedure).get(1);
+            if (bounds != null && bounds[1] >= 0) {
+                start      = bounds[0];
+                step       = bounds[1] / width;
+                resolution = OM2MeasureRollup.chooseResolution(step);
+                if (resolution > 0) {
+                    // only the buckets entirely included in the range can be used
+                    final long end = start + bounds[1];
+                    firstBucket   = -Math.floorDiv(-start, resolution) * resolution;
+                    lastBucketEnd = OM2MeasureRollup.bucket(end + 1, resolution);
+                    if (firstBucket >= lastBucketEnd) {
+                        resolution = -1;
+                    }
+                }
+            }
+        }
+        if (resolution <= 0) {
+            super.computeRequest(sqlRequest, offset, firstFilter, c);
+            return;
+        }
+        readRollups(c, firstBucket, lastBucketEnd);
+
+        // the measure tables are only read outside the complete buckets.
+        final String mainColumn = "m.\"" + procedure.mainField.name + "\"";
+        if (sqlRequest instanceof MultiFilterSQLRequest multi) {
+            for (int i = 0; i < procedure.nbTable; i++) {
+                restrictRange(multi.getRequest(i), mainColumn, firstBucket, lastBucketEnd);
+            }
+        } else {
+            restrictRange(sqlRequest, mainColumn, firstBucket, lastBucketEnd);
+        }
+        sqlRequest.append(" ORDER BY \"" + procedure.mainField.name + "\"");
+        if (firstFilter) {
+            sqlRequest.replaceFirst("WHERE", "");
+        }
+    }
+
+    private static void restrictRange(FilterSQLRequest request, String mainColumn, long excludedStart, long excludedEnd) {
+        final String keyword = request.getRequest().contains(" WHERE ") ? " AND " : " WHERE ";
+        request.append(keyword).append("(").append(mainColumn).append(" < ").appendValue(new Timestamp(excludedStart))
+               .append(" OR ").append(mainColumn).append(" >= ").appendValue(new Timestamp(excludedEnd)).append(")");
+    }
+
+    private void readRollups(Connection c, long firstBucket, long lastBucketEnd) throws SQLException {
+        final Map<String, Integer> fieldIndexes = new HashMap<>();
+        for (int i = mainFieldIndex + 1; i < fields.size(); i++) {
+            fieldIndexes.put(fields.get(i).name, i);
+        }
+        final String sql = "SELECT \"bucket\", \"field\", \"vmin\", \"vmax\", \"vcount\" FROM " + OM2MeasureRollup.getTableName(procedure, schemaPrefix)
+                         + " WHERE \"resolution\" = ? AND \"bucket\" >= ? AND \"bucket\" < ? ORDER BY \"bucket\"";
+        try (final PreparedStatement stmt = c.prepareStatement(sql)) {//NOSONAR
+            stmt.setLong(1, resolution);
+            stmt.setLong(2, firstBucket);
+            stmt.setLong(3, lastBucketEnd);
+            try (final ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    final Integer index = fieldIndexes.get(rs.getString(2));
+                    if (index != null) {
+                        final long bucket = rs.getLong(1);
+                        final Step s = getStep(bucket);
+                        s.addBucket(bucket, rs.getLong(5));
+                        s.add(index, rs.getDouble(3), rs.getDouble(4));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void processResults(SQLResult rs) throws SQLException, DataStoreException {
+        if (resolution <= 0) {
+            super.processResults(rs);
+            return;
+        }
+        if (values == null) {
+            throw new DataStoreException("initResultBuilder(...) must be called before processing the results");
+        }
+        while (rs.nextOnField(procedure.mainField.name)) {
+            final long mainValue = rs.getTimestamp(procedure.mainField.name, 0).getTime();
+            final Step s = getStep(mainValue);
+            boolean hasValue = false;
+            for (int i = mainFieldIndex + 1; i < fields.size(); i++) {
+                final DbField field = (DbField) fields.get(i);
+                final int rsIndex = field.tableNumber - 1;
+                final double value = rs.getDouble(field.name, rsIndex);
+                if (!rs.wasNull(rsIndex)) {
+                    s.add(i, value, value);
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                s.addMeasure(mainValue);
+            }
+        }
+
+        int cpt = 0;
+        boolean first = true;
+        final Iterator<Step> it = steps.values().iterator();
+        while (it.hasNext()) {
+            final Step s = it.next();
+            final boolean last = !it.hasNext();
+            if (s.count == 0) {
+                continue;
+            }
+            // if there is only one value in the step, we use its main value.
+            if (s.count == 1) {
+                appendValue(cpt++, s.mainValue, s.min, Double.MAX_VALUE);
+
+            // if min and max are equals we only write one value in the middle of the step.
+            } else if (s.minMaxEquals() && !(first || last)) {
+                appendValue(cpt++, s.start + (step / 2), s.min, Double.MAX_VALUE);
+
+            // special case where all the values are in a single step.
+            } else if (first && last) {
+                appendValue(cpt++, s.start, s.min, Double.MAX_VALUE);
+
+            // else we write the minimum value at the 1/3 of the step, and the max, at the 2/3 of the step.
+            } else {
+                long minVal = first ? s.start : s.start + (step / 3L);
+                long maxVal = last  ? s.start + step : s.start + 2 * (step / 3L);
+                appendValue(cpt++, minVal, s.min, Double.MAX_VALUE);
+                appendValue(cpt++, maxVal, s.max, -Double.MAX_VALUE);
+            }
+            first = false;
+        }
+    }
+
+    private Step getStep(long mainValue) {
+        final long index = (mainValue - start) / step;
+        return steps.computeIfAbsent(index, i -> new Step(start + i * step));
+    }
+
+    private void appendValue(int cpt, long mainValue, double[] fieldValues, double undefinedValue) {
+        values.newBlock();
+        for (int i = 0; i < fields.size(); i++) {
+            final Field field = fields.get(i);
+            // id field
+            if (i < mainFieldIndex && field.type == FieldType.TEXT) {
+                values.appendString(procedure.procedureId + "-dec-" + cpt);
+            // main field
+            } else if (i == mainFieldIndex) {
+                values.appendTime(new Date(mainValue));
+            } else if (i > mainFieldIndex) {
+                final double value = fieldValues[i];
+                values.appendDouble(value != undefinedValue ? value : Double.NaN);
+            }
+        }
+        values.endBlock();
+    }
+
+    private class Step {
+
+        private final long start;
+
+        private final double[] min;
+        private final double[] max;
+
+        /**
+         * Number of measures in the step.
+         */
+        private long count;
+
+        /**
+         * Main value of the last measure, used if the step contains a single one.
+         */
+        private long mainValue;
+
+        private long lastBucket = Long.MIN_VALUE;
+        private long lastBucketCount;
+
+        private Step(long start) {
+            this.start = start;
+            this.min = new double[fields.size()];
+            this.max = new double[fields.size()];
+            Arrays.fill(min, Double.MAX_VALUE);
+            Arrays.fill(max, -Double.MAX_VALUE);
+        }
+
+        private void add(int index, double minValue, double maxValue) {
+            if (minValue < min[index]) min[index] = minValue;
+            if (maxValue > max[index]) max[index] = maxValue;
+        }
+
+        private void addMeasure(long main) {
+            count++;
+            mainValue = main;
+        }
+
+        /**
+         * The rollup lines of the same bucket (one by field) count once, for their field with the most measures.
+         */
+        private void addBucket(long bucket, long bucketCount) {
+            if (bucket != lastBucket) {
+                lastBucket      = bucket;
+                lastBucketCount = 0;
+                mainValue       = bucket;
+            }
+            if (bucketCount > lastBucketCount) {
+                count += bucketCount - lastBucketCount;
+                lastBucketCount = bucketCount;
+            }
+        }
+
+        private boolean minMaxEquals() {
+            for (int i = mainFieldIndex + 1; i < fields.size(); i++) {
+                if (min[i] != max[i]) return false;
+            }
+            return true;
+        }
+    }
+}
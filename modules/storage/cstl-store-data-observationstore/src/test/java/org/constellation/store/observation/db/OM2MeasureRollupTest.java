@@ -0,0 +1,182 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.InsertDbField;
+import org.constellation.store.observation.db.model.OMSQLDialect;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.geotoolkit.observation.model.FieldType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2MeasureRollupTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void chooseResolutionTest() {
+        Assert.assertEquals(-1L, OM2MeasureRollup.chooseResolution(MINUTE - 1));
+        Assert.assertEquals(MINUTE, OM2MeasureRollup.chooseResolution(MINUTE));
+        Assert.assertEquals(MINUTE, OM2MeasureRollup.chooseResolution(59 * MINUTE));
+        Assert.assertEquals(60 * MINUTE, OM2MeasureRollup.chooseResolution(23 * 60 * MINUTE));
+        Assert.assertEquals(24 * 60 * MINUTE, OM2MeasureRollup.chooseResolution(365 * 24 * 60 * MINUTE));
+        Assert.assertEquals(-MINUTE, OM2MeasureRollup.bucket(-1, MINUTE));
+        Assert.assertEquals(MINUTE, OM2MeasureRollup.bucket(MINUTE + 1, MINUTE));
+    }
+
+    @Test
+    public void rebuildAndUpdateTest() throws Exception {
+        try (final Connection c = DriverManager.getConnection("jdbc:derby:memory:rollup-test;create=true")) {
+            try (final Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE SCHEMA \"mesures\"");
+                stmt.execute("CREATE TABLE \"mesures\".\"mesure1\" (\"id_observation\" INTEGER, \"id\" INTEGER, \"time\" TIMESTAMP, \"depth\" DOUBLE)");
+            }
+            try (final PreparedStatement stmt = c.prepareStatement("INSERT INTO \"mesures\".\"mesure1\" VALUES (1, ?, ?, ?)")) {
+                // two values in the first minute, one in the second
+                final long[] times  = {0, 30_000L, MINUTE};
+                final double[] vals = {4.0, 2.0, 7.0};
+                for (int i = 0; i < times.length; i++) {
+                    stmt.setInt(1, i + 1);
+                    stmt.setTimestamp(2, new Timestamp(times[i]));
+                    stmt.setDouble(3, vals[i]);
+                    stmt.executeUpdate();
+                }
+            }
+
+            final DbField time  = new DbField(1, FieldType.TIME, "time", "time", null, null, 1);
+            final DbField depth = new DbField(2, FieldType.QUANTITY, "depth", "depth", null, "m", 1);
+            final ProcedureInfo pi = new ProcedureInfo(1, 1, "p1", "timeseries", time);
+            Assert.assertTrue(OM2MeasureRollup.isApplicable(pi));
+
+            final OM2MeasureRollup rollup = new OM2MeasureRollup(pi, "", OMSQLDialect.DERBY, List.of(time, depth));
+            Assert.assertFalse(rollup.exist(c));
+            rollup.rebuild(c);
+            Assert.assertTrue(rollup.exist(c));
+
+            assertBucket(c, MINUTE, 0, 2.0, 4.0, 6.0, 2);
+            assertBucket(c, MINUTE, MINUTE, 7.0, 7.0, 7.0, 1);
+            assertBucket(c, 60 * MINUTE, 0, 2.0, 7.0, 13.0, 3);
+
+            // incremental insertion, in an existing and in a new bucket
+            final InsertDbField iTime  = new InsertDbField(time);
+            final InsertDbField iDepth = new InsertDbField(depth);
+            final List<List<Entry<InsertDbField, Object>>> lines = List.of(
+                    List.of(Map.<InsertDbField, Object>entry(iTime, new Timestamp(MINUTE + 10_000L)), Map.<InsertDbField, Object>entry(iDepth, 9.0)),
+                    List.of(Map.<InsertDbField, Object>entry(iTime, new Timestamp(2 * MINUTE)),       Map.<InsertDbField, Object>entry(iDepth, 1.0)));
+            rollup.addMeasures(c, lines);
+
+            assertBucket(c, MINUTE, MINUTE, 7.0, 9.0, 16.0, 2);
+            assertBucket(c, MINUTE, 2 * MINUTE, 1.0, 1.0, 1.0, 1);
+            assertBucket(c, 60 * MINUTE, 0, 1.0, 9.0, 23.0, 5);
+
+            // update of a measure: only the day covering it is recomputed from the measure table
+            try (final Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("UPDATE \"mesures\".\"mesure1\" SET \"depth\" = 5.0 WHERE \"id\" = 3");
+            }
+            Assert.assertEquals(Set.of(0L), rollup.refresh(c, List.of(MINUTE)));
+
+            assertBucket(c, MINUTE, 0, 2.0, 4.0, 6.0, 2);
+            assertBucket(c, MINUTE, MINUTE, 5.0, 5.0, 5.0, 1);
+            assertBucket(c, 60 * MINUTE, 0, 2.0, 5.0, 11.0, 3);
+            try (final Statement stmt = c.createStatement();
+                 final ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM \"mesures\".\"rollup1\"")) {
+                Assert.assertTrue(rs.next());
+                // two minutes, one hour and one day
+                Assert.assertEquals(4, rs.getInt(1));
+            }
+
+            OM2MeasureRollup.drop(pi, "", c);
+            Assert.assertFalse(rollup.exist(c));
+        }
+    }
+
+    @Test
+    public void refreshRangeTest() throws Exception {
+        final long day = 24 * 60 * MINUTE;
+        try (final Connection c = DriverManager.getConnection("jdbc:derby:memory:rollup-range-test;create=true")) {
+            try (final Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE SCHEMA \"mesures\"");
+                stmt.execute("CREATE TABLE \"mesures\".\"mesure1\" (\"id_observation\" INTEGER, \"id\" INTEGER, \"time\" TIMESTAMP, \"depth\" DOUBLE)");
+            }
+            try (final PreparedStatement stmt = c.prepareStatement("INSERT INTO \"mesures\".\"mesure1\" VALUES (?, ?, ?, ?)")) {
+                // a first observation on the first day, a second one on the third day
+                final long[] times  = {0, MINUTE, 2 * day, 2 * day + MINUTE};
+                final double[] vals = {4.0, 2.0, 7.0, 3.0};
+                for (int i = 0; i < times.length; i++) {
+                    stmt.setInt(1, i < 2 ? 1 : 2);
+                    stmt.setInt(2, i + 1);
+                    stmt.setTimestamp(3, new Timestamp(times[i]));
+                    stmt.setDouble(4, vals[i]);
+                    stmt.executeUpdate();
+                }
+            }
+            final DbField time  = new DbField(1, FieldType.TIME, "time", "time", null, null, 1);
+            final DbField depth = new DbField(2, FieldType.QUANTITY, "depth", "depth", null, "m", 1);
+            final ProcedureInfo pi = new ProcedureInfo(1, 1, "p1", "timeseries", time);
+            final OM2MeasureRollup rollup = new OM2MeasureRollup(pi, "", OMSQLDialect.DERBY, List.of(time, depth));
+            rollup.rebuild(c);
+            assertBucket(c, day, 2 * day, 3.0, 7.0, 10.0, 2);
+
+            // removal of the second observation: only its day is recomputed, and its buckets disappear.
+            try (final Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("DELETE FROM \"mesures\".\"mesure1\" WHERE \"id_observation\" = 2");
+            }
+            rollup.refresh(c, 2 * day, 2 * day + MINUTE);
+
+            assertBucket(c, day, 0, 2.0, 4.0, 6.0, 2);
+            assertBucket(c, MINUTE, MINUTE, 2.0, 2.0, 2.0, 1);
+            try (final Statement stmt = c.createStatement();
+                 final ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM \"mesures\".\"rollup1\" WHERE \"bucket\" >= " + day)) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(0, rs.getInt(1));
+            }
+        }
+    }
+
+    private static void assertBucket(Connection c, long resolution, long bucket, double min, double max, double sum, long count) throws Exception {
+        try (final PreparedStatement stmt = c.prepareStatement("SELECT \"vmin\", \"vmax\", \"vsum\", \"vcount\" FROM \"mesures\".\"rollup1\" "
+                                                             + "WHERE \"resolution\" = ? AND \"field\" = 'depth' AND \"bucket\" = ?")) {
+            stmt.setLong(1, resolution);
+            stmt.setLong(2, bucket);
+            try (final ResultSet rs = stmt.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(min, rs.getDouble(1), 0.0);
+                Assert.assertEquals(max, rs.getDouble(2), 0.0);
+                Assert.assertEquals(sum, rs.getDouble(3), 0.0);
+                Assert.assertEquals(count, rs.getLong(4));
+                Assert.assertFalse(rs.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.InsertDbField;
+import org.constellation.store.observation.db.model.OMSQLDialect;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.geotoolkit.observation.model.ComplexResult;
+import org.geotoolkit.observation.model.FieldType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2MeasureSQLInserterTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final DbField time  = new DbField(1, FieldType.TIME, "time", "time", null, null, 1);
+    private final DbField depth = new DbField(2, FieldType.QUANTITY, "depth", "depth", null, "m", 1);
+    private final DbField label = new DbField(3, FieldType.TEXT, "label", "label", null, null, 1);
+
+    private ComplexResult result(final Object[]... lines) {
+        final List<Object> dataArray = new ArrayList<>();
+        for (Object[] line : lines) {
+            dataArray.add(Arrays.asList(line));
+        }
+        return new ComplexResult(List.of(time, depth, label), dataArray, lines.length);
+    }
+
+    @Test
+    public void insertAndUpdateTest() throws Exception {
+        try (final Connection c = DriverManager.getConnection("jdbc:derby:memory:inserter-test;create=true")) {
+            try (final Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE SCHEMA \"mesures\"");
+                stmt.execute("CREATE TABLE \"mesures\".\"mesure1\" (\"id_observation\" INTEGER, \"id\" INTEGER, \"time\" TIMESTAMP, \"depth\" DOUBLE, \"label\" VARCHAR(100))");
+            }
+            final ProcedureInfo pi = new ProcedureInfo(1, 1, "p1", "timeseries", time);
+            final List<InsertDbField> fields = List.of(new InsertDbField(time), new InsertDbField(depth), new InsertDbField(label));
+            // a batch size smaller than the number of lines, to send several batches
+            final OM2MeasureSQLInserter inserter = new OM2MeasureSQLInserter(pi, "", OMSQLDialect.DERBY, fields, 2);
+
+            // the text values are bound to the statements, the quotes and separators are kept as is.
+            inserter.fillMesureTable(c, 1, result(
+                    new Object[] {new Date(0),          4.0, "it's"},
+                    new Object[] {new Date(MINUTE),     2.0, "a;b"},
+                    new Object[] {new Date(2 * MINUTE), 7.0, null}), false);
+
+            assertMeasures(c, "1|0|4.0|it's", "2|60000|2.0|a;b", "3|120000|7.0|null");
+
+            // the line of the second minute is updated in place, the line of the fourth minute is added.
+            inserter.fillMesureTable(c, 1, result(
+                    new Object[] {new Date(MINUTE),     5.0, "updated"},
+                    new Object[] {new Date(3 * MINUTE), 1.0, "new"}), true);
+
+            assertMeasures(c, "1|0|4.0|it's", "2|60000|5.0|updated", "3|120000|7.0|null", "4|180000|1.0|new");
+        }
+    }
+
+    private static void assertMeasures(final Connection c, final String... expected) throws Exception {
+        final List<String> lines = new ArrayList<>();
+        try (final Statement stmt = c.createStatement();
+             final ResultSet rs = stmt.executeQuery("SELECT \"id\", \"time\", \"depth\", \"label\" FROM \"mesures\".\"mesure1\" "
+                                                  + "WHERE \"id_observation\" = 1 ORDER BY \"id\"")) {
+            while (rs.next()) {
+                lines.add(rs.getInt(1) + "|" + rs.getTimestamp(2).getTime() + "|" + rs.getDouble(3) + "|" + rs.getString(4));
+            }
+        }
+        Assert.assertEquals(Arrays.asList(expected), lines);
+    }
+}
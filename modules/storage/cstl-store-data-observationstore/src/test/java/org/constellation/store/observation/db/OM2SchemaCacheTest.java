@@ -0,0 +1,112 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db;
+
+import java.util.List;
+import org.constellation.admin.LocalClusterBusiness;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.geotoolkit.observation.model.Field;
+import org.geotoolkit.observation.model.FieldType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OM2SchemaCacheTest {
+
+    @Test
+    public void cacheInvalidationTest() {
+        final OM2SchemaCache cache = new OM2SchemaCache(10);
+        final DbField time = new DbField(1, FieldType.TIME, "time", "time", null, null, 1);
+
+        long version = cache.version();
+        cache.putProcedure("p1", new ProcedureInfo(1, 1, "p1", "timeseries", time), version);
+        cache.putFields("p1", List.of(time), version);
+
+        ProcedureInfo pi = cache.getProcedure("p1");
+        Assert.assertNotNull(pi);
+        Assert.assertEquals(1, pi.pid);
+        Assert.assertEquals("time", pi.mainField.name);
+
+        // returned fields are copies
+        final List<Field> fields = cache.getFields("p1");
+        Assert.assertEquals(1, fields.size());
+        fields.get(0).qualityFields.add(new DbField(1, FieldType.QUANTITY, "q", "q", null, null, 1));
+        Assert.assertTrue(cache.getFields("p1").get(0).qualityFields.isEmpty());
+
+        // a value loaded before an invalidation is not cached
+        version = cache.version();
+        cache.invalidateProcedure("p1");
+        Assert.assertNull(cache.getProcedure("p1"));
+        cache.putProcedure("p1", new ProcedureInfo(1, 1, "p1", "timeseries", time), version);
+        Assert.assertNull(cache.getProcedure("p1"));
+
+        Assert.assertEquals(1L, cache.getStatistics().get("procedureHits"));
+        Assert.assertEquals(2L, cache.getStatistics().get("procedureMisses"));
+    }
+
+    @Test
+    public void synchronizedInvalidationTest() {
+        final LocalClusterBusiness cluster = new LocalClusterBusiness();
+        final OM2SchemaCache cache1 = new OM2SchemaCache(10);
+        final OM2SchemaCache cache2 = new OM2SchemaCache(10);
+        final OM2SchemaCache other  = new OM2SchemaCache(10);
+        final OM2SchemaCacheSynchronizer sync1 = new OM2SchemaCacheSynchronizer(cluster, cache1, "db1");
+        final OM2SchemaCacheSynchronizer sync2 = new OM2SchemaCacheSynchronizer(cluster, cache2, "db1");
+        final OM2SchemaCacheSynchronizer sync3 = new OM2SchemaCacheSynchronizer(cluster, other, "db2");
+        sync1.register();
+        sync2.register();
+        sync3.register();
+        cache1.setSynchronizer(sync1);
+
+        for (OM2SchemaCache cache : List.of(cache1, cache2, other)) {
+            cache.putProcedure("p1", new ProcedureInfo(1, 1, "p1", "timeseries", null), cache.version());
+        }
+
+        // the committed invalidation reaches the caches of the same database only
+        cache1.invalidateCommitted(List.of("p1"), false);
+        Assert.assertNull(cache1.getProcedure("p1"));
+        Assert.assertNull(cache2.getProcedure("p1"));
+        Assert.assertNotNull(other.getProcedure("p1"));
+
+        sync1.unregister();
+        sync2.unregister();
+        sync3.unregister();
+    }
+
+    @Test
+    public void boundedSizeTest() {
+        final OM2SchemaCache cache = new OM2SchemaCache(2);
+        final long version = cache.version();
+        for (int i = 0; i < 3; i++) {
+            cache.putProcedure("p" + i, new ProcedureInfo(i, 1, "p" + i, "timeseries", null), version);
+        }
+        Assert.assertNull(cache.getProcedure("p0"));
+        Assert.assertNotNull(cache.getProcedure("p1"));
+        Assert.assertNotNull(cache.getProcedure("p2"));
+        Assert.assertEquals(2, cache.getStatistics().get("procedureEntries"));
+
+        final OM2SchemaCache disabled = new OM2SchemaCache(0);
+        disabled.putProcedure("p0", new ProcedureInfo(0, 1, "p0", "timeseries", null), disabled.version());
+        Assert.assertNull(disabled.getProcedure("p0"));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.store.observation.db.decimation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.constellation.store.observation.db.OM2MeasureRollup;
+import org.constellation.store.observation.db.model.DbField;
+import org.constellation.store.observation.db.model.OMSQLDialect;
+import org.constellation.store.observation.db.model.ProcedureInfo;
+import org.constellation.util.FilterSQLRequest;
+import org.constellation.util.SQLResult;
+import org.constellation.util.SingleFilterSQLRequest;
+import org.geotoolkit.observation.model.Field;
+import org.geotoolkit.observation.model.FieldType;
+import org.geotoolkit.observation.result.ResultBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class RollupResultDecimatorTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void decimateTest() throws Exception {
+        try (final Connection c = DriverManager.getConnection("jdbc:derby:memory:rollup-decimator-test;create=true")) {
+            try (final Statement stmt = c.createStatement()) {
+                stmt.execute("CREATE SCHEMA \"mesures\"");
+                stmt.execute("CREATE TABLE \"mesures\".\"mesure1\" (\"id_observation\" INTEGER, \"id\" INTEGER, \"time\" TIMESTAMP, \"depth\" DOUBLE)");
+            }
+            // one measure by minute during ten hours, the value being the minute index.
+            try (final PreparedStatement stmt = c.prepareStatement("INSERT INTO \"mesures\".\"mesure1\" VALUES (1, ?, ?, ?)")) {
+                for (int i = 0; i < 600; i++) {
+                    stmt.setInt(1, i + 1);
+                    stmt.setTimestamp(2, new Timestamp(i * MINUTE));
+                    stmt.setDouble(3, i);
+                    stmt.executeUpdate();
+                }
+            }
+
+            final DbField time  = new DbField(1, FieldType.TIME, "time", "time", null, null, 1);
+            final DbField depth = new DbField(2, FieldType.QUANTITY, "depth", "depth", null, "m", 1);
+            final ProcedureInfo pi = new ProcedureInfo(1, 1, "p1", "timeseries", time);
+            final List<Field> fields = List.of(time, depth);
+
+            // no rollup table: fallback on the default decimation
+            List<Double> values = decimate(c, pi, fields);
+            Assert.assertFalse(values.isEmpty());
+            Assert.assertEquals(0.0, values.get(0), 0.0);
+            Assert.assertEquals(599.0, values.get(values.size() - 1), 0.0);
+
+            new OM2MeasureRollup(pi, "", OMSQLDialect.DERBY, fields).rebuild(c);
+
+            /*
+             * The step is 299.5 minutes, so the hourly buckets are used for [0h, 9h[ and the last 60 measures are read
+             * from the measure table. The first step covers the buckets 0h to 4h, the second one the buckets 5h to 8h
+             * and the measures up to 598, the last measure falls in a third step.
+             */
+            values = decimate(c, pi, fields);
+            Assert.assertEquals(List.of(0.0, 299.0, 300.0, 598.0, 599.0), values);
+
+            // a bucket value not present in the measure table proves the rollups are used.
+            try (final Statement stmt = c.createStatement()) {
+                stmt.executeUpdate("UPDATE \"mesures\".\"rollup1\" SET \"vmax\" = 1000.0 WHERE \"resolution\" = " + (60 * MINUTE) + " AND \"bucket\" = " + (60 * MINUTE));
+            }
+            values = decimate(c, pi, fields);
+            Assert.assertEquals(List.of(0.0, 1000.0, 300.0, 598.0, 599.0), values);
+
+            OM2MeasureRollup.drop(pi, "", c);
+        }
+    }
+
+    /**
+     * Run a decimation on 4 values, and return the decimated values of the quantity field.
+     */
+    private static List<Double> decimate(Connection c, ProcedureInfo pi, List<Field> fields) throws Exception {
+        final RollupResultDecimator decimator = new RollupResultDecimator(fields, false, 4, List.of(), false, pi, "");
+        final FilterSQLRequest request = new SingleFilterSQLRequest("SELECT m.* FROM \"mesures\".\"mesure1\" m WHERE m.\"id_observation\" = 1");
+        decimator.computeRequest(request, 0, false, c);
+        final ResultBuilder values = decimator.initResultBuilder("text/plain", false);
+        try (final SQLResult rs = request.execute(c)) {
+            decimator.processResults(rs);
+        }
+        final List<Double> results = new ArrayList<>();
+        for (String block : values.getStringValues().split("@@")) {
+            if (!block.isEmpty()) {
+                results.add(Double.valueOf(block.split(",")[1]));
+            }
+        }
+        return results;
+    }
+}
@@ -26,8 +26,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.xml.namespace.QName;
 import org.constellation.api.PathType;
+import org.constellation.concurrent.SharedDaemonPool;
+import org.constellation.configuration.AppProperty;
 import org.constellation.metadata.CSWQueryable;
 import static org.constellation.store.metadata.CstlMetadataStoreDescriptors.*;
 import org.geotoolkit.metadata.ElementSetType;
@@ -86,6 +90,59 @@ public abstract class AbstractCstlMetadataStore extends MetadataStore {
         return getReader().getMetadata(identifier, mode, type, elementName);
     }
 
+    /**
+     * Return the records for a list of identifiers, in the same order.
+     *
+     * The default implementation reads the records concurrently in a shared pool of bounded size
+     * (see {@link AppProperty#EXA_CSW_FETCH_THREADS}). Stores able to retrieve multiple records in a
+     * single request should override this method.
+     *
+     * @param identifiers The metadata identifiers.
+     * @param mode Output metadata type.
+     * @param type Element set type applied to the records.
+     * @param elementName Specific elements to return, can be {@code null}.
+     *
+     * @return A list of the same size than the identifiers list, containing {@code null} for the records not found.
+     * @throws MetadataIoException If an error occurs while reading one of the records.
+     */
+    public List<RecordInfo> getMetadata(final List<String> identifiers, final MetadataType mode, final ElementSetType type, final List<QName> elementName) throws MetadataIoException {
+        final List<RecordInfo> results = new ArrayList<>(identifiers.size());
+        if (identifiers.size() < 2) {
+            for (String identifier : identifiers) {
+                results.add(getMetadata(identifier, mode, type, elementName));
+            }
+            return results;
+        }
+        final List<Future<RecordInfo>> futures = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            futures.add(FETCH_POOL.submit(() -> getMetadata(identifier, mode, type, elementName)));
+        }
+        try {
+            for (Future<RecordInfo> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MetadataIoException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MetadataIoException mex) {
+                throw mex;
+            }
+            throw new MetadataIoException(ex);
+        } finally {
+            for (Future<RecordInfo> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Thread pool shared by all the stores for concurrent record reading, created on first use.
+     */
+    private static final SharedDaemonPool FETCH_POOL = new SharedDaemonPool("metadata-fetch", AppProperty.EXA_CSW_FETCH_THREADS,
+            Runtime.getRuntime().availableProcessors());
+
     @Override
     public Iterator<String> getIdentifierIterator() throws MetadataIoException {
         return getReader().getIdentifierIterator();
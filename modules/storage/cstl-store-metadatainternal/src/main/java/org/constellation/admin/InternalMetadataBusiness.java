@@ -18,7 +18,9 @@
  */
 package org.constellation.admin;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.constellation.business.IInternalMetadataBusiness;
 import org.constellation.dto.metadata.InternalMetadata;
 import org.constellation.dto.metadata.Metadata;
@@ -54,6 +56,15 @@ public class InternalMetadataBusiness implements IInternalMetadataBusiness{
         return null;
     }
 
+    @Override
+    public Map<String, String> getMetadatas(List<String> metadataIDs) {
+        final Map<String, String> results = new HashMap<>();
+        for (InternalMetadata meta : intMetadataRepository.findByMetadataIds(metadataIDs)) {
+            results.put(meta.getMetadataId(), meta.getMetadataIso());
+        }
+        return results;
+    }
+
     @Override
     @Transactional
     public void storeMetadata(String metadataID, String metadataXMl) {
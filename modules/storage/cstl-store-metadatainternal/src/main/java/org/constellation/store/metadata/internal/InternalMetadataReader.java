@@ -92,7 +92,30 @@ public class InternalMetadataReader extends DomMetadataReader {
      */
     @Override
     public RecordInfo getMetadata(String identifier, MetadataType mode, ElementSetType type, List<QName> elementName) throws MetadataIoException {
-        final String metadataString = internalMetadataBusiness.getMetadata(identifier);
+        return toRecord(identifier, internalMetadataBusiness.getMetadata(identifier), mode, type, elementName);
+    }
+
+    /**
+     * Return the records for a list of identifiers, retrieved in a single query.
+     *
+     * @param identifiers The metadata identifiers.
+     * @param mode Output metadata type.
+     * @param type Element set type applied to the records.
+     * @param elementName Specific elements to return, can be {@code null}.
+     *
+     * @return A list of the same size than the identifiers list, containing {@code null} for the records not found.
+     * @throws MetadataIoException If an error occurs while parsing one of the records.
+     */
+    public List<RecordInfo> getMetadata(List<String> identifiers, MetadataType mode, ElementSetType type, List<QName> elementName) throws MetadataIoException {
+        final Map<String, String> metadataStrings = internalMetadataBusiness.getMetadatas(identifiers);
+        final List<RecordInfo> results = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            results.add(toRecord(identifier, metadataStrings.get(identifier), mode, type, elementName));
+        }
+        return results;
+    }
+
+    private RecordInfo toRecord(String identifier, String metadataString, MetadataType mode, ElementSetType type, List<QName> elementName) throws MetadataIoException {
         if (metadataString != null) {
             final MetadataType metadataMode;
             final Node metadataNode;
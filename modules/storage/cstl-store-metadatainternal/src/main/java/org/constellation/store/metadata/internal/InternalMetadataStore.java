@@ -31,8 +31,11 @@ import org.apache.sis.referencing.NamedIdentifier;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.DataStoreProvider;
 import org.constellation.store.metadata.AbstractCstlMetadataStore;
+import org.geotoolkit.metadata.ElementSetType;
 import org.geotoolkit.metadata.MetadataIoException;
+import org.geotoolkit.metadata.MetadataType;
 import org.geotoolkit.metadata.MetadataWriter;
+import org.geotoolkit.metadata.RecordInfo;
 import org.constellation.store.metadata.CSWMetadataReader;
 import static org.constellation.store.metadata.internal.InternalMetadataStoreFactory.CONFIG_PARAMS;
 import org.geotoolkit.csw.xml.DomainValues;
@@ -47,7 +50,7 @@ import org.w3c.dom.Node;
  */
 public class InternalMetadataStore extends AbstractCstlMetadataStore {
 
-    private final CSWMetadataReader reader;
+    private final InternalMetadataReader reader;
 
     private final MetadataWriter writer;
 
@@ -87,6 +90,16 @@ public class InternalMetadataStore extends AbstractCstlMetadataStore {
         return writer;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * All the records are retrieved from the database in a single query.
+     */
+    @Override
+    public List<RecordInfo> getMetadata(List<String> identifiers, MetadataType mode, ElementSetType type, List<QName> elementName) throws MetadataIoException {
+        return reader.getMetadata(identifiers, mode, type, elementName);
+    }
+
     @Override
     public String[] executeEbrimSQLQuery(String sqlQuery) throws MetadataIoException {
         return reader.executeEbrimSQLQuery(sqlQuery);
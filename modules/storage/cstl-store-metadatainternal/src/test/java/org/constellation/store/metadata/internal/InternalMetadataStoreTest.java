@@ -19,6 +19,7 @@
 package org.constellation.store.metadata.internal;
 
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,6 +35,7 @@ import org.constellation.util.Util;
 import org.geotoolkit.csw.xml.DomainValues;
 import org.geotoolkit.csw.xml.v202.RecordType;
 import org.geotoolkit.ebrim.xml.EBRIMMarshallerPool;
+import org.geotoolkit.metadata.ElementSetType;
 import org.geotoolkit.metadata.MetadataType;
 import org.geotoolkit.metadata.RecordInfo;
 import org.geotoolkit.storage.DataStores;
@@ -146,6 +148,18 @@ public class InternalMetadataStoreTest {
         Assert.assertTrue(obj instanceof org.geotoolkit.csw.xml.v300.RecordType);
     }
 
+    @Test
+    public void getMetadatasTest() throws Exception {
+        final List<String> ids = Arrays.asList("dif-2", "unknown-id", "42292_5p_19900609195600", "dif-1");
+        final List<RecordInfo> results = inStore1.getMetadata(ids, MetadataType.DUBLINCORE_CSW202, ElementSetType.FULL, null);
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals("dif-2", results.get(0).identifier);
+        Assert.assertNull(results.get(1));
+        Assert.assertEquals("42292_5p_19900609195600", results.get(2).identifier);
+        Assert.assertEquals(MetadataType.DUBLINCORE_CSW202, results.get(2).actualFormat);
+        Assert.assertEquals("dif-1", results.get(3).identifier);
+    }
+
     @Test
     public void getFieldDomainofValuesTest() throws Exception {
         List<DomainValues> result = inStore1.getFieldDomainofValues("title");
@@ -24,6 +24,11 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -94,8 +99,12 @@ public final class DataProviders extends Static{
      */
     public static final Logger LOGGER = Logger.getLogger("org.constellation.provider");
 
-    // TODO : use a by key lock
-    private static final Map<Integer,DataProvider> CACHE = new HashMap<>();
+    /**
+     * Loaded providers, by identifier. Each entry is a future so that concurrent
+     * callers asking for the same provider wait for a single instanciation, while
+     * callers of other (or already loaded) providers are never blocked.
+     */
+    private static final ConcurrentMap<Integer,Future<DataProvider>> CACHE = new ConcurrentHashMap<>();
 
     //all providers factories, unmodifiable
     private static final Collection<DataProviderFactory> FACTORIES;
@@ -144,10 +153,40 @@ public final class DataProviders extends Static{
      * @param providerId provider identifier.
      * @return Never {@code null}.
      */
-    public synchronized static DataProvider getProvider(final int providerId) throws ConfigurationException{
-        DataProvider provider = CACHE.get(providerId);
-        if(provider!=null) return provider;
+    public static DataProvider getProvider(final int providerId) throws ConfigurationException{
+        Future<DataProvider> future = CACHE.get(providerId);
+        if (future == null) {
+            final FutureTask<DataProvider> task = new FutureTask<>(() -> createProvider(providerId));
+            future = CACHE.putIfAbsent(providerId, task);
+            if (future == null) {
+                future = task;
+                task.run();
+            }
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationException("Interrupted while waiting for provider:" + providerId, ex);
+        } catch (ExecutionException ex) {
+            // do not keep failed instanciation, next call will retry
+            CACHE.remove(providerId, future);
+            final Throwable cause = ex.getCause();
+            if (cause instanceof ConfigurationException ce) {
+                throw ce;
+            }
+            throw new ConfigurationException("Error while creating provider configuration for:" + providerId, cause);
+        }
+    }
 
+    /**
+     * Instanciate a new DataProvider from its configuration.
+     * This method does not look or fill the cache.
+     *
+     * @param providerId provider identifier.
+     * @return Never {@code null}.
+     */
+    private static DataProvider createProvider(final int providerId) throws ConfigurationException {
         //load provider from configuration
         final ProviderRepository repo = SpringHelper.getBean(ProviderRepository.class)
                                                     .orElseThrow(() ->  new ConfigurationException("Application context unavailable"));
@@ -166,13 +205,10 @@ public final class DataProviders extends Static{
             throw new ConfigurationException("Error while reading provider configuration for:" + providerId, ex);
         }
 
-        provider = factory.createProvider(config.getIdentifier(), params);
+        final DataProvider provider = factory.createProvider(config.getIdentifier(), params);
         if (provider == null) {
              throw new ConfigurationException("Error while creating provider configuration for:" + providerId);
         }
-
-        CACHE.put(providerId, provider);
-
         return provider;
     }
 
@@ -187,7 +223,7 @@ public final class DataProviders extends Static{
      *
      * @throws ConfigurationException If the Provider does not exist.
      */
-    public synchronized static Data getProviderData(final int providerId, final String namespace, final String name) throws ConfigurationException {
+    public static Data getProviderData(final int providerId, final String namespace, final String name) throws ConfigurationException {
         final DataProvider inProvider = DataProviders.getProvider(providerId);
         try {
             return inProvider.get(namespace, name);
@@ -206,7 +242,7 @@ public final class DataProviders extends Static{
      * @throws TargetNotFoundException If the Data does not exist.
      * @throws ConfigurationException If an error occur during the provider or data instanciation.
      */
-    public synchronized static Data getProviderData(final int dataId) throws ConfigurationException {
+    public static Data getProviderData(final int dataId) throws ConfigurationException {
         final org.constellation.dto.Data d = getDataFromId(dataId);
         final DataProvider inProvider = DataProviders.getProvider(d.getProviderId());
         try {
@@ -284,9 +320,19 @@ public final class DataProviders extends Static{
      *
      * @param providerId
      */
-    public synchronized static void dispose(int providerId) {
-        final DataProvider provider = CACHE.remove(providerId);
-        if(provider!=null){
+    public static void dispose(int providerId) {
+        final Future<DataProvider> future = CACHE.remove(providerId);
+        if (future != null) {
+            final DataProvider provider;
+            try {
+                provider = future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                // provider instanciation failed, nothing to release
+                return;
+            }
             try{
                 provider.dispose();
             }catch(Exception ex){
@@ -299,14 +345,10 @@ public final class DataProviders extends Static{
     /**
      * Release all loaded providers.
      */
-    public synchronized static void dispose() {
-        try {
-            //sproviders were loaded, dispose each of them
-            for (final Integer key : new HashSet<Integer>(CACHE.keySet())) {
-                dispose(key);
-            }
-        } finally {
-            CACHE.clear();
+    public static void dispose() {
+        //providers were loaded, dispose each of them
+        for (final Integer key : new HashSet<>(CACHE.keySet())) {
+            dispose(key);
         }
     }
 
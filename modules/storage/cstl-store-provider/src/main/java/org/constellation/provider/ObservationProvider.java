@@ -18,6 +18,7 @@
  */
 package org.constellation.provider;
 
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -59,6 +60,25 @@ public interface ObservationProvider extends DataProvider {
 
     Object getResults(Query q) throws ConstellationStoreException;
 
+    /**
+     * Execute several result queries (typically one by procedure) concurrently.
+     *
+     * @param queries A list of result queries.
+     * @return The results, in the order of the queries.
+     * @throws ConstellationStoreException If one of the queries fails.
+     */
+    List<Object> getResults(List<? extends Query> queries) throws ConstellationStoreException;
+
+    /**
+     * Execute a text result query, writing the result to the specified output.
+     * When supported by the store, the result is written while being read, without being held in memory.
+     *
+     * @param q A result query with a text response format.
+     * @param output The output receiving the result.
+     * @throws ConstellationStoreException If the query fails, does not produce a text result, or if the output can not be written.
+     */
+    void writeResults(Query q, Writer output) throws ConstellationStoreException;
+
     SOSProviderCapabilities getCapabilities()  throws ConstellationStoreException;
 
     Geometry getSensorLocation(final String sensorID) throws ConstellationStoreException;
@@ -27,6 +27,7 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -71,6 +72,7 @@ import org.constellation.exception.ConstellationException;
 import org.constellation.metadata.utils.Utils;
 import org.constellation.provider.DataProviders;
 import org.constellation.provider.PyramidData;
+import org.constellation.util.CRSUtilities;
 import org.constellation.util.MetadataMerger;
 import org.constellation.util.ParamUtilities;
 import org.constellation.util.Util;
@@ -400,6 +402,51 @@ public class DataRestAPI extends AbstractRestAPI{
         }
     }
 
+    /**
+     * Regenerates the tiles of an existing pyramid intersecting a dirty area.
+     * The tiles are rebuilt from the data the pyramid was created on, keeping the pyramid tiling mode.
+     * An interrupted update of the same area is resumed where it stopped.
+     *
+     * @param dataId The pyramid data identifier.
+     * @param bbox The dirty area as "minx,miny,maxx,maxy". if not set, the whole extent is regenerated.
+     * @param crs The coordinate reference system of the bbox, default to CRS:84.
+     * @param start Start of the dirty time range in milliseconds since epoch, if not set the range is unbounded.
+     * @param end End of the dirty time range in milliseconds since epoch, if not set the range is unbounded.
+     * @param req
+     *
+     * @return Informations about tiling process.
+     */
+    @RequestMapping(value="/datas/{dataId}/pyramid/update",method=POST,produces=APPLICATION_JSON_VALUE)
+    public ResponseEntity updatePyramid(@PathVariable("dataId") final int dataId,
+            @RequestParam(name = "bbox", required = false) final String bbox,
+            @RequestParam(name = "crs", defaultValue = "CRS:84") final String crs,
+            @RequestParam(name = "start", required = false) final Long start,
+            @RequestParam(name = "end", required = false) final Long end,
+            HttpServletRequest req) {
+        try {
+            final int userId = assertAuthentificated(req);
+            GeneralEnvelope envelope = null;
+            if (bbox != null && !bbox.isEmpty()) {
+                final String[] parts = bbox.split(",");
+                if (parts.length != 4) {
+                    return new ErrorMessage(BAD_REQUEST).message("The bbox must be expressed as \"minx,miny,maxx,maxy\".").build();
+                }
+                envelope = new GeneralEnvelope(CRSUtilities.verifyCrs(crs, true).orElseThrow(() -> new ConstellationException("Missing bbox CRS parameter.")));
+                envelope.setRange(0, Double.parseDouble(parts[0]), Double.parseDouble(parts[2]));
+                envelope.setRange(1, Double.parseDouble(parts[1]), Double.parseDouble(parts[3]));
+            }
+            final TilingResult ref = pyramidBusiness.updatePyramid(userId, dataId, envelope,
+                    start != null ? new Date(start) : null,
+                    end   != null ? new Date(end)   : null);
+            return new ResponseEntity(ref, OK);
+        } catch (NumberFormatException ex) {
+            return new ErrorMessage(BAD_REQUEST).message("The bbox values must be numbers.").build();
+        } catch (ConstellationException ex) {
+            LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
+            return new ErrorMessage(ex).build();
+        }
+    }
+
     /**
      * Generates a pyramid on a list of data and create and return this new provider.Creates btw a mapcontext that contains internal data.
      * N.B : It creates a styled pyramid, which can be used for display purposes, but not for analysis.
@@ -106,6 +106,11 @@ public class MetadataRestAPI extends AbstractRestAPI{
         MIME_TYPE_MAP.addMimeTypes("image/png png PNG");
     }
 
+    /**
+     * Maximum time in milliseconds a request can wait for the CSW index update queue to be empty.
+     */
+    private static final long MAX_INDEX_QUEUE_WAIT = 60000;
+
 
     /**
      * Inject metadata business
@@ -339,6 +344,27 @@ public class MetadataRestAPI extends AbstractRestAPI{
         return new ResponseEntity(map, OK);
     }
 
+    /**
+     * Return the state of the CSW index update queue (number of metadata waiting to be indexed and lag in milliseconds).
+     *
+     * @param wait If greater than 0, wait at most this number of milliseconds for the queue to be empty.
+     *             The waiting time is limited to {@link #MAX_INDEX_QUEUE_WAIT} milliseconds.
+     *
+     * @return A map with the queue size and lag.
+     */
+    @RequestMapping(value="/metadatas/index/queue",method=GET,produces=APPLICATION_JSON_VALUE)
+    public ResponseEntity getIndexQueueState(@RequestParam(name = "wait", defaultValue = "0") final long wait) {
+        if (wait > 0) {
+            try {
+                metadataBusiness.awaitCSWIndexation(Math.min(wait, MAX_INDEX_QUEUE_WAIT));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return new ErrorMessage(ex).build();
+            }
+        }
+        return new ResponseEntity(metadataBusiness.getCSWIndexQueueState(), OK);
+    }
+
     /**
      * Get all needed stats for given filters
      *
@@ -119,6 +119,13 @@ public class ResponseObject {
         this.extraHeaders = extraHeaders;
     }
 
+    public ResponseObject(Object entity, String mimeType, HttpStatus status, Map<String, String> extraHeaders) {
+        this.entity   = entity;
+        this.mimeTypeSpecial = mimeType;
+        this.status   = status;
+        this.extraHeaders = extraHeaders;
+    }
+
     public ResponseEntity getResponseEntity() {
         return getResponseEntity(null);
     }
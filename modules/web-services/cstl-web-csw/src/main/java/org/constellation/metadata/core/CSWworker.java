@@ -105,6 +105,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.Collection;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import org.apache.sis.storage.DataStore;
@@ -138,6 +139,8 @@ import org.constellation.provider.DataProviders;
 import org.constellation.ws.MimeType;
 import org.geotoolkit.metadata.MetadataStore;
 import org.constellation.ws.Refreshable;
+import org.constellation.ws.KeywordSearchable;
+import org.geotoolkit.csw.xml.v202.QueryConstraintType;
 import org.geotoolkit.csw.xml.FederatedSearchResultBase;
 import org.geotoolkit.csw.xml.InsertResult;
 import static org.geotoolkit.csw.xml.ResultType.HITS;
@@ -173,7 +176,7 @@ import org.w3._2005.atom.FeedType;
  */
 @Component("CSWWorker")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
-public class CSWworker extends AbstractWorker<Automatic> implements Refreshable {
+public class CSWworker extends AbstractWorker<Automatic> implements Refreshable, KeywordSearchable {
 
     @Autowired
     private IClusterBusiness clusterBusiness;
@@ -181,7 +184,7 @@ public class CSWworker extends AbstractWorker<Automatic> implements Refreshable
     /**
      * A Database reader.
      */
-    private MetadataStore mdStore;
+    private MetadataStoreWrapper mdStore;
 
     /**
      * A index searcher to make quick search on the metadatas.
@@ -832,14 +835,23 @@ public class CSWworker extends AbstractWorker<Automatic> implements Refreshable
             case RESULTS:
 
                 try {
-                    for (int i = startPos - 1; i < max; i++) {
-                        final RecordInfo obj = mdStore.getMetadata(results[i], mode, cstlSet(set), elementName);
-                        if (obj == null && (max + 1) < nbResults) {
-                            max++;
-
-                        } else if (obj != null) {
-                            records.add(obj);
+                    /*
+                     * The records of the page are read in one call, then the records missing
+                     * (hidden or unpublished) are replaced by reading the next results.
+                     */
+                    int i = startPos - 1;
+                    while (i < max) {
+                        final int end = max;
+                        final List<RecordInfo> objs = mdStore.getMetadata(Arrays.asList(results).subList(i, end), mode, cstlSet(set), elementName);
+                        for (RecordInfo obj : objs) {
+                            if (obj == null && (max + 1) < nbResults) {
+                                max++;
+
+                            } else if (obj != null) {
+                                records.add(obj);
+                            }
                         }
+                        i = end;
                     }
                 } catch (MetadataIoException ex) {
                     CodeList execptionCode = ex.getExceptionCode();
@@ -1620,4 +1632,43 @@ public class CSWworker extends AbstractWorker<Automatic> implements Refreshable
         }
     }
 
+    /**
+     * {@inheritDoc }
+     *
+     * Each term is evaluated as the CQL filter used by the thesaurus counter on the HTTP interface
+     * ({@code dc:title}, {@code dct:abstract} or {@code dc:subject} containing the term),
+     * directly on the index and without reading nor marshalling the records.
+     */
+    @Override
+    public Map<String, List<String>> getIdentifiersForTerms(final Collection<String> terms) throws CstlServiceException {
+        isWorking();
+        final Map<String, List<String>> results = new HashMap<>();
+        final List<QName> typeNames = getConvertibleTypeNames(Arrays.asList(RECORD_202_QNAME));
+        for (String term : terms) {
+            if (term == null || results.containsKey(term)) continue;
+            final SpatialQuery indexQuery;
+            try {
+                indexQuery = (SpatialQuery) filterParser.getQuery(new QueryConstraintType(KeywordSearchable.termFilter(term), "1.1.0"), null, null, typeNames);
+            } catch (FilterParserException ex) {
+                LOGGER.log(Level.WARNING, "Unable to build the keyword query for the term: " + term, ex);
+                continue;
+            }
+            // the records are counted as seen by an anonymous user.
+            final String[] ids = securityFilter.filterResults(null, executeLuceneQuery(indexQuery));
+            if (ids.length > 0) {
+                results.put(term, Arrays.asList(ids));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String getRevision() {
+        if (mdStore == null) return null;
+        return mdStore.getRevision();
+    }
+
 }
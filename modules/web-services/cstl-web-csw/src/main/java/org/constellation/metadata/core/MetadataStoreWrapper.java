@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -167,6 +168,60 @@ public class MetadataStoreWrapper extends AbstractCstlMetadataStore {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The link to the CSW and the provider of the identifiers are resolved in one query,
+     * then the identifiers are grouped by original store, in order to let each store read its records in one call.
+     */
+    @Override
+    public List<RecordInfo> getMetadata(List<String> identifiers, MetadataType mode, ElementSetType type, List<QName> elementName) throws MetadataIoException {
+        final Map<String, Integer> providers = metadataBusiness.getLinkedMetadataProviders(identifiers, serviceID, partial, displayServiceMetadata, onlyPublished);
+        final Map<MetadataStore, List<Integer>> indexesByStore = new LinkedHashMap<>();
+        for (int i = 0; i < identifiers.size(); i++) {
+            final String identifier = identifiers.get(i);
+            if (!providers.containsKey(identifier)) {
+                continue;
+            }
+            MetadataStore owner = null;
+            final Integer providerId = providers.get(identifier);
+            if (providerId != null) {
+                owner = wrappeds.get(providerId);
+            }
+            if (owner == null) {
+                // the provider is not wrapped by this CSW, look for a store holding the record.
+                for (MetadataStore store : wrappeds.values()) {
+                    if (store.existMetadata(identifier)) {
+                        owner = store;
+                        break;
+                    }
+                }
+            }
+            if (owner != null) {
+                indexesByStore.computeIfAbsent(owner, s -> new ArrayList<>()).add(i);
+            }
+        }
+        final RecordInfo[] results = new RecordInfo[identifiers.size()];
+        for (Entry<MetadataStore, List<Integer>> entry : indexesByStore.entrySet()) {
+            final List<Integer> indexes = entry.getValue();
+            if (entry.getKey() instanceof AbstractCstlMetadataStore cstlStore) {
+                final List<String> storeIds = new ArrayList<>(indexes.size());
+                for (Integer index : indexes) {
+                    storeIds.add(identifiers.get(index));
+                }
+                final List<RecordInfo> records = cstlStore.getMetadata(storeIds, mode, type, elementName);
+                for (int i = 0; i < indexes.size(); i++) {
+                    results[indexes.get(i)] = records.get(i);
+                }
+            } else {
+                for (Integer index : indexes) {
+                    results[index] = entry.getKey().getMetadata(identifiers.get(index), mode, type, elementName);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
     @Override
     public boolean existMetadata(String identifier) throws MetadataIoException {
         return metadataBusiness.isLinkedMetadataToCSW(identifier, serviceID, partial, displayServiceMetadata, onlyPublished);
@@ -196,6 +251,13 @@ public class MetadataStoreWrapper extends AbstractCstlMetadataStore {
         return metadataBusiness.getLinkedMetadataCount(serviceID, partial, displayServiceMetadata, onlyPublished, "DOC");
     }
 
+    /**
+     * Return a revision of the catalogue content, stored in the database and changing when a linked metadata is modified.
+     */
+    public String getRevision() {
+        return metadataBusiness.getLinkedMetadataRevision(serviceID, partial, displayServiceMetadata, onlyPublished, "DOC");
+    }
+
     @Override
     public Iterator<String> getIdentifierIterator() throws MetadataIoException {
         return metadataBusiness.getLinkedMetadataIDs(serviceID, partial, displayServiceMetadata, onlyPublished, "DOC").iterator();
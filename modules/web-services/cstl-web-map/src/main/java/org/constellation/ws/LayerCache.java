@@ -86,8 +86,9 @@ import org.opengis.util.FactoryException;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
- * Note about thread-safety: This object is <em>NOT</em> thread-safe.
- * It is user responsibility to synchronize accesses if (s)he uses it in a multi-threaded environment.
+ * Note about thread-safety: The lazily computed informations (envelope, dimensions, ...) are
+ * idempotent, so an instance can be shared between requests (see {@link LayerWorker} resolved layer cache).
+ * Concurrent first calls may only compute the same value twice.
  *
  * @author Guilhem Legal (Geomatys)
  */
@@ -104,7 +105,7 @@ public class LayerCache {
     @Autowired
     private IDataBusiness dataBusiness;
 
-    private ExtraDimensions layerAdditionalDimensions;
+    private volatile ExtraDimensions layerAdditionalDimensions;
 
     public LayerCache(final NameInProvider nip, QName name, Data d, List<StyleReference> styles, final LayerConfig configuration) {
         SpringHelper.injectDependencies(this);
@@ -145,7 +146,7 @@ public class LayerCache {
     /**
      * lazy cached native data envelope.
      */
-    private Envelope envelope;
+    private volatile Envelope envelope;
 
     /**
      * @return The native envelope.
@@ -215,7 +216,7 @@ public class LayerCache {
         return dataCRS;
     }
 
-    private org.constellation.dto.Data dbData;
+    private volatile org.constellation.dto.Data dbData;
     
     private org.constellation.dto.Data getDbData() throws ConstellationStoreException {
         if (dbData == null) {
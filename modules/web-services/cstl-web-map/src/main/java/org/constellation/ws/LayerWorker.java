@@ -38,6 +38,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import javax.xml.namespace.QName;
 import org.constellation.api.WorkerState;
@@ -87,6 +90,27 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
 
     private String listenerUid;
 
+    /**
+     * Resolved layers, by login and requested name (or alias).
+     * Cleared on provider update events and on service cache clearing (layer/style/data modification).
+     */
+    private final Map<String, LayerCache> layerCaches = new ConcurrentHashMap<>();
+
+    /**
+     * Resolved layer list for a service, by login.
+     */
+    private final Map<String, List<LayerCache>> layerListCaches = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each layer cache clearing, to avoid caching a layer resolved before a concurrent modification.
+     */
+    private final AtomicLong layerCacheVersion = new AtomicLong();
+
+    /**
+     * Flag enabling the resolved layer cache. can be disabled with the service property "cacheLayers".
+     */
+    protected boolean cacheLayers = true;
+
     public LayerWorker(final String id, final Specification specification) {
         super(id, specification);
         if (getState().equals(WorkerState.ERROR)) return;
@@ -110,6 +134,7 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
             if (cc != null && !cc.isEmpty()) {
                 cacheCapabilities = Boolean.parseBoolean(cc);
             }
+            cacheLayers = getBooleanProperty("cacheLayers", true);
 
             //Check  FeatureInfo configuration (if exist)
             FeatureInfoUtilities.checkConfiguration(configuration);
@@ -128,8 +153,8 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
         listenerUid = clusterBusiness.addMessageListener(new MessageListener() {
             @Override
             protected boolean filter(ClusterMessage message) {
-                return message.getMemberUID().equals(clusterBusiness.getMemberUID())
-                    && PRV_MESSAGE_TYPE_ID.equals(message.getTypeId())
+                // the updates published by the other members are accepted too, a provider modified on an other member also impacts this one.
+                return PRV_MESSAGE_TYPE_ID.equals(message.getTypeId())
                     && PRV_VALUE_ACTION_UPDATED.equals(message.get(KEY_ACTION));
                 // TODO : also check that impacted provider is the parent of a layer in this service.
             }
@@ -161,6 +186,43 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
         stopped();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Also clear the resolved layers cache, as this method is called when a layer,
+     * a style or a data of the service is modified.
+     */
+    @Override
+    public void clearCapabilitiesCache() {
+        super.clearCapabilitiesCache();
+        clearLayerCache();
+    }
+
+    /**
+     * Remove all the resolved layers from the cache.
+     */
+    protected void clearLayerCache() {
+        layerCacheVersion.incrementAndGet();
+        layerCaches.clear();
+        layerListCaches.clear();
+    }
+
+    /**
+     * Cache a resolved value, unless the layer cache has been cleared since the specified version.
+     *
+     * @param readVersion Version of the layer cache before the value has been resolved.
+     */
+    private <V> void putLayerCache(final Map<String, V> cache, final String key, final V value, final long readVersion) {
+        cache.put(key, value);
+        if (readVersion != layerCacheVersion.get()) {
+            cache.remove(key, value);
+        }
+    }
+
+    private static String layerCacheKey(final String login, final Object name) {
+        return login + '|' + name;
+    }
+
     protected List<NameInProvider> getLayerNames(final String login) {
         try {
             return layerBusiness.getLayerNames(getServiceId(), login);
@@ -274,23 +336,32 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
     }
     
     protected List<LayerCache> getLayerCaches(final String login, boolean sort) throws CstlServiceException {
-        List<LayerCache> results = new ArrayList<>();
-        try {
-            List<NameInProvider> nips = layerBusiness.getLayerNames(getServiceId(), login);
-            for (NameInProvider nip : nips) {
-                try {
-                    results.add(getLayerCache(nip, login));
-                } catch (CstlServiceException ex) {
-                    LOGGER.log(Level.WARNING, ex.getMessage());
+        List<LayerCache> results = cacheLayers ? layerListCaches.get(String.valueOf(login)) : null;
+        if (results == null) {
+            final long readVersion = layerCacheVersion.get();
+            results = new ArrayList<>();
+            try {
+                List<NameInProvider> nips = layerBusiness.getLayerNames(getServiceId(), login);
+                for (NameInProvider nip : nips) {
+                    try {
+                        results.add(getLayerCache(nip, login));
+                    } catch (CstlServiceException ex) {
+                        LOGGER.log(Level.WARNING, ex.getMessage());
+                    }
                 }
+            } catch (ConfigurationException ex) {
+                throw new CstlServiceException(ex);
             }
-            if (sort) {
-                Collections.sort(results, new LayerCacheComparator());
+            results = Collections.unmodifiableList(results);
+            if (cacheLayers) {
+                putLayerCache(layerListCaches, String.valueOf(login), results, readVersion);
             }
-            return results;
-        } catch (ConfigurationException ex) {
-            throw new CstlServiceException(ex);
         }
+        results = new ArrayList<>(results);
+        if (sort) {
+            Collections.sort(results, new LayerCacheComparator());
+        }
+        return results;
     }
 
     protected List<LayerCache> getLayerCachesStr(final String login, final Collection<String> names) throws CstlServiceException {
@@ -310,10 +381,20 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
     }
 
     protected LayerCache getLayerCache(final String login, QName name) throws CstlServiceException {
+        final String key = layerCacheKey(login, name);
+        LayerCache result = cacheLayers ? layerCaches.get(key) : null;
+        if (result != null) {
+            return result;
+        }
+        final long readVersion = layerCacheVersion.get();
         try {
             NameInProvider nip = getFullLayerName(login, name);
             if (nip != null) {
-                return getLayerCache(nip, login);
+                result = getLayerCache(nip, login);
+                if (cacheLayers) {
+                    putLayerCache(layerCaches, key, result, readVersion);
+                }
+                return result;
             } else {
                 throw new CstlServiceException("Unknown Layer name:" + name, LAYER_NOT_DEFINED);
             }
@@ -323,10 +404,20 @@ public abstract class LayerWorker extends AbstractWorker<LayerContext> {
     }
 
     protected LayerCache getLayerCache(final String login, String name) throws CstlServiceException {
+        final String key = layerCacheKey(login, name);
+        LayerCache result = cacheLayers ? layerCaches.get(key) : null;
+        if (result != null) {
+            return result;
+        }
+        final long readVersion = layerCacheVersion.get();
         try {
             NameInProvider nip = getFullLayerName(login, name);
             if (nip != null) {
-                return getLayerCache(nip, login);
+                result = getLayerCache(nip, login);
+                if (cacheLayers) {
+                    putLayerCache(layerCaches, key, result, readVersion);
+                }
+                return result;
             } else {
                 throw new CstlServiceException("Unknown Layer name:" + name, LAYER_NOT_DEFINED);
             }
@@ -26,9 +26,13 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,6 +50,8 @@ import static org.constellation.api.CommonConstants.TRANSACTION_SECURIZED;
 import org.constellation.api.WorkerState;
 import org.constellation.exception.ConstellationException;
 import org.constellation.business.IServiceBusiness;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
 import org.constellation.dto.contact.Details;
 import org.constellation.dto.service.ServiceComplete;
 import org.constellation.dto.service.config.AbstractConfigurationObject;
@@ -99,7 +105,28 @@ public abstract class AbstractWorker<A extends AbstractConfigurationObject> impl
     /**
      * Output responses of a GetCapabilities request.
      */
-    private static final Map<String,AbstractCapabilitiesCore> CAPS_RESPONSE = new HashMap<>();
+    private static final Map<String,AbstractCapabilitiesCore> CAPS_RESPONSE = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of encoded GetCapabilities responses kept in the cache, for all the services.
+     */
+    private static final int ENCODED_CAPS_MAX_SIZE = Application.getIntegerProperty(AppProperty.EXA_CAPABILITIES_CACHE_SIZE, 200);
+
+    /**
+     * Encoded output responses of a GetCapabilities request, the least recently used ones are evicted first.
+     * The key include the service URL and the user, so its size must be bounded.
+     */
+    private static final Map<String,EncodedCapabilities> ENCODED_CAPS_RESPONSE = Collections.synchronizedMap(new LinkedHashMap<String, EncodedCapabilities>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EncodedCapabilities> eldest) {
+            return size() > ENCODED_CAPS_MAX_SIZE;
+        }
+    });
+
+    /**
+     * Incremented on each capabilities cache clearing, to avoid caching a document built before a concurrent modification.
+     */
+    private static final AtomicLong CAPS_CACHE_VERSION = new AtomicLong();
 
     /**
      * The identifier of the worker.
@@ -127,7 +154,7 @@ public abstract class AbstractWorker<A extends AbstractConfigurationObject> impl
 
     private List<Schema> schemas = null;
 
-    private long currentUpdateSequence = System.currentTimeMillis();
+    private volatile long currentUpdateSequence = System.currentTimeMillis();
 
     @Autowired
     protected IServiceBusiness serviceBusiness;
@@ -599,17 +626,13 @@ public abstract class AbstractWorker<A extends AbstractConfigurationObject> impl
 
     /**
      * Return a cached capabilities response.
+     * The cached responses are built for a service URL, so they are never modified when returned.
      *
      * @param version
      * @return r
      */
     protected AbstractCapabilitiesCore getCapabilitiesFromCache(final String version, final String language) {
-        final String keyCache = specification.name() + '-' + id + '-' + version + '-' + language;
-        AbstractCapabilitiesCore cachedCapabilities = CAPS_RESPONSE.get(keyCache);
-        if (cachedCapabilities != null) {
-            cachedCapabilities.updateURL(getServiceUrl());
-        }
-        return cachedCapabilities;
+        return CAPS_RESPONSE.get(getCapabilitiesCacheKey(version, language));
     }
 
     /**
@@ -621,24 +644,71 @@ public abstract class AbstractWorker<A extends AbstractConfigurationObject> impl
      */
     protected void putCapabilitiesInCache(final String version, final String language, final AbstractCapabilitiesCore capabilities) {
         if (cacheCapabilities) {
-            final String keyCache = specification.name() + '-' + id + '-' + version + '-' + language;
-            CAPS_RESPONSE.put(keyCache, capabilities);
+            CAPS_RESPONSE.put(getCapabilitiesCacheKey(version, language), capabilities);
         }
     }
 
+    private String getCapabilitiesCacheKey(final String version, final String language) {
+        return specification.name() + '-' + id + '-' + version + '-' + language + '-' + getServiceUrl();
+    }
+
+    /**
+     * Return a cached encoded capabilities response for the current user and service URL.
+     *
+     * @param requestKey A key built from the parameters of the GetCapabilities request (version, language, sections, format, ...).
+     * @return The encoded response or {@code null} if there is none in the cache.
+     */
+    public EncodedCapabilities getEncodedCapabilitiesFromCache(final String requestKey) {
+        return ENCODED_CAPS_RESPONSE.get(getEncodedCapabilitiesCacheKey(requestKey));
+    }
+
+    /**
+     * Return the current version of the capabilities cache, to be read before building a document
+     * and given back to {@link #putEncodedCapabilitiesInCache(String, byte[], long)}.
+     *
+     * @return The version of the capabilities cache.
+     */
+    public long getCapabilitiesCacheVersion() {
+        return CAPS_CACHE_VERSION.get();
+    }
+
+    /**
+     * Add an encoded capabilities response to the cache, if the capabilities cache is enabled,
+     * unless the cache has been cleared since the specified version.
+     *
+     * @param requestKey A key built from the parameters of the GetCapabilities request (version, language, sections, format, ...).
+     * @param content The encoded response.
+     * @param readVersion Version of the capabilities cache before the document has been built.
+     * @return The encoded capabilities, with its entity tag.
+     */
+    public EncodedCapabilities putEncodedCapabilitiesInCache(final String requestKey, final byte[] content, final long readVersion) {
+        final EncodedCapabilities encoded = new EncodedCapabilities(content, getCurrentUpdateSequence());
+        if (cacheCapabilities) {
+            final String key = getEncodedCapabilitiesCacheKey(requestKey);
+            ENCODED_CAPS_RESPONSE.put(key, encoded);
+            if (readVersion != CAPS_CACHE_VERSION.get()) {
+                ENCODED_CAPS_RESPONSE.remove(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    private String getEncodedCapabilitiesCacheKey(final String requestKey) {
+        // the layers listed in the document may depend on the user.
+        // the request parameter values (format, language) are case insensitive.
+        return specification.name() + '-' + id + '-' + getUserLogin() + '-' + getServiceUrl() + '-' + requestKey.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Reset the capabilities cache.
      */
     @Override
     public void clearCapabilitiesCache() {
-        final List<String> toClear = new ArrayList<>();
-        for (String key: CAPS_RESPONSE.keySet()) {
-            if (key.startsWith(specification.name() + '-')) {
-                toClear.add(key);
-            }
-        }
-        for (String key : toClear) {
-            CAPS_RESPONSE.remove(key);
+        final String prefix = specification.name() + '-';
+        CAPS_CACHE_VERSION.incrementAndGet();
+        CAPS_RESPONSE.keySet().removeIf(key -> key.startsWith(prefix));
+        synchronized (ENCODED_CAPS_RESPONSE) {
+            ENCODED_CAPS_RESPONSE.keySet().removeIf(key -> key.startsWith(prefix));
         }
     }
 
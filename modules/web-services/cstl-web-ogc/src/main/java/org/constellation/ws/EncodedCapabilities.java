@@ -0,0 +1,101 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.ws;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A capabilities document already encoded, with its gzip variant and its entity tag.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class EncodedCapabilities {
+
+    private final byte[] content;
+
+    private byte[] gzipContent;
+
+    private final String etag;
+
+    /**
+     * @param content The encoded capabilities document.
+     * @param updateSequence The update sequence of the service when the document has been built.
+     */
+    public EncodedCapabilities(final byte[] content, final String updateSequence) {
+        this.content = content;
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        this.etag = "\"" + updateSequence + '-' + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * @return The encoded capabilities document.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return The gzip compressed document, computed on first call.
+     */
+    public synchronized byte[] getGzipContent() {
+        if (gzipContent == null) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(content);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            gzipContent = out.toByteArray();
+        }
+        return gzipContent;
+    }
+
+    /**
+     * @return The entity tag of the document, made of the update sequence and a checksum of the content.
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * Return {@code true} if the value of a "If-None-Match" header designates this document.
+     *
+     * @param ifNoneMatch Value of the header, can be {@code null}.
+     */
+    public boolean matches(final String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
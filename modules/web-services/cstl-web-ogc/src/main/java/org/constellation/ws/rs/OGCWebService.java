@@ -18,6 +18,9 @@
  */
 package org.constellation.ws.rs;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -30,7 +33,9 @@ import org.apache.sis.util.iso.Types;
 import org.constellation.admin.SpringHelper;
 import org.constellation.api.ServiceDef;
 import org.constellation.api.ServiceDef.Specification;
+import org.constellation.ws.AbstractWorker;
 import org.constellation.ws.CstlServiceException;
+import org.constellation.ws.EncodedCapabilities;
 import org.constellation.ws.IWSEngine;
 import org.constellation.ws.UnauthorizedException;
 import org.constellation.ws.Worker;
@@ -198,6 +203,65 @@ public abstract class OGCWebService<W extends Worker> extends AbstractWebService
      */
     protected abstract ResponseObject treatIncomingRequest(final Object objectRequest,final  W worker);
 
+    /**
+     * Write a capabilities document.
+     */
+    @FunctionalInterface
+    protected interface CapabilitiesWriter {
+        void write(OutputStream out) throws CstlServiceException, IOException;
+    }
+
+    /**
+     * Return a GetCapabilities response from the encoded capabilities cache of the worker.
+     * If the document is not in the cache, it is built and encoded with the specified writer, then cached.
+     *
+     * The response carry an entity tag, a "If-None-Match" request header matching it produce a "304 Not Modified" response,
+     * and the gzip variant of the document is returned if the client accept it.
+     * The requests with an update sequence parameter should not use this method, as it is verified by the worker.
+     *
+     * @param worker the selected worker on which apply the request.
+     * @param requestKey A key built from the parameters of the GetCapabilities request (version, language, sections, format, ...).
+     * @param mimeType The mime type of the document.
+     * @param writer Build and write the capabilities document.
+     *
+     * @return A HTTP response object containing the encoded document.
+     * @throws CstlServiceException if the document can not be built.
+     */
+    protected ResponseObject getCapabilitiesResponse(final W worker, final String requestKey, final String mimeType,
+            final CapabilitiesWriter writer) throws CstlServiceException {
+        EncodedCapabilities capabilities = null;
+        long readVersion = 0;
+        if (worker instanceof AbstractWorker aw) {
+            capabilities = aw.getEncodedCapabilitiesFromCache(requestKey);
+            readVersion = aw.getCapabilitiesCacheVersion();
+        }
+        if (capabilities == null) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                writer.write(out);
+            } catch (IOException ex) {
+                throw new CstlServiceException("Error while writing the capabilities document", ex);
+            }
+            if (worker instanceof AbstractWorker aw) {
+                capabilities = aw.putEncodedCapabilitiesInCache(requestKey, out.toByteArray(), readVersion);
+            } else {
+                capabilities = new EncodedCapabilities(out.toByteArray(), "0");
+            }
+        }
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", capabilities.getETag());
+        headers.put("Vary", "Accept-Encoding");
+        if (capabilities.matches(getHeaderValue("If-None-Match"))) {
+            return new ResponseObject(HttpStatus.NOT_MODIFIED, headers);
+        }
+        final String acceptEncoding = getHeaderValue("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            headers.put("Content-Encoding", "gzip");
+            return new ResponseObject(capabilities.getGzipContent(), mimeType, HttpStatus.OK, headers);
+        }
+        return new ResponseObject(capabilities.getContent(), mimeType, HttpStatus.OK, headers);
+    }
+
     /**
      * Handle all exceptions returned by a web service operation in two ways:
      * <ul>
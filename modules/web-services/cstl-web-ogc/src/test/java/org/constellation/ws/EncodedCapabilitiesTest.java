@@ -0,0 +1,69 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.ws;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class EncodedCapabilitiesTest {
+
+    private static final byte[] CONTENT = "<WMS_Capabilities version=\"1.3.0\"/>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void etagTest() {
+        final EncodedCapabilities caps = new EncodedCapabilities(CONTENT, "12");
+        final String etag = caps.getETag();
+        assertTrue(etag.startsWith("\"12-"));
+        assertEquals(etag, new EncodedCapabilities(CONTENT.clone(), "12").getETag());
+
+        // a new update sequence or a new content change the tag
+        assertNotEquals(etag, new EncodedCapabilities(CONTENT, "13").getETag());
+        assertNotEquals(etag, new EncodedCapabilities("<other/>".getBytes(StandardCharsets.UTF_8), "12").getETag());
+
+        assertFalse(caps.matches(null));
+        assertFalse(caps.matches("\"other\""));
+        assertTrue(caps.matches(etag));
+        assertTrue(caps.matches("W/" + etag));
+        assertTrue(caps.matches("\"other\", " + etag));
+        assertTrue(caps.matches("*"));
+    }
+
+    @Test
+    public void gzipTest() throws Exception {
+        final EncodedCapabilities caps = new EncodedCapabilities(CONTENT, "12");
+        final byte[] gzip = caps.getGzipContent();
+        assertSame(gzip, caps.getGzipContent());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+}
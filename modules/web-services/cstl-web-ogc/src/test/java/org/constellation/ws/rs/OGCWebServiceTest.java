@@ -0,0 +1,122 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.ws.rs;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.constellation.api.ServiceDef.Specification;
+import org.constellation.ws.Worker;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test the conditional and compressed GetCapabilities responses.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class OGCWebServiceTest {
+
+    private static final byte[] CONTENT = "<WMS_Capabilities version=\"1.3.0\"/>".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * A service reading the request headers from a map.
+     */
+    private static final class MockService extends OGCWebService<Worker> {
+
+        private final Map<String, String> headers = new HashMap<>();
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        private MockService() {
+            super(Specification.WMS);
+        }
+
+        @Override
+        protected ResponseObject treatIncomingRequest(final Object objectRequest, final Worker worker) {
+            return null;
+        }
+
+        @Override
+        protected String getHeaderValue(final String headerName) {
+            return headers.get(headerName);
+        }
+
+        private ResponseEntity getCapabilities() throws Exception {
+            return getCapabilitiesResponse(null, "1.3.0-null-text/xml", "text/xml", out -> {
+                writes.incrementAndGet();
+                out.write(CONTENT);
+            }).getResponseEntity();
+        }
+    }
+
+    @Test
+    public void plainResponseTest() throws Exception {
+        final MockService service = new MockService();
+        final ResponseEntity response = service.getCapabilities();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(CONTENT, (byte[]) response.getBody());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals("Accept-Encoding", response.getHeaders().getFirst("Vary"));
+        assertNull(response.getHeaders().getFirst("Content-Encoding"));
+    }
+
+    @Test
+    public void notModifiedTest() throws Exception {
+        final MockService service = new MockService();
+        final String etag = service.getCapabilities().getHeaders().getETag();
+
+        service.headers.put("If-None-Match", etag);
+        ResponseEntity response = service.getCapabilities();
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().getETag());
+
+        service.headers.put("If-None-Match", "\"other\"");
+        response = service.getCapabilities();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(CONTENT, (byte[]) response.getBody());
+    }
+
+    @Test
+    public void gzipResponseTest() throws Exception {
+        final MockService service = new MockService();
+        service.headers.put("Accept-Encoding", "deflate, GZIP");
+        final ResponseEntity response = service.getCapabilities();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst("Content-Encoding"));
+        assertEquals("text/xml", response.getHeaders().getFirst("Content-Type"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream((byte[]) response.getBody()))) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+        // a not modified document is not sent, even compressed
+        service.headers.put("If-None-Match", response.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, service.getCapabilities().getStatusCode());
+        assertEquals(2, service.writes.get());
+    }
+}
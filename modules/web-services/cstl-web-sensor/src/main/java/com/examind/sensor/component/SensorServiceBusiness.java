@@ -19,6 +19,7 @@
 package com.examind.sensor.component;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -468,6 +469,26 @@ public class SensorServiceBusiness implements ISensorServiceBusiness {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeResultsCsv(final Integer id, final String sensorID, final List<String> observedProperties, final List<String> foi, final Date start, final Date end, final Integer width, final boolean timeforProfile, final boolean includeIdInDatablock, final Writer output) throws ConfigurationException {
+        try {
+            final ObservationProvider pr = getSensorProvider(id, ObservationProvider.class);
+            ResultQuery query = new ResultQuery(OBSERVATION_QNAME, INLINE, sensorID, "text/csv");
+            query.setIncludeIdInDataBlock(includeIdInDatablock);
+            query.setIncludeTimeForProfile(timeforProfile);
+            query.setSelection(buildFilter(start, end, observedProperties, foi));
+            if (width != null) {
+                query.setDecimationSize(width);
+            }
+            pr.writeResults(query, output);
+        } catch (ConstellationStoreException ex) {
+            throw new ConfigurationException(ex);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -19,6 +19,8 @@
 package org.constellation.api.rest;
 
 import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.logging.Level;
@@ -180,13 +182,13 @@ public class SensorServiceRestAPI {
 
     @RequestMapping(value="/SensorService/{id}/observations/raw", method = POST, produces = APPLICATION_JSON_VALUE)
     public ResponseEntity getObservations(final @PathVariable("id") Integer serviceId, final @RequestBody ObservationFilter filter, HttpServletResponse response) throws Exception {
-        Object results = sensorServiceBusiness.getResultsCsv(serviceId, filter.getSensorID(), filter.getObservedProperty(), filter.getFoi(), filter.getStart(), filter.getEnd(), null, "text/csv", false, false);
-        if (results instanceof String) {
-            IOUtils.write((String)results, response.getOutputStream(), StandardCharsets.UTF_8);
-            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).build();
-        } else {
-            return new ResponseEntity(results, OK);
-        }
+        // the raw results are not decimated, they are written to the response while being read.
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        final Writer output = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        sensorServiceBusiness.writeResultsCsv(serviceId, filter.getSensorID(), filter.getObservedProperty(), filter.getFoi(), filter.getStart(), filter.getEnd(), null, false, false, output);
+        output.flush();
+        return new ResponseEntity(OK);
     }
 
     @RequestMapping(value="/SensorService/{id}/observedProperties/identifiers", method = GET, produces = APPLICATION_JSON_VALUE)
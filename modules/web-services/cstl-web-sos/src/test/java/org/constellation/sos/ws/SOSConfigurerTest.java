@@ -19,6 +19,7 @@
 package org.constellation.sos.ws;
 
 import com.examind.sensor.component.SensorServiceBusiness;
+import java.io.StringWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -160,6 +161,11 @@ public abstract class SOSConfigurerTest extends SpringContextTest {
                                 "2007-05-01T21:59:00,6.55\n";
         Assert.assertEquals(expResult, result);
 
+        // the streamed results must be the same
+        StringWriter output = new StringWriter();
+        sensorServBusiness.writeResultsCsv(sid, "urn:ogc:object:sensor:GEOM:3", Arrays.asList("depth"), new ArrayList<>(), null, null, null, false, false, output);
+        Assert.assertEquals(expResult, output.toString());
+
         result = (String) sensorServBusiness.getResultsCsv(sid, "urn:ogc:object:sensor:GEOM:8", Arrays.asList("aggregatePhenomenon"), new ArrayList<>(), null, null, null, "text/csv", false, false);
         expResult = "time,depth,temperature\n" +
                     "2007-05-01T12:59:00,6.56,12.0\n" +
@@ -181,6 +187,10 @@ public abstract class SOSConfigurerTest extends SpringContextTest {
 
         Assert.assertEquals(expResult, result);
 
+        output = new StringWriter();
+        sensorServBusiness.writeResultsCsv(sid, "urn:ogc:object:sensor:GEOM:8", Arrays.asList("aggregatePhenomenon"), new ArrayList<>(), null, null, null, false, true, output);
+        Assert.assertEquals(expResult, output.toString());
+
         result = (String) sensorServBusiness.getResultsCsv(sid, "urn:ogc:object:sensor:GEOM:10", Arrays.asList("depth"), Arrays.asList("station-001"), null, null, null, "text/csv", false, false);
         expResult = "time,depth\n" +
                     "2009-05-01T13:47:00,4.5\n" +
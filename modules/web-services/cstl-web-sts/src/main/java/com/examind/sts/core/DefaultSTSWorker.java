@@ -22,6 +22,7 @@ package com.examind.sts.core;
 import com.examind.odata.ODataFilterParser;
 import com.examind.odata.ODataParseException;
 import com.examind.sensor.ws.SensorWorker;
+import static com.examind.sts.core.ExpandCache.Relation.*;
 import static com.examind.sts.core.STSConstants.STS_DEC_EXT;
 import static com.examind.sts.core.STSConstants.STS_VERSION;
 import static com.examind.sts.core.STSUtils.*;
@@ -32,6 +33,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +68,7 @@ import org.geotoolkit.observation.model.MeasureResult;
 import org.geotoolkit.observation.query.AbstractObservationQuery;
 import org.geotoolkit.observation.model.OMEntity;
 import org.geotoolkit.observation.model.Procedure;
+import org.geotoolkit.observation.model.ResponseMode;
 import org.geotoolkit.observation.model.ResultMode;
 import org.geotoolkit.observation.query.HistoricalLocationQuery;
 import org.geotoolkit.observation.query.ObservationQuery;
@@ -318,14 +321,18 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
             if (reqTop == null || reqTop > 0) {
                 List<Process> procs = omProvider.getProcedures(subquery);
 
+                // TODO here if the provider is not "all" linked, there will be issues in the paging
+                final List<Procedure> linkedProcs = new ArrayList<>();
                 for (Process proc : procs) {
-                    String sensorId = ((Procedure)proc).getId();
-                    // TODO here if the provider is not "all" linked, there will be issues in the paging
-                    if (isLinkedSensor(sensorId, true)) {
-                        Thing thing = buildThing(exp, sensorId, null, (Procedure) proc);
-                        values.add(thing);
+                    if (isLinkedSensor(((Procedure)proc).getId(), true)) {
+                        linkedProcs.add((Procedure) proc);
                     }
                 }
+                prefetchForSensors(exp, linkedProcs.stream().map(Procedure::getId).toList());
+                for (Procedure proc : linkedProcs) {
+                    Thing thing = buildThing(exp, proc.getId(), null, proc);
+                    values.add(thing);
+                }
             }
             iotNextLink = computePaginationNextLink(req, values.size(), count != null ? count.intValue() : null, "/Things");
             
@@ -387,36 +394,30 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
             if (isDataArray) {
                 final AbstractObservationQuery procSubquery = buildExtraFilterQuery(OMEntity.PROCEDURE, req, applyPaging);
 
-                ResultQuery resSubquery = new ResultQuery(model, INLINE, null, null);
-                resSubquery = (ResultQuery) buildExtraFilterQuery(resSubquery, req, applyPaging, new ArrayList<>());
-                resSubquery.setIncludeTimeForProfile(true);
-                resSubquery.setIncludeIdInDataBlock(true);
-                resSubquery.setDecimationSize(decimation);
-                resSubquery.setIncludeQualityFields(includeQUalityFields);
-                
-                Map<String, ComplexResult> resultArrays = new HashMap<>();
-                if (reqTop == null || reqTop > 0) {
-                    Collection<String> sensorIds = omProvider.getIdentifiers(procSubquery);
-                    count = req.getCount() ? new BigDecimal(0) : null;
+                // the results of all the sensors are requested in a single concurrent batch
+                final Map<String, ComplexResult> resultArrays = new LinkedHashMap<>();
+                if (reqTop == null || reqTop > 0 || req.getCount()) {
+                    final boolean includeResults = reqTop == null || reqTop > 0;
+                    final List<String> sensorIds = new ArrayList<>(omProvider.getIdentifiers(procSubquery));
+                    final List<ResultQuery> queries = new ArrayList<>();
                     for (String sensorId : sensorIds) {
-                        resSubquery.setProcedure(sensorId);
-                        resSubquery.setResponseFormat("resultArray");
-                        ComplexResult resultArray = (ComplexResult) omProvider.getResults(resSubquery);
-                        resultArrays.put(sensorId, resultArray);
+                        if (includeResults) {
+                            queries.add(buildResultQuery(model, sensorId, "resultArray", req, applyPaging, decimation, includeQUalityFields));
+                        }
                         if (req.getCount()) {
-                            resSubquery.setResponseFormat("count");
-                            ComplexResult countResult = (ComplexResult) omProvider.getResults(resSubquery);
-                            count = count.add(new BigDecimal(countResult.getNbValues()));
+                            queries.add(buildResultQuery(model, sensorId, "count", req, applyPaging, decimation, includeQUalityFields));
                         }
                     }
-                } else if (req.getCount()) {
-                    Collection<String> sensorIds = omProvider.getIdentifiers(procSubquery);
-                    count = new BigDecimal(0);
-                    resSubquery.setResponseFormat("count");
+                    final Iterator<Object> results = omProvider.getResults(queries).iterator();
+                    count = req.getCount() ? new BigDecimal(0) : null;
                     for (String sensorId : sensorIds) {
-                        resSubquery.setProcedure(sensorId);
-                        ComplexResult countResult = (ComplexResult) omProvider.getResults(resSubquery);
-                        count = count.add(new BigDecimal(countResult.getNbValues()));
+                        if (includeResults) {
+                            resultArrays.put(sensorId, (ComplexResult) results.next());
+                        }
+                        if (req.getCount()) {
+                            ComplexResult countResult = (ComplexResult) results.next();
+                            count = count.add(new BigDecimal(countResult.getNbValues()));
+                        }
                     }
                 }
                 return buildDataArrayFromResults(resultArrays, model, count, null);
@@ -690,6 +691,15 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
         return quality;
     }
 
+    private ResultQuery buildResultQuery(QName model, String sensorId, String responseFormat, AbstractSTSRequest req, boolean applyPaging, Integer decimation, boolean includeQualityFields) throws CstlServiceException {
+        final ResultQuery query = (ResultQuery) buildExtraFilterQuery(new ResultQuery(model, INLINE, sensorId, responseFormat), req, applyPaging, new ArrayList<>());
+        query.setIncludeTimeForProfile(true);
+        query.setIncludeIdInDataBlock(true);
+        query.setDecimationSize(decimation);
+        query.setIncludeQualityFields(includeQualityFields);
+        return query;
+    }
+
     private DataArrayResponse buildDataArrayFromResults(Map<String, ComplexResult> arrays, QName resultModel, BigDecimal count, String nextLink) throws ConstellationStoreException {
         DataArray result = new DataArray();
         result.setComponents(Arrays.asList("id", "phenomenonTime", "resultTime", "result", "resultQuality"));
@@ -848,7 +858,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
         if (exp.observations.expanded) {
             final RequestOptions obsExp = exp.subLevel("Observations");
-            for (org.opengis.observation.Observation linkedObservation : getObservationsForDatastream(obs)) {
+            for (org.opengis.observation.Observation linkedObservation : getObservationsForDatastream(exp, obs)) {
                 datastream.addObservationsItem(buildObservation(obsExp, (org.geotoolkit.observation.model.Observation) linkedObservation, false));
             }
         } else if (exp.observations.selected) {
@@ -1023,7 +1033,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
          if (exp.observations.expanded) {
             final RequestOptions obsExp = exp.subLevel("Observations");
-            for (org.opengis.observation.Observation linkedObservation : getObservationsForMultiDatastream(obs)) {
+            for (org.opengis.observation.Observation linkedObservation : getObservationsForMultiDatastream(exp, obs)) {
                 datastream.addObservationsItem(buildObservation(obsExp, (org.geotoolkit.observation.model.Observation) linkedObservation, true));
             }
         } else if (exp.observations.selected) {
@@ -1093,8 +1103,12 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
         return datastream;
     }
 
-    private List<org.opengis.observation.Observation> getObservationsForDatastream(org.opengis.observation.Observation template) throws ConstellationStoreException {
+    private List<org.opengis.observation.Observation> getObservationsForDatastream(RequestOptions exp, org.opengis.observation.Observation template) throws ConstellationStoreException {
         if (template instanceof org.geotoolkit.observation.model.Observation tmp) {
+            final List<org.opengis.observation.Observation> prefetched = exp.prefetched.get(OBSERVATIONS_BY_DATASTREAM, datastreamKey(tmp));
+            if (prefetched != null) {
+                return prefetched;
+            }
             final ObservationQuery subquery = new ObservationQuery(MEASUREMENT_QNAME, INLINE, null);
             BinaryComparisonOperator pe1 = ff.equal(ff.property("procedure"), ff.literal(tmp.getProcedure().getId()));
             BinaryComparisonOperator pe2 = ff.equal(ff.property("observedProperty"), ff.literal(tmp.getObservedProperty().getId()));
@@ -1107,8 +1121,12 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
         return new ArrayList<>();
     }
 
-    private List<org.opengis.observation.Observation> getObservationsForMultiDatastream(org.opengis.observation.Observation template) throws ConstellationStoreException {
+    private List<org.opengis.observation.Observation> getObservationsForMultiDatastream(RequestOptions exp, org.opengis.observation.Observation template) throws ConstellationStoreException {
         if (template instanceof org.geotoolkit.observation.model.Observation tmp) {
+            final List<org.opengis.observation.Observation> prefetched = exp.prefetched.get(OBSERVATIONS_BY_MULTIDATASTREAM, tmp.getProcedure().getId());
+            if (prefetched != null) {
+                return prefetched;
+            }
             final ObservationQuery subquery = new ObservationQuery(OBSERVATION_QNAME, INLINE, null);
             BinaryComparisonOperator pe = ff.equal(ff.property("procedure"), ff.literal(tmp.getProcedure().getId()));
             subquery.setSelection(pe);
@@ -1151,8 +1169,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
             final Integer reqTop = getRequestTop(req);
             if (reqTop == null || reqTop > 0) {
                 Collection<org.opengis.observation.Phenomenon> sps = omProvider.getPhenomenon(subquery);
-                Map<String, GeoJSONGeometry> sensorArea = new HashMap<>();
-                Map<TemporalObject, String> timesCache = new HashMap<>();
+                prefetchForPhenomenons(exp, sps.stream().map(sp -> ((Phenomenon)sp).getId()).toList());
                 for (org.opengis.observation.Phenomenon sp : sps) {
                     ObservedProperty result = buildPhenomenon(exp, (Phenomenon)sp);
                     values.add(result);
@@ -1209,7 +1226,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
         if (exp.isSelected("properties")) obsProp = obsProp.properties(s.getProperties());
         
         if (exp.datastreams.expanded) {
-            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForPhenomenon(s.getId());
+            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForPhenomenon(exp, s.getId());
             RequestOptions dsExp = exp.subLevel("Datastreams");
             for (org.opengis.observation.Observation template : linkedTemplates) {
                 obsProp.addDatastreamsItem(buildDatastream(dsExp, (org.geotoolkit.observation.model.Observation) template));
@@ -1239,7 +1256,11 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
         return omProvider.getObservations(subquery);
     }
 
-    private List<org.opengis.observation.Observation> getDatastreamForPhenomenon(String phenomenon) throws ConstellationStoreException {
+    private List<org.opengis.observation.Observation> getDatastreamForPhenomenon(RequestOptions exp, String phenomenon) throws ConstellationStoreException {
+        final List<org.opengis.observation.Observation> prefetched = exp.prefetched.get(DATASTREAMS_BY_PHENOMENON, phenomenon);
+        if (prefetched != null) {
+            return prefetched;
+        }
         return getObservationsWherePropertyEqValue("observedProperty", phenomenon, MEASUREMENT_QNAME);
     }
 
@@ -1248,14 +1269,94 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
     }
 
 
-    private List<org.opengis.observation.Observation> getDatastreamForSensor(String sensorId) throws ConstellationStoreException {
+    private List<org.opengis.observation.Observation> getDatastreamForSensor(RequestOptions exp, String sensorId) throws ConstellationStoreException {
+        final List<org.opengis.observation.Observation> prefetched = exp.prefetched.get(DATASTREAMS_BY_SENSOR, sensorId);
+        if (prefetched != null) {
+            return prefetched;
+        }
         return getObservationsWherePropertyEqValue("procedure", sensorId, MEASUREMENT_QNAME);
     }
 
-    private List<org.opengis.observation.Observation> getMultiDatastreamForSensor(String sensorId) throws ConstellationStoreException {
+    private List<org.opengis.observation.Observation> getMultiDatastreamForSensor(RequestOptions exp, String sensorId) throws ConstellationStoreException {
+        final List<org.opengis.observation.Observation> prefetched = exp.prefetched.get(MULTIDATASTREAMS_BY_SENSOR, sensorId);
+        if (prefetched != null) {
+            return prefetched;
+        }
         return getObservationsWherePropertyEqValue("procedure", sensorId, OBSERVATION_QNAME);
     }
 
+    /**
+     * Resolve in batch the datastreams and multi-datastreams of a page of sensors,
+     * and their observations if they are expanded too.
+     *
+     * A single query is executed by linked entity type, instead of one by sensor and by datastream.
+     */
+    private void prefetchForSensors(RequestOptions exp, List<String> sensorIds) throws ConstellationStoreException {
+        if (sensorIds.size() < 2) {
+            return;
+        }
+        if (exp.datastreams.expanded) {
+            final List<org.opengis.observation.Observation> templates = getObservationsWherePropertyIn("procedure", sensorIds, MEASUREMENT_QNAME, RESULT_TEMPLATE);
+            exp.prefetched.put(DATASTREAMS_BY_SENSOR, sensorIds, templates, t -> ((org.geotoolkit.observation.model.Observation) t).getProcedure().getId());
+
+            // all the datastreams of the sensors are expanded, so all their observations are used
+            if (exp.subLevel("Datastreams").observations.expanded) {
+                final List<Object> keys = templates.stream().map(t -> datastreamKey((org.geotoolkit.observation.model.Observation) t)).toList();
+                final List<org.opengis.observation.Observation> observations = getObservationsWherePropertyIn("procedure", sensorIds, MEASUREMENT_QNAME, INLINE);
+                exp.prefetched.put(OBSERVATIONS_BY_DATASTREAM, keys, observations, o -> datastreamKey((org.geotoolkit.observation.model.Observation) o));
+            }
+        }
+        if (exp.multiDatastreams.expanded) {
+            final List<org.opengis.observation.Observation> templates = getObservationsWherePropertyIn("procedure", sensorIds, OBSERVATION_QNAME, RESULT_TEMPLATE);
+            exp.prefetched.put(MULTIDATASTREAMS_BY_SENSOR, sensorIds, templates, t -> ((org.geotoolkit.observation.model.Observation) t).getProcedure().getId());
+
+            if (exp.subLevel("MultiDatastreams").observations.expanded) {
+                final ObservationQuery subquery = new ObservationQuery(OBSERVATION_QNAME, INLINE, null);
+                subquery.setSelection(propertyIn("procedure", sensorIds));
+                subquery.setIncludeIdInDataBlock(true);
+                subquery.setSeparatedMeasure(true);
+                subquery.setIncludeTimeForProfile(true);
+                subquery.setResultMode(ResultMode.DATA_ARRAY);
+                exp.prefetched.put(OBSERVATIONS_BY_MULTIDATASTREAM, sensorIds, omProvider.getObservations(subquery), o -> ((org.geotoolkit.observation.model.Observation) o).getProcedure().getId());
+            }
+        }
+    }
+
+    /**
+     * Resolve in batch the datastreams of a page of observed properties.
+     */
+    private void prefetchForPhenomenons(RequestOptions exp, List<String> phenomenonIds) throws ConstellationStoreException {
+        if (phenomenonIds.size() < 2) {
+            return;
+        }
+        if (exp.datastreams.expanded) {
+            final List<org.opengis.observation.Observation> templates = getObservationsWherePropertyIn("observedProperty", phenomenonIds, MEASUREMENT_QNAME, RESULT_TEMPLATE);
+            exp.prefetched.put(DATASTREAMS_BY_PHENOMENON, phenomenonIds, templates, t -> ((org.geotoolkit.observation.model.Observation) t).getObservedProperty().getId());
+        }
+    }
+
+    private List<org.opengis.observation.Observation> getObservationsWherePropertyIn(String property, List<String> values, QName resultModel, ResponseMode mode) throws ConstellationStoreException {
+        final ObservationQuery subquery = new ObservationQuery(resultModel, mode, null);
+        subquery.setSelection(propertyIn(property, values));
+        if (mode == RESULT_TEMPLATE) {
+            subquery.setIncludeFoiInTemplate(false);
+            subquery.setIncludeTimeInTemplate(true);
+        }
+        return omProvider.getObservations(subquery);
+    }
+
+    private Filter propertyIn(String property, List<String> values) {
+        final List<Filter> filters = new ArrayList<>();
+        for (String value : values) {
+            filters.add(ff.equal(ff.property(property), ff.literal(value)));
+        }
+        return filters.size() == 1 ? filters.get(0) : ff.or(filters);
+    }
+
+    private static Object datastreamKey(org.geotoolkit.observation.model.Observation obs) {
+        return Arrays.asList(obs.getProcedure().getId(), obs.getObservedProperty().getId());
+    }
+
     private  Map<Date, Geometry> getHistoricalLocationsForSensor(String sensorId) throws ConstellationStoreException {
         final HistoricalLocationQuery subquery = new HistoricalLocationQuery();
         ResourceId filter = ff.resourceId(sensorId);
@@ -1405,14 +1506,19 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
             if (reqTop == null || reqTop > 0) {
                 List<Process> procs = omProvider.getProcedures(subquery);
 
+                // TODO here if the provider is not "all" linked, there will be issues in the paging
+                final List<String> sensorIds = new ArrayList<>();
                 for (Process proc : procs) {
                     String sensorId = ((Procedure)proc).getId();
-                    // TODO here if the provider is not "all" linked, there will be issues in the paging
                     if (isLinkedSensor(sensorId, true)) {
-                        Sensor sensor = buildSensor(exp, sensorId, null);
-                        values.add(sensor);
+                        sensorIds.add(sensorId);
                     }
                 }
+                prefetchForSensors(exp, sensorIds);
+                for (String sensorId : sensorIds) {
+                    Sensor sensor = buildSensor(exp, sensorId, null);
+                    values.add(sensor);
+                }
             }
             iotNextLink = computePaginationNextLink(req, values.size(), count != null ? count.intValue() : null, "/Sensors");
 
@@ -1472,7 +1578,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
         if (exp.datastreams.expanded) {
             RequestOptions dsExp = exp.subLevel("Datastreams");
-            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForSensor(sensorID);
+            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForSensor(exp, sensorID);
             for (org.opengis.observation.Observation template : linkedTemplates) {
                 sensor.addDatastreamsItem(buildDatastream(dsExp, (org.geotoolkit.observation.model.Observation) template));
             }
@@ -1482,7 +1588,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
         if (exp.multiDatastreams.expanded) {
             RequestOptions mdsExp = exp.subLevel("MultiDatastreams");
-            List<org.opengis.observation.Observation> linkedTemplates = getMultiDatastreamForSensor(sensorID);
+            List<org.opengis.observation.Observation> linkedTemplates = getMultiDatastreamForSensor(exp, sensorID);
             for (org.opengis.observation.Observation template : linkedTemplates) {
                 sensor.addMultiDatastreamsItem(buildMultiDatastream(mdsExp, (org.geotoolkit.observation.model.Observation) template));
             }
@@ -1524,7 +1630,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
         if (exp.datastreams.expanded) {
             RequestOptions dsExp = exp.subLevel("Datastreams");
-            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForSensor(sensorID);
+            List<org.opengis.observation.Observation> linkedTemplates = getDatastreamForSensor(exp, sensorID);
             for (org.opengis.observation.Observation template : linkedTemplates) {
                 thing.addDatastreamsItem(buildDatastream(dsExp, (org.geotoolkit.observation.model.Observation) template));
             }
@@ -1534,7 +1640,7 @@ public class DefaultSTSWorker extends SensorWorker implements STSWorker {
 
         if (exp.multiDatastreams.expanded) {
             RequestOptions mdsExp = exp.subLevel("MultiDatastreams");
-            List<org.opengis.observation.Observation> linkedTemplates = getMultiDatastreamForSensor(sensorID);
+            List<org.opengis.observation.Observation> linkedTemplates = getMultiDatastreamForSensor(exp, sensorID);
             for (org.opengis.observation.Observation template : linkedTemplates) {
                 thing.addMultiDatastreamsItem(buildMultiDatastream(mdsExp, (org.geotoolkit.observation.model.Observation) template));
             }
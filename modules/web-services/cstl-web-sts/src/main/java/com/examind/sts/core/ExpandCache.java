@@ -0,0 +1,80 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.sts.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.opengis.observation.Observation;
+
+/**
+ * Linked entities resolved in batch for all the entities of a response page, before building the expanded entities.
+ *
+ * A page of things with expanded datastreams, for example, would otherwise execute one query by thing.
+ * The cache is shared by all the levels of a request.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ExpandCache {
+
+    public enum Relation {
+        DATASTREAMS_BY_SENSOR,
+        MULTIDATASTREAMS_BY_SENSOR,
+        DATASTREAMS_BY_PHENOMENON,
+        OBSERVATIONS_BY_DATASTREAM,
+        OBSERVATIONS_BY_MULTIDATASTREAM
+    }
+
+    private final Map<Relation, Map<Object, List<Observation>>> linked = new HashMap<>();
+
+    /**
+     * Return the linked entities prefetched for an entity, or {@code null} if they have not been prefetched.
+     */
+    public List<Observation> get(Relation relation, Object key) {
+        final Map<Object, List<Observation>> values = linked.get(relation);
+        if (values != null) {
+            return values.get(key);
+        }
+        return null;
+    }
+
+    /**
+     * Record the result of a batched query, grouped by entity.
+     *
+     * @param relation The relation resolved.
+     * @param keys The keys of all the requested entities. The entities without any linked entity are recorded with an empty list.
+     * @param results The result of the batched query.
+     * @param keyFunction Extract the entity key of a linked entity.
+     */
+    public void put(Relation relation, Collection<?> keys, List<Observation> results, Function<Observation, Object> keyFunction) {
+        final Map<Object, List<Observation>> values = linked.computeIfAbsent(relation, r -> new HashMap<>());
+        for (Object key : keys) {
+            values.put(key, new ArrayList<>());
+        }
+        for (Observation result : results) {
+            final List<Observation> group = values.get(keyFunction.apply(result));
+            if (group != null) {
+                group.add(result);
+            }
+        }
+    }
+}
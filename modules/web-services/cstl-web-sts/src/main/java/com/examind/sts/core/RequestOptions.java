@@ -64,6 +64,11 @@ public class RequestOptions {
      */
     public final Map<List<Object>, String> timesCache;
 
+    /**
+     * Used for sharing the linked entities resolved in batch during a request
+     */
+    public final ExpandCache prefetched;
+
     private boolean topLevel;
 
     private final List<String> select;
@@ -74,6 +79,10 @@ public class RequestOptions {
     }
 
     protected RequestOptions(List<String> expandList, List<String> selectList, boolean topLevell, Map<String, GeoJSONGeometry> sensorArea, Map<List<Object>, String> timesCache) {
+        this(expandList, selectList, topLevell, sensorArea, timesCache, new ExpandCache());
+    }
+
+    protected RequestOptions(List<String> expandList, List<String> selectList, boolean topLevell, Map<String, GeoJSONGeometry> sensorArea, Map<List<Object>, String> timesCache, ExpandCache prefetched) {
         topLevel            = topLevell;
         expand              = new ArrayList<>();
         if (expandList != null) {
@@ -99,6 +108,7 @@ public class RequestOptions {
 
         this.sensorArea = sensorArea;
         this.timesCache = timesCache;
+        this.prefetched = prefetched;
     }
 
 
@@ -145,7 +155,7 @@ public class RequestOptions {
 
     public RequestOptions subLevel(String forEntity) {
         if (topLevel) {
-            return new RequestOptions(new ArrayList<>(expand), new ArrayList<>(select), false, sensorArea, timesCache);
+            return new RequestOptions(new ArrayList<>(expand), new ArrayList<>(select), false, sensorArea, timesCache, prefetched);
         }
         forEntity = forEntity.toLowerCase();
         List<String> newExpand = new ArrayList<>();
@@ -160,6 +170,6 @@ public class RequestOptions {
                 newSelect.add(sel.substring(forEntity.length() + 1));
             }
         }
-        return new RequestOptions(newExpand, newSelect, false, sensorArea, timesCache);
+        return new RequestOptions(newExpand, newSelect, false, sensorArea, timesCache, prefetched);
     }
 }
@@ -58,8 +58,10 @@ import org.constellation.dto.thesaurus.ThesaurusComparator;
 import org.constellation.exception.ConstellationException;
 import org.constellation.thesaurus.api.IThesaurusBusiness;
 import org.constellation.thesaurus.api.ThesaurusException;
+import org.constellation.thesaurus.core.THWworker;
 import static org.constellation.thesaurus.io.sql.ThesaurusDatabase.CONCEPT_TYPE;
 import org.constellation.thesaurus.io.sql.ThesaurusDatabaseWriter;
+import org.constellation.ws.IWSEngine;
 import org.geotoolkit.nio.IOUtilities;
 import org.geotoolkit.skos.xml.Concept;
 import org.geotoolkit.skos.xml.RDF;
@@ -90,6 +92,9 @@ public class THWRestAPI {
     @Autowired
     private IThesaurusBusiness thesaurusBusiness;
 
+    @Autowired
+    private IWSEngine wsengine;
+
     /**
      * Use to install all ressource available thesaurus.
      * Will be probably remove later.
@@ -142,6 +147,30 @@ public class THWRestAPI {
         }
     }
 
+    /**
+     * Refresh the count of the thesaurus concepts in the CSW linked to a THW service.
+     *
+     * @param serviceId THW service identifier.
+     * @param csw If set, only the linked CSW with this URL is refreshed.
+     * @param modified If {@code true}, the local CSW not modified since their last count are skipped.
+     */
+    @RequestMapping(value="/THW/service/{serviceId}/csw/count",method=POST,produces=APPLICATION_JSON_VALUE)
+    public ResponseEntity refreshCSWCount(@PathVariable("serviceId") String serviceId,
+                                          @RequestParam(name="csw", required=false) String csw,
+                                          @RequestParam(name="modified", required=false, defaultValue="false") boolean modified) {
+        try {
+            final THWworker worker = (THWworker) wsengine.getInstance("THW", serviceId);
+            if (worker != null) {
+                worker.refreshCSWCount(csw, modified);
+                return new ResponseEntity(AcknowlegementType.success("The CSW count has been refreshed"), OK);
+            }
+            return new ResponseEntity(AcknowlegementType.failure("Unable to find a thw service " + serviceId), OK);
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
+            return new ErrorMessage(ex).build();
+        }
+    }
+
     // -------------------------------------------------------------------------
     //  Instance API
     // -------------------------------------------------------------------------
@@ -27,7 +27,20 @@ import java.util.List;
 public interface IThesaurusCSWCounter {
     
     void refreshThesaurusCSWCount();
-    
+
+    /**
+     * Refresh the count of a single linked CSW service, after records have been added or removed from it.
+     *
+     * @param cswUrl URL of a linked CSW service.
+     */
+    void refreshThesaurusCSWCount(final String cswUrl);
+
+    /**
+     * Refresh only the count of the linked CSW services which may have been modified since their last count.
+     * The modifications can only be detected on the local CSW instances, the remote ones are always refreshed.
+     */
+    void refreshModifiedThesaurusCSWCount();
+
     void storeLinkedCsw(final List<String> linkedCsws);
     
     /**
@@ -20,6 +20,8 @@ package org.constellation.thesaurus.component;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.DependsOn;
@@ -33,11 +35,13 @@ import java.util.logging.Logger;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import org.apache.sis.xml.MarshallerPool;
+import org.constellation.business.IClusterBusiness;
 import org.constellation.dto.thesaurus.Thesaurus;
 import org.constellation.repository.ThesaurusRepository;
 import org.constellation.thesaurus.api.IThesaurusBusiness;
 import org.constellation.thesaurus.api.ThesaurusException;
 import org.constellation.thesaurus.io.sql.ThesaurusDatabaseWriter;
+import org.constellation.thesaurus.io.sql.ThesaurusLabelIndexSynchronizer;
 import org.geotoolkit.skos.xml.SkosMarshallerPool;
 import org.geotoolkit.thw.model.ISOLanguageCode;
 import org.geotoolkit.thw.model.WriteableThesaurus;
@@ -66,6 +70,22 @@ public class ThesaurusBusiness implements IThesaurusBusiness {
     @Autowired
     protected ThesaurusRepository thesaurusRepository;
 
+    @Autowired
+    protected IClusterBusiness clusterBusiness;
+
+    private ThesaurusLabelIndexSynchronizer labelIndexSynchronizer;
+
+    @PostConstruct
+    public void init() {
+        labelIndexSynchronizer = new ThesaurusLabelIndexSynchronizer(clusterBusiness);
+        labelIndexSynchronizer.register();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        labelIndexSynchronizer.unregister();
+    }
+
     /**
      * Return all loaded thesaurus.
      * @return Map where key is thesaurus URI and value Thesaurus DTO object
@@ -98,7 +118,9 @@ public class ThesaurusBusiness implements IThesaurusBusiness {
     public ThesaurusDatabaseWriter createThesaurusWriter(String thesaurusURI) throws ThesaurusException {
         final Thesaurus th = thesaurusRepository.getByUri(thesaurusURI);
         if (th != null) {
-            return new ThesaurusDatabaseWriter(dataSource, th.getSchemaName(), "postgres");
+            final ThesaurusDatabaseWriter writer = new ThesaurusDatabaseWriter(dataSource, th.getSchemaName(), "postgres");
+            writer.setLabelIndexSynchronizer(labelIndexSynchronizer);
+            return writer;
         }
         throw new ThesaurusException("Unknown thesaurus URI : " + thesaurusURI);
     }
@@ -156,9 +178,12 @@ public class ThesaurusBusiness implements IThesaurusBusiness {
                 thesaurus.getDescription(),
                 languages,
                 defaultLang);
+        thesaurusW.setLabelIndexSynchronizer(labelIndexSynchronizer);
         try {
             thesaurusW.store();
             thesaurusRepository.create(thesaurus);
+            // the writer may not be closed by the caller
+            labelIndexSynchronizer.publishUpdated(thesaurus.getSchemaName());
             return thesaurusW;
         } catch (SQLException ex) {
             throw new ThesaurusException("SQL exception while storing new thesaurus", ex);
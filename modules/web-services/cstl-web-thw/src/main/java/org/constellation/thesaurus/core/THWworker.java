@@ -337,6 +337,23 @@ public class THWworker extends AbstractWorker {
 
     }
 
+    /**
+     * Refresh the count of the thesaurus concepts in the linked CSW.
+     *
+     * @param cswUrl If not {@code null}, only the linked CSW with this URL is refreshed.
+     * @param onlyModified If {@code true}, the local CSW not modified since their last count are skipped.
+     */
+    public void refreshCSWCount(final String cswUrl, final boolean onlyModified) throws CstlServiceException {
+        isWorking();
+        if (cswUrl != null) {
+            cswCounter.refreshThesaurusCSWCount(cswUrl);
+        } else if (onlyModified) {
+            cswCounter.refreshModifiedThesaurusCSWCount();
+        } else {
+            cswCounter.refreshThesaurusCSWCount();
+        }
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -27,16 +27,27 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.xml.namespace.QName;
 import org.constellation.admin.SpringHelper;
+import org.constellation.concurrent.SharedDaemonPool;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
 import org.constellation.thesaurus.api.IThesaurusCSWCounter;
 import org.constellation.thesaurus.util.HTTPCommunicator;
 import org.constellation.util.FilterSQLRequest;
@@ -44,6 +55,9 @@ import org.constellation.util.SQLResult;
 import org.constellation.util.SingleFilterSQLRequest;
 import org.constellation.util.Util;
 import org.constellation.ws.CstlServiceException;
+import org.constellation.ws.IWSEngine;
+import org.constellation.ws.KeywordSearchable;
+import org.constellation.ws.Worker;
 import org.geotoolkit.csw.xml.CSWMarshallerPool;
 import org.geotoolkit.csw.xml.ResultType;
 import org.geotoolkit.csw.xml.v202.GetRecordsResponseType;
@@ -69,11 +83,22 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
     @Qualifier("dataSource")
     private DataSource datasource;
 
+    @Autowired
+    private IWSEngine wsengine;
+
     protected final IThesaurusHandler handler;
 
-    protected final String likeOperator = "ILIKE";
+    /**
+     * Maximum number of records counted for a term, on local and remote CSW.
+     */
+    private static final int MAX_RECORDS = 5000;
 
-    private static final String CQL_REQUEST = "( dc:title LIKE '\"$term\"'  OR dct:abstract LIKE '\"$term\"'  OR dc:subject LIKE '\"$term\"' )";
+    /**
+     * Shared pool executing the term searches on the remote CSW, lazily created.
+     */
+    private static final SharedDaemonPool COUNT_POOL = new SharedDaemonPool("thesaurus-csw-count", AppProperty.EXA_THESAURUS_CSW_COUNT_THREADS, 4);
+
+    protected final String likeOperator = "ILIKE";
 
     /**
      * a QName for csw:Record type
@@ -101,15 +126,35 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
 
     @Override
     public void refreshThesaurusCSWCount() {
+        refreshThesaurusCSWCount(null, false);
+    }
+
+    @Override
+    public void refreshThesaurusCSWCount(final String cswUrl) {
+        refreshThesaurusCSWCount(cswUrl, false);
+    }
+
+    @Override
+    public void refreshModifiedThesaurusCSWCount() {
+        refreshThesaurusCSWCount(null, true);
+    }
+
+    /**
+     * @param cswUrl If not {@code null}, only the linked CSW with this URL is refreshed.
+     * @param onlyModified If {@code true}, the local CSW not modified since their last count are skipped.
+     */
+    private void refreshThesaurusCSWCount(final String cswUrl, final boolean onlyModified) {
         final long start = System.currentTimeMillis();
         try (Connection con = datasource.getConnection();
-             PreparedStatement stmt = con.prepareStatement("SELECT * FROM \"th_base\".\"linked_service\"");
+             PreparedStatement stmt = con.prepareStatement("SELECT \"id\", \"url\" FROM \"th_base\".\"linked_service\"");
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 final int id     = rs.getInt(1);
                 final String url = rs.getString(2);
-                createThesaurusCswCount(url, id, con);
+                if (cswUrl == null || cswUrl.equals(url)) {
+                    createThesaurusCswCount(url, id, onlyModified, con);
+                }
             }
         } catch (SQLException ex) {
             LOGGER.log(Level.WARNING, "SQL error while refreshing the CSW mapping", ex);
@@ -132,9 +177,33 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
 
 
     protected void createThesaurusCswCount(final String CSWURL, final int cswID, final Connection con) {
+        createThesaurusCswCount(CSWURL, cswID, false, con);
+    }
+
+    /**
+     * Count the occurences of the concepts of all the loaded thesaurus in the specified CSW.
+     *
+     * For a local CSW instance, the terms are searched directly in its index.
+     * For a remote one, a GetRecords request is sent for each term, on a bounded number of concurrent requests.
+     *
+     * @param CSWURL The CSW service URL.
+     * @param cswID The linked service identifier.
+     * @param onlyModified If {@code true} and if the CSW is a local instance, the count is skipped when its content has not changed since the last count.
+     * @param con A connection to the thesaurus database.
+     *
+     * If the terms can not all be searched, the count is interrupted and its revision is not stored,
+     * so the CSW is counted again at the next refresh.
+     */
+    protected void createThesaurusCswCount(final String CSWURL, final int cswID, final boolean onlyModified, final Connection con) {
         try {
-            clearThesaurusCount(cswID, con);
             final URL cswURL                         = new URL(CSWURL);
+            final KeywordSearchable localCsw         = getLocalCatalogue(cswURL);
+            final String revision                    = localCsw != null ? localCsw.getRevision() : null;
+            if (onlyModified && revision != null && revision.equals(getCountedRevision(cswID, con))) {
+                LOGGER.log(Level.INFO, "CSW {0} not modified since its last count", CSWURL);
+                return;
+            }
+            clearThesaurusCount(cswID, con);
             final List<Thesaurus> availableThesaurus = handler.getLoadedThesaurus();
 
             for (Thesaurus thesaurus : availableThesaurus) {
@@ -145,20 +214,32 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
                         final List<Concept> topConcepts = handler.getTopMostConcept(languageCode, Arrays.asList(thesaurus.getURI()), null);
                         if (topConcepts != null && !topConcepts.isEmpty()) {
                             LOGGER.log(Level.INFO, "Transitive search enabled for:{0} language={1}", new Object[]{thesaurus.getURI(), language});
+                            final List<ConceptNode> roots = new ArrayList<>();
+                            final Set<String> terms       = new HashSet<>();
                             for (Concept topConcept : topConcepts) {
                                 if (topConcept == null) {
                                     LOGGER.warning("A top concept is null");
                                     continue;
                                 }
-                                searchTransitive(cswID, languageCode, cswURL, topConcept, null, thesaurus.getURI(), con);
+                                roots.add(buildConceptTree(languageCode, topConcept, thesaurus.getURI(), terms));
+                            }
+                            LOGGER.log(Level.INFO, "{0} terms to request", terms.size());
+                            final Map<String, List<String>> termIdentifiers = getIdentifiersForTerms(cswURL, localCsw, terms);
+                            for (ConceptNode root : roots) {
+                                searchTransitive(cswID, languageCode, termIdentifiers, root, null, thesaurus.getURI(), con);
                             }
                         } else {
                             LOGGER.log(Level.INFO, "Flat search enabled for:{0} language={1}", new Object[]{thesaurus.getURI(), language});
 
                             List<Concept> allConcept = handler.getAllConcepts(-1, languageCode, Arrays.asList(thesaurus.getURI()));
                             LOGGER.log(Level.INFO, "{0}terms to request", allConcept.size());
+                            final Set<String> terms = new HashSet<>();
+                            for (Concept c : allConcept) {
+                                terms.add(c.getPrefLabel(language));
+                            }
+                            final Map<String, List<String>> termIdentifiers = getIdentifiersForTerms(cswURL, localCsw, terms);
                             for (Concept c : allConcept) {
-                                final List<String> identifiers = getCountForConcept(cswURL, c.getPrefLabel(language));
+                                final List<String> identifiers = termIdentifiers.getOrDefault(c.getPrefLabel(language), new ArrayList<>());
                                 final int count = identifiers.size();
                                 if (count > 0) {
                                     storeTermCount(cswID, c.getAbout(), c.getPrefLabel(language), count, identifiers, language, null, thesaurus.getURI(), con);
@@ -169,9 +250,110 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
                     }
                 }
             }
+            storeCountedRevision(cswID, revision, con);
         } catch (MalformedURLException ex) {
             LOGGER.log(Level.WARNING, "Marlformed CSW URL:" + CSWURL, ex);
+        } catch (CstlServiceException ex) {
+            LOGGER.log(Level.WARNING, "The term count of the CSW " + CSWURL + " is incomplete, it will be done again at the next refresh.", ex);
+            storeCountedRevision(cswID, null, con);
+        }
+    }
+
+    /**
+     * Return the revision of the linked CSW content at its last count, or {@code null} if unknown.
+     */
+    private String getCountedRevision(final int cswID, final Connection con) {
+        try (PreparedStatement stmt = con.prepareStatement("SELECT \"counted_revision\" FROM \"th_base\".\"linked_service\" WHERE \"id\"=?")) {
+            stmt.setInt(1, cswID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            }
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "SQL exception while reading the counted revision for:" + cswID, ex);
         }
+        return null;
+    }
+
+    private void storeCountedRevision(final int cswID, final String revision, final Connection con) {
+        try (PreparedStatement stmt = con.prepareStatement("UPDATE \"th_base\".\"linked_service\" SET \"counted_revision\"=? WHERE \"id\"=?")) {
+            stmt.setString(1, revision);
+            stmt.setInt(2, cswID);
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "SQL exception while storing the counted revision for:" + cswID, ex);
+        }
+    }
+
+    /**
+     * Return the CSW instance of this server published at the specified URL, or {@code null} if the catalogue is a remote one.
+     */
+    private KeywordSearchable getLocalCatalogue(final URL cswUrl) {
+        final String cstlUrl = Application.getProperty(AppProperty.CSTL_URL);
+        if (wsengine == null || cstlUrl == null || !cswUrl.toString().startsWith(cstlUrl)) {
+            return null;
+        }
+        String path = cswUrl.getPath();
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        final Map<String, Worker> workers = wsengine.getWorkersMap("csw");
+        if (workers != null) {
+            for (Entry<String, Worker> entry : workers.entrySet()) {
+                if (entry.getValue() instanceof KeywordSearchable ks && path.endsWith("/csw/" + entry.getKey())) {
+                    return ks;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return, for each term, the identifiers of the records matching it in the specified CSW.
+     *
+     * The local CSW instances are searched directly in their index.
+     * The remote ones (or a local one failing) receive a GetRecords request by term,
+     * sent concurrently on a bounded pool.
+     *
+     * @throws CstlServiceException If a term can not be searched, or if the search is interrupted.
+     */
+    Map<String, List<String>> getIdentifiersForTerms(final URL cswUrl, final KeywordSearchable localCsw, final Collection<String> terms) throws CstlServiceException {
+        final Set<String> distinctTerms = new LinkedHashSet<>(terms);
+        distinctTerms.remove(null);
+        if (localCsw != null) {
+            try {
+                final Map<String, List<String>> results = localCsw.getIdentifiersForTerms(distinctTerms);
+                // same limit than the GetRecords requests.
+                results.replaceAll((term, ids) -> ids.size() > MAX_RECORDS ? new ArrayList<>(ids.subList(0, MAX_RECORDS)) : ids);
+                return results;
+            } catch (CstlServiceException ex) {
+                LOGGER.log(Level.WARNING, "Error while searching the terms in the local CSW index, using GetRecords requests.", ex);
+            }
+        }
+        final Map<String, List<String>> results = new HashMap<>();
+        final Map<String, Future<List<String>>> futures = new LinkedHashMap<>();
+        try {
+            for (String term : distinctTerms) {
+                futures.put(term, COUNT_POOL.submit(() -> getCountForConcept(cswUrl, term)));
+            }
+            for (Entry<String, Future<List<String>>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CstlServiceException("Interrupted while counting the terms in:" + cswUrl, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException rex) {
+                throw rex;
+            }
+            throw new CstlServiceException("Error while counting the terms in:" + cswUrl, ex.getCause());
+        } finally {
+            for (Future<List<String>> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+        return results;
     }
 
     protected void updateTermCount(final int serviceID, final String uriConcept, final String label, final List<String> aggregatedIdentifiers, final String language, final Connection c) {
@@ -276,7 +458,7 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
                 LOGGER.log(Level.WARNING, "SQL Exception while clearing linked CSW", ex);
             }
 
-            try (PreparedStatement insertLinkedStmt = con.prepareStatement("INSERT INTO \"th_base\".\"linked_service\" VALUES (?,?)")) {
+            try (PreparedStatement insertLinkedStmt = con.prepareStatement("INSERT INTO \"th_base\".\"linked_service\" (\"id\", \"url\") VALUES (?,?)")) {
                 int i = 0;
                 for (String csw : linkedCsws) {
                     try {
@@ -527,13 +709,32 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
         return results;
     }
 
-    protected void searchTransitive(final int cswId, final ISOLanguageCode lang, final URL cswURL,
-            final Concept concept, final DefaultMutableTreeNode parent, final String thesaurusUri, final Connection c) {
-        if (concept == null) {return;}
+    /**
+     * Read the narrower hierarchy of a concept, and collect the terms to count.
+     */
+    private ConceptNode buildConceptTree(final ISOLanguageCode lang, final Concept concept, final String thesaurusUri, final Set<String> terms) {
+        final String conceptURI = concept.getAbout();
+        terms.add(concept.getPrefLabel(lang.getTwoLetterCode()));
+        final List<ConceptNode> narrowers = new ArrayList<>();
+        final List<Concept> relateds = handler.getRelatedConcept(conceptURI, "http://www.w3.org/2004/02/skos/core#narrower", lang, thesaurusUri);
+        for (Concept related : relateds) {
+            // debug
+            if (related == null) {
+                LOGGER.log(Level.WARNING, "a null concept was obtained for the narrower of :{0}", conceptURI);
+                continue;
+            }
+            narrowers.add(buildConceptTree(lang, related, thesaurusUri, terms));
+        }
+        return new ConceptNode(concept, narrowers);
+    }
+
+    protected void searchTransitive(final int cswId, final ISOLanguageCode lang, final Map<String, List<String>> termIdentifiers,
+            final ConceptNode node, final DefaultMutableTreeNode parent, final String thesaurusUri, final Connection c) {
+        final Concept concept          = node.concept();
         final String language          = lang.getTwoLetterCode();
         final String conceptURI        = concept.getAbout();
         final String currentTerm       = concept.getPrefLabel(language);
-        final List<String> identifiers = getCountForConcept(cswURL, currentTerm);
+        final List<String> identifiers = termIdentifiers.getOrDefault(currentTerm, new ArrayList<>());
         final int count = identifiers.size();
         if (count > 0) {
             DefaultMutableTreeNode currentNode = parent;
@@ -561,13 +762,8 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
         if (parent != null) {
             parent.add(currentNode);
         }
-        final List<Concept> relateds = handler.getRelatedConcept(conceptURI, "http://www.w3.org/2004/02/skos/core#narrower", lang, thesaurusUri);
-        for (Concept related : relateds) {
-            // debug
-            if (related == null) {
-                LOGGER.log(Level.WARNING, "a null concept was obtained for the narrower of :{0}", conceptURI);
-            }
-            searchTransitive(cswId, lang, cswURL, related, currentNode, thesaurusUri, c);
+        for (ConceptNode narrower : node.narrowers()) {
+            searchTransitive(cswId, lang, termIdentifiers, narrower, currentNode, thesaurusUri, c);
         }
     }
 
@@ -592,7 +788,7 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
      *
      * @return The number of result matching for the term in the CSW service.
      */
-    private List<String> getCountForConcept(final URL cswUrl, final String term) {
+    private List<String> getCountForConcept(final URL cswUrl, final String term) throws CstlServiceException {
         final List<String> results = new ArrayList<>();
         if (term == null) {
             return results;
@@ -600,43 +796,39 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
         /*
          * 1) Build the GetRecord request.
          */
-        final String cleanTerm = term.replaceAll("'", "''");
-        final String cql = CQL_REQUEST.replace("$term", cleanTerm);
-        final QueryConstraintType constraint = new QueryConstraintType(cql, "1.1.0");
+        final QueryConstraintType constraint = new QueryConstraintType(KeywordSearchable.termFilter(term), "1.1.0");
         final QueryType query = new QueryType(Arrays.asList(RECORD_202_QNAME), Arrays.asList(IDENTIFIER_QNAME), null, constraint);
-        final GetRecordsType cswRequest = new GetRecordsType("CSW", "2.0.2", ResultType.RESULTS, null, "text/xml", "http://www.opengis.net/cat/csw/2.0.2", 1, 5000, query, null);
+        final GetRecordsType cswRequest = new GetRecordsType("CSW", "2.0.2", ResultType.RESULTS, null, "text/xml", "http://www.opengis.net/cat/csw/2.0.2", 1, MAX_RECORDS, query, null);
 
         /*
          * 2) send the request.
          */
-        try {
-            final Object response = HTTPCommunicator.sendRequest(cswUrl, cswRequest, CSWMarshallerPool.getInstance(), false);
-            if (response instanceof GetRecordsResponseType) {
-                final GetRecordsResponseType gr = (GetRecordsResponseType) response;
-                // 3) we extract the identifiers of matching result from the response.
-                final List<Object> records = gr.getSearchResults().getAny();
-                for (Object abstractRecord : records) {
-                    if (abstractRecord instanceof RecordType) {
-                        final RecordType record = (RecordType) abstractRecord;
-                        if (record.getIdentifier() != null && !record.getIdentifier().getContent().isEmpty()) {
-                            results.add(record.getIdentifier().getContent().get(0));
-                        } else {
-                            LOGGER.warning("No identifier in record");
-                        }
-                    } else {
-                        LOGGER.log(Level.WARNING, "Not a DC record:{0}", abstractRecord);
-                    }
+        final Object response = HTTPCommunicator.sendRequest(cswUrl, cswRequest, CSWMarshallerPool.getInstance(), false);
+        if (!(response instanceof GetRecordsResponseType gr)) {
+            throw new CstlServiceException("Unexpected CSW response type:" + (response != null ? response.getClass().getName() : null));
+        }
+        // 3) we extract the identifiers of matching result from the response.
+        final List<Object> records = gr.getSearchResults().getAny();
+        for (Object abstractRecord : records) {
+            if (abstractRecord instanceof RecordType) {
+                final RecordType record = (RecordType) abstractRecord;
+                if (record.getIdentifier() != null && !record.getIdentifier().getContent().isEmpty()) {
+                    results.add(record.getIdentifier().getContent().get(0));
+                } else {
+                    LOGGER.warning("No identifier in record");
                 }
-                return results;
             } else {
-                LOGGER.log(Level.WARNING, "Unexpected CSW response type:{0}", response.getClass().getName());
+                LOGGER.log(Level.WARNING, "Not a DC record:{0}", abstractRecord);
             }
-        } catch (CstlServiceException ex) {
-            LOGGER.log(Level.WARNING, null, ex);
         }
         return results;
     }
 
+    /**
+     * A concept and its narrower hierarchy.
+     */
+    protected record ConceptNode(Concept concept, List<ConceptNode> narrowers) {}
+
     protected static class ShortConcept {
         public final String uri;
         public final String term;
@@ -655,5 +847,4 @@ public class ThesaurusCSWCounter implements IThesaurusCSWCounter {
             this.count = count;
         }
     }
-
 }
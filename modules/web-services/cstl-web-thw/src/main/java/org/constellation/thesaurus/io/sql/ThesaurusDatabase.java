@@ -47,6 +47,8 @@ import org.geotoolkit.thw.model.ScoredConcept;
 import org.geotoolkit.thw.model.Thesaurus;
 import static org.constellation.dto.thesaurus.SearchMode.*;
 import org.constellation.thesaurus.api.ThesaurusException;
+import org.constellation.thesaurus.io.sql.ThesaurusLabelIndex.MatchMode;
+import org.constellation.thesaurus.io.sql.ThesaurusLabelIndex.Term;
 import org.constellation.util.FilterSQLRequest;
 import org.constellation.util.SQLResult;
 import org.constellation.util.SingleFilterSQLRequest;
@@ -382,6 +384,23 @@ public class ThesaurusDatabase implements Thesaurus, AutoCloseable {
     public List<ScoredConcept> search(final String brutTerm, final ISOLanguageCode language) {
         final List<ScoredConcept> matchingConcept = new ArrayList<>();
 
+        final ThesaurusLabelIndex index = getLabelIndex();
+        if (index != null) {
+            // full matching => 1.0, case insensitive => 0.9, mispelled (case and accents insensitive) => 0.8, partial => 0.7
+            final MatchMode[] modes = {MatchMode.EXACT, MatchMode.IGNORE_CASE, MatchMode.FOLDED, MatchMode.CONTAINS};
+            final double[] scores   = {1.0, 0.9, 0.8, 0.7};
+            final String lang = language != null ? language.getTwoLetterCode() : null;
+            for (int i = 0; i < modes.length; i++) {
+                for (Term t : index.find(brutTerm, modes[i], lang, null)) {
+                    matchingConcept.add(new ScoredConcept(removePrefix(t.uriConcept()), this, scores[i], language));
+                }
+                if (!matchingConcept.isEmpty()) {
+                    break;
+                }
+            }
+            return matchingConcept;
+        }
+
         try (Connection c = datasource.getConnection()) {
 
             final String term     = brutTerm.replace("'", "''");
@@ -499,8 +518,21 @@ public class ThesaurusDatabase implements Thesaurus, AutoCloseable {
         }
         final String queryPrefix = sb.toString();
 
+        // the geometric search needs the concept table
+        final ThesaurusLabelIndex index = geometric ? null : getLabelIndex();
+
         try (Connection c   = datasource.getConnection()) {
 
+            if (index != null) {
+                for (Term t : searchIndex(index, term, searchMode, themes, language)) {
+                    final Concept concept = readConcept(removePrefix(t.uriConcept()), false, c, null);
+                    if (!matchingConcept.contains(concept)) {
+                        matchingConcept.add(concept);
+                    }
+                }
+                return matchingConcept;
+            }
+
             if (searchMode == NO_WILD_CHAR || searchMode == AUTO_SEARCH) {
 
                 final FilterSQLRequest query = new SingleFilterSQLRequest(queryPrefix);
@@ -636,6 +668,14 @@ public class ThesaurusDatabase implements Thesaurus, AutoCloseable {
     public List<String> searchLabels(final String brutTerm, final int searchMode, final List<String> themes, final ISOLanguageCode language) {
         final List<String> results = new ArrayList<>();
 
+        final ThesaurusLabelIndex index = getLabelIndex();
+        if (index != null) {
+            for (Term t : searchIndex(index, brutTerm, searchMode, themes, language)) {
+                results.add(t.label());
+            }
+            return results;
+        }
+
         final String queryPrefix = "SELECT \"label\" FROM \"" + schema + "\".\"terme_completion\" ";
 
         try (Connection c      = datasource.getConnection();
@@ -723,6 +763,40 @@ public class ThesaurusDatabase implements Thesaurus, AutoCloseable {
         return results;
     }
 
+    /**
+     * Search the label index with the same steps than the SQL search.
+     * The "regex" modes are named after the position of the wildcard.
+     */
+    private static List<Term> searchIndex(final ThesaurusLabelIndex index, final String term, final int searchMode, final List<String> themes, final ISOLanguageCode language) {
+        final MatchMode[] modes;
+        switch (searchMode) {
+            case NO_WILD_CHAR        -> modes = new MatchMode[]{MatchMode.EXACT};
+            case PREFIX_REGEX        -> modes = new MatchMode[]{MatchMode.ENDS_WITH};
+            case SUFFIX_REGEX        -> modes = new MatchMode[]{MatchMode.STARTS_WITH};
+            case PREFIX_SUFFIX_REGEX -> modes = new MatchMode[]{MatchMode.CONTAINS};
+            case AUTO_SEARCH         -> modes = new MatchMode[]{MatchMode.EXACT, MatchMode.ENDS_WITH, MatchMode.STARTS_WITH, MatchMode.CONTAINS};
+            default                  -> modes = new MatchMode[0];
+        }
+        final String lang = language != null ? language.getTwoLetterCode() : null;
+        for (MatchMode mode : modes) {
+            final List<Term> results = index.find(term, mode, lang, themes);
+            if (!results.isEmpty()) {
+                return results;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Return the in-memory label index of this thesaurus, shared with the other instances, loading it if needed.
+     *
+     * @return The label index, or {@code null} if it can not be loaded.
+     */
+    protected ThesaurusLabelIndex getLabelIndex() {
+        final ThesaurusLabelIndex index = ThesaurusLabelIndex.get(datasource, schema);
+        return index.ensureLoaded() ? index : null;
+    }
+
     /**
      * Close the connection to the database and clear the cache.
      */
@@ -766,31 +840,39 @@ public class ThesaurusDatabase implements Thesaurus, AutoCloseable {
 
         // hack to avoid the confusion with the LIKE operator when uriconcept is an integer
         boolean strict = true;
+        String dbUri   = uriConcept;
         try {
             Integer.parseInt(uriConcept);
         } catch (NumberFormatException ex) {
             strict = false;
+            // the label index knows the stored URI, avoiding the LIKE lookups
+            final ThesaurusLabelIndex index = getLabelIndex();
+            final String resolved = index != null ? index.resolveUri(uriConcept) : null;
+            if (resolved != null) {
+                strict = true;
+                dbUri  = resolved;
+            }
         }
 
         final Concept concept = buildEmptyConcept(uriConcept);
 
-        concept.setPrefLabel(getMultiLingualTerm(uriConcept,   PREF_LABEL_TYPE,       strict, COMPLETION,   con, language));
-        concept.setAltLabel(getMultiLingualTerm(uriConcept,    ALT_LABEL_TYPE,        strict, COMPLETION,   con, language));
-        concept.setLabel(getMultiLingualTerm(uriConcept,       LABEL_TYPE,            strict, COMPLETION,   con, language));
-        concept.setDefinition(getMultiLingualTerm(uriConcept,  DEFINITION_LABEL_TYPE, strict, LOCALISATION, con, language));
-        concept.setScopeNote(getMultiLingualTerm(uriConcept,   SCOPE_NOTE_TYPE,       strict, LOCALISATION, con, language));
-        concept.setHistoryNote(getMultiLingualTerm(uriConcept, HISTORY_NOTE_TYPE,     strict, LOCALISATION, con, language));
-        concept.setExample(getMultiLingualTerm(uriConcept,     EXAMPLE_TYPE,          strict, LOCALISATION, con, language));
+        concept.setPrefLabel(getMultiLingualTerm(dbUri,   PREF_LABEL_TYPE,       strict, COMPLETION,   con, language));
+        concept.setAltLabel(getMultiLingualTerm(dbUri,    ALT_LABEL_TYPE,        strict, COMPLETION,   con, language));
+        concept.setLabel(getMultiLingualTerm(dbUri,       LABEL_TYPE,            strict, COMPLETION,   con, language));
+        concept.setDefinition(getMultiLingualTerm(dbUri,  DEFINITION_LABEL_TYPE, strict, LOCALISATION, con, language));
+        concept.setScopeNote(getMultiLingualTerm(dbUri,   SCOPE_NOTE_TYPE,       strict, LOCALISATION, con, language));
+        concept.setHistoryNote(getMultiLingualTerm(dbUri, HISTORY_NOTE_TYPE,     strict, LOCALISATION, con, language));
+        concept.setExample(getMultiLingualTerm(dbUri,     EXAMPLE_TYPE,          strict, LOCALISATION, con, language));
 
         // extended attribute for cnes distrib
-        final String theme = getTheme(uriConcept, strict, con);
+        final String theme = getTheme(dbUri, strict, con);
         if (theme != null && !theme.equals(schema)){
             final Concept tconcept = new Concept();
             tconcept.setResource(theme);
             concept.addInScheme(tconcept);
         }
 
-        final List<Tuple> tuples = getConceptTuples(uriConcept, strict, con);
+        final List<Tuple> tuples = getConceptTuples(dbUri, strict, con);
 
         if (tuples.isEmpty()) return null;
 
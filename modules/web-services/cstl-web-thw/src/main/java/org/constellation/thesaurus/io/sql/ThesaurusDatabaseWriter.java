@@ -54,6 +54,13 @@ import org.constellation.util.Util;
  */
 public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements WriteableThesaurus {
 
+    /**
+     * Publish the modifications of the label index to the other members of the cluster, may be {@code null}.
+     */
+    private ThesaurusLabelIndexSynchronizer labelIndexSynchronizer;
+
+    private boolean labelIndexModified;
+
     public ThesaurusDatabaseWriter(final DataSource datasource, final String schema, final String dialect) throws ThesaurusException {
         super(datasource, schema, dialect);
     }
@@ -76,6 +83,31 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
         super(datasource, schema, dialect, uri, name, description, languages, defaultLanguage);
     }
 
+    public void setLabelIndexSynchronizer(final ThesaurusLabelIndexSynchronizer labelIndexSynchronizer) {
+        this.labelIndexSynchronizer = labelIndexSynchronizer;
+    }
+
+    /**
+     * Return the label index of this thesaurus, to be updated.
+     * The modification will be published to the other members of the cluster when this writer is closed.
+     */
+    private ThesaurusLabelIndex updatedLabelIndex() {
+        labelIndexModified = true;
+        return ThesaurusLabelIndex.get(datasource, schema);
+    }
+
+    /**
+     * Publish the modifications of the label index made by this writer.
+     */
+    @Override
+    public void close() {
+        if (labelIndexModified && labelIndexSynchronizer != null) {
+            labelIndexSynchronizer.publishUpdated(schema);
+        }
+        labelIndexModified = false;
+        super.close();
+    }
+
     protected void writeProperty(final String uriConcept, final String property, final List<? extends Object> values, final Connection connection) throws SQLException {
         if (values == null) return;
         for (int i = 0; i < values.size(); i++) {
@@ -260,23 +292,31 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
                 deleteStmt.setString(2, property);
                 deleteStmt.executeUpdate();
             }
+            if (tableFlag == COMPLETION) {
+                updatedLabelIndex().remove(uriconcept, property);
+            }
         }
         try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO \"" + schema + "\".\"" + table + "\"" + " VALUES (?, ?, ?, ?, ?)")) {//NOSONAR
             for (Value value : values) {
                 //we verify that the language is already registred otherwise we record it
                 lookForLanguageRegistration(value.getLang());
 
-                stmt.setString(1, uriconcept);
-                stmt.setString(2, value.getValue());
-                stmt.setString(3, theme);
+                final String lang;
                 if (value.getLang() == null) {
                     LOGGER.warning("You are not supposed to write skos property with no language/ Using default 'en'");
-                    stmt.setString(4, "en");
+                    lang = "en";
                 } else {
-                    stmt.setString(4, value.getLang().toLowerCase());
+                    lang = value.getLang().toLowerCase();
                 }
+                stmt.setString(1, uriconcept);
+                stmt.setString(2, value.getValue());
+                stmt.setString(3, theme);
+                stmt.setString(4, lang);
                 stmt.setString(5, property);
                 stmt.executeUpdate();
+                if (tableFlag == COMPLETION) {
+                    updatedLabelIndex().add(uriconcept, value.getValue(), theme, lang, property);
+                }
             }
         }
     }
@@ -292,6 +332,9 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             deleteStmt.setString(1, uriconcept);
             deleteStmt.executeUpdate();
         }
+        if (tableFlag == COMPLETION) {
+            updatedLabelIndex().remove(uriconcept, null);
+        }
     }
 
     private void deleteAllTermForLanguage(final ISOLanguageCode language) throws SQLException {
@@ -304,6 +347,7 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             deleteStmt2.setString(1, language.getTwoLetterCode().toLowerCase());
             deleteStmt2.executeUpdate();
         }
+        updatedLabelIndex().removeLanguage(language.getTwoLetterCode().toLowerCase());
     }
 
     @Override
@@ -545,6 +589,8 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
              PreparedStatement complTermStmt = con.prepareStatement(insertComplTerm);//NOSONAR
              PreparedStatement lacalTermStmt = con.prepareStatement(insertLocalTerm)) {//NOSONAR
 
+            final List<String[]> newTerms = new ArrayList<>();
+
             // Type.
             addPropertyBatch(relationStmt, fullConcept.getUri(), TYPE_PREDICATE, CONCEPT_TYPE);
 
@@ -557,12 +603,7 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
                     hierarchyRoots.add(new Concept(rootUri));
                     addPropertyBatch(relationStmt, rootUri, HIERARCHY_ROOT_PREDICATE, "true");
                     addPropertyBatch(relationStmt, rootUri, TYPE_PREDICATE, CONCEPT_TYPE);
-                    complTermStmt.setString(1, rootUri);
-                    complTermStmt.setString(2, "ROOT");
-                    complTermStmt.setString(3, schema);
-                    complTermStmt.setString(4, defaultLanguage.getTwoLetterCode().toLowerCase());
-                    complTermStmt.setString(5, PREF_LABEL_TYPE);
-                    complTermStmt.addBatch();
+                    addCompletionTermBatch(complTermStmt, rootUri, "ROOT", defaultLanguage.getTwoLetterCode().toLowerCase(), PREF_LABEL_TYPE, newTerms);
                 }
 
                 // Top concept.
@@ -596,12 +637,7 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             // Preferred labels.
             for (Map.Entry<String, String> entry : fullConcept.getPrefLabel().entrySet()) {
                 if (isNotBlank(entry.getValue())) {
-                    complTermStmt.setString(1, fullConcept.getUri());
-                    complTermStmt.setString(2, entry.getValue());
-                    complTermStmt.setString(3, schema);
-                    complTermStmt.setString(4, entry.getKey());
-                    complTermStmt.setString(5, PREF_LABEL_TYPE);
-                    complTermStmt.addBatch();
+                    addCompletionTermBatch(complTermStmt, fullConcept.getUri(), entry.getValue(), entry.getKey(), PREF_LABEL_TYPE, newTerms);
                 }
             }
             complTermStmt.executeBatch();
@@ -610,12 +646,7 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             for (Map.Entry<String, String[]> entry : fullConcept.getAltLabels().entrySet()) {
                 for (String value : entry.getValue()) {
                     if (isNotBlank(value)) {
-                        complTermStmt.setString(1, fullConcept.getUri());
-                        complTermStmt.setString(2, value);
-                        complTermStmt.setString(3, schema);
-                        complTermStmt.setString(4, entry.getKey());
-                        complTermStmt.setString(5, ALT_LABEL_TYPE);
-                        complTermStmt.addBatch();
+                        addCompletionTermBatch(complTermStmt, fullConcept.getUri(), value, entry.getKey(), ALT_LABEL_TYPE, newTerms);
                     }
                 }
             }
@@ -634,11 +665,25 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             }
             lacalTermStmt.executeBatch();
 
+            final ThesaurusLabelIndex index = updatedLabelIndex();
+            for (String[] term : newTerms) {
+                index.add(term[0], term[1], schema, term[2], term[3]);
+            }
         } catch (SQLException ex) {
             throw new RuntimeException("SQL exception in insertConcept()", ex);
         }
     }
 
+    private void addCompletionTermBatch(PreparedStatement complTermStmt, String uri, String label, String language, String type, List<String[]> newTerms) throws SQLException {
+        complTermStmt.setString(1, uri);
+        complTermStmt.setString(2, label);
+        complTermStmt.setString(3, schema);
+        complTermStmt.setString(4, language);
+        complTermStmt.setString(5, type);
+        complTermStmt.addBatch();
+        newTerms.add(new String[]{uri, label, language, type});
+    }
+
     @Override
     public void writeRdf(final RDF rdf) throws SQLException {
         if (rdf != null) {
@@ -686,6 +731,8 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
         if (derby) {
             sql = sql.replace("(100000)", "(1000)");
         }
+        ThesaurusLabelIndex.invalidate(datasource, schema);
+        labelIndexModified = true;
         try (Connection connection = datasource.getConnection()) {
             final ScriptRunner runner;
             if (derby) {
@@ -731,7 +778,10 @@ public class ThesaurusDatabaseWriter extends ThesaurusDatabase implements Writea
             } else {
                 stmt.executeUpdate("DROP SCHEMA \"" + schema + "\" CASCADE");//NOSONAR
             }
-        } 
+        } finally {
+            ThesaurusLabelIndex.invalidate(datasource, schema);
+            labelIndexModified = true;
+        }
     }
 
     @Override
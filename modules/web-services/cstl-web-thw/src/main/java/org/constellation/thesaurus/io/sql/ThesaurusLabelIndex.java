@@ -0,0 +1,470 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.thesaurus.io.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+
+/**
+ * In-memory index of the completion terms (label, altLabel, prefLabel) of a thesaurus, by language.
+ *
+ * The index is shared by all the {@link ThesaurusDatabase} instances of a thesaurus schema. It is loaded
+ * from the "terme_completion" table on first use, then updated by the {@link ThesaurusDatabaseWriter}.
+ *
+ * Apart from the exact match, the labels are compared folded: lower case and without accents.
+ * The prefixes and suffixes are looked up in sorted maps, the other partial matches in a trigram index.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ThesaurusLabelIndex {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.thesaurus.io");
+
+    private static final Map<IndexKey, ThesaurusLabelIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int GRAM_SIZE = 3;
+
+    public enum MatchMode {
+        /** The label is equal to the term. */
+        EXACT,
+        /** The label is equal to the term, ignoring the case. */
+        IGNORE_CASE,
+        /** The folded label is equal to the folded term. */
+        FOLDED,
+        /** The folded label starts with the folded term. */
+        STARTS_WITH,
+        /** The folded label ends with the folded term. */
+        ENDS_WITH,
+        /** The folded label contains the folded term. */
+        CONTAINS
+    }
+
+    /**
+     * A line of the "terme_completion" table.
+     *
+     * @param sequence Insertion order in the index, used to sort the results.
+     */
+    public record Term(long sequence, String uriConcept, String label, String theme, String language, String type, String folded) {}
+
+    private record IndexKey(DataSource datasource, String schema) {}
+
+    private final DataSource datasource;
+
+    private final String schema;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private boolean loaded;
+
+    private long sequence;
+
+    private final Map<String, LanguageIndex> languages = new HashMap<>();
+
+    /**
+     * Terms by stored concept URI.
+     */
+    private final Map<String, List<Term>> byUri = new HashMap<>();
+
+    /**
+     * Stored concept URIs by URI without their "prefix::".
+     */
+    private final Map<String, Set<String>> byBareUri = new HashMap<>();
+
+    private ThesaurusLabelIndex(final DataSource datasource, final String schema) {
+        this.datasource = datasource;
+        this.schema     = schema;
+    }
+
+    /**
+     * Return the shared index of a thesaurus schema. The returned index may not be loaded yet.
+     */
+    public static ThesaurusLabelIndex get(final DataSource datasource, final String schema) {
+        return INDEXES.computeIfAbsent(new IndexKey(datasource, schema), k -> new ThesaurusLabelIndex(datasource, schema));
+    }
+
+    /**
+     * Remove the index of a thesaurus schema, it will be reloaded on next use.
+     */
+    public static void invalidate(final DataSource datasource, final String schema) {
+        INDEXES.remove(new IndexKey(datasource, schema));
+    }
+
+    /**
+     * Remove the indexes of a thesaurus schema for all the datasources,
+     * used when the thesaurus has been modified by another member of the cluster.
+     */
+    public static void invalidate(final String schema) {
+        INDEXES.keySet().removeIf(k -> k.schema().equals(schema));
+    }
+
+    /**
+     * Load the index if needed.
+     *
+     * @return {@code false} if the index can not be loaded.
+     */
+    public boolean ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                final long start = System.currentTimeMillis();
+                try (Connection c = datasource.getConnection();
+                     PreparedStatement stmt = c.prepareStatement("SELECT \"uri_concept\", \"label\", \"thesaurus_origine\", \"langage_iso\", \"type_terme\" FROM \"" + schema + "\".\"terme_completion\"");//NOSONAR
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        addTerm(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                    }
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.WARNING, "Unable to load the label index of thesaurus " + schema + ". Using SQL search.", ex);
+                    clearTerms();
+                    return false;
+                }
+                loaded = true;
+                LOGGER.log(Level.FINE, "Label index of thesaurus {0} loaded in {1} ms", new Object[]{schema, System.currentTimeMillis() - start});
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the terms matching the specified term.
+     *
+     * @param term The searched term.
+     * @param mode The matching mode.
+     * @param language If not {@code null}, the two letters code of the language of the terms.
+     * @param themes If not {@code null} or empty, the themes ("thesaurus_origine") of the terms.
+     *
+     * @return The matching terms, in their insertion order.
+     */
+    public List<Term> find(final String term, final MatchMode mode, final String language, final Collection<String> themes) {
+        final List<Term> results = new ArrayList<>();
+        if (term == null) return results;
+        lock.readLock().lock();
+        try {
+            final Collection<LanguageIndex> indexes;
+            if (language != null) {
+                final LanguageIndex li = languages.get(language.toLowerCase());
+                indexes = li != null ? List.of(li) : List.of();
+            } else {
+                indexes = languages.values();
+            }
+            for (LanguageIndex li : indexes) {
+                li.find(term, mode, results);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (themes != null && !themes.isEmpty()) {
+            results.removeIf(t -> !themes.contains(t.theme()));
+        }
+        results.sort(Comparator.comparingLong(Term::sequence));
+        return results;
+    }
+
+    /**
+     * Resolve a concept URI, with or without its "prefix::", to its stored URI
+     * if the concept has completion terms.
+     *
+     * @return The stored URI, or {@code null} if it can not be resolved from the index.
+     */
+    public String resolveUri(final String uriConcept) {
+        lock.readLock().lock();
+        try {
+            if (byUri.containsKey(uriConcept)) {
+                return uriConcept;
+            }
+            final Set<String> stored = byBareUri.get(uriConcept);
+            if (stored != null && stored.size() == 1) {
+                return stored.iterator().next();
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a term written in the database. Ignored if the index is not loaded.
+     */
+    public void add(final String uriConcept, final String label, final String theme, final String language, final String type) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                final List<Term> existing = byUri.get(uriConcept);
+                if (existing != null) {
+                    for (Term t : existing) {
+                        if (t.label().equals(label) && t.language().equals(language) && Objects.equals(t.type(), type)) {
+                            return;
+                        }
+                    }
+                }
+                addTerm(uriConcept, label, theme, language, type);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the terms of a concept removed from the database.
+     *
+     * @param type If not {@code null}, only the terms of this type are removed.
+     */
+    public void remove(final String uriConcept, final String type) {
+        lock.writeLock().lock();
+        try {
+            final List<Term> terms = byUri.get(uriConcept);
+            if (terms != null) {
+                for (Term t : new ArrayList<>(terms)) {
+                    if (type == null || type.equals(t.type())) {
+                        removeTerm(t);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all the terms of a language removed from the database.
+     */
+    public void removeLanguage(final String language) {
+        lock.writeLock().lock();
+        try {
+            final LanguageIndex li = languages.get(language);
+            if (li != null) {
+                for (List<Term> terms : new ArrayList<>(li.byLabel.values())) {
+                    for (Term t : new ArrayList<>(terms)) {
+                        removeTerm(t);
+                    }
+                }
+                languages.remove(language);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTerm(final String uriConcept, final String label, final String theme, final String language, final String type) {
+        if (uriConcept == null || label == null || language == null) return;
+        final Term t = new Term(sequence++, uriConcept, label, theme, language, type, fold(label));
+        final List<Term> terms = byUri.computeIfAbsent(uriConcept, k -> new ArrayList<>());
+        if (terms.isEmpty()) {
+            byBareUri.computeIfAbsent(ThesaurusDatabase.removePrefix(uriConcept), k -> new HashSet<>()).add(uriConcept);
+        }
+        terms.add(t);
+        languages.computeIfAbsent(language, k -> new LanguageIndex()).add(t);
+    }
+
+    private void removeTerm(final Term t) {
+        final List<Term> terms = byUri.get(t.uriConcept());
+        if (terms != null) {
+            terms.remove(t);
+            if (terms.isEmpty()) {
+                byUri.remove(t.uriConcept());
+                final String bare = ThesaurusDatabase.removePrefix(t.uriConcept());
+                final Set<String> stored = byBareUri.get(bare);
+                if (stored != null) {
+                    stored.remove(t.uriConcept());
+                    if (stored.isEmpty()) {
+                        byBareUri.remove(bare);
+                    }
+                }
+            }
+        }
+        final LanguageIndex li = languages.get(t.language());
+        if (li != null) {
+            li.remove(t);
+        }
+    }
+
+    private void clearTerms() {
+        byUri.clear();
+        byBareUri.clear();
+        languages.clear();
+    }
+
+    /**
+     * Return the label in lower case, without accents.
+     */
+    static String fold(final String label) {
+        return MARKS.matcher(Normalizer.normalize(label, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String reverse(final String s) {
+        return new StringBuilder(s).reverse().toString();
+    }
+
+    /**
+     * The terms of a language.
+     */
+    private static final class LanguageIndex {
+
+        private final Map<String, List<Term>> byLabel = new HashMap<>();
+
+        private final TreeMap<String, List<Term>> byFolded = new TreeMap<>();
+
+        /**
+         * Terms by reversed folded label, for the suffix lookups.
+         */
+        private final TreeMap<String, List<Term>> byReversed = new TreeMap<>();
+
+        /**
+         * Folded labels by trigram.
+         */
+        private final Map<String, Set<String>> grams = new HashMap<>();
+
+        private void add(final Term t) {
+            byLabel.computeIfAbsent(t.label(), k -> new ArrayList<>()).add(t);
+            final List<Term> folded = byFolded.computeIfAbsent(t.folded(), k -> new ArrayList<>());
+            folded.add(t);
+            byReversed.computeIfAbsent(reverse(t.folded()), k -> new ArrayList<>()).add(t);
+            if (folded.size() == 1) {
+                for (int i = 0; i + GRAM_SIZE <= t.folded().length(); i++) {
+                    grams.computeIfAbsent(t.folded().substring(i, i + GRAM_SIZE), k -> new HashSet<>()).add(t.folded());
+                }
+            }
+        }
+
+        private void remove(final Term t) {
+            removeFrom(byLabel, t.label(), t);
+            removeFrom(byReversed, reverse(t.folded()), t);
+            if (removeFrom(byFolded, t.folded(), t)) {
+                for (int i = 0; i + GRAM_SIZE <= t.folded().length(); i++) {
+                    final String gram = t.folded().substring(i, i + GRAM_SIZE);
+                    final Set<String> labels = grams.get(gram);
+                    if (labels != null) {
+                        labels.remove(t.folded());
+                        if (labels.isEmpty()) {
+                            grams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} if the last term of the key has been removed.
+         */
+        private static boolean removeFrom(final Map<String, List<Term>> map, final String key, final Term t) {
+            final List<Term> terms = map.get(key);
+            if (terms != null) {
+                terms.remove(t);
+                if (terms.isEmpty()) {
+                    map.remove(key);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void find(final String term, final MatchMode mode, final List<Term> results) {
+            final String folded = fold(term);
+            switch (mode) {
+                case EXACT -> {
+                    final List<Term> terms = byLabel.get(term);
+                    if (terms != null) results.addAll(terms);
+                }
+                case IGNORE_CASE -> {
+                    final List<Term> terms = byFolded.get(folded);
+                    if (terms != null) {
+                        final String upper = term.toUpperCase();
+                        for (Term t : terms) {
+                            if (t.label().toUpperCase().equals(upper)) {
+                                results.add(t);
+                            }
+                        }
+                    }
+                }
+                case FOLDED -> {
+                    final List<Term> terms = byFolded.get(folded);
+                    if (terms != null) results.addAll(terms);
+                }
+                case STARTS_WITH -> {
+                    for (List<Term> terms : byFolded.subMap(folded, true, folded + Character.MAX_VALUE, false).values()) {
+                        results.addAll(terms);
+                    }
+                }
+                case ENDS_WITH -> {
+                    final String reversed = reverse(folded);
+                    for (List<Term> terms : byReversed.subMap(reversed, true, reversed + Character.MAX_VALUE, false).values()) {
+                        results.addAll(terms);
+                    }
+                }
+                case CONTAINS -> {
+                    for (String label : candidates(folded)) {
+                        if (label.contains(folded)) {
+                            results.addAll(byFolded.get(label));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Return the folded labels which may contain the folded term.
+         */
+        private Collection<String> candidates(final String folded) {
+            if (folded.length() < GRAM_SIZE) {
+                return byFolded.keySet();
+            }
+            Set<String> smallest = null;
+            for (int i = 0; i + GRAM_SIZE <= folded.length(); i++) {
+                final Set<String> labels = grams.get(folded.substring(i, i + GRAM_SIZE));
+                if (labels == null) {
+                    return List.of();
+                }
+                if (smallest == null || labels.size() < smallest.size()) {
+                    smallest = labels;
+                }
+            }
+            return smallest;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.thesaurus.io.sql;
+
+import org.constellation.business.ClusterMessage;
+import org.constellation.business.IClusterBusiness;
+import org.constellation.business.MessageException;
+import org.constellation.business.MessageListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.constellation.business.ClusterMessageConstant.*;
+
+/**
+ * Discard the {@link ThesaurusLabelIndex} of a thesaurus on the other members of the cluster
+ * when it is modified on this node.
+ *
+ * The index of the sending node is maintained by the writer itself, so the messages sent by this member are ignored.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ThesaurusLabelIndexSynchronizer extends MessageListener {
+
+    private final IClusterBusiness clusterBusiness;
+
+    private String uid;
+
+    public ThesaurusLabelIndexSynchronizer(final IClusterBusiness clusterBusiness) {
+        this.clusterBusiness = clusterBusiness;
+    }
+
+    public void register() {
+        uid = clusterBusiness.addMessageListener(this);
+    }
+
+    public void unregister() {
+        if (uid != null) {
+            clusterBusiness.removeMessageListener(uid);
+            uid = null;
+        }
+    }
+
+    /**
+     * Publish the modification of a thesaurus, after the commit of the current transaction if there is one.
+     *
+     * @param schema The database schema of the thesaurus.
+     */
+    public void publishUpdated(final String schema) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublishUpdated(schema);
+                }
+            });
+        } else {
+            doPublishUpdated(schema);
+        }
+    }
+
+    private void doPublishUpdated(final String schema) {
+        final ClusterMessage message = clusterBusiness.createRequest(THW_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, THW_VALUE_ACTION_UPDATED);
+        message.put(KEY_IDENTIFIER, schema);
+        clusterBusiness.publish(message);
+    }
+
+    @Override
+    protected IClusterBusiness getClusterBusiness() {
+        return clusterBusiness;
+    }
+
+    @Override
+    protected boolean filter(ClusterMessage message) {
+        return THW_MESSAGE_TYPE_ID.equals(message.getTypeId())
+               && message.isRequest()
+               && !clusterBusiness.getMemberUID().equals(message.getMemberUID());
+    }
+
+    @Override
+    protected ClusterMessage process(ClusterMessage message) throws MessageException {
+        final String action = message.getString(KEY_ACTION, false);
+
+        switch (action) {
+            case THW_VALUE_ACTION_UPDATED -> ThesaurusLabelIndex.invalidate(message.getString(KEY_IDENTIFIER, false));
+            default -> throw new MessageException("Unknown request action : " + action);
+        }
+        return null;
+    }
+}
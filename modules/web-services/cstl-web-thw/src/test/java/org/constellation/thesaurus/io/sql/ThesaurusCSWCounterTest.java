@@ -0,0 +1,107 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.thesaurus.io.sql;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.constellation.ws.CstlServiceException;
+import org.constellation.ws.KeywordSearchable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ThesaurusCSWCounterTest {
+
+    /**
+     * A local catalogue returning a fixed number of records for each term.
+     */
+    private static final class LocalCatalogue implements KeywordSearchable {
+
+        private final Map<String, Integer> counts;
+
+        private final List<Collection<String>> calls = new ArrayList<>();
+
+        private LocalCatalogue(final Map<String, Integer> counts) {
+            this.counts = counts;
+        }
+
+        @Override
+        public Map<String, List<String>> getIdentifiersForTerms(final Collection<String> terms) {
+            calls.add(terms);
+            final Map<String, List<String>> results = new HashMap<>();
+            for (String term : terms) {
+                final int count = counts.getOrDefault(term, 0);
+                if (count > 0) {
+                    final List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < count; i++) ids.add(term + i);
+                    results.put(term, ids);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public String getRevision() {
+            return "1";
+        }
+    }
+
+    @Test
+    public void termFilterTest() {
+        Assert.assertEquals("( dc:title LIKE '\"l''eau\"' OR dct:abstract LIKE '\"l''eau\"' OR dc:subject LIKE '\"l''eau\"' )",
+                KeywordSearchable.termFilter("l'eau"));
+    }
+
+    /**
+     * The local catalogue is searched once for all the distinct terms, and the results are bounded as the remote ones.
+     */
+    @Test
+    public void localCatalogueTest() throws Exception {
+        final ThesaurusCSWCounter counter = new ThesaurusCSWCounter(null);
+        final Map<String, Integer> counts = new HashMap<>();
+        counts.put("water", 6000);
+        counts.put("river", 2);
+        final LocalCatalogue local = new LocalCatalogue(counts);
+
+        final Map<String, List<String>> results = counter.getIdentifiersForTerms(new URL("http://localhost/examind/WS/csw/default"), local,
+                Arrays.asList("water", "river", "water", "sea", null));
+        Assert.assertEquals(1, local.calls.size());
+        Assert.assertEquals(3, local.calls.get(0).size());
+        Assert.assertEquals(5000, results.get("water").size());
+        Assert.assertEquals(Arrays.asList("river0", "river1"), results.get("river"));
+        Assert.assertFalse(results.containsKey("sea"));
+    }
+
+    /**
+     * A term which can not be searched fails the whole search instead of returning partial results.
+     */
+    @Test(expected = CstlServiceException.class)
+    public void remoteFailureTest() throws Exception {
+        final ThesaurusCSWCounter counter = new ThesaurusCSWCounter(null);
+        counter.getIdentifiersForTerms(new URL("http://localhost:1/csw"), null, Arrays.asList("water", "river"));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.thesaurus.io.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+import org.constellation.admin.LocalClusterBusiness;
+import org.constellation.business.ClusterMessage;
+import static org.constellation.business.ClusterMessageConstant.*;
+import static org.constellation.dto.thesaurus.SearchMode.*;
+import org.constellation.util.SQLUtilities;
+import org.geotoolkit.skos.xml.Concept;
+import org.geotoolkit.skos.xml.Value;
+import org.geotoolkit.thw.model.ISOLanguageCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ThesaurusLabelIndexTest {
+
+    @Test
+    public void testSearchAndUpdate() throws Exception {
+        final DataSource ds = SQLUtilities.getDataSource("jdbc:derby:memory:thlabeltest;create=true");
+
+        ThesaurusDatabaseWriter thw = new ThesaurusDatabaseWriter(ds, "thl", "derby", "urn:thesau:label", "label test", null, new ArrayList<>(Arrays.asList(ISOLanguageCode.ENG)), ISOLanguageCode.ENG);
+        thw.store();
+
+        thw.writeConcept(buildConcept("c1", "Sea surface temperature"));
+        thw.writeConcept(buildConcept("c2", "Café"));
+        thw.writeConcept(buildConcept("c3", "Temperature profile"));
+
+        Assert.assertEquals(List.of("Sea surface temperature", "Temperature profile"), thw.searchLabels("temperature", PREFIX_SUFFIX_REGEX, null, ISOLanguageCode.ENG));
+        Assert.assertEquals(List.of("Temperature profile"), thw.searchLabels("temp", SUFFIX_REGEX, null, ISOLanguageCode.ENG));
+        Assert.assertEquals(List.of("Sea surface temperature"), thw.searchLabels("TEMPERATURE", PREFIX_REGEX, null, ISOLanguageCode.ENG));
+
+        // accent folding
+        Assert.assertTrue(thw.searchLabels("cafe", NO_WILD_CHAR, null, ISOLanguageCode.ENG).isEmpty());
+        Assert.assertEquals(List.of("Café"), thw.searchLabels("cafe", AUTO_SEARCH, null, ISOLanguageCode.ENG));
+
+        List<Concept> concepts = thw.search("sea", AUTO_SEARCH, false, null, ISOLanguageCode.ENG);
+        Assert.assertEquals(1, concepts.size());
+        Assert.assertEquals("c1", concepts.get(0).getAbout());
+
+        // a new thesaurus instance share the same index
+        thw = new ThesaurusDatabaseWriter(ds, "thl", "derby");
+
+        // update
+        thw.writeConcept(buildConcept("c2", "Chocolat"));
+        Assert.assertTrue(thw.searchLabels("caf", SUFFIX_REGEX, null, ISOLanguageCode.ENG).isEmpty());
+        Assert.assertEquals(List.of("Chocolat"), thw.searchLabels("choc", SUFFIX_REGEX, null, ISOLanguageCode.ENG));
+
+        // removal
+        thw.deleteConcept("c3");
+        Assert.assertTrue(thw.searchLabels("profile", PREFIX_REGEX, null, ISOLanguageCode.ENG).isEmpty());
+
+        Concept c1 = thw.getConcept("c1");
+        Assert.assertNotNull(c1);
+        Assert.assertEquals("Sea surface temperature", c1.getPrefLabel().get(0).getValue());
+
+        thw.delete();
+    }
+
+    @Test
+    public void testClusterInvalidation() throws Exception {
+        final DataSource ds = SQLUtilities.getDataSource("jdbc:derby:memory:thlabelsynctest;create=true");
+
+        final List<ClusterMessage> published = new ArrayList<>();
+        final LocalClusterBusiness cluster = new LocalClusterBusiness() {
+            @Override
+            public void publish(ClusterMessage message) {
+                published.add(message);
+                super.publish(message);
+            }
+        };
+        final LocalClusterBusiness remote = new LocalClusterBusiness();
+        final ThesaurusLabelIndexSynchronizer sync = new ThesaurusLabelIndexSynchronizer(cluster);
+        sync.register();
+
+        ThesaurusDatabaseWriter thw = new ThesaurusDatabaseWriter(ds, "ths", "derby", "urn:thesau:sync", "sync test", null, new ArrayList<>(Arrays.asList(ISOLanguageCode.ENG)), ISOLanguageCode.ENG);
+        thw.setLabelIndexSynchronizer(sync);
+        thw.store();
+        thw.writeConcept(buildConcept("c1", "Sea surface temperature"));
+        Assert.assertEquals(List.of("Sea surface temperature"), thw.searchLabels("sea", SUFFIX_REGEX, null, ISOLanguageCode.ENG));
+        final ThesaurusLabelIndex index = ThesaurusLabelIndex.get(ds, "ths");
+
+        // the modifications are published once, when the writer is closed
+        Assert.assertTrue(published.isEmpty());
+        thw.close();
+        Assert.assertEquals(1, published.size());
+        Assert.assertEquals(THW_MESSAGE_TYPE_ID, published.get(0).getTypeId());
+        Assert.assertEquals("ths", published.get(0).get(KEY_IDENTIFIER));
+
+        // the local index is up to date, it is not discarded by its own message
+        Assert.assertSame(index, ThesaurusLabelIndex.get(ds, "ths"));
+
+        // a reading writer publish nothing
+        thw = new ThesaurusDatabaseWriter(ds, "ths", "derby");
+        thw.setLabelIndexSynchronizer(sync);
+        thw.searchLabels("sea", SUFFIX_REGEX, null, ISOLanguageCode.ENG);
+        thw.close();
+        Assert.assertEquals(1, published.size());
+
+        // a modification made by another member discard the index
+        final ClusterMessage message = remote.createRequest(THW_MESSAGE_TYPE_ID, false);
+        message.put(KEY_ACTION, THW_VALUE_ACTION_UPDATED);
+        message.put(KEY_IDENTIFIER, "ths");
+        cluster.publish(message);
+        Assert.assertNotSame(index, ThesaurusLabelIndex.get(ds, "ths"));
+        Assert.assertEquals(List.of("Sea surface temperature"), thw.searchLabels("sea", SUFFIX_REGEX, null, ISOLanguageCode.ENG));
+
+        sync.unregister();
+        thw.delete();
+    }
+
+    private static Concept buildConcept(String uri, String prefLabel) {
+        final Concept c = new Concept(uri);
+        c.setPrefLabel(new ArrayList<>(List.of(new Value(prefLabel, "en"))));
+        return c;
+    }
+}
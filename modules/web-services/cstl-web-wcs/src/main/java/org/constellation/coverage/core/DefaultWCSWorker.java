@@ -43,7 +43,10 @@ import javax.xml.namespace.QName;
 import org.apache.sis.coverage.Category;
 import org.apache.sis.coverage.SampleDimension;
 import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
 import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridOrientation;
+import org.apache.sis.coverage.grid.GridRoundingMode;
 import org.apache.sis.geometry.Envelopes;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.measure.NumberRange;
@@ -77,6 +80,9 @@ import static org.constellation.coverage.core.WCSConstant.SUPPORTED_INTERPOLATIO
 import static org.constellation.coverage.core.WCSConstant.TIF;
 import static org.constellation.coverage.core.WCSConstant.TIFF;
 import static org.constellation.coverage.core.WCSConstant.getOperationMetadata;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
+import org.constellation.coverage.ws.rs.AsciiGridResponse;
 import org.constellation.coverage.ws.rs.GeotiffResponse;
 import org.constellation.coverage.ws.rs.GridCoverageNCWriter;
 import org.constellation.coverage.ws.rs.GridCoverageWriter;
@@ -210,6 +216,11 @@ import org.springframework.stereotype.Component;
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
 
+    /**
+     * Maximum number of cells read by a GetCoverage request, if not configured by {@link AppProperty#EXA_WCS_MAX_PIXELS}.
+     */
+    private static final long DEFAULT_MAX_PIXELS = 100_000_000L;
+
     public DefaultWCSWorker(final String id) {
         super(id, ServiceDef.Specification.WCS);
         started();
@@ -924,6 +935,8 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
             size = new Dimension(newWidth, newHeight);
         }
 
+        checkOutputSize(data, refEnvel, size);
+
         // TODO this values is not used
         //final Double elevation = (envelope.getDimension() > 2) ? envelope.getMedian(2) : null;
         Double[] elevations = new Double[] {null, null};
@@ -933,7 +946,20 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
          * It can be a text one (format MATRIX) or an image one (png, gif ...).
          */
         final String format = request.getFormat();
-        if (format.equalsIgnoreCase(MATRIX) || format.equalsIgnoreCase(ASCII_GRID)) {
+        if (format.equalsIgnoreCase(ASCII_GRID)) {
+            try {
+                if (dates != null) {
+                    refEnvel = combine(refEnvel, dates, elevations, null);
+                }
+                // the resource is read and resampled to the requested size by strips of rows while writing the response
+                return new AsciiGridResponse((GridCoverageResource) data.getOrigin(), requestedGrid(refEnvel, size), true);
+            } catch (DataStoreException | FactoryException ex) {
+                throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
+            } catch (IllegalArgumentException ex) {
+                throw new CstlServiceException(ex.getMessage(), INVALID_PARAMETER_VALUE, KEY_FORMAT.toLowerCase());
+            }
+
+        } else if (format.equalsIgnoreCase(MATRIX)) {
 
             //NOTE ADRIAN HACKED HERE
             final RenderedImage image;
@@ -962,7 +988,10 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
                 }
                 GeotiffResponse response = new GeotiffResponse();
                 response.metadata = data.getSpatialMetadata();
-                response.coverage = data.getCoverage(refEnvel, size);
+                // the resource is read and resampled to the requested size tile by tile while writing the response
+                response.resource = (GridCoverageResource) data.getOrigin();
+                response.domain   = requestedGrid(refEnvel, size);
+                response.resample = true;
                 return response;
             } catch (ConstellationStoreException | FactoryException ex) {
                 throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
@@ -1131,7 +1160,22 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
          * It can be a text one (format MATRIX) or an image one (png, gif ...).
          */
         final String format = request.getFormat();
-        if (format.equalsIgnoreCase(MATRIX) || format.equalsIgnoreCase(ASCII_GRID)) {
+        final boolean nativeResolution = format.equalsIgnoreCase(MATRIX) || format.equalsIgnoreCase(ASCII_GRID) ||
+                                         format.equalsIgnoreCase(MimeType.NETCDF) || format.equalsIgnoreCase(MimeType.IMAGE_TIFF);
+        if (nativeResolution) {
+            checkOutputSize(data, readEnv, null);
+        }
+        if (format.equalsIgnoreCase(ASCII_GRID)) {
+            try {
+                // the resource is read in its native grid by strips of rows while writing the response
+                return new AsciiGridResponse(ref, nativeSubgrid(data, readEnv));
+            } catch (ConstellationStoreException | DataStoreException ex) {
+                throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
+            } catch (IllegalArgumentException ex) {
+                throw new CstlServiceException(ex.getMessage(), INVALID_PARAMETER_VALUE, KEY_FORMAT.toLowerCase());
+            }
+
+        } else if (format.equalsIgnoreCase(MATRIX)) {
 
             //NOTE ADRIAN HACKED HERE
             final RenderedImage image;
@@ -1168,7 +1212,9 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
         } else if (format.equalsIgnoreCase(MimeType.IMAGE_TIFF)) {
             try {
                 final GeotiffResponse response = new GeotiffResponse();
-                response.coverage = data.getCoverage(readEnv, null);
+                // the resource is read tile by tile while writing the response
+                response.resource = ref;
+                response.domain   = nativeSubgrid(data, readEnv);
                 response.metadata = metadata;
                 response.outputCRS = request.getResponseCRS();
                 if (request.getExtension() instanceof ExtensionType ext) {
@@ -1271,6 +1317,65 @@ public final class DefaultWCSWorker extends LayerWorker implements WCSWorker {
         }
     }
 
+    /**
+     * Return the part of the coverage grid intersecting an envelope, at the coverage native resolution.
+     */
+    private static GridGeometry nativeSubgrid(final CoverageData data, final Envelope readEnv) throws ConstellationStoreException {
+        return data.getGeometry().derive().rounding(GridRoundingMode.ENCLOSING).subgrid(readEnv).build();
+    }
+
+    /**
+     * Return the grid of the requested size over the requested envelope.
+     * The dimensions other than the first two have a single cell.
+     */
+    private static GridGeometry requestedGrid(final Envelope envelope, final Dimension size) {
+        final long[] high = new long[envelope.getDimension()];
+        high[0] = size.width  - 1;
+        high[1] = size.height - 1;
+        return new GridGeometry(new GridExtent(null, null, high, true), envelope, GridOrientation.REFLECTION_Y);
+    }
+
+    /**
+     * Reject a request which would read more cells than the limit configured for the server.
+     *
+     * @param data The requested coverage.
+     * @param readEnv The envelope to read.
+     * @param size The requested output size, or {@code null} if the coverage is read at its native resolution.
+     *
+     * @throws CstlServiceException if the number of cells exceeds the limit.
+     */
+    private void checkOutputSize(final CoverageData data, final Envelope readEnv, final Dimension size) throws CstlServiceException {
+        final long maxPixels = Application.getLongProperty(AppProperty.EXA_WCS_MAX_PIXELS, DEFAULT_MAX_PIXELS);
+        if (maxPixels <= 0) {
+            return;
+        }
+        long nbPixels;
+        if (size != null) {
+            nbPixels = (long) size.width * size.height;
+        } else {
+            final GridExtent extent;
+            try {
+                extent = data.getGeometry().derive()
+                        .rounding(GridRoundingMode.ENCLOSING)
+                        .subgrid(readEnv)
+                        .build().getExtent();
+            } catch (ConstellationStoreException | RuntimeException ex) {
+                // the problem will be reported by the read
+                LOGGER.log(Level.FINE, "Unable to compute the extent of the requested subset", ex);
+                return;
+            }
+            nbPixels = 1;
+            for (int i = 0; i < extent.getDimension(); i++) {
+                final long span = extent.getSize(i);
+                nbPixels = span > Long.MAX_VALUE / nbPixels ? Long.MAX_VALUE : nbPixels * span;
+            }
+        }
+        if (nbPixels > maxPixels) {
+            throw new CstlServiceException("The requested coverage subset contains " + nbPixels +
+                    " cells, which exceeds the limit of " + maxPixels + " cells of this server.", INVALID_SUBSETTING);
+        }
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -0,0 +1,127 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.constellation.coverage.ws.rs;
+
+import java.util.List;
+import org.apache.sis.coverage.SampleDimension;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageProcessor;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.GridCoverageResource;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * A coverage to encode in the ESRI ASCII grid format.
+ *
+ * The coverage is either already read, or read from its resource by strips while writing the response.
+ * The strips are resampled when the requested grid is not a subset of the resource grid.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class AsciiGridResponse {
+
+    /**
+     * The coverage already read, or {@code null} if it is read from the resource.
+     */
+    private final GridCoverage coverage;
+
+    private final GridCoverageResource resource;
+
+    private final GridGeometry domain;
+
+    /**
+     * {@code true} if the strips read from the resource are resampled on the domain.
+     */
+    private final boolean resample;
+
+    final AsciiGridWriter.Layout layout;
+
+    /**
+     * @param coverage A single band coverage.
+     * @throws IllegalArgumentException If the coverage can not be written as an ASCII grid.
+     */
+    public AsciiGridResponse(final GridCoverage coverage) {
+        checkBands(coverage.getSampleDimensions());
+        this.coverage = coverage;
+        this.resource = null;
+        this.resample = false;
+        this.domain   = coverage.getGridGeometry();
+        this.layout   = AsciiGridWriter.Layout.of(domain);
+    }
+
+    /**
+     * @param resource A single band coverage resource.
+     * @param domain The part of the resource grid to write.
+     *
+     * @throws IllegalArgumentException If the coverage can not be written as an ASCII grid.
+     * @throws DataStoreException If the resource sample dimensions can not be read.
+     */
+    public AsciiGridResponse(final GridCoverageResource resource, final GridGeometry domain) throws DataStoreException {
+        this(resource, domain, false);
+    }
+
+    /**
+     * @param resource A single band coverage resource.
+     * @param domain The grid to write, in any CRS and resolution.
+     * @param resample {@code true} if the domain is not a subset of the resource grid.
+     *
+     * @throws IllegalArgumentException If the coverage can not be written as an ASCII grid.
+     * @throws DataStoreException If the resource sample dimensions can not be read.
+     */
+    public AsciiGridResponse(final GridCoverageResource resource, final GridGeometry domain, final boolean resample) throws DataStoreException {
+        checkBands(resource.getSampleDimensions());
+        this.coverage = null;
+        this.resource = resource;
+        this.resample = resample;
+        this.domain   = domain;
+        this.layout   = AsciiGridWriter.Layout.of(domain);
+    }
+
+    private static void checkBands(final List<SampleDimension> bands) {
+        if (bands.size() > 1) {
+            throw new IllegalArgumentException("The ASCII grid format only supports single band coverages, the coverage has " + bands.size() + " bands.");
+        }
+    }
+
+    GridGeometry getDomain() {
+        return domain;
+    }
+
+    /**
+     * Read the converted values of a part of the domain. The returned coverage may be larger or smaller than requested.
+     */
+    GridCoverage read(final GridExtent strip) throws DataStoreException {
+        if (coverage != null) {
+            return coverage.forConvertedValues(true);
+        }
+        final GridGeometry target = domain.derive().subgrid(strip).build();
+        GridCoverage result = resource.read(target);
+        if (resample) {
+            try {
+                result = new GridCoverageProcessor().resample(result, target);
+            } catch (TransformException ex) {
+                throw new DataStoreException(ex);
+            }
+        }
+        return result.forConvertedValues(true);
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.constellation.coverage.ws.rs;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.sis.coverage.grid.DisjointExtentException;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.storage.DataStoreException;
+import org.constellation.ws.MimeType;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.cs.AxisDirection;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.Matrix;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Write a coverage in the ESRI ASCII grid format.
+ *
+ * The coverage is read by strips of rows, and each strip is flushed to the response before the next one
+ * is read, so only a strip is held in memory. The columns and rows are resolved from the grid to CRS
+ * conversion and the CRS axis directions, so the cells are written from west to east and from north
+ * to south whatever the grid orientation and the CRS axis order.
+ * Only the single band coverages on a grid aligned with the CRS axes can be written.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class AsciiGridWriter implements HttpMessageConverter<AsciiGridResponse> {
+
+    /**
+     * Value written for the missing cells of a floating point coverage.
+     */
+    static final String NO_DATA = "-9999";
+
+    /**
+     * Maximum number of cells read at once.
+     */
+    private static final int STRIP_CELLS = 1 << 20;
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return AsciiGridResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return Arrays.asList(MediaType.parseMediaType(MimeType.ASCII_GRID));
+    }
+
+    @Override
+    public AsciiGridResponse read(Class<? extends AsciiGridResponse> type, HttpInputMessage him) throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Ascii grid message converter do not support reading.", him);
+    }
+
+    @Override
+    public void write(AsciiGridResponse entry, MediaType contentType, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        try {
+            writeInStream(entry, outputMessage.getBody(), STRIP_CELLS);
+        } catch (DataStoreException | RuntimeException ex) {
+            throw new HttpMessageNotWritableException("Error while writing coverage", ex);
+        }
+    }
+
+    public static void writeInStream(final GridCoverage coverage, final OutputStream out) throws IOException, DataStoreException {
+        writeInStream(new AsciiGridResponse(coverage), out, STRIP_CELLS);
+    }
+
+    /**
+     * @param stripCells Maximum number of cells read at once, a strip contains at least one row.
+     */
+    static void writeInStream(final AsciiGridResponse entry, final OutputStream out, final int stripCells) throws IOException, DataStoreException {
+        final Layout layout      = entry.layout;
+        final GridExtent extent  = entry.getDomain().getExtent();
+        final long ncols         = extent.getSize(layout.eastDim);
+        final long nrows         = extent.getSize(layout.northDim);
+        final int stripRows      = (int) Math.max(1, Math.min(nrows, stripCells / ncols));
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 65536);
+        boolean integer = false;
+        for (long r0 = 0; r0 < nrows; r0 += stripRows) {
+            final long r1 = Math.min(nrows, r0 + stripRows);
+            final GridExtent strip = layout.strip(extent, r0, r1);
+            final Strip values = Strip.read(entry, layout, strip);
+            if (r0 == 0) {
+                integer = values.isInteger();
+                writeHeader(writer, layout, ncols, nrows, integer);
+            }
+            for (long r = r0; r < r1; r++) {
+                final long gy = layout.northIndex(extent, r);
+                for (long c = 0; c < ncols; c++) {
+                    if (c > 0) {
+                        writer.write(' ');
+                    }
+                    final double v = values.sample(layout.eastIndex(extent, c), gy);
+                    if (Double.isNaN(v)) {
+                        writer.write(NO_DATA);
+                    } else if (integer) {
+                        writer.write(Long.toString((long) v));
+                    } else {
+                        writer.write(Double.toString(v));
+                    }
+                }
+                writer.write('\n');
+            }
+            // send the strip to the client before reading the next one
+            writer.flush();
+        }
+        writer.flush();
+    }
+
+    private static void writeHeader(final Writer writer, final Layout layout, final long ncols, final long nrows, final boolean integer) throws IOException {
+        writer.write("ncols " + ncols + '\n');
+        writer.write("nrows " + nrows + '\n');
+        writer.write("xllcorner " + layout.xllcorner + '\n');
+        writer.write("yllcorner " + layout.yllcorner + '\n');
+        if (Math.abs(layout.dx - layout.dy) <= Math.ulp(Math.max(layout.dx, layout.dy)) * 16) {
+            writer.write("cellsize " + layout.dx + '\n');
+        } else {
+            writer.write("dx " + layout.dx + '\n');
+            writer.write("dy " + layout.dy + '\n');
+        }
+        if (!integer) {
+            writer.write("NODATA_value " + NO_DATA + '\n');
+        }
+    }
+
+    /**
+     * The values of a strip of rows.
+     */
+    private static final class Strip {
+
+        private final Layout layout;
+
+        /**
+         * The part of the strip returned by the resource, or {@code null} if none.
+         */
+        private final GridExtent area;
+
+        /**
+         * The grid dimensions of the area rendered as the raster columns and rows.
+         */
+        private final int[] dims;
+
+        private final Raster raster;
+
+        private Strip(final Layout layout, final GridExtent area, final Raster raster) {
+            this.layout = layout;
+            this.area   = area;
+            this.dims   = area != null ? Layout.imageDimensions(area) : null;
+            this.raster = raster;
+        }
+
+        static Strip read(final AsciiGridResponse entry, final Layout layout, final GridExtent strip) throws DataStoreException {
+            final GridCoverage coverage = entry.read(strip);
+            // the resource may return a larger or a smaller area than requested.
+            final GridExtent area;
+            try {
+                area = coverage.getGridGeometry().getExtent().intersect(strip);
+            } catch (DisjointExtentException ex) {
+                return new Strip(layout, null, null);
+            }
+            final RenderedImage image = coverage.render(area);
+            return new Strip(layout, area, image.getData());
+        }
+
+        boolean isInteger() {
+            return raster != null && raster.getSampleModel().getDataType() <= DataBuffer.TYPE_INT;
+        }
+
+        /**
+         * Return the value of a cell, or NaN if the cell is not available.
+         *
+         * @param gx Index of the cell along the west-east grid dimension.
+         * @param gy Index of the cell along the south-north grid dimension.
+         */
+        double sample(final long gx, final long gy) {
+            if (area == null
+                    || gx < area.getLow(layout.eastDim)  || gx > area.getHigh(layout.eastDim)
+                    || gy < area.getLow(layout.northDim) || gy > area.getHigh(layout.northDim)) {
+                return Double.NaN;
+            }
+            return raster.getSampleDouble(raster.getMinX() + offset(dims[0], gx, gy),
+                                          raster.getMinY() + offset(dims[1], gx, gy), 0);
+        }
+
+        /**
+         * Return the offset of the cell in the area along the specified grid dimension.
+         * The other dimensions of the area have a single cell.
+         */
+        private int offset(final int dim, final long gx, final long gy) {
+            if (dim == layout.eastDim) {
+                return (int) (gx - area.getLow(dim));
+            } else if (dim == layout.northDim) {
+                return (int) (gy - area.getLow(dim));
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Position of the ASCII grid columns and rows in a grid.
+     */
+    static final class Layout {
+
+        /**
+         * The grid dimensions of the columns (west to east) and of the rows (north to south).
+         */
+        final int eastDim, northDim;
+
+        /**
+         * {@code true} if the grid indices increase toward east, and toward north.
+         */
+        final boolean eastward, northward;
+
+        final double xllcorner, yllcorner, dx, dy;
+
+        private Layout(final int eastDim, final int northDim, final boolean eastward, final boolean northward,
+                final double xllcorner, final double yllcorner, final double dx, final double dy) {
+            this.eastDim   = eastDim;
+            this.northDim  = northDim;
+            this.eastward  = eastward;
+            this.northward = northward;
+            this.xllcorner = xllcorner;
+            this.yllcorner = yllcorner;
+            this.dx        = dx;
+            this.dy        = dy;
+        }
+
+        /**
+         * Resolve the columns and rows of the specified grid.
+         *
+         * @throws IllegalArgumentException If the grid is not a two-dimensional slice aligned with the CRS axes.
+         */
+        static Layout of(final GridGeometry gg) {
+            final int[] dims = imageDimensions(gg.getExtent());
+            final Matrix m = MathTransforms.getMatrix(gg.getGridToCRS(PixelInCell.CELL_CORNER));
+            if (m == null) {
+                throw new IllegalArgumentException("The ASCII grid format requires a linear grid to CRS conversion.");
+            }
+            final int c0 = crsDimension(m, dims[0]);
+            final int c1 = crsDimension(m, dims[1]);
+            if (c0 == -1 || c1 == -1 || c0 == c1 || m.getElement(c0, dims[1]) != 0 || m.getElement(c1, dims[0]) != 0) {
+                throw new IllegalArgumentException("The ASCII grid format requires a grid aligned with the CRS axes.");
+            }
+            AxisDirection d0 = null, d1 = null;
+            if (gg.isDefined(GridGeometry.CRS)) {
+                final CoordinateSystem cs = gg.getCoordinateReferenceSystem().getCoordinateSystem();
+                d0 = cs.getAxis(c0).getDirection();
+                d1 = cs.getAxis(c1).getDirection();
+            }
+            final boolean swapped = isNorthSouth(d0) && isEastWest(d1);
+            final int eastDim  = swapped ? dims[1] : dims[0];
+            final int northDim = swapped ? dims[0] : dims[1];
+            final int crsEast  = swapped ? c1 : c0;
+            final int crsNorth = swapped ? c0 : c1;
+            final AxisDirection eastDir  = swapped ? d1 : d0;
+            final AxisDirection northDir = swapped ? d0 : d1;
+            final boolean eastward  = (m.getElement(crsEast,  eastDim)  > 0) != AxisDirection.WEST.equals(eastDir);
+            final boolean northward = (m.getElement(crsNorth, northDim) > 0) != AxisDirection.SOUTH.equals(northDir);
+
+            final Envelope env = gg.getEnvelope();
+            final double[] resolution = gg.getResolution(true);
+            return new Layout(eastDim, northDim, eastward, northward,
+                    env.getMinimum(crsEast), env.getMinimum(crsNorth), resolution[crsEast], resolution[crsNorth]);
+        }
+
+        /**
+         * Return the grid dimensions rendered as the image columns and rows:
+         * the two dimensions with more than one cell, completed by the first ones.
+         */
+        static int[] imageDimensions(final GridExtent extent) {
+            final int[] dims = new int[2];
+            int n = 0;
+            for (int i = 0; i < extent.getDimension(); i++) {
+                if (extent.getSize(i) > 1) {
+                    if (n == 2) {
+                        throw new IllegalArgumentException("The ASCII grid format only supports two-dimensional slices.");
+                    }
+                    dims[n++] = i;
+                }
+            }
+            for (int i = 0; n < 2 && i < extent.getDimension(); i++) {
+                if (extent.getSize(i) <= 1) {
+                    dims[n++] = i;
+                }
+            }
+            Arrays.sort(dims);
+            return dims;
+        }
+
+        /**
+         * Return the single CRS dimension depending on the specified grid dimension, or -1.
+         */
+        private static int crsDimension(final Matrix m, final int gridDim) {
+            int result = -1;
+            for (int c = 0; c < m.getNumRow() - 1; c++) {
+                if (m.getElement(c, gridDim) != 0) {
+                    if (result != -1) return -1;
+                    result = c;
+                }
+            }
+            return result;
+        }
+
+        private static boolean isNorthSouth(final AxisDirection dir) {
+            return AxisDirection.NORTH.equals(dir) || AxisDirection.SOUTH.equals(dir);
+        }
+
+        private static boolean isEastWest(final AxisDirection dir) {
+            return AxisDirection.EAST.equals(dir) || AxisDirection.WEST.equals(dir);
+        }
+
+        long eastIndex(final GridExtent extent, final long column) {
+            return eastward ? extent.getLow(eastDim) + column : extent.getHigh(eastDim) - column;
+        }
+
+        long northIndex(final GridExtent extent, final long row) {
+            return northward ? extent.getHigh(northDim) - row : extent.getLow(northDim) + row;
+        }
+
+        /**
+         * Return the part of the extent containing the rows from {@code r0} inclusive to {@code r1} exclusive.
+         */
+        GridExtent strip(final GridExtent extent, final long r0, final long r1) {
+            final long[] low  = extent.getLow().getCoordinateValues();
+            final long[] high = extent.getHigh().getCoordinateValues();
+            final long a = northIndex(extent, r0);
+            final long b = northIndex(extent, r1 - 1);
+            low[northDim]  = Math.min(a, b);
+            high[northDim] = Math.max(a, b);
+            return new GridExtent(null, low, high, true);
+        }
+    }
+}
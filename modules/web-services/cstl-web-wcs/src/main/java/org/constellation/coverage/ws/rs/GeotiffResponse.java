@@ -20,6 +20,8 @@
 package org.constellation.coverage.ws.rs;
 
 import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.storage.GridCoverageResource;
 import org.geotoolkit.image.io.metadata.SpatialMetadata;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
@@ -29,8 +31,21 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
  */
 public class GeotiffResponse {
 
+    /**
+     * The coverage already read, or {@code null} if it is read from the {@link #resource} while writing the response.
+     */
     public GridCoverage coverage;
 
+    public GridCoverageResource resource;
+
+    /**
+     * The part of the resource to write. If {@link #resample} is {@code false},
+     * it is a subset of the resource grid, otherwise it can have any CRS and resolution.
+     */
+    public GridGeometry domain;
+
+    public boolean resample = false;
+
     public SpatialMetadata metadata;
 
     public String compression;
@@ -19,6 +19,7 @@
 
 package org.constellation.coverage.ws.rs;
 
+import java.awt.image.RenderedImage;
 import java.io.File;
 import java.io.FileInputStream;
 import org.geotoolkit.image.io.metadata.SpatialMetadata;
@@ -61,6 +62,18 @@ public class GridCoverageWriter implements HttpMessageConverter<GeotiffResponse>
 
     private static final Logger LOGGER = Logger.getLogger("org.constellation.coverage.ws.rs");
 
+    /**
+     * Number of pixels above which the output is written in tiles, even if the client did not ask for it.
+     * The writer then pulls the image one tile at a time instead of rendering it in a single raster.
+     * The coverages read from their resource while writing are always read by tiles of {@link #DEFAULT_TILE_SIZE}.
+     */
+    private static final long TILING_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Size of the tiles used when the tiling is not requested by the client, and of the tiles read from the resource.
+     */
+    private static final int DEFAULT_TILE_SIZE = 256;
+
     @Override
     public boolean canRead(Class<?> clazz, MediaType mediaType) {
         return false;
@@ -106,6 +119,9 @@ public class GridCoverageWriter implements HttpMessageConverter<GeotiffResponse>
 
     public static File writeInFile(final GeotiffResponse entry) throws Exception {
         GridCoverage coverage = entry.coverage;
+        if (coverage == null) {
+            coverage = ResourceTileImage.coverage(entry.resource, entry.domain, entry.resample, DEFAULT_TILE_SIZE);
+        }
         coverage = coverage.forConvertedValues(false);
 
         // Tiff writer does not support non-linear grid to crs conversion
@@ -145,7 +161,8 @@ public class GridCoverageWriter implements HttpMessageConverter<GeotiffResponse>
 
         final SpatialMetadata spatialMetadata = WCSUtils.adapt(entry.metadata, coverage);
 
-        final IIOImage iioimage    = new IIOImage(coverage.render(null), null, spatialMetadata);
+        final RenderedImage image  = coverage.render(null);
+        final IIOImage iioimage    = new IIOImage(image, null, spatialMetadata);
         final ImageWriter iowriter = ImageIO.getImageWritersByFormatName("geotiff").next();
 
         // TIFF writer do no support writing in output stream currently, we have to write in a file before
@@ -161,9 +178,16 @@ public class GridCoverageWriter implements HttpMessageConverter<GeotiffResponse>
             param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
             param.setCompressionType(entry.compression);
         }
+        /*
+         * The TIFF writer does not support tiles with the PackBits compression (the tiling requested by a client
+         * is rejected for the same reason by the WCS worker), so those images are always written in strips.
+         */
         if (entry.tiling) {
             param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
             param.setTiling(entry.tileWidth, entry.tileHeight, 0, 0);
+        } else if ((long) image.getWidth() * image.getHeight() > TILING_THRESHOLD && !"PackBits".equals(entry.compression)) {
+            param.setTilingMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setTiling(DEFAULT_TILE_SIZE, DEFAULT_TILE_SIZE, 0, 0);
         }
         iowriter.write(null, iioimage, param);
         iowriter.dispose();
@@ -0,0 +1,166 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.coverage.ws.rs;
+
+import java.awt.Rectangle;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import org.apache.sis.coverage.grid.DisjointExtentException;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverage2D;
+import org.apache.sis.coverage.grid.GridCoverageProcessor;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.image.ComputedImage;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.GridCoverageResource;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * An image reading its tiles from a coverage resource when they are requested.
+ *
+ * Used to encode a large coverage subset: the encoder pulls the image tile by tile,
+ * so only the tiles being written are held in memory, instead of the whole subset.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+final class ResourceTileImage extends ComputedImage {
+
+    private final GridCoverageResource resource;
+
+    /**
+     * The part of the resource grid covered by the image.
+     */
+    private final GridGeometry domain;
+
+    /**
+     * {@code true} if the tiles read from the resource are resampled on the domain.
+     */
+    private final boolean resample;
+
+    /**
+     * The grid dimensions of the image columns and rows.
+     */
+    private final int[] dims;
+
+    private final ColorModel colorModel;
+
+    private final int width, height;
+
+    private ResourceTileImage(final GridCoverageResource resource, final GridGeometry domain, final boolean resample,
+            final int[] dims, final SampleModel sampleModel, final ColorModel colorModel) {
+        super(sampleModel);
+        this.resource   = resource;
+        this.domain     = domain;
+        this.resample   = resample;
+        this.dims       = dims;
+        this.colorModel = colorModel;
+        final GridExtent extent = domain.getExtent();
+        this.width  = Math.toIntExact(extent.getSize(dims[0]));
+        this.height = Math.toIntExact(extent.getSize(dims[1]));
+    }
+
+    /**
+     * Return a coverage of a resource subset, whose values are read from the resource tile by tile when they are rendered.
+     * The values are in the packed representation of the resource.
+     *
+     * @param resource The coverage resource.
+     * @param domain The grid to read, with a two dimensional extent.
+     * @param resample {@code false} if the domain is a subset of the resource grid, {@code true} to resample the resource on it.
+     * @param tileSize The size of the tiles read at once.
+     */
+    static GridCoverage coverage(final GridCoverageResource resource, final GridGeometry domain, final boolean resample, final int tileSize) throws DataStoreException {
+        final GridExtent extent = domain.getExtent();
+        final int[] dims = extent.getSubspaceDimensions(2);
+        // read a single cell to get the sample and color models of the resource
+        final long[] low  = extent.getLow().getCoordinateValues();
+        final long[] high = low.clone();
+        final GridExtent cell = new GridExtent(null, low, high, true);
+        final RenderedImage sample = read(resource, domain.derive().subgrid(cell).build(), resample).render(null);
+        final int tileWidth  = (int) Math.min(tileSize, extent.getSize(dims[0]));
+        final int tileHeight = (int) Math.min(tileSize, extent.getSize(dims[1]));
+        final SampleModel sampleModel = sample.getSampleModel().createCompatibleSampleModel(tileWidth, tileHeight);
+        final ResourceTileImage image = new ResourceTileImage(resource, domain, resample, dims, sampleModel, sample.getColorModel());
+        return new GridCoverage2D(domain, resource.getSampleDimensions(), image);
+    }
+
+    @Override
+    public ColorModel getColorModel() {
+        return colorModel;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Read the part of the resource covered by a tile. The cells not returned by the resource are left to zero.
+     */
+    @Override
+    protected Raster computeTile(final int tileX, final int tileY, final WritableRaster previous) throws DataStoreException {
+        final WritableRaster tile = previous != null ? previous : createTile(tileX, tileY);
+        final Rectangle bounds = tile.getBounds().intersection(getBounds());
+        final GridExtent extent = domain.getExtent();
+        final long[] low  = extent.getLow().getCoordinateValues();
+        final long[] high = extent.getHigh().getCoordinateValues();
+        low[dims[0]]  += bounds.x;
+        low[dims[1]]  += bounds.y;
+        high[dims[0]]  = low[dims[0]] + bounds.width  - 1;
+        high[dims[1]]  = low[dims[1]] + bounds.height - 1;
+        final GridExtent tileExtent = new GridExtent(null, low, high, true);
+
+        final GridCoverage coverage = read(resource, domain.derive().subgrid(tileExtent).build(), resample);
+        // the resource may return a larger or a smaller area than requested.
+        final GridExtent area;
+        try {
+            area = coverage.getGridGeometry().getExtent().intersect(tileExtent);
+        } catch (DisjointExtentException ex) {
+            return tile;
+        }
+        final Raster data = coverage.render(area).getData();
+        tile.setRect(bounds.x + (int) (area.getLow(dims[0]) - low[dims[0]]) - data.getMinX(),
+                     bounds.y + (int) (area.getLow(dims[1]) - low[dims[1]]) - data.getMinY(), data);
+        return tile;
+    }
+
+    /**
+     * Read the packed values of a part of the resource. If {@code resample} is {@code true},
+     * the values are resampled on the target grid, otherwise the returned coverage may be larger or smaller than requested.
+     */
+    private static GridCoverage read(final GridCoverageResource resource, final GridGeometry target, final boolean resample) throws DataStoreException {
+        GridCoverage coverage = resource.read(target).forConvertedValues(false);
+        if (resample) {
+            try {
+                coverage = new GridCoverageProcessor().resample(coverage, target);
+            } catch (TransformException ex) {
+                throw new DataStoreException(ex);
+            }
+        }
+        return coverage;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.constellation.coverage.ws.rs;
+
+import java.awt.Dimension;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridOrientation;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.util.iso.Names;
+import org.geotoolkit.storage.memory.InMemoryGridCoverageResource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class AsciiGridWriterTest {
+
+    private static GridCoverage coverage(final DataBuffer values, final double maxY) {
+        final GridCoverageBuilder builder = new GridCoverageBuilder();
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, 0, 4);
+        env.setRange(1, 10, maxY);
+        builder.setDomain(env);
+        builder.setValues(values, new Dimension(4, 2));
+        builder.flipGridAxis(1);
+        return builder.build();
+    }
+
+    private static String write(final GridCoverage coverage) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsciiGridWriter.writeInStream(coverage, out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void writeFloatTest() throws Exception {
+        final DataBuffer values = new DataBufferFloat(new float[] {1.5f, Float.NaN, 3, 4, 5, 6, 7, 8}, 8);
+        final String expected = "ncols 4\n"
+                              + "nrows 2\n"
+                              + "xllcorner 0.0\n"
+                              + "yllcorner 10.0\n"
+                              + "cellsize 1.0\n"
+                              + "NODATA_value -9999\n"
+                              + "1.5 -9999 3.0 4.0\n"
+                              + "5.0 6.0 7.0 8.0\n";
+        assertEquals(expected, write(coverage(values, 12)));
+    }
+
+    @Test
+    public void writeIntegerTest() throws Exception {
+        final DataBuffer values = new DataBufferInt(new int[] {1, 2, 3, 4, 5, 6, 7, 8}, 8);
+        final String expected = "ncols 4\n"
+                              + "nrows 2\n"
+                              + "xllcorner 0.0\n"
+                              + "yllcorner 10.0\n"
+                              + "dx 1.0\n"
+                              + "dy 2.0\n"
+                              + "1 2 3 4\n"
+                              + "5 6 7 8\n";
+        assertEquals(expected, write(coverage(values, 14)));
+    }
+
+    /**
+     * Write the coverage one row at a time.
+     */
+    @Test
+    public void writeStripTest() throws Exception {
+        final DataBuffer values = new DataBufferFloat(new float[] {1.5f, Float.NaN, 3, 4, 5, 6, 7, 8}, 8);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsciiGridWriter.writeInStream(new AsciiGridResponse(coverage(values, 12)), out, 4);
+        final String expected = "ncols 4\n"
+                              + "nrows 2\n"
+                              + "xllcorner 0.0\n"
+                              + "yllcorner 10.0\n"
+                              + "cellsize 1.0\n"
+                              + "NODATA_value -9999\n"
+                              + "1.5 -9999 3.0 4.0\n"
+                              + "5.0 6.0 7.0 8.0\n";
+        assertEquals(expected, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Read the resource by strips and resample them on a requested grid.
+     */
+    @Test
+    public void writeResampledTest() throws Exception {
+        final DataBuffer values = new DataBufferFloat(new float[] {1.5f, Float.NaN, 3, 4, 5, 6, 7, 8}, 8);
+        final InMemoryGridCoverageResource resource = new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "ascii"), coverage(values, 12));
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, 0, 2);
+        env.setRange(1, 10, 12);
+        final GridGeometry domain = new GridGeometry(new GridExtent(2, 2), env, GridOrientation.REFLECTION_Y);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsciiGridWriter.writeInStream(new AsciiGridResponse(resource, domain, true), out, 2);
+        final String expected = "ncols 2\n"
+                              + "nrows 2\n"
+                              + "xllcorner 0.0\n"
+                              + "yllcorner 10.0\n"
+                              + "cellsize 1.0\n"
+                              + "NODATA_value -9999\n"
+                              + "1.5 -9999\n"
+                              + "5.0 6.0\n";
+        assertEquals(expected, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The latitude is the first CRS axis, the columns must still follow the longitude.
+     */
+    @Test
+    public void writeLatitudeFirstTest() throws Exception {
+        final GridCoverageBuilder builder = new GridCoverageBuilder();
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.WGS84.geographic());
+        env.setRange(0, 10, 12);
+        env.setRange(1, 0, 4);
+        builder.setDomain(env);
+        builder.setValues(new DataBufferInt(new int[] {1, 2, 3, 4, 5, 6, 7, 8}, 8), new Dimension(2, 4));
+        final String expected = "ncols 4\n"
+                              + "nrows 2\n"
+                              + "xllcorner 0.0\n"
+                              + "yllcorner 10.0\n"
+                              + "cellsize 1.0\n"
+                              + "2 4 6 8\n"
+                              + "1 3 5 7\n";
+        assertEquals(expected, write(builder.build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeMultiBandTest() throws Exception {
+        final DataBuffer values = new DataBufferInt(new int[][] {{1, 2, 3, 4, 5, 6, 7, 8}, {1, 2, 3, 4, 5, 6, 7, 8}}, 8);
+        write(coverage(values, 12));
+    }
+}
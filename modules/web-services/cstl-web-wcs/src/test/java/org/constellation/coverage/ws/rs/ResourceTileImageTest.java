@@ -0,0 +1,91 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2026 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.coverage.ws.rs;
+
+import java.awt.Dimension;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.util.iso.Names;
+import org.geotoolkit.storage.memory.InMemoryGridCoverageResource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class ResourceTileImageTest {
+
+    private static InMemoryGridCoverageResource resource() {
+        final int[] values = new int[5 * 3];
+        for (int i = 0; i < values.length; i++) values[i] = i;
+        final GridCoverageBuilder builder = new GridCoverageBuilder();
+        final GeneralEnvelope env = new GeneralEnvelope(CommonCRS.defaultGeographic());
+        env.setRange(0, 0, 5);
+        env.setRange(1, 10, 13);
+        builder.setDomain(env);
+        builder.setValues(new DataBufferInt(values, values.length), new Dimension(5, 3));
+        builder.flipGridAxis(1);
+        return new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "tiles"), builder.build());
+    }
+
+    /**
+     * The image is read in tiles, the last ones being truncated.
+     */
+    @Test
+    public void readTilesTest() throws Exception {
+        final InMemoryGridCoverageResource resource = resource();
+        final GridCoverage coverage = ResourceTileImage.coverage(resource, resource.getGridGeometry(), false, 2);
+        final RenderedImage image = coverage.render(null);
+        assertEquals(5, image.getWidth());
+        assertEquals(3, image.getHeight());
+        assertEquals(2, image.getTileWidth());
+        assertEquals(3, image.getNumXTiles());
+        assertEquals(2, image.getNumYTiles());
+
+        final Raster tile = image.getTile(2, 1);
+        assertArrayEquals(new int[] {14}, tile.getPixels(4, 2, 1, 1, (int[]) null));
+        final Raster data = image.getData();
+        for (int i = 0; i < 15; i++) {
+            assertEquals(i, data.getSample(i % 5, i / 5, 0));
+        }
+    }
+
+    /**
+     * Read a subset of the resource grid.
+     */
+    @Test
+    public void readSubsetTest() throws Exception {
+        final InMemoryGridCoverageResource resource = resource();
+        final GridGeometry domain = resource.getGridGeometry().derive().subgrid(new GridExtent(null, new long[] {1, 1}, new long[] {3, 2}, true)).build();
+        final Raster data = ResourceTileImage.coverage(resource, domain, false, 2).render(null).getData();
+        assertEquals(3, data.getWidth());
+        assertEquals(2, data.getHeight());
+        assertArrayEquals(new int[] {6, 7, 8, 11, 12, 13}, data.getPixels(data.getMinX(), data.getMinY(), 3, 2, (int[]) null));
+    }
+}
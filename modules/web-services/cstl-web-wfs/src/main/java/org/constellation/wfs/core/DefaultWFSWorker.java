@@ -37,7 +37,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.logging.Level;
@@ -46,6 +49,7 @@ import java.util.stream.Stream;
 import jakarta.xml.bind.JAXBElement;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
+import org.apache.sis.feature.Features;
 import org.apache.sis.internal.feature.AttributeConvention;
 import org.apache.sis.internal.feature.jts.JTS;
 import org.apache.sis.storage.aggregate.ConcatenatedFeatureSet;
@@ -83,6 +87,10 @@ import static org.constellation.wfs.core.AtomLinkBuilder.buildDescribedByLink;
 import org.constellation.wfs.core.WFSConstants.GetXSD;
 import static org.constellation.wfs.core.WFSConstants.IDENTIFIER_FILTER;
 import static org.constellation.wfs.core.WFSConstants.IDENTIFIER_PARAM;
+import static org.constellation.wfs.core.WFSConstants.MATCHED_CACHED;
+import static org.constellation.wfs.core.WFSConstants.MATCHED_EXACT;
+import static org.constellation.wfs.core.WFSConstants.MATCHED_UNKNOWN;
+import static org.constellation.wfs.core.WFSConstants.NUMBER_MATCHED;
 import static org.constellation.wfs.core.WFSConstants.OPERATIONS_METADATA_V110;
 import static org.constellation.wfs.core.WFSConstants.OPERATIONS_METADATA_V200;
 import static org.constellation.wfs.core.WFSConstants.TYPE_PARAM;
@@ -207,7 +215,9 @@ import org.opengis.filter.LogicalOperatorName;
 import org.opengis.filter.Filter;
 import org.geotoolkit.filter.capability.FilterCapabilities;
 import org.opengis.filter.ResourceId;
+import org.opengis.filter.SortOrder;
 import org.opengis.filter.SortProperty;
+import org.opengis.filter.ValueReference;
 import org.opengis.filter.BinarySpatialOperator;
 import org.opengis.filter.FilterFactory;
 import org.opengis.geometry.Envelope;
@@ -257,9 +267,40 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
 
     private List<StoredQueryDescription> storedQueries = new ArrayList<>();
 
+    /**
+     * How the numberMatched of the GetFeature responses is computed (exact, cached or unknown).
+     */
+    private String numberMatchedMode = MATCHED_EXACT;
+
+    /**
+     * Time after which a cached feature count is computed again, to follow the changes made outside of the service.
+     */
+    private static final long MATCHED_COUNT_TTL = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Total feature count of the layers, used as numberMatched of the unfiltered queries in the cached mode.
+     * Cleared after each transaction and when the layers or their providers are modified.
+     */
+    private final Map<QName, MatchedCount> matchedCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each clearing of the cached counts, to avoid caching a count made before a concurrent modification.
+     */
+    private final AtomicLong matchedCountsVersion = new AtomicLong();
+
+    private record MatchedCount(long count, long time) {}
+
     public DefaultWFSWorker(final String id) {
         super(id, ServiceDef.Specification.WFS);
         if (getState().equals(WorkerState.ERROR)) return;
+        final String nm = getProperty(NUMBER_MATCHED);
+        if (MATCHED_CACHED.equalsIgnoreCase(nm)) {
+            numberMatchedMode = MATCHED_CACHED;
+        } else if (MATCHED_UNKNOWN.equalsIgnoreCase(nm)) {
+            numberMatchedMode = MATCHED_UNKNOWN;
+        } else if (nm != null && !MATCHED_EXACT.equalsIgnoreCase(nm)) {
+            LOGGER.log(Level.WARNING, "Unknown numberMatched mode: {0}, using exact count.", nm);
+        }
         // loading stored queries
         loadStoredQueries();
         started();
@@ -930,6 +971,8 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
 
         Integer nbMatched                          = 0;
         Integer nbReturned                         = 0;
+        boolean matchedUnknown                     = false;
+        final boolean hits                         = request.getResultType() == ResultTypeType.HITS;
         final String userLogin                     = getUserLogin();
         final String currentVersion                = request.getVersion().toString();
         final int maxFeatures                      = request.getCount();
@@ -1046,17 +1089,17 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
                  }
 
                 // look for matching count before pagination
-                try {
-                    Long colMatch = FeatureStoreUtilities.getCount(origin.subset(subquery));
+                final Long colMatch = countMatched(typeName, origin, subquery, cleanFilter, hits);
+                if (colMatch != null) {
                     nbMatched = nbMatched + colMatch.intValue();
-                } catch (DataStoreException ex) {
-                    throw new CstlServiceException(ex);
+                } else {
+                    matchedUnknown = true;
                 }
 
                 if (startIndex != 0) {
                     subquery.setOffset(startIndex);
                 }
-                if (request.getResultType() == ResultTypeType.HITS) {
+                if (hits) {
                     subquery.setLimit(0);
                 } else if (maxFeatures != 0 ) {
                     subquery.setLimit(maxFeatures);
@@ -1077,13 +1120,20 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
                 // we verify that all the properties contained in the filter are known by the feature type.
                 verifyFilterProperty(NameOverride.wrap(ft, typeName), cleanFilter, aliases);
 
-                Long colSize;
-                try {
-                    colSize = FeatureStoreUtilities.getCount(collection);
-                    nbReturned = nbReturned + colSize.intValue();
-                } catch (DataStoreException ex) {
-                    throw new CstlServiceException(ex);
+                // the page size is deduced from the exact match count, avoiding a new scan of the data
+                final long colSize;
+                if (hits) {
+                    colSize = 0;
+                } else if (colMatch != null && !MATCHED_CACHED.equals(numberMatchedMode)) {
+                    colSize = pageSize(colMatch, startIndex, maxFeatures);
+                } else {
+                    try {
+                        colSize = FeatureStoreUtilities.getCount(collection);
+                    } catch (DataStoreException ex) {
+                        throw new CstlServiceException(ex);
+                    }
                 }
+                nbReturned = nbReturned + (int) colSize;
 
                 if (colSize > 0 || singleCollectionRequested) {
                     if (queryCRS == null) {
@@ -1150,7 +1200,10 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
         if (collections.isEmpty()) {
             collections.add(FeatureStoreUtilities.collection("collection-1", null));
         }
-        if (request.getResultType() == ResultTypeType.HITS && "1.1.0".equals(currentVersion)) {
+        if (matchedUnknown) {
+            nbMatched = null;
+        }
+        if (hits && "1.1.0".equals(currentVersion)) {
             nbReturned =  nbMatched;
             nbMatched = null;
         }
@@ -1160,6 +1213,61 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
         return new FeatureSetWrapper(collections, schemaLocations, gmlVersion, currentVersion, nbMatched, nbReturned, singleFeature);
     }
 
+    /**
+     * Return the number of features matching the query before pagination, according to the numberMatched mode of the service.
+     * A HITS request always return the exact count.
+     *
+     * @return The number of matching features, or {@code null} if it is unknown.
+     */
+    private Long countMatched(final QName typeName, final FeatureSet origin, final FeatureQuery query, final Filter filter, final boolean hits) throws CstlServiceException {
+        try {
+            if (hits || MATCHED_EXACT.equals(numberMatchedMode)) {
+                return FeatureStoreUtilities.getCount(origin.subset(query));
+            } else if (MATCHED_CACHED.equals(numberMatchedMode) && Filter.include().equals(filter)) {
+                MatchedCount cached = matchedCounts.get(typeName);
+                if (cached == null || System.currentTimeMillis() - cached.time() > MATCHED_COUNT_TTL) {
+                    final long readVersion = matchedCountsVersion.get();
+                    cached = new MatchedCount(FeatureStoreUtilities.getCount(origin), System.currentTimeMillis());
+                    matchedCounts.put(typeName, cached);
+                    if (readVersion != matchedCountsVersion.get()) {
+                        matchedCounts.remove(typeName, cached);
+                    }
+                }
+                return cached.count();
+            }
+            return null;
+        } catch (DataStoreException ex) {
+            throw new CstlServiceException(ex);
+        }
+    }
+
+    private void clearMatchedCounts() {
+        matchedCountsVersion.incrementAndGet();
+        matchedCounts.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Also clear the cached feature counts, as the layers or their data may have changed.
+     */
+    @Override
+    protected void clearLayerCache() {
+        super.clearLayerCache();
+        clearMatchedCounts();
+    }
+
+    /**
+     * Return the number of features in the requested page, for the specified number of matching features.
+     */
+    private static long pageSize(final long matched, final int startIndex, final int maxFeatures) {
+        long size = Math.max(matched - startIndex, 0);
+        if (maxFeatures > 0) {
+            size = Math.min(size, maxFeatures);
+        }
+        return size;
+    }
+
     private boolean isAllFeatureTypes(List<QName> typeNames) {
         if (typeNames.isEmpty()) {
             return true;
@@ -1814,6 +1922,9 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
 
         }
 
+        // the layers content has changed
+        clearMatchedCounts();
+
         final TransactionResponse response = buildTransactionResponse(currentVersion,
                                                                       totalInserted,
                                                                       totalUpdated,
@@ -2384,11 +2495,110 @@ public class DefaultWFSWorker extends LayerWorker implements WFSWorker {
             reduced.setOffset(offset);
             fs = fs.subset(reduced);
 
-            Integer nbReturned = includedMatched ? FeatureStoreUtilities.getCount(fs).intValue() : null;
+            // the page size is deduced from the match count, avoiding a new scan of the data
+            Integer nbReturned = includedMatched ? (int) pageSize(nbMatched, offset, limit) : null;
 
             return new FeatureSetWrapper(fs, new ArrayList<>(), new HashMap<>(), nbMatched, nbReturned);
         } catch (DataStoreException ex) {
             throw new CstlServiceException(ex);
         }
     }
+
+    @Override
+    public boolean isCursorPagingSupported(String collectionId) throws CstlServiceException {
+        try {
+            final LayerCache layer = getLayerCache(getUserLogin(), Util.parseQName(collectionId));
+            final FeatureData data = (FeatureData) layer.getData();
+            return getKeysetAttribute(data.getOrigin().getType()) != null;
+        } catch (DataStoreException ex) {
+            throw new CstlServiceException(ex);
+        }
+    }
+
+    @Override
+    public FeatureSetWrapper getCollectionItemsAfter(String collectionId, Filter filter, int limit, String cursor) throws CstlServiceException {
+        try {
+            final String userLogin = getUserLogin();
+            final LayerCache layer = getLayerCache(userLogin, Util.parseQName(collectionId));
+            final FeatureData data = (FeatureData) layer.getData();
+            final FeatureSet origin = data.getOrigin();
+            final FeatureType type  = origin.getType();
+            final AttributeType<?> key = getKeysetAttribute(type);
+            if (key == null) {
+                throw new CstlServiceException("The collection " + collectionId + " does not support cursor paging.", INVALID_PARAMETER_VALUE, "cursor");
+            }
+            final Class<?> idClass = key.getValueClass();
+            final FilterFactory ff = FilterUtilities.FF;
+            // the stored attribute is used instead of the identifier operation, for the store to execute the filter and the sort.
+            final ValueReference identifier = ff.property(key.getName().toString());
+
+            /*
+            * Apply filters and the cursor position
+            */
+            final List<Filter> filters = new ArrayList<>();
+            if (filter != null) {
+                filters.add(processFilter(type, filter, new HashMap<>()));
+            }
+            if (cursor != null && !cursor.isEmpty()) {
+                final Object after;
+                try {
+                    after = Number.class.isAssignableFrom(idClass) ? (Object) Long.valueOf(cursor) : cursor;
+                } catch (NumberFormatException ex) {
+                    throw new CstlServiceException("Invalid cursor value:" + cursor, INVALID_PARAMETER_VALUE, "cursor");
+                }
+                filters.add(ff.greater(identifier, ff.literal(after)));
+            }
+            final FeatureQuery query = new FeatureQuery();
+            if (filters.size() == 1) {
+                query.setSelection(filters.get(0));
+            } else if (filters.size() > 1) {
+                query.setSelection(ff.and(filters));
+            }
+            query.setSortBy(ff.sort(identifier, SortOrder.ASCENDING));
+            query.setLimit(limit);
+            FeatureSet fs = origin.subset(query);
+
+            /*
+            * always reproject to CRS:84 if not already
+            */
+            final CoordinateReferenceSystem crs = FeatureExt.getCRS(type);
+            if (!Utilities.equalsApproximately(crs, CommonCRS.defaultGeographic())) {
+                fs = fs.subset(org.geotoolkit.storage.feature.query.Query.reproject(fs.getType(), CommonCRS.defaultGeographic()));
+            }
+
+            // the page is read only once, its size is known without counting
+            final List<Feature> features;
+            try (Stream<Feature> stream = fs.features(false)) {
+                features = stream.collect(Collectors.toList());
+            }
+            final FeatureSet page = new InMemoryFeatureSet(fs.getType(), features);
+            return new FeatureSetWrapper(page, new ArrayList<>(), new HashMap<>(), null, features.size());
+        } catch (DataStoreException ex) {
+            throw new CstlServiceException(ex);
+        }
+    }
+
+    /**
+     * Return the stored attribute holding the feature identifier if it can be used to page the features by key,
+     * {@code null} otherwise.
+     * The identifier must be a link to a numeric or textual attribute (the primary key of a database table),
+     * so the store can execute the cursor filter and the sort. A computed identifier would make the store filter
+     * and sort all the features in memory for each page, those collections are paged by offset.
+     */
+    private static AttributeType<?> getKeysetAttribute(final FeatureType type) {
+        try {
+            final String target = Features.getLinkTarget(type.getProperty(AttributeConvention.IDENTIFIER)).orElse(null);
+            if (target != null) {
+                final AttributeType<?> attribute = Features.toAttribute(type.getProperty(target)).orElse(null);
+                final Class<?> idClass = attribute != null ? attribute.getValueClass() : null;
+                if (idClass != null && (String.class.equals(idClass) || Long.class.equals(idClass) || Integer.class.equals(idClass)
+                                     || Short.class.equals(idClass))) {
+                    return attribute;
+                }
+            }
+        } catch (PropertyNotFoundException ex) {
+            // no identifier
+        }
+        return null;
+    }
 }
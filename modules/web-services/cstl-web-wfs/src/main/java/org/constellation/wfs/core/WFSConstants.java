@@ -99,6 +99,17 @@ public final class WFSConstants {
 
     public static final String UNKNOW_TYPENAME= "The specified TypeNames does not exist:";
 
+    /**
+     * Service property selecting how the numberMatched of a GetFeature response is computed.
+     * Values: {@link #MATCHED_EXACT} (default), {@link #MATCHED_CACHED} or {@link #MATCHED_UNKNOWN}.
+     * The cached mode reuse the exact feature count of a layer for the unfiltered queries, until the layer is modified
+     * or the count expires.
+     */
+    public static final String NUMBER_MATCHED  = "numberMatched";
+    public static final String MATCHED_EXACT   = "exact";
+    public static final String MATCHED_CACHED  = "cached";
+    public static final String MATCHED_UNKNOWN = "unknown";
+
     /**
      * The Mime type for describe feature GML 3.1.1
      */
@@ -130,4 +130,23 @@ public interface WFSWorker extends Worker {
     List<Collection> getCollections(List<String> collectionIds) throws CstlServiceException;
 
     FeatureSetWrapper getCollectionItems(String collectionId, Filter filter, int limit, int offset, boolean includedMatched) throws CstlServiceException;
+
+    /**
+     * Return {@code true} if the items of the collection can be paged with a cursor,
+     * meaning its identifier is a stored numeric or textual attribute on which the store can filter and sort.
+     *
+     * @param collectionId Collection identifier.
+     */
+    boolean isCursorPagingSupported(String collectionId) throws CstlServiceException;
+
+    /**
+     * Return a page of the collection items, sorted by identifier, starting after the specified cursor.
+     * Only available for the collections {@linkplain #isCursorPagingSupported(String) supporting cursor paging}.
+     *
+     * @param collectionId Collection identifier.
+     * @param filter Filter to apply, can be {@code null}.
+     * @param limit Maximum number of items returned.
+     * @param cursor Identifier of the last item of the previous page, {@code null} or empty for the first page.
+     */
+    FeatureSetWrapper getCollectionItemsAfter(String collectionId, Filter filter, int limit, String cursor) throws CstlServiceException;
 }
@@ -19,15 +19,20 @@
 
 package org.constellation.wfs.ws.rs;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 import org.apache.sis.cql.CQL;
 import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.internal.feature.AttributeConvention;
 import org.apache.sis.internal.system.DefaultFactories;
 import org.apache.sis.referencing.CRS;
+import org.apache.sis.storage.DataStoreException;
 import org.constellation.api.ServiceDef;
 import org.constellation.api.rest.ErrorMessage;
 import org.constellation.api.rest.I18nCodes;
@@ -47,6 +52,7 @@ import org.geotoolkit.feature.xml.LandingPage;
 import org.geotoolkit.atom.xml.Link;
 import org.geotoolkit.feature.xml.Collections;
 import org.geotoolkit.storage.feature.FeatureStoreUtilities;
+import org.opengis.feature.Feature;
 import org.opengis.filter.Filter;
 import org.opengis.filter.FilterFactory;
 import org.springframework.http.HttpStatus;
@@ -244,6 +250,8 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
      * @param listParam    list of parameters that are accepted by the request :
      *                     limit, the limit of feature by page ;
      *                     offset, the offset of the page ;
+     *                     cursor, identifier of the last item of the previous page, pages the items by identifier instead of offset
+     *                             (empty for the first page). Ignored for the collections with a computed identifier ;
      *                     bbox, only features that have a geometry that intersects this parameter are selected
      *                     bbox_crs, the type of the bbox give in parameter
      *                     format, the response's format
@@ -258,7 +266,7 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
         if (worker != null) {
             try {
                 int limit = 10, offset = 0; //RequestParam
-                String bbox = null, cqlFilter =null, bbox_crs = null, format = MimeType.APP_GEOJSON; //RequestParam
+                String bbox = null, cqlFilter =null, bbox_crs = null, cursor = null, format = MimeType.APP_GEOJSON; //RequestParam
 
                 for (String param : listParam.keySet()) {
                     switch (param) {
@@ -278,6 +286,7 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
                             }
                             break;
                         }
+                        case "cursor":   cursor    = listParam.get(param); break;
                         case "bbox":     bbox      = listParam.get(param); break;
                         case "bbox_crs": bbox_crs  = listParam.get(param); break;
                         case "f":        format    = listParam.get(param); break;
@@ -312,7 +321,14 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
                     }
                 }
 
-                FeatureSetWrapper fsc =  worker.getCollectionItems(collectionId, filter, limit, offset, true);
+                // the collections with a computed identifier fall back to offset paging
+                final boolean keyset = cursor != null && worker.isCursorPagingSupported(collectionId);
+                final FeatureSetWrapper fsc;
+                if (keyset) {
+                    fsc = worker.getCollectionItemsAfter(collectionId, filter, limit, cursor);
+                } else {
+                    fsc = worker.getCollectionItems(collectionId, filter, limit, offset, true);
+                }
                 final boolean asJson  = format.contains(MimeType.APP_GEOJSON);
                 String url = getServiceURL() + "/feature/" + serviceId + "/collections/" + collectionId + "/items";
                 List<Link> links  = new ArrayList<>();
@@ -325,8 +341,16 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
                 } else {
                     media = MediaType.APPLICATION_XML;
                 }
-                if ((offset + fsc.getNbReturned()) < fsc.getNbMatched()) {
-                    Link linkNext = new Link(url + "?offset=" + (offset + limit) + "&limit=" + limit + (bbox != null ? "&bbox=" + bbox : "") + (bbox_crs != null ? "&bbox-crs=" + bbox_crs : "") + (cqlFilter != null ? "&filter=" + cqlFilter : "") + "&f=" + format, "next", format, "next page");
+                final String params = "&limit=" + limit + (bbox != null ? "&bbox=" + bbox : "") + (bbox_crs != null ? "&bbox-crs=" + bbox_crs : "") + (cqlFilter != null ? "&filter=" + cqlFilter : "") + "&f=" + format;
+                if (keyset) {
+                    // a full page may be followed by an other one, starting after its last item
+                    final Object lastId = limit > 0 && fsc.getNbReturned() == limit ? getLastIdentifier(fsc) : null;
+                    if (lastId != null) {
+                        Link linkNext = new Link(url + "?cursor=" + URLEncoder.encode(lastId.toString(), StandardCharsets.UTF_8) + params, "next", format, "next page");
+                        links.add(linkNext);
+                    }
+                } else if ((offset + fsc.getNbReturned()) < fsc.getNbMatched()) {
+                    Link linkNext = new Link(url + "?offset=" + (offset + limit) + params, "next", format, "next page");
                     links.add(linkNext);
                 }
 
@@ -348,6 +372,17 @@ public class FeatureAPI extends GridWebService<WFSWorker> {
         return new ResponseEntity(HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Return the identifier of the last feature of a page, or {@code null} if the page is empty.
+     */
+    private static Object getLastIdentifier(final FeatureSetWrapper page) throws DataStoreException {
+        try (Stream<Feature> features = page.getFeatureSet().get(0).features(false)) {
+            return features.reduce((first, second) -> second)
+                           .map(f -> f.getPropertyValue(AttributeConvention.IDENTIFIER))
+                           .orElse(null);
+        }
+    }
+
     /**
      * Get a feature from a collection by identifier of the collection and the feature
      *
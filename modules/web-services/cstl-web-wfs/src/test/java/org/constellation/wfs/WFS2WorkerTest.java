@@ -35,6 +35,9 @@ import jakarta.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
 import static org.constellation.api.CommonConstants.TRANSACTIONAL;
 import static org.constellation.api.CommonConstants.TRANSACTION_SECURIZED;
+import static org.constellation.wfs.core.WFSConstants.MATCHED_CACHED;
+import static org.constellation.wfs.core.WFSConstants.MATCHED_UNKNOWN;
+import static org.constellation.wfs.core.WFSConstants.NUMBER_MATCHED;
 import org.constellation.dto.service.config.wxs.LayerContext;
 import org.constellation.provider.DataProviders;
 import org.constellation.provider.FeatureData;
@@ -1757,6 +1760,62 @@ public class WFS2WorkerTest extends AbstractWFSWorkerTest {
 
     }
 
+    /**
+     * test the cached and unknown numberMatched modes.
+     */
+    @Test
+    @Order(order=24)
+    public void getFeatureNumberMatchedModesTest() throws Exception {
+        final QName typeName = new QName("http://www.opengis.net/gml/3.2", "NamedPlaces");
+
+        // reference exact count
+        List<QueryType> queries = new ArrayList<>();
+        queries.add(new QueryType(null, Arrays.asList(typeName), null));
+        GetFeatureType request = new GetFeatureType("WFS", "2.0.0", null, null, Integer.MAX_VALUE, queries, ResultTypeType.HITS, "text/xml; subtype=\"gml/3.2.1\"");
+        final Integer exact = worker.getFeature(request).getNbMatched();
+        assertTrue(exact > 1);
+
+        for (String mode : Arrays.asList(MATCHED_CACHED, MATCHED_UNKNOWN)) {
+            final LayerContext config = new LayerContext();
+            config.getCustomParameters().put(NUMBER_MATCHED, mode);
+            final Integer sid = serviceBusiness.create("wfs", "test-" + mode, config, null, null);
+            layerBusiness.add(NamedPlaceDataId, null, typeName.getNamespaceURI(), typeName.getLocalPart(), null, sid, null);
+            final DefaultWFSWorker modeWorker = new DefaultWFSWorker("test-" + mode);
+            modeWorker.setServiceUrl("http://geomatys.com/constellation/WS/");
+            try {
+                // a page of one feature
+                queries = new ArrayList<>();
+                queries.add(new QueryType(null, Arrays.asList(typeName), null));
+                request = new GetFeatureType("WFS", "2.0.0", null, null, 1, queries, ResultTypeType.RESULTS, "text/xml; subtype=\"gml/3.2.1\"");
+                FeatureSetWrapper result = modeWorker.getFeature(request);
+                assertEquals(Integer.valueOf(1), result.getNbReturned());
+                if (MATCHED_CACHED.equals(mode)) {
+                    assertEquals(exact, result.getNbMatched());
+                    // the cached count is reused
+                    assertEquals(exact, modeWorker.getFeature(request).getNbMatched());
+                } else {
+                    assertNull(result.getNbMatched());
+                }
+
+                // a filtered query has no cached count
+                queries = new ArrayList<>();
+                final PropertyIsEqualToType pis = new PropertyIsEqualToType(new LiteralType("Ashton"), "NAME", true);
+                queries.add(new QueryType(new FilterType(pis), Arrays.asList(typeName), null));
+                request = new GetFeatureType("WFS", "2.0.0", null, null, 1, queries, ResultTypeType.RESULTS, "text/xml; subtype=\"gml/3.2.1\"");
+                result = modeWorker.getFeature(request);
+                assertNull(result.getNbMatched());
+
+                // HITS request always use an exact count
+                queries = new ArrayList<>();
+                queries.add(new QueryType(null, Arrays.asList(typeName), null));
+                request = new GetFeatureType("WFS", "2.0.0", null, null, Integer.MAX_VALUE, queries, ResultTypeType.HITS, "text/xml; subtype=\"gml/3.2.1\"");
+                assertEquals(exact, modeWorker.getFeature(request).getNbMatched());
+            } finally {
+                modeWorker.destroy();
+            }
+        }
+    }
+
     public static void domCompare(final Object expected, String actual) throws Exception {
 
         String expectedStr;
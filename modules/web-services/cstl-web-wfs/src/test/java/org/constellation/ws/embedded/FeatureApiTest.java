@@ -351,6 +351,27 @@ public class FeatureApiTest extends AbstractWFSRequestTest {
         compareJSON(expectedResult, result);
     }
 
+    @Test
+    @Order(order = 13)
+    public void testGetCollectionItemsWithCursor() throws Exception {
+        init();
+        // the shapefile identifiers are computed, the cursor is ignored and the items are paged by offset
+        URL requestCollection = new URL("http://localhost:"+ getCurrentPort() + "/WS/feature/default/collections/" + COLLECTION_ID + "/items?limit=2&cursor=");
+        URLConnection con = requestCollection.openConnection();
+        Assert.assertEquals(200, ((HttpURLConnection) con).getResponseCode());
+        String result = getStringResponse(requestCollection);
+        Assert.assertTrue(result.contains("BasicPolygons.1"));
+        Assert.assertTrue(result.contains("BasicPolygons.2"));
+        Assert.assertFalse(result.contains("BasicPolygons.3"));
+        Assert.assertFalse(result.contains("cursor="));
+        Assert.assertTrue(result.contains("offset=2"));
+
+        requestCollection = new URL("http://localhost:"+ getCurrentPort() + "/WS/feature/default/collections/" + COLLECTION_ID + "/items?limit=2&cursor=BasicPolygons.2");
+        result = getStringResponse(requestCollection);
+        Assert.assertTrue(result.contains("BasicPolygons.1"));
+        Assert.assertFalse(result.contains("cursor="));
+    }
+
     @Test
     @Order(order = 16)
     public void testGetCollectionFeature() throws Exception {
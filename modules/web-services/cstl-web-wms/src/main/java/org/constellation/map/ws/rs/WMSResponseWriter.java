@@ -29,6 +29,7 @@ import org.geotoolkit.wms.xml.v130.WMSCapabilities;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
@@ -71,40 +72,7 @@ public class WMSResponseWriter implements HttpMessageConverter<WMSResponse> {
     @Override
     public void write(WMSResponse t, MediaType contentType, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
         try {
-            //workaround because 1.1.1 is defined with a DTD rather than an XSD
-            final MarshallerPool pool;
-            final Marshaller m;
-            if (t instanceof WMT_MS_Capabilities) {
-                final String enc = "UTF8";
-                final CapabilitiesFilterWriter swCaps = new CapabilitiesFilterWriter(outputMessage.getBody(), enc);
-                final String header;
-                if (WMSService.writeDTD) {
-                    header = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" +
-                             "<!DOCTYPE WMT_MS_Capabilities SYSTEM \"http://schemas.opengis.net/wms/1.1.1/WMS_MS_Capabilities.dtd\">\n";
-                } else {
-                    header =  "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
-                }
-                try {
-                    swCaps.write(header);
-                } catch (IOException ex) {
-                    throw new JAXBException(ex);
-                }
-                pool = WMSMarshallerPool.getInstance();
-                m = pool.acquireMarshaller();
-                m.setProperty(Marshaller.JAXB_FRAGMENT, true);
-                m.marshal(t, swCaps);
-
-            } else if (t instanceof WMSCapabilities){
-                pool = WMSMarshallerPool.getInstance130();
-                m = pool.acquireMarshaller();
-                m.marshal(t, outputMessage.getBody());
-
-            } else {
-                pool = WMSMarshallerPool.getInstance();
-                m = pool.acquireMarshaller();
-                m.marshal(t, outputMessage.getBody());
-            }
-            pool.recycle(m);
+            marshal(t, outputMessage.getBody());
         } catch (JAXBException ex) {
             if (ex.getCause() instanceof IOException) {
                 LOGGER.log(Level.WARNING, "JAXB exception while writing the WMS response:{0}", ex.getCause().getMessage());
@@ -113,4 +81,50 @@ public class WMSResponseWriter implements HttpMessageConverter<WMSResponse> {
             }
         }
     }
+
+    /**
+     * Marshall a WMS response into the specified stream.
+     *
+     * @param t A WMS response.
+     * @param out The destination stream.
+     * @throws JAXBException If the marshalling fails.
+     * @throws IOException If the stream can not be written.
+     */
+    public static void marshal(WMSResponse t, OutputStream out) throws JAXBException, IOException {
+        //workaround because 1.1.1 is defined with a DTD rather than an XSD
+        final MarshallerPool pool;
+        final Marshaller m;
+        if (t instanceof WMT_MS_Capabilities) {
+            final String enc = "UTF8";
+            final CapabilitiesFilterWriter swCaps = new CapabilitiesFilterWriter(out, enc);
+            final String header;
+            if (WMSService.writeDTD) {
+                header = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" +
+                         "<!DOCTYPE WMT_MS_Capabilities SYSTEM \"http://schemas.opengis.net/wms/1.1.1/WMS_MS_Capabilities.dtd\">\n";
+            } else {
+                header =  "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+            }
+            try {
+                swCaps.write(header);
+            } catch (IOException ex) {
+                throw new JAXBException(ex);
+            }
+            pool = WMSMarshallerPool.getInstance();
+            m = pool.acquireMarshaller();
+            m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            m.marshal(t, swCaps);
+            swCaps.flush();
+
+        } else if (t instanceof WMSCapabilities){
+            pool = WMSMarshallerPool.getInstance130();
+            m = pool.acquireMarshaller();
+            m.marshal(t, out);
+
+        } else {
+            pool = WMSMarshallerPool.getInstance();
+            m = pool.acquireMarshaller();
+            m.marshal(t, out);
+        }
+        pool.recycle(m);
+    }
 }
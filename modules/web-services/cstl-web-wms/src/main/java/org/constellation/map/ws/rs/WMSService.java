@@ -56,6 +56,7 @@ import org.opengis.geometry.Envelope;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.util.FactoryException;
 import org.opengis.util.GenericName;
+import jakarta.xml.bind.JAXBException;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -174,8 +175,19 @@ public class WMSService extends GridWebService<WMSWorker> {
                 return new ResponseObject(map, requestMap.getFormat());
             }
             if (request instanceof GetCapabilities requestCapab) {
-                final AbstractWMSCapabilities capabilities = worker.getCapabilities(requestCapab);
-                return new ResponseObject(capabilities, requestCapab.getFormat());
+                // the update sequence is verified by the worker
+                if (requestCapab.getUpdateSequence() != null) {
+                    final AbstractWMSCapabilities capabilities = worker.getCapabilities(requestCapab);
+                    return new ResponseObject(capabilities, requestCapab.getFormat());
+                }
+                final String requestKey = requestCapab.getVersion() + "-" + requestCapab.getLanguage() + "-" + requestCapab.getFormat();
+                return getCapabilitiesResponse(worker, requestKey, requestCapab.getFormat(), out -> {
+                    try {
+                        WMSResponseWriter.marshal(worker.getCapabilities(requestCapab), out);
+                    } catch (JAXBException ex) {
+                        throw new CstlServiceException("Error while marshalling the capabilities document", ex);
+                    }
+                });
             }
             if (request instanceof GetLegendGraphic requestLegend) {
                 final PortrayalResponse legend = worker.getLegendGraphic(requestLegend);
@@ -22,6 +22,7 @@ import java.util.List;
 import org.constellation.api.rest.converter.PortrayalMessageConverter;
 import org.constellation.api.rest.converter.ProfileMessageConverter;
 import org.constellation.map.ws.rs.WMSResponseWriter;
+import org.constellation.ws.rs.provider.ByteArrayWriter;
 import org.constellation.ws.rs.provider.ExceptionReportWriter;
 import org.constellation.ws.rs.provider.RenderedImageWriter;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +50,7 @@ public class WMSControllerConfig  extends WebMvcConfigurationSupport {
         converters.add(new ProfileMessageConverter());
         converters.add(new RenderedImageWriter());
         converters.add(new ExceptionReportWriter());
+        converters.add(new ByteArrayWriter());
         converters.add(new StringHttpMessageConverter());
     }
 }
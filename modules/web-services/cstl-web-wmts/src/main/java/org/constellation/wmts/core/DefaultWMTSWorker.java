@@ -21,6 +21,10 @@ package org.constellation.wmts.core;
 import java.awt.Color;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.AbstractMap;
@@ -35,10 +39,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import javax.xml.namespace.QName;
 import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridExtent;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.coverage.grid.GridOrientation;
 import org.apache.sis.geometry.Envelopes;
 import org.apache.sis.geometry.GeneralEnvelope;
 import org.apache.sis.referencing.CRS;
@@ -47,11 +55,15 @@ import org.apache.sis.referencing.IdentifiedObjects;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.Resource;
 import org.apache.sis.util.Utilities;
+import org.apache.sis.util.collection.BackingStoreException;
 import org.constellation.api.ServiceDef;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
 import org.constellation.dto.StyleReference;
 import org.constellation.dto.contact.Details;
 import org.constellation.exception.ConstellationStoreException;
 import org.constellation.map.featureinfo.FeatureInfoFormat;
+import org.constellation.portrayal.CstlPortrayalService;
 import org.constellation.provider.Data;
 import org.constellation.util.Util;
 import org.constellation.ws.CstlServiceException;
@@ -81,7 +93,6 @@ import org.geotoolkit.ows.xml.v110.WGS84BoundingBoxType;
 import org.geotoolkit.referencing.ReferencingUtilities;
 import org.geotoolkit.storage.coverage.finder.StrictlyCoverageFinder;
 import org.geotoolkit.storage.multires.TiledResource;
-import org.geotoolkit.storage.multires.TileFormat;
 import org.geotoolkit.storage.multires.TileMatrices;
 import org.geotoolkit.temporal.util.TimeParser;
 import org.geotoolkit.wmts.WMTSUtilities;
@@ -104,6 +115,7 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.crs.SingleCRS;
 import org.opengis.referencing.crs.TemporalCRS;
 import org.opengis.referencing.crs.VerticalCRS;
+import org.opengis.referencing.datum.PixelInCell;
 import org.opengis.referencing.cs.CoordinateSystemAxis;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
@@ -160,11 +172,67 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
     private final HashMap<String, HashSet<String>> tmsIdBinding = new HashMap<>();
     private final ReentrantReadWriteLock tmsBindingLock = new ReentrantReadWriteLock();
 
+    /**
+     * Tile matrix sets / tile matrices lookup, by layer identifier.
+     * An index is discarded when its resource emits an event, and all of them with the capabilities cache.
+     */
+    private final Map<Integer, TileMatrixIndex> tileMatrixIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Encoded tiles, invalidated like the tile matrix indexes.
+     */
+    private final TileCache tileCache = createTileCache();
+
+    /**
+     * Depth of the tile matrix set in which the non-tiled layers are rendered.
+     */
+    private static final int RENDERED_MAX_LEVEL = 18;
+
+    /**
+     * Formats in which the non-tiled layers are rendered.
+     */
+    private static final List<String> RENDERED_FORMATS = Arrays.asList(MimeType.IMAGE_PNG, MimeType.IMAGE_JPEG);
+
+    /**
+     * Tile matrix set in which the non-tiled layers are rendered, shared by all the services.
+     */
+    private static org.apache.sis.storage.tiling.TileMatrixSet renderedTileMatrixSet;
+
+    private final boolean renderUntiled = Application.getBooleanProperty(AppProperty.EXA_WMTS_RENDER_UNTILED, true);
+
     public DefaultWMTSWorker(final String id) {
         super(id, ServiceDef.Specification.WMTS);
         started();
     }
 
+    private static TileCache createTileCache() {
+        final long size     = Application.getIntegerProperty(AppProperty.EXA_WMTS_TILE_CACHE_SIZE, 64) * 1024L * 1024L;
+        final long diskSize = Application.getIntegerProperty(AppProperty.EXA_WMTS_TILE_CACHE_DISK_SIZE, 0) * 1024L * 1024L;
+        Path directory = null;
+        if (size > 0 && diskSize > 0) {
+            try {
+                directory = Files.createTempDirectory("examind-wmts-tiles-");
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to create the tile cache directory, the tiles will only be cached in memory.", ex);
+            }
+        }
+        return new TileCache(size, directory, diskSize);
+    }
+
+    /**
+     * Return the pseudo-mercator tile matrix set in which the non-tiled layers are rendered.
+     */
+    private static synchronized org.apache.sis.storage.tiling.TileMatrixSet getRenderedTileMatrixSet() throws DataStoreException {
+        if (renderedTileMatrixSet == null) {
+            try {
+                renderedTileMatrixSet = TileMatrices.createMercatorTemplate(RENDERED_MAX_LEVEL);
+            } catch (FactoryException ex) {
+                throw new DataStoreException("Unable to create the tile matrix set of the rendered layers", ex);
+            }
+        }
+        return renderedTileMatrixSet;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -269,12 +337,22 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
                         continue;
                     }
                     final Object origin = data.getOrigin();
-                    if (!(origin instanceof TiledResource)) {
+                    final List<org.apache.sis.storage.tiling.TileMatrixSet> pyramids;
+                    final Set<String> pformats = new HashSet<>();
+                    final boolean rendered;
+                    if (origin instanceof TiledResource pmodel) {
+                        pyramids = new ArrayList<>(pmodel.getTileMatrixSets());
+                        pformats.add(pmodel.getTileFormat().getMimeType());
+                        rendered = false;
+                    } else if (origin != null && renderUntiled) {
+                        // the tiles of the non-tiled layers are rendered on demand.
+                        pyramids = List.of(getRenderedTileMatrixSet());
+                        pformats.addAll(RENDERED_FORMATS);
+                        rendered = true;
+                    } else {
                         LOGGER.log(Level.WARNING, "Layer {0} is not tiled. It will not be included in capabilities", name);
                         continue;
                     }
-                    final TiledResource pmodel = (TiledResource) origin;
-                    final List<org.apache.sis.storage.tiling.TileMatrixSet> pyramids = new ArrayList<>(pmodel.getTileMatrixSets());
                     if (pyramids.isEmpty()) {
                         throw new CstlServiceException("No valid extent for layer " + name);
                     }
@@ -345,7 +423,8 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
                             new ArrayList<>(dims.values()));
 
                     try {
-                        final Envelope crs84Env = Envelopes.transform(pyramidSetEnv, CommonCRS.defaultGeographic());
+                        final Envelope crs84Env = rendered ? data.getEnvelope(CommonCRS.defaultGeographic())
+                                                           : Envelopes.transform(pyramidSetEnv, CommonCRS.defaultGeographic());
                         outputLayer.getWGS84BoundingBox().add(new WGS84BoundingBoxType("urn:ogc:def:crs:OGC:2:84",
                                 crs84Env.getMinimum(xAxis),
                                 crs84Env.getMinimum(yAxis),
@@ -356,10 +435,6 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
                         LOGGER.log(Level.FINE, "Input envelope cannot be reprojected in CRS:84.");
                     }
 
-                    final TileFormat tileFormat = pmodel.getTileFormat();
-                    final Set<String> pformats = new HashSet<>();
-                    pformats.add(tileFormat.getMimeType());
-
                     outputLayer.setFormat(new ArrayList<>(pformats));
 
                     final List<URLTemplateType> resources = new ArrayList<>();
@@ -661,6 +736,83 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearCapabilitiesCache() {
+        super.clearCapabilitiesCache();
+        final Iterator<TileMatrixIndex> it = tileMatrixIndexes.values().iterator();
+        while (it.hasNext()) {
+            it.next().dispose();
+            it.remove();
+        }
+        if (tileCache.isEnabled()) {
+            LOGGER.log(Level.FINE, "WMTS {0} tile cache cleared: {1} tiles ({2} bytes) in memory, {3} tiles ({4} bytes) on disk, {5} hits, {6} misses",
+                    new Object[]{getId(), tileCache.getCount(), tileCache.getSize(), tileCache.getDiskCount(), tileCache.getDiskSize(), tileCache.getHitCount(), tileCache.getMissCount()});
+        }
+        tileCache.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        super.destroy();
+        tileCache.close();
+    }
+
+    /**
+     * Return the tile matrix lookup table of a tiled layer, building it on first call.
+     * The index and the cached tiles of the layer are discarded on the next event of its resource
+     * (for example when tiles or levels are added to the pyramid).
+     */
+    private TileMatrixIndex getTileMatrixIndex(final LayerCache layer, final Resource origin) throws DataStoreException {
+        try {
+            return tileMatrixIndexes.computeIfAbsent(layer.getId(), (Integer layerId) -> {
+                try {
+                    final TileMatrixIndex index;
+                    if (origin instanceof TiledResource tiled) {
+                        index = new TileMatrixIndex(tiled);
+                    } else {
+                        index = new TileMatrixIndex(origin, List.of(getRenderedTileMatrixSet()));
+                    }
+                    index.listen(() -> invalidateLayer(layerId, index));
+                    return index;
+                } catch (DataStoreException ex) {
+                    throw new BackingStoreException(ex);
+                }
+            });
+        } catch (BackingStoreException ex) {
+            throw ex.unwrapOrRethrow(DataStoreException.class);
+        }
+    }
+
+    /**
+     * Discard the tile matrix index and the cached tiles of a layer.
+     */
+    private void invalidateLayer(final Integer layerId, final TileMatrixIndex index) {
+        if (tileMatrixIndexes.remove(layerId, index)) {
+            index.dispose();
+        }
+        tileCache.invalidate(layerId);
+    }
+
+    /**
+     * Return the number of GetTile requests served from the tile cache.
+     */
+    public long getTileCacheHitCount() {
+        return tileCache.getHitCount();
+    }
+
+    /**
+     * Return the number of GetTile requests not found in the tile cache.
+     */
+    public long getTileCacheMissCount() {
+        return tileCache.getMissCount();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -704,7 +856,8 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
         }
 
         try {
-            final Data data = getLayerCache(userLogin, layerName).getData();
+            final LayerCache layer = getLayerCache(userLogin, layerName);
+            final Data data = layer.getData();
             if (data == null) {
                 throw new CstlServiceException("Operation request contains an invalid parameter value, "
                         + "No layer for name : " + layerName,
@@ -713,31 +866,43 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
 
             final Resource origin = data.getOrigin();
             if (origin == null) throw new CstlServiceException("Invalid layer: no resource associated", INVALID_PARAMETER_VALUE, "layerName");
-            else if (!(origin instanceof TiledResource)) throw new CstlServiceException("Invalid layer: not a tiled resource", INVALID_PARAMETER_VALUE, "layerName");
-            org.apache.sis.storage.tiling.TileMatrixSet pyramid = null;
-            for (org.apache.sis.storage.tiling.TileMatrixSet pr : ((TiledResource) origin).getTileMatrixSets()) {
-                if (validPyramidNames.contains(pr.getIdentifier().toString())) {
-                    pyramid = pr;
-                    break;
+            final boolean rendered = !(origin instanceof TiledResource);
+            if (rendered && !renderUntiled) throw new CstlServiceException("Invalid layer: not a tiled resource", INVALID_PARAMETER_VALUE, "layerName");
+
+            final String format;
+            if (rendered && request.getFormat() == null) {
+                format = MimeType.IMAGE_PNG;
+            } else if (rendered && !RENDERED_FORMATS.contains(request.getFormat())) {
+                throw new CstlServiceException("Unsupported format: " + request.getFormat() + " for layer: " + layerName, INVALID_FORMAT, "format");
+            } else {
+                format = request.getFormat();
+            }
+
+            final List<DimensionNameValue> dimensions = request.getDimensionNameValue();
+            final TileCache.Key cacheKey;
+            final long cacheVersion = tileCache.version();
+            if (tileCache.isEnabled() && format != null) {
+                cacheKey = new TileCache.Key(layer.getId(), request.getStyle(), matrixSetName, level, columnIndex, rowIndex, dimensionsKey(dimensions), format);
+                final EncodedTile cached = tileCache.get(cacheKey);
+                if (cached != null) {
+                    return cached;
                 }
+            } else {
+                cacheKey = null;
             }
+
+            final TileMatrixIndex index = getTileMatrixIndex(layer, origin);
+            final org.apache.sis.storage.tiling.TileMatrixSet pyramid = index.getTileMatrixSet(validPyramidNames);
             if (pyramid == null) {
                 throw new CstlServiceException("Operation request contains an invalid parameter value,"
                         + " undefined matrixSet: " + matrixSetName + " for layer: " + layerName,
                         INVALID_PARAMETER_VALUE, "tilematrixset");
             }
 
-            org.apache.sis.storage.tiling.TileMatrix mosaic = null;
-            for (org.apache.sis.storage.tiling.TileMatrix gm : pyramid.getTileMatrices().values()) {
-                if (gm.getIdentifier().toString().equals(level)) {
-                    mosaic = gm;
-                    break;
-                }
-            }
+            org.apache.sis.storage.tiling.TileMatrix mosaic = index.getTileMatrix(pyramid, level);
 
             // 4. If we found a base mosaic and user specified additional dimensions, we try to switch on the right slice.
-            final List<DimensionNameValue> dimensions = request.getDimensionNameValue();
-            if (mosaic != null && dimensions != null && !dimensions.isEmpty()) {
+            if (mosaic != null && !rendered && dimensions != null && !dimensions.isEmpty()) {
                 final GeneralEnvelope envelope = envelopeFromDimensions(mosaic.getTilingScheme().getEnvelope(), dimensions);
                 // We use a strict finder, because default one (as methods in coverage utilities) return arbitrary data
                 // if it don't find any fitting mosaic...
@@ -760,15 +925,26 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
                         TILE_OUT_OF_RANGE, "tilerow");
             }
 
-            if (mosaic.getTileStatus(columnIndex, rowIndex) == TileStatus.MISSING) {
+            if (rendered) {
+                final EncodedTile tile = renderTile(layer, request.getStyle(), mosaic, columnIndex, rowIndex, format);
+                if (cacheKey != null) {
+                    tileCache.put(cacheKey, tile, cacheVersion);
+                }
+                return tile;
+            } else if (mosaic.getTileStatus(columnIndex, rowIndex) == TileStatus.MISSING) {
                 return emptyTile(columnIndex, rowIndex);
             } else {
                 final Tile tile = mosaic.getTile(columnIndex, rowIndex).orElse(null);
                 if (tile == null) {
                     return emptyTile(columnIndex, rowIndex);
-                } else {
-                    return tile;
+                } else if (cacheKey != null && tile.getStatus() == TileStatus.EXISTS) {
+                    final EncodedTile encoded = EncodedTile.encode(tile, format);
+                    if (encoded != null) {
+                        tileCache.put(cacheKey, encoded, cacheVersion);
+                        return encoded;
+                    }
                 }
+                return tile;
             }
 
         } catch(CstlServiceException ex) {
@@ -778,6 +954,68 @@ public class DefaultWMTSWorker extends LayerWorker implements WMTSWorker {
         }
     }
 
+    /**
+     * Render a tile of a non-tiled layer through the portrayal service.
+     *
+     * @param layer The rendered layer.
+     * @param styleName The requested style, or {@code null} for the default one.
+     * @param mosaic The tile matrix of the requested tile.
+     * @param columnIndex The tile column.
+     * @param rowIndex The tile row.
+     * @param format The output format.
+     *
+     * @return The encoded tile.
+     */
+    private EncodedTile renderTile(final LayerCache layer, final String styleName, final org.apache.sis.storage.tiling.TileMatrix mosaic,
+            final int columnIndex, final int rowIndex, final String format) throws CstlServiceException {
+        final StyleReference styleRef = Util.findStyleReference(styleName, layer.getStyles());
+        final Style style = getStyle(styleRef);
+
+        final int[] tileSize = TileMatrices.getTileSize(mosaic);
+        final GridGeometry tilingScheme = mosaic.getTilingScheme();
+        final GridExtent tileCell = new GridExtent(null, new long[]{columnIndex, rowIndex}, new long[]{columnIndex, rowIndex}, true);
+        final Envelope tileEnv = new GridGeometry(tileCell, PixelInCell.CELL_CORNER,
+                tilingScheme.getGridToCRS(PixelInCell.CELL_CORNER), tilingScheme.getCoordinateReferenceSystem()).getEnvelope();
+
+        final SceneDef sdef = new SceneDef();
+        try {
+            sdef.setContext(mapBusiness.createContext(layer, style));
+        } catch (ConstellationStoreException ex) {
+            throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
+        }
+        final CanvasDef cdef = new CanvasDef(new java.awt.Dimension(tileSize[0], tileSize[1]), tileEnv);
+        final RenderedImage image;
+        try {
+            image = CstlPortrayalService.getInstance().portray(sdef, cdef);
+        } catch (PortrayalException ex) {
+            throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
+        }
+        final GridGeometry tileGrid = new GridGeometry(new GridExtent(tileSize[0], tileSize[1]), tileEnv, GridOrientation.REFLECTION_Y);
+        try {
+            final EncodedTile tile = EncodedTile.encode(new long[]{columnIndex, rowIndex}, image, tileGrid, format);
+            if (tile == null) {
+                throw new CstlServiceException("Unsupported format: " + format, INVALID_FORMAT, "format");
+            }
+            return tile;
+        } catch (IOException ex) {
+            throw new CstlServiceException(ex, NO_APPLICABLE_CODE);
+        }
+    }
+
+    /**
+     * Build the part of the tile cache key related to the extra dimensions of a request.
+     */
+    private static String dimensionsKey(final List<DimensionNameValue> dimensions) {
+        if (dimensions == null || dimensions.isEmpty()) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (DimensionNameValue dim : dimensions) {
+            sb.append(dim.getName()).append('=').append(dim.getValue()).append(';');
+        }
+        return sb.toString();
+    }
+
     /**
      * Create empty TileReference with black image as input.
      * @param mosaic
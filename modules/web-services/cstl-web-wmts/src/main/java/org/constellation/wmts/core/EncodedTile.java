@@ -0,0 +1,245 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.wmts.core;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageOutputStream;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.coverage.grid.GridGeometry;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.Resource;
+import org.apache.sis.storage.tiling.Tile;
+import org.apache.sis.storage.tiling.TileStatus;
+import org.apache.sis.util.iso.Names;
+import org.geotoolkit.storage.coverage.DefaultImageTile;
+import org.geotoolkit.storage.memory.InMemoryGridCoverageResource;
+
+/**
+ * A tile already encoded in the format requested by a GetTile request, as kept in the {@link TileCache}.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public final class EncodedTile implements Tile {
+
+    private final long[] indices;
+
+    private final byte[] bytes;
+
+    private final String mimeType;
+
+    /**
+     * Grid geometry of the tile pixels, or {@code null} if unknown.
+     */
+    private final GridGeometry gridGeometry;
+
+    /**
+     * The decoded tile, created on the first call to {@link #getResource()}.
+     */
+    private volatile GridCoverageResource resource;
+
+    EncodedTile(final long[] indices, final byte[] bytes, final String mimeType) {
+        this(indices, bytes, mimeType, null);
+    }
+
+    EncodedTile(final long[] indices, final byte[] bytes, final String mimeType, final GridGeometry gridGeometry) {
+        this.indices      = indices;
+        this.bytes        = bytes;
+        this.mimeType     = mimeType;
+        this.gridGeometry = gridGeometry;
+    }
+
+    /**
+     * Encode a tile in the specified format.
+     * The tiles stored in this format are copied as is, the others are read then written back.
+     *
+     * @param tile The tile to encode.
+     * @param mimeType The requested format.
+     *
+     * @return The encoded tile, or {@code null} if the tile can not be encoded in this format.
+     */
+    static EncodedTile encode(final Tile tile, final String mimeType) throws IOException, DataStoreException {
+        byte[] bytes = null;
+        if (tile instanceof DefaultImageTile it && isCompatible(mimeType, it.getImageReaderSpi())) {
+            final Object input = it.getInput();
+            if (input instanceof byte[] b) {
+                bytes = b;
+            } else if (input instanceof ByteBuffer buffer) {
+                bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+            } else if (input instanceof Path file) {
+                bytes = Files.readAllBytes(file);
+            } else if (input instanceof File file) {
+                bytes = Files.readAllBytes(file.toPath());
+            }
+        }
+        if (bytes == null) {
+            final RenderedImage image;
+            if (tile instanceof DefaultImageTile it) {
+                image = it.getImage();
+            } else if (tile.getResource() instanceof GridCoverageResource gcr) {
+                image = gcr.read(null).render(null);
+            } else {
+                return null;
+            }
+            bytes = write(image, mimeType);
+            if (bytes == null) {
+                return null;
+            }
+        }
+        return new EncodedTile(tile.getIndices(), bytes, mimeType);
+    }
+
+    /**
+     * Encode a rendered tile in the specified format.
+     *
+     * @param indices The tile indices.
+     * @param image The tile image.
+     * @param gridGeometry Grid geometry of the tile pixels, or {@code null} if unknown.
+     * @param mimeType The requested format.
+     *
+     * @return The encoded tile, or {@code null} if the tile can not be encoded in this format.
+     */
+    static EncodedTile encode(final long[] indices, final RenderedImage image, final GridGeometry gridGeometry, final String mimeType) throws IOException {
+        final byte[] bytes = write(image, mimeType);
+        return bytes != null ? new EncodedTile(indices, bytes, mimeType, gridGeometry) : null;
+    }
+
+    /**
+     * Write an image in the specified format, or return {@code null} if there is no writer for this format.
+     */
+    private static byte[] write(RenderedImage image, final String mimeType) throws IOException {
+        final Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(baseType(mimeType));
+        if (!writers.hasNext()) {
+            return null;
+        }
+        // the jpeg writer does not support the transparency.
+        if (image.getColorModel().hasAlpha() && baseType(mimeType).equalsIgnoreCase("image/jpeg")) {
+            final BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            final Graphics2D g = rgb.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+                g.drawRenderedImage(image, null);
+            } finally {
+                g.dispose();
+            }
+            image = rgb;
+        }
+        final ImageWriter writer = writers.next();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(image);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isCompatible(final String mimeType, final ImageReaderSpi spi) {
+        if (spi == null || spi.getMIMETypes() == null) return false;
+        final String base = baseType(mimeType);
+        for (String mime : spi.getMIMETypes()) {
+            if (base.equalsIgnoreCase(mime)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the parameters of a mime type (for example "image/png; mode=8bit").
+     */
+    private static String baseType(final String mimeType) {
+        final int i = mimeType.indexOf(';');
+        return (i != -1 ? mimeType.substring(0, i) : mimeType).trim();
+    }
+
+    /**
+     * Return the encoded tile. The returned array must not be modified.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    GridGeometry getGridGeometry() {
+        return gridGeometry;
+    }
+
+    /**
+     * Decode the tile image.
+     */
+    public RenderedImage getImage() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public long[] getIndices() {
+        return indices.clone();
+    }
+
+    @Override
+    public TileStatus getStatus() {
+        return TileStatus.EXISTS;
+    }
+
+    /**
+     * Return the tile as a coverage resource. The tile is decoded on the first call.
+     */
+    @Override
+    public Resource getResource() throws DataStoreException {
+        GridCoverageResource r = resource;
+        if (r == null) {
+            final RenderedImage image;
+            try {
+                image = getImage();
+            } catch (IOException ex) {
+                throw new DataStoreException("Unable to decode the tile", ex);
+            }
+            if (image == null) {
+                throw new DataStoreException("No reader for the tile format: " + mimeType);
+            }
+            final GridCoverageBuilder builder = new GridCoverageBuilder();
+            if (gridGeometry != null) {
+                builder.setDomain(gridGeometry);
+            }
+            builder.setValues(image);
+            r = new InMemoryGridCoverageResource(Names.createLocalName("examind", ":", "tile"), builder.build());
+            resource = r;
+        }
+        return r;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.wmts.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.sis.coverage.grid.GridGeometry;
+
+/**
+ * Bounded cache of the encoded tiles served by a WMTS service.
+ *
+ * The cache is bounded by the total size of the encoded tiles and evicts its least recently used entries.
+ * If a directory is specified, the tiles evicted from memory are moved to a second, larger, tier of files
+ * in this directory, itself bounded and evicting its least recently used files. A tile read from the disk
+ * tier is moved back in memory.
+ *
+ * The entries of a layer are discarded when its resource is modified, and all the entries when the
+ * service layers or providers are updated. A tile must be put with the {@linkplain #version() version}
+ * read before resolving it, so that a tile resolved during a concurrent invalidation is not cached.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+final class TileCache {
+
+    private static final Logger LOGGER = Logger.getLogger("org.constellation.wmts.core");
+
+    /**
+     * Identify a tile response: the layer, the style, the tile matrix set, the tile matrix,
+     * the tile indices, the extra dimensions values and the output format.
+     */
+    record Key(int layerId, String style, String tileMatrixSet, String tileMatrix, long col, long row, String dimensions, String format) {}
+
+    /**
+     * A tile of the disk tier.
+     */
+    private record DiskTile(Path file, int length, long[] indices, String mimeType, GridGeometry gridGeometry) {}
+
+    private final long maxSize;
+
+    private final LinkedHashMap<Key, EncodedTile> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    /**
+     * Directory of the disk tier, or {@code null} if disabled.
+     */
+    private final Path directory;
+
+    private final long maxDiskSize;
+
+    private final LinkedHashMap<Key, DiskTile> diskTiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long diskSize;
+
+    /**
+     * Used to name the files of the disk tier.
+     */
+    private long fileCount;
+
+    /**
+     * Incremented on each invalidation.
+     */
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize Maximum total size of the encoded tiles in memory, in bytes. {@code 0} disable the cache.
+     */
+    TileCache(final long maxSize) {
+        this(maxSize, null, 0);
+    }
+
+    /**
+     * @param maxSize Maximum total size of the encoded tiles in memory, in bytes. {@code 0} disable the cache.
+     * @param directory Directory of the disk tier, or {@code null} to disable it. Its content is owned by this cache.
+     * @param maxDiskSize Maximum total size of the files of the disk tier, in bytes. {@code 0} disable the disk tier.
+     */
+    TileCache(final long maxSize, final Path directory, final long maxDiskSize) {
+        this.maxSize     = maxSize;
+        this.directory   = maxSize > 0 && maxDiskSize > 0 ? directory : null;
+        this.maxDiskSize = maxDiskSize;
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    boolean isDiskEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Return the current version of the cache, to be read before resolving a tile.
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Return the cached tile, or {@code null} if not in cache.
+     */
+    EncodedTile get(final Key key) {
+        final DiskTile onDisk;
+        final long loadVersion;
+        synchronized (this) {
+            final EncodedTile tile = tiles.get(key);
+            if (tile != null) {
+                hits.incrementAndGet();
+                return tile;
+            }
+            onDisk = diskTiles.remove(key);
+            if (onDisk == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            diskSize -= onDisk.length();
+            loadVersion = version;
+        }
+        // the file is no longer referenced, it is read then moved back in memory.
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(onDisk.file());
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Unable to read the cached tile file " + onDisk.file(), ex);
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            delete(List.of(onDisk.file()));
+        }
+        hits.incrementAndGet();
+        final EncodedTile tile = new EncodedTile(onDisk.indices(), bytes, onDisk.mimeType(), onDisk.gridGeometry());
+        put(key, tile, loadVersion);
+        return tile;
+    }
+
+    void put(final Key key, final EncodedTile tile, final long loadVersion) {
+        final List<Map.Entry<Key, EncodedTile>> evicted = new ArrayList<>();
+        final long evictionVersion;
+        synchronized (this) {
+            final int length = tile.getBytes().length;
+            if (!isEnabled() || loadVersion != version || length > maxSize) {
+                return;
+            }
+            final EncodedTile previous = tiles.put(key, tile);
+            if (previous != null) {
+                size -= previous.getBytes().length;
+            }
+            size += length;
+            final Iterator<Map.Entry<Key, EncodedTile>> it = tiles.entrySet().iterator();
+            while (size > maxSize && it.hasNext()) {
+                final Map.Entry<Key, EncodedTile> entry = it.next();
+                size -= entry.getValue().getBytes().length;
+                it.remove();
+                if (directory != null) {
+                    evicted.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+            evictionVersion = version;
+        }
+        for (Map.Entry<Key, EncodedTile> entry : evicted) {
+            spill(entry.getKey(), entry.getValue(), evictionVersion);
+        }
+    }
+
+    /**
+     * Move a tile evicted from memory to the disk tier.
+     * The file is written outside of the lock, and discarded if the cache has been invalidated in the meantime.
+     */
+    private void spill(final Key key, final EncodedTile tile, final long evictionVersion) {
+        final int length = tile.getBytes().length;
+        if (length > maxDiskSize) {
+            return;
+        }
+        final Path file;
+        synchronized (this) {
+            file = directory.resolve((fileCount++) + ".tile");
+        }
+        try {
+            Files.write(file, tile.getBytes());
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Unable to write the cached tile file " + file, ex);
+            delete(List.of(file));
+            return;
+        }
+        final List<Path> discarded = new ArrayList<>();
+        synchronized (this) {
+            if (evictionVersion != version || tiles.containsKey(key)) {
+                discarded.add(file);
+            } else {
+                final DiskTile previous = diskTiles.put(key, new DiskTile(file, length, tile.getIndices(), tile.getMimeType(), tile.getGridGeometry()));
+                if (previous != null) {
+                    diskSize -= previous.length();
+                    discarded.add(previous.file());
+                }
+                diskSize += length;
+                final Iterator<DiskTile> it = diskTiles.values().iterator();
+                while (diskSize > maxDiskSize && it.hasNext()) {
+                    final DiskTile old = it.next();
+                    diskSize -= old.length();
+                    discarded.add(old.file());
+                    it.remove();
+                }
+            }
+        }
+        delete(discarded);
+    }
+
+    /**
+     * Remove all the tiles of a layer.
+     */
+    void invalidate(final int layerId) {
+        final List<Path> discarded = new ArrayList<>();
+        synchronized (this) {
+            version++;
+            final Iterator<Map.Entry<Key, EncodedTile>> it = tiles.entrySet().iterator();
+            while (it.hasNext()) {
+                final Map.Entry<Key, EncodedTile> entry = it.next();
+                if (entry.getKey().layerId() == layerId) {
+                    size -= entry.getValue().getBytes().length;
+                    it.remove();
+                }
+            }
+            final Iterator<Map.Entry<Key, DiskTile>> dit = diskTiles.entrySet().iterator();
+            while (dit.hasNext()) {
+                final Map.Entry<Key, DiskTile> entry = dit.next();
+                if (entry.getKey().layerId() == layerId) {
+                    diskSize -= entry.getValue().length();
+                    discarded.add(entry.getValue().file());
+                    dit.remove();
+                }
+            }
+        }
+        delete(discarded);
+    }
+
+    void clear() {
+        final List<Path> discarded = new ArrayList<>();
+        synchronized (this) {
+            version++;
+            tiles.clear();
+            size = 0;
+            for (DiskTile tile : diskTiles.values()) {
+                discarded.add(tile.file());
+            }
+            diskTiles.clear();
+            diskSize = 0;
+        }
+        delete(discarded);
+    }
+
+    /**
+     * Clear the cache and remove the directory of the disk tier.
+     */
+    void close() {
+        clear();
+        if (directory != null) {
+            delete(List.of(directory));
+        }
+    }
+
+    private static void delete(final List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, "Unable to delete the cached tile file " + file, ex);
+            }
+        }
+    }
+
+    /**
+     * Return the number of requests served from the cache.
+     */
+    long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Return the number of requests not found in the cache.
+     */
+    long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Return the total size of the cached tiles in memory, in bytes.
+     */
+    synchronized long getSize() {
+        return size;
+    }
+
+    synchronized int getCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Return the total size of the cached tiles on disk, in bytes.
+     */
+    synchronized long getDiskSize() {
+        return diskSize;
+    }
+
+    synchronized int getDiskCount() {
+        return diskTiles.size();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.wmts.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.Resource;
+import org.apache.sis.storage.event.StoreEvent;
+import org.apache.sis.storage.event.StoreListener;
+import org.apache.sis.storage.tiling.TileMatrix;
+import org.apache.sis.storage.tiling.TileMatrixSet;
+import org.geotoolkit.storage.multires.TiledResource;
+
+/**
+ * Lookup table of the tile matrix sets and tile matrices of a {@link TiledResource},
+ * or of the tile matrix sets in which a non-tiled resource is rendered, by their string identifiers.
+ *
+ * It avoid to iterate over all the pyramids and levels of a layer for each GetTile request.
+ * The index must be discarded when the underlying resource is modified: the {@linkplain #listen listener}
+ * registered on the resource is notified of its events, and must be removed by {@link #dispose()}.
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+final class TileMatrixIndex {
+
+    private final Map<String, TileMatrixSet> tileMatrixSets;
+
+    /**
+     * Position of the tile matrix sets in the resource.
+     */
+    private final Map<String, Integer> positions;
+
+    private final Map<String, Map<String, TileMatrix>> tileMatrices;
+
+    private final Resource resource;
+
+    private StoreListener<StoreEvent> listener;
+
+    TileMatrixIndex(final TiledResource resource) throws DataStoreException {
+        this(resource, resource.getTileMatrixSets());
+    }
+
+    /**
+     * @param resource The resource listened for changes.
+     * @param tileMatrixSets The tile matrix sets in which the resource is served.
+     */
+    TileMatrixIndex(final Resource resource, final Collection<? extends TileMatrixSet> tileMatrixSets) {
+        this.resource = resource;
+        final Map<String, TileMatrixSet> sets = new HashMap<>();
+        final Map<String, Integer> pos = new HashMap<>();
+        final Map<String, Map<String, TileMatrix>> matrices = new HashMap<>();
+        for (TileMatrixSet tms : tileMatrixSets) {
+            final String tmsId = tms.getIdentifier().toString();
+            // for duplicated identifiers, keep the first one in the resource order.
+            if (sets.putIfAbsent(tmsId, tms) == null) {
+                pos.put(tmsId, pos.size());
+                final Map<String, TileMatrix> levels = new HashMap<>();
+                for (TileMatrix tm : tms.getTileMatrices().values()) {
+                    levels.putIfAbsent(tm.getIdentifier().toString(), tm);
+                }
+                matrices.put(tmsId, Collections.unmodifiableMap(levels));
+            }
+        }
+        this.tileMatrixSets = Collections.unmodifiableMap(sets);
+        this.positions      = Collections.unmodifiableMap(pos);
+        this.tileMatrices   = Collections.unmodifiableMap(matrices);
+    }
+
+    /**
+     * Register an action executed on any event of the indexed resource, typically to discard this index.
+     */
+    synchronized void listen(final Runnable onChange) {
+        dispose();
+        listener = new StoreListener<StoreEvent>() {
+            @Override
+            public void eventOccured(StoreEvent event) {
+                onChange.run();
+            }
+        };
+        resource.addListener(StoreEvent.class, listener);
+    }
+
+    /**
+     * Remove the listener registered on the indexed resource, if any.
+     */
+    synchronized void dispose() {
+        if (listener != null) {
+            resource.removeListener(StoreEvent.class, listener);
+            listener = null;
+        }
+    }
+
+    /**
+     * Return the tile matrix set matching one of the specified identifiers.
+     * If many match, the first one in the resource order is returned,
+     * whatever the iteration order of the candidates.
+     *
+     * @param tmsIds Candidates tile matrix set identifiers.
+     * @return A tile matrix set or {@code null}.
+     */
+    TileMatrixSet getTileMatrixSet(final Collection<String> tmsIds) {
+        String first = null;
+        for (String tmsId : tmsIds) {
+            final Integer p = positions.get(tmsId);
+            if (p != null && (first == null || p < positions.get(first))) {
+                first = tmsId;
+            }
+        }
+        return first != null ? tileMatrixSets.get(first) : null;
+    }
+
+    /**
+     * Return the tile matrix for the specified tile matrix set and level identifiers.
+     *
+     * @param tms A tile matrix set of this index.
+     * @param level Tile matrix identifier.
+     * @return A tile matrix or {@code null}.
+     */
+    TileMatrix getTileMatrix(final TileMatrixSet tms, final String level) {
+        final Map<String, TileMatrix> levels = tileMatrices.get(tms.getIdentifier().toString());
+        if (levels != null) {
+            return levels.get(level);
+        }
+        return null;
+    }
+}
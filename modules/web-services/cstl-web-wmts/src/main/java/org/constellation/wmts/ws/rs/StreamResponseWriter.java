@@ -37,6 +37,7 @@ import org.apache.sis.storage.GridCoverageResource;
 import org.apache.sis.storage.Resource;
 import org.apache.sis.storage.tiling.Tile;
 import org.apache.sis.storage.tiling.TileStatus;
+import org.constellation.wmts.core.EncodedTile;
 import org.geotoolkit.storage.coverage.DefaultImageTile;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -101,6 +102,8 @@ public class StreamResponseWriter implements HttpMessageConverter<Tile>  {
     private RenderedImage read(Tile t) throws IOException, DataStoreException {
         if (t instanceof DefaultImageTile it) {
             return it.getImage();
+        } else if (t instanceof EncodedTile et) {
+            return et.getImage();
         }
 
         final Resource resource = t.getResource();
@@ -114,7 +117,10 @@ public class StreamResponseWriter implements HttpMessageConverter<Tile>  {
 
     private boolean writeIfMediaTypeMatchResource(Tile t, MediaType mt, HttpOutputMessage hom) throws IOException, DataStoreException {
         // TODO: find a more consistent way to define if tile can provide a file of the requested media-type
-        if (t instanceof DefaultImageTile it && isCompatible(mt, it.getImageReaderSpi())) {
+        if (t instanceof EncodedTile et && mt.isCompatibleWith(MediaType.valueOf(et.getMimeType()))) {
+            hom.getBody().write(et.getBytes());
+            return true;
+        } else if (t instanceof DefaultImageTile it && isCompatible(mt, it.getImageReaderSpi())) {
             final Object input = it.getInput();
             if (input instanceof byte[] bytes) {
                 hom.getBody().write(bytes);
@@ -0,0 +1,125 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.constellation.wmts.core;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class TileCacheTest {
+
+    private static TileCache.Key key(int layerId, long col) {
+        return new TileCache.Key(layerId, null, "tms", "0", col, 0, "", "image/png");
+    }
+
+    private static EncodedTile tile(int size) {
+        return new EncodedTile(new long[]{0, 0}, new byte[size], "image/png");
+    }
+
+    @Test
+    public void evictionTest() {
+        final TileCache cache = new TileCache(100);
+        cache.put(key(1, 0), tile(40), cache.version());
+        cache.put(key(1, 1), tile(40), cache.version());
+        // access the first tile, so the second one become the least recently used.
+        assertNotNull(cache.get(key(1, 0)));
+        cache.put(key(1, 2), tile(40), cache.version());
+
+        assertEquals(2, cache.getCount());
+        assertEquals(80, cache.getSize());
+        assertNotNull(cache.get(key(1, 0)));
+        assertNull(cache.get(key(1, 1)));
+        assertNotNull(cache.get(key(1, 2)));
+
+        // larger than the cache
+        cache.put(key(1, 3), tile(101), cache.version());
+        assertNull(cache.get(key(1, 3)));
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void invalidationTest() {
+        final TileCache cache = new TileCache(1000);
+        cache.put(key(1, 0), tile(10), cache.version());
+        cache.put(key(2, 0), tile(10), cache.version());
+
+        final long version = cache.version();
+        cache.invalidate(1);
+        assertNull(cache.get(key(1, 0)));
+        assertNotNull(cache.get(key(2, 0)));
+        assertEquals(10, cache.getSize());
+
+        // a tile resolved before the invalidation is not cached.
+        cache.put(key(1, 0), tile(10), version);
+        assertNull(cache.get(key(1, 0)));
+
+        cache.clear();
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void disabledTest() {
+        final TileCache cache = new TileCache(0);
+        cache.put(key(1, 0), tile(10), cache.version());
+        assertNull(cache.get(key(1, 0)));
+    }
+
+    @Test
+    public void diskTierTest() throws Exception {
+        final Path directory = Files.createTempDirectory("tile-cache-test");
+        final TileCache cache = new TileCache(100, directory, 100);
+        cache.put(key(1, 0), tile(40), cache.version());
+        cache.put(key(1, 1), tile(40), cache.version());
+        cache.put(key(1, 2), tile(40), cache.version());
+
+        // the first tile is moved to disk.
+        assertEquals(2, cache.getCount());
+        assertEquals(1, cache.getDiskCount());
+        assertEquals(40, cache.getDiskSize());
+
+        // then read back in memory, moving the least recently used one to disk.
+        final EncodedTile tile = cache.get(key(1, 0));
+        assertNotNull(tile);
+        assertEquals(40, tile.getBytes().length);
+        assertEquals(2, cache.getCount());
+        assertEquals(1, cache.getDiskCount());
+        assertNotNull(cache.get(key(1, 1)));
+
+        cache.invalidate(1);
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getDiskCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+
+        cache.close();
+        assertFalse(Files.exists(directory));
+    }
+}
@@ -30,6 +30,7 @@ import org.constellation.dto.service.config.wps.ProcessFactory;
 import org.constellation.dto.process.Registry;
 import org.constellation.dto.service.config.wps.Process;
 import org.constellation.dto.process.RegistryList;
+import com.examind.wps.util.SimpleJobExecutor;
 import com.examind.wps.util.WPSUtils;
 import com.examind.wps.util.WPSConfigurationUtils;
 import org.geotoolkit.process.ProcessDescriptor;
@@ -67,6 +68,19 @@ public class WPSRestAPI {
     @Autowired
     private IServiceBusiness serviceBusiness;
 
+    @Autowired
+    private SimpleJobExecutor jobExecutor;
+
+    /**
+     * Returns the state of the WPS job executor: limits, running and queued jobs, average queue and run times.
+     *
+     * @return A map of statistics.
+     */
+    @RequestMapping(value="/processes/executor/statistics",method=GET,produces=APPLICATION_JSON_VALUE)
+    public ResponseEntity getExecutorStatistics() {
+        return new ResponseEntity(jobExecutor.getStatistics(), OK);
+    }
+
     /**
      * Returns the list of all supported processes for WPS service.
      * @return {code List} of pojo
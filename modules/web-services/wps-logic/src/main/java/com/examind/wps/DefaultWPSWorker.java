@@ -27,6 +27,7 @@ import com.examind.wps.api.WPSProcess;
 import com.examind.wps.api.WPSWorker;
 import com.examind.wps.component.GeotkProcess;
 import com.examind.wps.util.SimpleJobExecutor;
+import com.examind.wps.util.SimpleJobExecutor.Priority;
 import static com.examind.wps.util.WPSConstants.*;
 import com.examind.wps.util.WPSUtils;
 import com.examind.wps.util.WPSConfigurationUtils;
@@ -52,7 +53,9 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
@@ -79,6 +82,7 @@ import org.geotoolkit.ows.xml.ExceptionResponse;
 import static org.geotoolkit.ows.xml.OWSExceptionCode.INVALID_PARAMETER_VALUE;
 import static org.geotoolkit.ows.xml.OWSExceptionCode.MISSING_PARAMETER_VALUE;
 import static org.geotoolkit.ows.xml.OWSExceptionCode.NO_APPLICABLE_CODE;
+import static org.geotoolkit.ows.xml.OWSExceptionCode.SERVER_BUSY;
 import static org.geotoolkit.ows.xml.OWSExceptionCode.STORAGE_NOT_SUPPORTED;
 import static org.geotoolkit.ows.xml.OWSExceptionCode.VERSION_NEGOTIATION_FAILED;
 import org.geotoolkit.ows.xml.RequestBase;
@@ -814,23 +818,19 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
                 }
 
                 //run process in asynchronous
-                new Thread(new Runnable() {
-                    @Override
-                    public void run() {
-                        try {
-                            // Prepare and launch process in a separate thread.
-                            jobExecutor.submit(process);
-                        } catch (Exception e) {
-                            // If we've got an exception, input parsing must have failed.
-                            XMLGregorianCalendar creationTime = WPSUtils.getCurrentXMLGregorianCalendar();
-                            ExceptionResponse exceptionReport = new ExceptionReport(Exceptions.formatStackTrace(e), null, null, ServiceDef.WPS_1_0_0.exceptionVersion.toString());
-
-                            StatusInfo status = new StatusInfo(Status.FAILED, creationTime, exceptionReport.toString(), jobId);
-                            WPSUtils.storeResponse(status, productFolderPath, jobId);
-                            execInfo.setStatus(jobId, status);
-                        }
+                submitJob(() -> {
+                    try {
+                        process.call();
+                    } catch (Exception e) {
+                        // If we've got an exception, input parsing must have failed.
+                        XMLGregorianCalendar creationTime1 = WPSUtils.getCurrentXMLGregorianCalendar();
+                        ExceptionResponse exceptionReport = new ExceptionReport(Exceptions.formatStackTrace(e), null, null, ServiceDef.WPS_1_0_0.exceptionVersion.toString());
+
+                        StatusInfo status = new StatusInfo(Status.FAILED, creationTime1, exceptionReport.toString(), jobId);
+                        WPSUtils.storeResponse(status, productFolderPath, jobId);
+                        execInfo.setStatus(jobId, status);
                     }
-                }).start();
+                }, Priority.ASYNC, processDesc);
 
                 return new StatusInfo(Status.ACCEPTED, creationTime, "Process " + request.getIdentifier().getValue() + " accepted.", jobId);
 
@@ -839,7 +839,7 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
             ////////
             } else {
                 ParameterValueGroup result;
-                final Future<ParameterValueGroup> future = jobExecutor.submit(process);
+                final Future<ParameterValueGroup> future = submitJob(process, Priority.SYNC, processDesc);
                 try {
                     result = future.get();
 
@@ -908,7 +908,7 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
                 }
 
                 //run process in asynchronous
-                jobExecutor.submit(() -> {
+                submitJob(() -> {
                     try {
                         // Prepare and launch process in a separate thread.
                         process.call();
@@ -921,7 +921,7 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
                         final Result response1 = new Result(WPS_SERVICE, version, lang.toLanguageTag(), serviceInstance, procSum, inputsResponse, outputsResponse, null, status1, jobId);
                         WPSUtils.storeResponse(response1, productFolderPath, jobId);
                     }
-                });
+                }, Priority.ASYNC, processDesc);
 
                 StatusInfo status = new StatusInfo(Status.ACCEPTED, creationTime, "Process " + request.getIdentifier().getValue() + " accepted.", jobId);
                 final Result response = new Result(WPS_SERVICE, version, lang.toLanguageTag(), serviceInstance, procSum, inputsResponse, outputsResponse, null, status, jobId);
@@ -942,7 +942,7 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
             ////////////////////////
             } else {
 
-                final Future<ParameterValueGroup> future = jobExecutor.submit(process);
+                final Future<ParameterValueGroup> future = submitJob(process, Priority.SYNC, processDesc);
 
                 ParameterValueGroup result = null;
                 ExceptionResponse report = null;
@@ -1004,6 +1004,27 @@ public class DefaultWPSWorker extends AbstractWorker<ProcessContext> implements
         }
     }
 
+    /**
+     * Queue a process execution in the job executor.
+     *
+     * @param job The process execution.
+     * @param priority {@link Priority#SYNC} if the client is waiting for the result.
+     * @param processDesc The executed process, used to limit the concurrent executions of a same process.
+     * @return A future of the execution result.
+     * @throws CstlServiceException If the executor queue is full.
+     */
+    private <T> Future<T> submitJob(final Callable<T> job, final Priority priority, final WPSProcess processDesc) throws CstlServiceException {
+        try {
+            return jobExecutor.submit(job, priority, processDesc.getIdentifier().getValue(), SecurityManagerHolder.getInstance().getCurrentUserLogin());
+        } catch (RejectedExecutionException ex) {
+            throw new CstlServiceException("The server is too busy to accept the execution. Please retry later.", ex, SERVER_BUSY);
+        }
+    }
+
+    private Future<?> submitJob(final Runnable job, final Priority priority, final WPSProcess processDesc) throws CstlServiceException {
+        return submitJob(Executors.callable(job), priority, processDesc);
+    }
+
     private Map<String, Object> buildParametersMap(final String layerName, final String jobId) {
         final Map<String, Object> parameters = new HashMap<>();
         parameters.put(WPSConvertersUtils.OUT_STORAGE_DIR, productFolderPath);
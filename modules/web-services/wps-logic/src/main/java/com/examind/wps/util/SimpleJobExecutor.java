@@ -1,50 +1,347 @@
 package com.examind.wps.util;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jakarta.annotation.PreDestroy;
+import org.constellation.configuration.AppProperty;
+import org.constellation.configuration.Application;
 import org.springframework.stereotype.Component;
 
 /**
- * TODO: Set number of concurrent execution configurable.
+ * Bounded executor for WPS jobs.
+ *
+ * A fixed number of jobs are executed concurrently. The other ones wait in a queue, where synchronous executions
+ * are served before asynchronous ones. A job is only started if the number of running jobs for the same process
+ * and for the same user are under their limits. When the queue is full, new jobs are rejected.
+ * A part of the queue is reserved to the synchronous executions, so they are not rejected
+ * because of the asynchronous jobs waiting in the queue.
+ *
+ * The limits are configurable through the application properties:
+ * <ul>
+ *     <li>{@link AppProperty#EXA_WPS_MAX_RUNNING_JOBS}</li>
+ *     <li>{@link AppProperty#EXA_WPS_MAX_QUEUED_JOBS}</li>
+ *     <li>{@link AppProperty#EXA_WPS_MAX_RUNNING_JOBS_PER_PROCESS}</li>
+ *     <li>{@link AppProperty#EXA_WPS_MAX_RUNNING_JOBS_PER_USER}</li>
+ * </ul>
  *
  * @author Alexis Manin (Geomatys)
  */
 @Component
 public class SimpleJobExecutor implements AutoCloseable {
 
+    private static final Logger LOGGER = Logger.getLogger("com.examind.wps.util");
+
+    /**
+     * Job priorities, from the highest to the lowest.
+     */
+    public enum Priority {
+        /**
+         * A client is waiting for the result.
+         */
+        SYNC,
+        /**
+         * The result will be stored, and retrieved later by the client.
+         */
+        ASYNC
+    }
+
+    /**
+     * Percentage of the queue reserved to the synchronous executions.
+     */
+    private static final int SYNC_RESERVED_PERCENT = 10;
+
+    private final int maxRunning;
+    private final int maxQueued;
+    private final int maxPerProcess;
+    private final int maxPerUser;
+
+    /**
+     * Maximum number of waiting asynchronous jobs, the remaining queue capacity being reserved to the synchronous ones.
+     */
+    private final int maxQueuedAsync;
+
+    private final Thread[] workers;
+
     /**
-     * Executor thread pool.
+     * Lock protecting the queue, the running job counters and the statistics.
      */
-    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+
+    /**
+     * Waiting jobs, ordered by priority, then by submission order.
+     */
+    private final TreeSet<Job<?>> queue = new TreeSet<>();
+    private final Map<String, Integer> runningByProcess = new HashMap<>();
+    private final Map<String, Integer> runningByUser = new HashMap<>();
+    private long sequence;
+    private boolean closed;
+
+    private int running;
+    private long submitted;
+    private long rejected;
+    private long completed;
+    private long totalQueueTime;
+    private long totalRunTime;
 
     private SimpleJobExecutor() {
-        // TODO: change executor type according to concurrent job limitation (i.e create a fixedthreadpool, etc.)
-        executor = Executors.newCachedThreadPool(new SimpleThreadFactory());
+        this(Application.getIntegerProperty(AppProperty.EXA_WPS_MAX_RUNNING_JOBS, Runtime.getRuntime().availableProcessors()),
+             Application.getIntegerProperty(AppProperty.EXA_WPS_MAX_QUEUED_JOBS, 100),
+             Application.getIntegerProperty(AppProperty.EXA_WPS_MAX_RUNNING_JOBS_PER_PROCESS, 0),
+             Application.getIntegerProperty(AppProperty.EXA_WPS_MAX_RUNNING_JOBS_PER_USER, 0));
+    }
+
+    /**
+     * @param maxRunning Maximum number of jobs running concurrently.
+     * @param maxQueued Maximum number of waiting jobs, 0 for no limit. Further submissions are rejected.
+     * @param maxPerProcess Maximum number of running jobs for a same process, 0 for no limit.
+     * @param maxPerUser Maximum number of running jobs for a same user, 0 for no limit.
+     */
+    SimpleJobExecutor(final int maxRunning, final int maxQueued, final int maxPerProcess, final int maxPerUser) {
+        this.maxRunning    = Math.max(1, maxRunning);
+        this.maxQueued     = Math.max(0, maxQueued);
+        this.maxQueuedAsync = this.maxQueued - this.maxQueued * SYNC_RESERVED_PERCENT / 100;
+        this.maxPerProcess = maxPerProcess;
+        this.maxPerUser    = maxPerUser;
+        final ThreadFactory factory = new SimpleThreadFactory();
+        workers = new Thread[this.maxRunning];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = factory.newThread(this::work);
+            workers[i].start();
+        }
     }
 
     public <T> Future<T> submit(final Callable<T> job) {
-        return executor.submit(job);
+        return submit(job, Priority.ASYNC, null, null);
     }
 
     public Future<?> submit(final Runnable job) {
-        return executor.submit(job);
+        return submit(job, Priority.ASYNC, null, null);
+    }
+
+    public Future<?> submit(final Runnable job, final Priority priority, final String processId, final String user) {
+        return submit(Executors.callable(job), priority, processId, user);
+    }
+
+    /**
+     * Queue a job for execution.
+     *
+     * @param job The job to execute.
+     * @param priority Job priority.
+     * @param processId Identifier of the executed process, used for the per-process limit. Can be {@code null}.
+     * @param user Login of the user submitting the job, used for the per-user limit. Can be {@code null}.
+     * @return A future of the job result.
+     * @throws RejectedExecutionException If the queue is full (for an asynchronous job, if the part of the queue
+     *         not reserved to the synchronous jobs is full), or if the executor is closed.
+     */
+    public <T> Future<T> submit(final Callable<T> job, final Priority priority, final String processId, final String user) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("WPS job executor is closed.");
+            }
+            if (maxQueued > 0 && (queue.size() >= maxQueued || (priority != Priority.SYNC && queuedAsync() >= maxQueuedAsync))) {
+                rejected++;
+                throw new RejectedExecutionException("Too many WPS jobs waiting for execution (" + queue.size() + ").");
+            }
+            final Job<T> task = new Job<>(job, priority, sequence++, processId, user);
+            queue.add(task);
+            submitted++;
+            stateChanged.signalAll();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock.
+     *
+     * @return The number of asynchronous jobs in the queue.
+     */
+    private int queuedAsync() {
+        int count = 0;
+        for (Job<?> job : queue) {
+            if (job.priority != Priority.SYNC) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return Current state of the executor: limits, number of running and waiting jobs,
+     * and average waiting and running times of the completed jobs (in milliseconds).
+     */
+    public Map<String, Object> getStatistics() {
+        lock.lock();
+        try {
+            final Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("maxRunningJobs", maxRunning);
+            stats.put("maxQueuedJobs", maxQueued);
+            stats.put("maxQueuedAsyncJobs", maxQueuedAsync);
+            stats.put("maxRunningJobsPerProcess", maxPerProcess);
+            stats.put("maxRunningJobsPerUser", maxPerUser);
+            stats.put("runningJobs", running);
+            stats.put("queuedJobs", queue.size());
+            stats.put("submittedJobs", submitted);
+            stats.put("rejectedJobs", rejected);
+            stats.put("completedJobs", completed);
+            stats.put("averageQueueTime", completed == 0 ? 0 : totalQueueTime / completed);
+            stats.put("averageRunTime", completed == 0 ? 0 : totalRunTime / completed);
+            stats.put("runningJobsByProcess", new HashMap<>(runningByProcess));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Worker threads loop: take the first job allowed to run, execute it, and start again.
+     */
+    private void work() {
+        while (true) {
+            final Job<?> job;
+            lock.lock();
+            try {
+                Job<?> next;
+                while ((next = nextEligible()) == null) {
+                    if (closed) return;
+                    stateChanged.await();
+                }
+                queue.remove(next);
+                running++;
+                increment(runningByProcess, next.processId, 1);
+                increment(runningByUser, next.user, 1);
+                job = next;
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            final long start = System.currentTimeMillis();
+            try {
+                job.run();
+            } catch (Throwable ex) {
+                LOGGER.log(Level.WARNING, "Unexpected error in WPS job execution", ex);
+            } finally {
+                final long end = System.currentTimeMillis();
+                lock.lock();
+                try {
+                    running--;
+                    increment(runningByProcess, job.processId, -1);
+                    increment(runningByUser, job.user, -1);
+                    completed++;
+                    totalQueueTime += start - job.submitTime;
+                    totalRunTime   += end - start;
+                    stateChanged.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the lock.
+     *
+     * @return The first queued job which is not blocked by the process or user limits, or {@code null}.
+     */
+    private Job<?> nextEligible() {
+        for (Job<?> job : queue) {
+            if (underLimit(runningByProcess, job.processId, maxPerProcess)
+                    && underLimit(runningByUser, job.user, maxPerUser)) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private static boolean underLimit(final Map<String, Integer> counters, final String key, final int limit) {
+        return key == null || limit <= 0 || counters.getOrDefault(key, 0) < limit;
+    }
+
+    private static void increment(final Map<String, Integer> counters, final String key, final int delta) {
+        if (key != null) {
+            counters.merge(key, delta, (a, b) -> (a + b == 0) ? null : a + b);
+        }
     }
 
     @PreDestroy
     @Override
     public void close() throws Exception {
+        lock.lock();
         try {
-            executor.shutdown();
-            executor.awaitTermination(2, TimeUnit.SECONDS);
+            closed = true;
+            for (Job<?> job : new ArrayList<>(queue)) {
+                job.cancel(false);
+            }
+            queue.clear();
+            stateChanged.signalAll();
         } finally {
-            // in case there's tasks which didn't finished in specified timeout.
-            executor.shutdownNow();
+            lock.unlock();
+        }
+        final long deadline = System.currentTimeMillis() + 2000;
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        // in case there's tasks which didn't finished in specified timeout.
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * A queued job, ordered by priority, then by submission order.
+     */
+    private final class Job<T> extends FutureTask<T> implements Comparable<Job<?>> {
+
+        private final Priority priority;
+        private final long order;
+        private final String processId;
+        private final String user;
+        private final long submitTime = System.currentTimeMillis();
+
+        private Job(final Callable<T> callable, final Priority priority, final long order, final String processId, final String user) {
+            super(callable);
+            this.priority  = priority != null ? priority : Priority.ASYNC;
+            this.order     = order;
+            this.processId = processId;
+            this.user      = user;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                // free the queue slot if the job did not start yet.
+                lock.lock();
+                try {
+                    queue.remove(this);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return cancelled;
+        }
+
+        @Override
+        public int compareTo(final Job<?> other) {
+            final int c = priority.compareTo(other.priority);
+            return (c != 0) ? c : Long.compare(order, other.order);
         }
     }
 
@@ -0,0 +1,162 @@
+/*
+ *    Examind - An open source and standard compliant SDI
+ *    https://community.examind.com/
+ *
+ * Copyright 2023 Geomatys.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.examind.wps.util;
+
+import com.examind.wps.util.SimpleJobExecutor.Priority;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Guilhem Legal (Geomatys)
+ */
+public class SimpleJobExecutorTest {
+
+    @Test
+    public void testPriorityAndRejection() throws Exception {
+        final SimpleJobExecutor executor = new SimpleJobExecutor(1, 2, 0, 0);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<?> blocking = executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            }, Priority.ASYNC, "p1", "user");
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            final List<String> order = new CopyOnWriteArrayList<>();
+            final Future<?> async = executor.submit(() -> order.add("async"), Priority.ASYNC, "p1", "user");
+            final Future<?> sync  = executor.submit(() -> order.add("sync"),  Priority.SYNC,  "p1", "user");
+
+            try {
+                executor.submit(() -> order.add("rejected"), Priority.SYNC, "p1", "user");
+                Assert.fail("The queue is full, the job should have been rejected");
+            } catch (RejectedExecutionException ex) {
+                // expected
+            }
+
+            release.countDown();
+            blocking.get(10, TimeUnit.SECONDS);
+            async.get(10, TimeUnit.SECONDS);
+            sync.get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(List.of("sync", "async"), order);
+            Assert.assertEquals(1L, executor.getStatistics().get("rejectedJobs"));
+            Assert.assertEquals(3L, executor.getStatistics().get("completedJobs"));
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testProcessLimit() throws Exception {
+        final SimpleJobExecutor executor = new SimpleJobExecutor(2, 10, 1, 0);
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<?> first = executor.submit(() -> {
+                release.await();
+                return null;
+            }, Priority.ASYNC, "p1", null);
+            final Future<?> second = executor.submit(() -> null, Priority.ASYNC, "p1", null);
+            final Future<?> other  = executor.submit(() -> null, Priority.ASYNC, "p2", null);
+
+            // the second worker is available for another process, but not for p1.
+            other.get(10, TimeUnit.SECONDS);
+            Assert.assertFalse(second.isDone());
+            Assert.assertEquals(1, executor.getStatistics().get("queuedJobs"));
+
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.close();
+        }
+    }
+
+    /**
+     * Part of the queue is reserved to the synchronous jobs.
+     */
+    @Test
+    public void testSyncReservation() throws Exception {
+        final SimpleJobExecutor executor = new SimpleJobExecutor(1, 10, 0, 0);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            }, Priority.ASYNC, "p1", "user");
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 9; i++) {
+                executor.submit(() -> null, Priority.ASYNC, "p1", "user");
+            }
+            try {
+                executor.submit(() -> null, Priority.ASYNC, "p1", "user");
+                Assert.fail("The asynchronous part of the queue is full, the job should have been rejected");
+            } catch (RejectedExecutionException ex) {
+                // expected
+            }
+            final Future<?> sync = executor.submit(() -> null, Priority.SYNC, "p1", "user");
+            try {
+                executor.submit(() -> null, Priority.SYNC, "p1", "user");
+                Assert.fail("The queue is full, the job should have been rejected");
+            } catch (RejectedExecutionException ex) {
+                // expected
+            }
+
+            release.countDown();
+            sync.get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(2L, executor.getStatistics().get("rejectedJobs"));
+        } finally {
+            executor.close();
+        }
+    }
+
+    /**
+     * A queue size of 0 means no limit.
+     */
+    @Test
+    public void testUnboundedQueue() throws Exception {
+        final SimpleJobExecutor executor = new SimpleJobExecutor(1, 0, 0, 0);
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.submit(() -> {
+                release.await();
+                return null;
+            }, Priority.ASYNC, null, null);
+            final CountDownLatch done = new CountDownLatch(500);
+            for (int i = 0; i < 500; i++) {
+                executor.submit(done::countDown, Priority.ASYNC, null, null);
+            }
+            release.countDown();
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(0L, executor.getStatistics().get("rejectedJobs"));
+        } finally {
+            executor.close();
+        }
+    }
+}